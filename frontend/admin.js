@@ -11,6 +11,7 @@ import {
     clearCurrentUser,
     renderStatusBadge,
     confirmAction,
+    subscribeMessages,
 } from "./common.js";
 
 const admin = requireAuth("ADMIN");
@@ -36,11 +37,14 @@ navLinks.forEach((link) => {
 });
 
 let orders = [];
-let tasks = [];
+let ordersNextCursor = null;
+let taskBoard = null;
 let payments = [];
 let users = [];
 let selectedMessageUser = null;
-let messageInterval = null;
+let conversation = [];
+let inbox = new Map();
+let unsubscribeMessages = null;
 
 const orderModal = document.getElementById("order-modal");
 const taskModal = document.getElementById("task-modal");
@@ -110,6 +114,16 @@ document.getElementById("open-task-modal")?.addEventListener("click", () => {
     openModal(taskModal);
 });
 
+document.getElementById("rebalance-tasks")?.addEventListener("click", async () => {
+    try {
+        const result = await post("/tasks/rebalance");
+        toastSuccess(`Rebalanced ${result.moved} pending task${result.moved === 1 ? "" : "s"}`);
+        await loadTasks();
+    } catch (error) {
+        toastError(error.message);
+    }
+});
+
 document.getElementById("close-task-modal")?.addEventListener("click", () => closeModal(taskModal));
 
 taskModal?.addEventListener("click", (event) => {
@@ -274,7 +288,9 @@ async function populateCustomerOptions() {
 
 async function loadOrders() {
     try {
-        orders = await get("/orders");
+        const page = await get(`/orders?${orderParams()}`);
+        orders = page.items;
+        ordersNextCursor = page.nextCursor;
         renderOrders();
         updateKpis();
     } catch (error) {
@@ -282,6 +298,15 @@ async function loadOrders() {
     }
 }
 
+function orderParams(cursor) {
+    const params = new URLSearchParams({ limit: "50" });
+    if (filterService?.value) params.set("serviceType", filterService.value);
+    if (filterStatus?.value) params.set("status", filterStatus.value);
+    if (filterCustomer?.value) params.set("customerId", filterCustomer.value);
+    if (cursor) params.set("cursor", cursor);
+    return params;
+}
+
 function renderOrders() {
     const filtered = orders.filter((order) => {
         const serviceMatches = !filterService.value || order.serviceType === filterService.value;
@@ -292,10 +317,12 @@ function renderOrders() {
 
     if (ordersBody) {
         ordersBody.innerHTML = filtered.map((order) => {
-            const statusSelect = `<select data-order-id="${order.id}" class="status-select">
-        ${["PENDING", "IN_PROGRESS", "READY", "DELIVERED", "CANCELLED"].map((status) =>
-                `<option value="${status}" ${order.status === status ? "selected" : ""}>${status}</option>`).join("")}
-      </select>`;
+            // Only the moves the server allows from the current status; final orders get no control.
+            const nextStatuses = order.nextStatuses || [];
+            const statusControls = nextStatuses.length === 0 ? "" : `<select data-order-id="${order.id}" class="status-select">
+        ${nextStatuses.map((status) => `<option value="${status}">${status}</option>`).join("")}
+      </select>
+            <button data-update="${order.id}" class="btn" style="background:#22c55e;">Update</button>`;
 
             return `<tr>
         <td>#${order.id}</td>
@@ -307,19 +334,33 @@ function renderOrders() {
         <td>
           <div class="table-actions">
             <button data-view="${order.id}" class="btn" style="background:#0ea5e9;">View</button>
-            ${statusSelect}
-            <button data-update="${order.id}" class="btn" style="background:#22c55e;">Update</button>
+            ${statusControls}
             <button data-delete="${order.id}" class="btn" style="background:#ef4444;">Delete</button>
           </div>
         </td>
       </tr>`;
-        }).join("");
+        }).join("") + (ordersNextCursor
+            ? `<tr><td colspan="7"><button data-more-orders="true" style="background:#64748b;">Load more</button></td></tr>`
+            : "");
     }
 }
 
 ordersBody?.addEventListener("click", async (event) => {
     const target = event.target;
     if (!(target instanceof HTMLElement)) return;
+
+    if (target.dataset.moreOrders) {
+        try {
+            const page = await get(`/orders?${orderParams(ordersNextCursor)}`);
+            orders.push(...page.items);
+            ordersNextCursor = page.nextCursor;
+            renderOrders();
+        } catch (error) {
+            toastError(error.message);
+        }
+        return;
+    }
+
     const orderId = target.dataset.view || target.dataset.update || target.dataset.delete;
     if (!orderId) return;
 
@@ -355,13 +396,13 @@ ordersBody?.addEventListener("click", async (event) => {
     }
 });
 
-filterService?.addEventListener("change", renderOrders);
-filterStatus?.addEventListener("change", renderOrders);
-filterCustomer?.addEventListener("change", renderOrders);
+filterService?.addEventListener("change", loadOrders);
+filterStatus?.addEventListener("change", loadOrders);
+filterCustomer?.addEventListener("change", loadOrders);
 
 async function loadTasks() {
     try {
-        tasks = await get("/tasks");
+        taskBoard = await get("/tasks/board?limit=20");
         renderTasks();
         updateKpis();
     } catch (error) {
@@ -371,12 +412,14 @@ async function loadTasks() {
 
 function renderTasks() {
     const statuses = ["PENDING", "IN_PROGRESS", "COMPLETED", "CANCELLED"];
-    if (taskLanes) {
+    if (taskLanes && taskBoard) {
         taskLanes.innerHTML = statuses.map((status) => {
-            const items = tasks.filter((task) => task.status === status);
+            const column = taskBoard.columns[status];
+            const items = column.items;
             return `<div class="lane">
-        <h3>${status.replace(/_/g, ' ')}</h3>
+        <h3>${status.replace(/_/g, ' ')} (${taskBoard.counts[status] ?? 0})</h3>
         ${items.length === 0 ? `<p style="color:var(--muted);">No tasks</p>` : items.map(renderTaskCard).join("")}
+        ${column.hasMore ? `<button data-more-tasks="${status}" style="background:#64748b;">Load more</button>` : ""}
       </div>`;
         }).join("");
     }
@@ -398,6 +441,7 @@ function renderTaskCard(task) {
     return `<div class="task-card">
     <h4>${task.title}</h4>
     <p style="color:var(--muted);">Assigned to: ${task.assignedTo || "Unassigned"}</p>
+    ${task.orderId ? `<p style="color:var(--muted);">Order #${task.orderId} &middot; ${task.stage}</p>` : ""}
     <p style="color:var(--muted);">Due: ${task.dueDate || "-"}</p>
     <p style="margin-top:8px; font-weight:600;">LKR ${Number(task.price).toLocaleString()}</p>
     <div class="message-meta">${task.notes || "No notes"}</div>
@@ -411,6 +455,19 @@ taskLanes?.addEventListener("click", async (event) => {
     const target = event.target;
     if (!(target instanceof HTMLElement)) return;
 
+    if (target.dataset.moreTasks) {
+        const column = taskBoard.columns[target.dataset.moreTasks];
+        try {
+            const page = await get(`/tasks/board/${target.dataset.moreTasks}?limit=20&cursor=${encodeURIComponent(column.nextCursor)}`);
+            column.items.push(...page.items);
+            column.nextCursor = page.nextCursor;
+            column.hasMore = page.hasMore;
+            renderTasks();
+        } catch (error) {
+            toastError(error.message);
+        }
+    }
+
     if (target.dataset.task && target.dataset.target) {
         try {
             await patch(`/tasks/${target.dataset.task}/status?value=${target.dataset.target}`);
@@ -454,7 +511,7 @@ function renderPayments() {
         <td>${renderStatusBadge(payment.status)}</td>
         <td>${payment.paidAt ? new Date(payment.paidAt).toLocaleString() : "-"}</td>
         <td class="table-actions">
-          ${payment.status !== "COMPLETED" ? `<button data-complete-payment="${payment.id}" style="background:#22c55e;">Mark Completed</button>` : ""}
+          ${payment.status === "PENDING" ? `<button data-complete-payment="${payment.id}" style="background:#22c55e;">Mark Completed</button>` : ""}
           <button data-remove-payment="${payment.id}" style="background:#ef4444;">Delete</button>
         </td>
       </tr>`;
@@ -473,6 +530,7 @@ paymentsBody?.addEventListener("click", async (event) => {
             await loadPayments();
         } catch (error) {
             toastError(error.message);
+            await loadPayments();
         }
     }
 
@@ -542,39 +600,82 @@ usersBody?.addEventListener("click", async (event) => {
 
 function updateKpis() {
     if (kpiOrders) {
-        const today = new Date().toISOString().slice(0, 10);
-        const todaysOrders = orders.filter((order) => order.pickupDate === today || order.deliveryDate === today);
-        kpiOrders.textContent = todaysOrders.length.toString();
+        loadOrdersKpi();
     }
     if (kpiTasks) {
-        kpiTasks.textContent = tasks.filter((task) => task.status === "PENDING").length.toString();
+        kpiTasks.textContent = String(taskBoard?.counts?.PENDING ?? 0);
     }
     if (kpiRevenue) {
-        const now = new Date();
-        const lastWeek = new Date(now.getFullYear(), now.getMonth(), now.getDate() - 7);
-        const revenue = payments
-            .filter((payment) => payment.status === "COMPLETED")
-            .filter((payment) => {
-                if (!payment.paidAt) return false;
-                const paidDate = new Date(payment.paidAt);
-                return paidDate >= lastWeek;
-            })
-            .reduce((sum, payment) => sum + Number(payment.amount || 0), 0);
-        kpiRevenue.textContent = Number(revenue).toLocaleString();
+        loadRevenueKpi();
     }
     if (kpiUnpaid) {
         kpiUnpaid.textContent = payments.filter((payment) => payment.status === "PENDING").length.toString();
     }
 }
 
+// Counted from the order stats rollup, so it covers every order placed today and not just the loaded page.
+async function loadOrdersKpi() {
+    try {
+        const today = isoDate(new Date());
+        const stats = await get(`/orders/stats?from=${today}&to=${today}`);
+        kpiOrders.textContent = String(stats.total ?? 0);
+    } catch (error) {
+        toastError(error.message);
+    }
+}
+
+// Summed server-side from the daily revenue rollups rather than from the full payments list.
+async function loadRevenueKpi() {
+    try {
+        const now = new Date();
+        const lastWeek = new Date(now.getFullYear(), now.getMonth(), now.getDate() - 7);
+        const report = await get(`/reports/revenue?granularity=DAY&from=${isoDate(lastWeek)}&to=${isoDate(now)}`);
+        kpiRevenue.textContent = Number(report.totalAmount || 0).toLocaleString();
+    } catch (error) {
+        toastError(error.message);
+    }
+}
+
+function isoDate(date) {
+    const month = String(date.getMonth() + 1).padStart(2, "0");
+    const day = String(date.getDate()).padStart(2, "0");
+    return `${date.getFullYear()}-${month}-${day}`;
+}
+
 function renderMessageUsers() {
     if (!messageUsers) return;
-    const customers = users.filter((user) => user.role === "USER");
-    messageUsers.innerHTML = customers.map((user) => `<li>
+    // Customers with the most recent conversation first, then everyone else.
+    const customers = users.filter((user) => user.role === "USER")
+        .sort((a, b) => (inbox.get(b.id)?.lastMessageId ?? 0) - (inbox.get(a.id)?.lastMessageId ?? 0));
+    messageUsers.innerHTML = customers.map((user) => {
+        const unread = inbox.get(user.id)?.unreadCount ?? 0;
+        return `<li>
     <button class="btn" data-message-user="${user.id}" style="width:100%; justify-content:flex-start; background:${selectedMessageUser === user.id ? '#2563EB' : '#1F3A8A'};">
-      ${user.name}
+      ${user.name}${unread ? ` <span class="badge">${unread}</span>` : ""}
     </button>
-  </li>`).join("");
+  </li>`;
+    }).join("");
+}
+
+async function loadInbox() {
+    try {
+        const entries = await get(`/messages/inbox?userId=${admin.id}`);
+        inbox = new Map(entries.map((entry) => [entry.counterpartId, entry]));
+        renderMessageUsers();
+    } catch (error) {
+        toastError(error.message);
+    }
+}
+
+async function markConversationRead() {
+    if (!selectedMessageUser || !inbox.get(selectedMessageUser)?.unreadCount) return;
+    try {
+        await patch(`/messages/read?userId=${admin.id}&withUserId=${selectedMessageUser}`);
+        inbox.get(selectedMessageUser).unreadCount = 0;
+        renderMessageUsers();
+    } catch (error) {
+        toastError(error.message);
+    }
 }
 
 messageUsers?.addEventListener("click", (event) => {
@@ -584,9 +685,9 @@ messageUsers?.addEventListener("click", (event) => {
     if (!userId) return;
     selectedMessageUser = Number(userId);
     renderMessageUsers();
+    conversation = [];
     loadMessages();
-    if (messageInterval) clearInterval(messageInterval);
-    messageInterval = setInterval(loadMessages, 5000);
+    markConversationRead();
 });
 
 async function loadMessages() {
@@ -595,13 +696,46 @@ async function loadMessages() {
         return;
     }
     try {
-        const conversation = await get(`/messages?withUserId=${selectedMessageUser}&currentUserId=${admin.id}`);
+        const lastId = conversation.length ? conversation[conversation.length - 1].id : null;
+        const url = `/messages?withUserId=${selectedMessageUser}&currentUserId=${admin.id}` +
+            (lastId ? `&afterId=${lastId}` : "");
+        const newer = await get(url);
+        // Deltas overlap the last message and may hold one that committed late; merge by id and re-sort.
+        conversation = lastId
+            ? [...conversation, ...newer.filter((message) => !conversation.some((existing) => existing.id === message.id))]
+                .sort(byTimestamp)
+            : newer;
         renderMessages(conversation);
     } catch (error) {
         toastError(error.message);
     }
 }
 
+function onPushedMessage(message) {
+    const counterpart = message.fromUserId === admin.id ? message.toUserId : message.fromUserId;
+    if (counterpart === selectedMessageUser) {
+        appendMessage(message);
+        if (message.toUserId === admin.id) {
+            patch(`/messages/read?userId=${admin.id}&withUserId=${counterpart}&upToId=${message.id}`).catch(() => {});
+        }
+    } else {
+        loadInbox();
+    }
+}
+
+function byTimestamp(a, b) {
+    return a.timestamp.localeCompare(b.timestamp) || a.id - b.id;
+}
+
+function appendMessage(message) {
+    if (!selectedMessageUser) return;
+    const counterpart = message.fromUserId === admin.id ? message.toUserId : message.fromUserId;
+    if (counterpart !== selectedMessageUser) return;
+    if (conversation.some((existing) => existing.id === message.id)) return;
+    conversation = [...conversation, message];
+    renderMessages(conversation);
+}
+
 function renderMessages(messages) {
     if (!messageList) return;
     if (!messages || messages.length === 0) {
@@ -630,13 +764,13 @@ messageForm?.addEventListener("submit", async (event) => {
         return;
     }
     try {
-        await post("/messages", {
+        const sent = await post("/messages", {
             fromUserId: admin.id,
             toUserId: selectedMessageUser,
             body,
         });
         messageInput.value = "";
-        await loadMessages();
+        appendMessage(sent);
     } catch (error) {
         toastError(error.message);
     }
@@ -662,13 +796,15 @@ async function init() {
     await loadTasks();
     await loadPayments();
     await loadUsers();
+    await loadInbox();
     loadMessages();
+    unsubscribeMessages = subscribeMessages(admin.id, { onMessage: onPushedMessage, resync: loadMessages });
 }
 
 init();
 
 window.addEventListener("beforeunload", () => {
-    if (messageInterval) {
-        clearInterval(messageInterval);
+    if (unsubscribeMessages) {
+        unsubscribeMessages();
     }
 });
\ No newline at end of file
@@ -1,5 +1,6 @@
 import { api, get as apiGet, post as apiPost, put as apiPut, patch as apiPatch, del as apiDelete } from "./js/apiClient.js";
 import { http } from "./js/http.js";
+import { resolveApiBaseUrl } from "./js/config.js";
 
 const toastContainerId = "toast-container";
 const AUTH_STORAGE_KEY = "smartfold_auth";
@@ -110,6 +111,41 @@ export function requireAuth(role) {
     return user;
 }
 
+/* ---------- Message push ---------- */
+// Streams new messages for `userId` over SSE. `resync` runs on every (re)connect so nothing sent
+// while disconnected is missed; while the stream is down it also runs every `fallbackMs` as polling.
+export function subscribeMessages(userId, { onMessage, resync, fallbackMs = 5000 }) {
+    let fallback = null;
+    const startFallback = () => {
+        if (!fallback) fallback = setInterval(resync, fallbackMs);
+    };
+    const stopFallback = () => {
+        if (fallback) clearInterval(fallback);
+        fallback = null;
+    };
+    if (typeof EventSource === "undefined") {
+        startFallback();
+        return stopFallback;
+    }
+    const source = new EventSource(`${resolveApiBaseUrl()}/messages/stream?userId=${encodeURIComponent(userId)}`);
+    source.addEventListener("ready", () => {
+        stopFallback();
+        resync();
+    });
+    source.addEventListener("message", (event) => {
+        try {
+            onMessage(JSON.parse(event.data));
+        } catch {
+            resync();
+        }
+    });
+    source.addEventListener("error", startFallback);
+    return () => {
+        source.close();
+        stopFallback();
+    };
+}
+
 /* ---------- Helpers ---------- */
 export async function loadServiceOptions(selectEl) {
     if (!selectEl) return;
@@ -6,6 +6,7 @@ import {
     toastSuccess,
     clearCurrentUser,
     renderStatusBadge,
+    subscribeMessages,
 } from "./common.js";
 
 const user = requireAuth("USER");
@@ -36,6 +37,7 @@ const orderStatus = document.getElementById("orderStatus");
 const prevPageBtn = document.getElementById("prevPage");
 const nextPageBtn = document.getElementById("nextPage");
 const pageInfo    = document.getElementById("pageInfo");
+const loadMoreBtn = document.getElementById("loadMoreOrders");
 
 /* Support */
 const messageList  = document.getElementById("user-message-list");
@@ -44,9 +46,11 @@ const messageInput = document.getElementById("user-message-input");
 
 /* State */
 let adminUser = null;
-let pollingInterval = null;
+let supportMessages = [];
+let unsubscribeMessages = null;
 
 let ordersAll = [];
+let ordersNextCursor = null;
 let filtered = [];
 let page = 1;
 const pageSize = 5;
@@ -154,8 +158,9 @@ async function mountPlaceOrderUI() {
    ================= */
 async function fetchOrders() {
     try {
-        const data = await get(`/orders?userId=${user.id}`);
-        ordersAll = Array.isArray(data) ? data : [];
+        const data = await get(`/orders?userId=${user.id}&limit=50`);
+        ordersAll = Array.isArray(data?.items) ? data.items : [];
+        ordersNextCursor = data?.nextCursor ?? null;
     } catch (err) {
         // Demo-friendly fallback
         console.warn("Orders API failed, using fallback:", err?.message);
@@ -166,6 +171,19 @@ async function fetchOrders() {
             { id: 8, serviceType: "Stain Removal", quantity: "1 Items", price: 1649, status: "DELIVERED", pickupDate: "2025-10-23", deliveryDate: "2025-10-27" },
             { id:10, serviceType: "Stain Removal", quantity: "5 Kg", price: 1997, status: "CANCELLED", pickupDate: "2025-10-25", deliveryDate: "2025-10-25" },
         ];
+        ordersNextCursor = null;
+    }
+}
+
+async function loadMoreOrders() {
+    if (!ordersNextCursor) return;
+    try {
+        const data = await get(`/orders?userId=${user.id}&limit=50&cursor=${encodeURIComponent(ordersNextCursor)}`);
+        ordersAll.push(...(data?.items || []));
+        ordersNextCursor = data?.nextCursor ?? null;
+        applyFilters();
+    } catch (err) {
+        toastError(err.message);
     }
 }
 
@@ -185,7 +203,6 @@ function applyFilters() {
 
     renderOrders();
     renderPagination();
-    computeKPIs();
 }
 
 function renderOrders() {
@@ -228,6 +245,7 @@ function renderPagination() {
     const totalPages = Math.max(1, Math.ceil(filtered.length / pageSize));
     prevPageBtn.disabled = page <= 1;
     nextPageBtn.disabled = page >= totalPages;
+    if (loadMoreBtn) loadMoreBtn.hidden = !ordersNextCursor;
 }
 
 prevPageBtn?.addEventListener("click", () => { if (page > 1) { page--; renderOrders(); renderPagination(); } });
@@ -235,6 +253,7 @@ nextPageBtn?.addEventListener("click", () => {
     const totalPages = Math.max(1, Math.ceil(filtered.length / pageSize));
     if (page < totalPages) { page++; renderOrders(); renderPagination(); }
 });
+loadMoreBtn?.addEventListener("click", loadMoreOrders);
 orderSearch?.addEventListener("input", () => { page = 1; applyFilters(); });
 orderStatus?.addEventListener("change", () => { page = 1; applyFilters(); });
 
@@ -303,6 +322,19 @@ function handleRowAction(action, order) {
     }
 }
 
+// Totals come from the server over all of the customer's orders; the table only holds the pages loaded so far.
+async function loadKPIs() {
+    try {
+        const stats = await get(`/orders/stats/customers/${user.id}`);
+        const lastPickup = stats.lastPickup ? new Date(stats.lastPickup) : null;
+        renderKPIs(stats.activeOrders, stats.totalSpent, lastPickup);
+    } catch (err) {
+        // Demo-friendly fallback
+        console.warn("Order stats API failed, using loaded orders:", err?.message);
+        computeKPIs();
+    }
+}
+
 function computeKPIs() {
     const inactive = new Set(["DELIVERED","CANCELLED"]);
     const activeCount = ordersAll.filter(o => !inactive.has(o.status)).length;
@@ -313,7 +345,10 @@ function computeKPIs() {
         .map(o => new Date(o.pickupDate))
         .filter(d => !Number.isNaN(d.getTime()))
         .sort((a,b)=>b-a);
-    const lastPickup = pickups.length ? pickups[0] : null;
+    renderKPIs(activeCount, spent, pickups.length ? pickups[0] : null);
+}
+
+function renderKPIs(activeCount, spent, lastPickup) {
 
     kpiActive.textContent = `${activeCount}`;
     kpiSpent.textContent  = Number(spent).toLocaleString(undefined,{maximumFractionDigits:0});
@@ -340,8 +375,16 @@ async function loadMessages() {
         return;
     }
     try {
-        const msgs = await get(`/messages?withUserId=${adminUser.id}&currentUserId=${user.id}`);
-        renderMessages(Array.isArray(msgs) ? msgs : []);
+        const lastId = supportMessages.length ? supportMessages[supportMessages.length - 1].id : null;
+        const msgs = await get(`/messages?withUserId=${adminUser.id}&currentUserId=${user.id}` +
+            (lastId ? `&afterId=${lastId}` : ""));
+        const newer = Array.isArray(msgs) ? msgs : [];
+        // Deltas overlap the last message and may hold one that committed late; merge by id and re-sort.
+        supportMessages = lastId
+            ? [...supportMessages, ...newer.filter(m => !supportMessages.some(existing => existing.id === m.id))]
+                .sort(byTimestamp)
+            : newer;
+        renderMessages(supportMessages);
     } catch (err) {
         console.warn("Messages API failed, using demo:", err?.message);
         // demo messages
@@ -354,6 +397,19 @@ async function loadMessages() {
     }
 }
 
+function byTimestamp(a, b) {
+    return a.timestamp.localeCompare(b.timestamp) || a.id - b.id;
+}
+
+function appendMessage(m) {
+    if (!adminUser) return;
+    const counterpart = m.fromUserId === user.id ? m.toUserId : m.fromUserId;
+    if (counterpart !== adminUser.id) return;
+    if (supportMessages.some(existing => existing.id === m.id)) return;
+    supportMessages = [...supportMessages, m];
+    renderMessages(supportMessages);
+}
+
 function renderMessages(list) {
     if (!messageList) return;
     if (!list.length) {
@@ -391,13 +447,13 @@ messageForm?.addEventListener("submit", async (e) => {
         return;
     }
     try {
-        await post("/messages", {
+        const sent = await post("/messages", {
             fromUserId: user.id,
             toUserId: adminUser.id,
             body,
         });
         messageInput.value = "";
-        await loadMessages();
+        appendMessage(sent);
     } catch (err) {
         toastError(err.message || "Failed to send");
     }
@@ -406,10 +462,10 @@ messageForm?.addEventListener("submit", async (e) => {
 async function initSupport() {
     await findAdmin();
     await loadMessages();
-    if (pollingInterval) clearInterval(pollingInterval);
-    pollingInterval = setInterval(loadMessages, 5000);
+    if (unsubscribeMessages) unsubscribeMessages();
+    unsubscribeMessages = subscribeMessages(user.id, { onMessage: appendMessage, resync: loadMessages });
 }
-window.addEventListener("beforeunload", () => pollingInterval && clearInterval(pollingInterval));
+window.addEventListener("beforeunload", () => unsubscribeMessages && unsubscribeMessages());
 
 /* =================
    Boot
@@ -418,7 +474,8 @@ window.addEventListener("beforeunload", () => pollingInterval && clearInterval(p
     if (!user) return;
     await mountPlaceOrderUI();
     await fetchOrders();
-    applyFilters();         // renders + KPIs
+    applyFilters();
+    await loadKPIs();
     await initSupport();
     toastSuccess("Welcome back!");
 })();
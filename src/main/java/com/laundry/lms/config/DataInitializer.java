@@ -88,7 +88,7 @@ public class DataInitializer {
                 payment.setOrder(order);
                 payment.setAmount(order.getPrice());
                 payment.setMethod(random.nextBoolean() ? "Cash" : "Card");
-                PaymentStatus status = PaymentStatus.values()[random.nextInt(PaymentStatus.values().length)];
+                PaymentStatus status = random.nextBoolean() ? PaymentStatus.PENDING : PaymentStatus.COMPLETED;
                 payment.setStatus(status);
                 if (status == PaymentStatus.COMPLETED) {
                     payment.setPaidAt(LocalDateTime.now().minusDays(random.nextInt(3)));
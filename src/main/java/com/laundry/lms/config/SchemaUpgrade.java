@@ -0,0 +1,86 @@
+package com.laundry.lms.config;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Brings a MySQL schema created by an earlier release in line with the current mappings, after
+ * Hibernate's {@code ddl-auto=update} has run and before anything can insert. There is no migration
+ * tool in this project, so every step is idempotent and runs on each startup; other databases are
+ * created fresh by Hibernate and skipped.
+ * <p>
+ * Orders, payments, messages and tasks used to take {@code AUTO_INCREMENT} ids. Their pooled
+ * sequences are emulated on MySQL by {@code <name>_seq} tables that {@code update} creates at 1, below
+ * the ids already in use, so each one is moved past the highest existing id. With the pooled optimizer
+ * a stored value {@code v} hands out the block {@code v - allocationSize + 1 .. v}, so a value of at
+ * least {@code max(id) + allocationSize} is safe, and a sequence already in use is never moved back.
+ * <p>
+ * {@code payments.status} was created as a native {@code ENUM} of the statuses that existed then, which
+ * rejects any added since; it is converted to the {@code VARCHAR} the mapping now declares.
+ */
+@Component
+@DependsOn("entityManagerFactory")
+public class SchemaUpgrade {
+
+    private static final Logger log = LoggerFactory.getLogger(SchemaUpgrade.class);
+
+    // Must match the allocationSize of the @SequenceGenerator mappings.
+    private static final int ALLOCATION_SIZE = 50;
+
+    // Sequence table -> tables whose ids it hands out; archived messages keep their original ids.
+    private static final Map<String, List<String>> SEQUENCES = new LinkedHashMap<>();
+
+    static {
+        SEQUENCES.put("orders_seq", List.of("orders"));
+        SEQUENCES.put("payments_seq", List.of("payments"));
+        SEQUENCES.put("messages_seq", List.of("messages", "messages_archive"));
+        SEQUENCES.put("tasks_seq", List.of("tasks"));
+        SEQUENCES.put("payment_events_seq", List.of("payment_events"));
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public SchemaUpgrade(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @PostConstruct
+    public void upgrade() {
+        String product = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                connection.getMetaData().getDatabaseProductName());
+        if (!"MySQL".equalsIgnoreCase(product)) {
+            return;
+        }
+        SEQUENCES.forEach(this::alignSequence);
+        enumToVarchar("payments", "status", "varchar(16) not null");
+    }
+
+    private void alignSequence(String sequence, List<String> tables) {
+        StringBuilder maxId = new StringBuilder("greatest(0");
+        for (String table : tables) {
+            maxId.append(", (select coalesce(max(id), 0) from ").append(table).append(')');
+        }
+        maxId.append(')');
+        jdbcTemplate.update("update " + sequence + " set next_val = greatest(next_val, "
+                + maxId + " + " + ALLOCATION_SIZE + ")");
+        log.debug("Aligned {} past the ids in {}", sequence, tables);
+    }
+
+    private void enumToVarchar(String table, String column, String definition) {
+        List<String> types = jdbcTemplate.queryForList("select data_type from information_schema.columns "
+                + "where table_schema = database() and table_name = ? and column_name = ?", String.class, table, column);
+        if (types.size() == 1 && "enum".equalsIgnoreCase(types.get(0))) {
+            jdbcTemplate.execute("alter table " + table + " modify " + column + " " + definition);
+            log.info("Converted {}.{} from enum to {}", table, column, definition);
+        }
+    }
+}
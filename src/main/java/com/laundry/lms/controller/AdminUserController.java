@@ -4,6 +4,7 @@ import com.laundry.lms.dto.UserResponse;
 import com.laundry.lms.model.User;
 import com.laundry.lms.model.UserRole;
 import com.laundry.lms.repository.UserRepository;
+import com.laundry.lms.service.UserIdCache;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -12,7 +13,6 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
-import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/admin/users")
@@ -20,16 +20,16 @@ import java.util.stream.Collectors;
 public class AdminUserController {
 
     private final UserRepository userRepository;
+    private final UserIdCache userIdCache;
 
-    public AdminUserController(UserRepository userRepository) {
+    public AdminUserController(UserRepository userRepository, UserIdCache userIdCache) {
         this.userRepository = userRepository;
+        this.userIdCache = userIdCache;
     }
 
     @GetMapping
     public List<UserResponse> getUsers() {
-        return userRepository.findAll().stream()
-                .map(UserResponse::from)
-                .collect(Collectors.toList());
+        return userRepository.findAllResponses();
     }
 
     @PatchMapping("/{id}/role")
@@ -55,6 +55,7 @@ public class AdminUserController {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error("User not found"));
         }
         userRepository.deleteById(id);
+        userIdCache.evict(id);
         return ResponseEntity.noContent().build();
     }
 
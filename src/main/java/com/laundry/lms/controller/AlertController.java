@@ -0,0 +1,22 @@
+package com.laundry.lms.controller;
+
+import com.laundry.lms.dto.DeadlineAlertStats;
+import com.laundry.lms.service.DeadlineAlertService;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/alerts")
+@CrossOrigin("*")
+public class AlertController {
+
+    private final DeadlineAlertService deadlineAlertService;
+
+    public AlertController(DeadlineAlertService deadlineAlertService) {
+        this.deadlineAlertService = deadlineAlertService;
+    }
+
+    @GetMapping("/stats")
+    public DeadlineAlertStats stats() {
+        return deadlineAlertService.stats();
+    }
+}
@@ -0,0 +1,107 @@
+package com.laundry.lms.controller;
+
+import com.laundry.lms.dto.CustomerBalanceResponse;
+import com.laundry.lms.dto.OrderBalanceResponse;
+import com.laundry.lms.repository.OrderBalanceRepository;
+import com.laundry.lms.repository.UserRepository;
+import com.laundry.lms.service.PaymentReconciliationService;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Paid-vs-due figures served from the materialized {@code order_balances} table.
+ */
+@RestController
+@RequestMapping("/api/balances")
+@CrossOrigin("*")
+public class BalanceController {
+
+    private static final int DEFAULT_LIMIT = 50;
+    private static final int MAX_LIMIT = 500;
+
+    private final OrderBalanceRepository balanceRepository;
+    private final UserRepository userRepository;
+    private final PaymentReconciliationService reconciliationService;
+
+    public BalanceController(OrderBalanceRepository balanceRepository,
+                             UserRepository userRepository,
+                             PaymentReconciliationService reconciliationService) {
+        this.balanceRepository = balanceRepository;
+        this.userRepository = userRepository;
+        this.reconciliationService = reconciliationService;
+    }
+
+    /**
+     * Who owes us: total outstanding and the customers owing the most.
+     */
+    @GetMapping("/outstanding")
+    public ResponseEntity<?> getOutstanding(@RequestParam(value = "limit", required = false) Integer limit) {
+        if (limit != null && (limit < 1 || limit > MAX_LIMIT)) {
+            return ResponseEntity.badRequest().body(error("limit must be between 1 and " + MAX_LIMIT));
+        }
+        Map<String, Object> body = new HashMap<>();
+        body.put("totalOutstanding", balanceRepository.sumOutstanding());
+        body.put("customers", balanceRepository.findCustomersOwing(Limit.of(limit == null ? DEFAULT_LIMIT : limit)));
+        return ResponseEntity.ok(body);
+    }
+
+    @GetMapping("/orders")
+    public ResponseEntity<?> getOutstandingOrders(@RequestParam(value = "limit", required = false) Integer limit) {
+        if (limit != null && (limit < 1 || limit > MAX_LIMIT)) {
+            return ResponseEntity.badRequest().body(error("limit must be between 1 and " + MAX_LIMIT));
+        }
+        List<OrderBalanceResponse> orders = balanceRepository.findOutstanding(Limit.of(limit == null ? DEFAULT_LIMIT : limit))
+                .stream()
+                .map(OrderBalanceResponse::from)
+                .toList();
+        return ResponseEntity.ok(orders);
+    }
+
+    @GetMapping("/orders/{orderId}")
+    public ResponseEntity<?> getOrderBalance(@PathVariable Long orderId) {
+        return balanceRepository.findById(orderId)
+                .<ResponseEntity<?>>map(balance -> ResponseEntity.ok(OrderBalanceResponse.from(balance)))
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND).body(error("Order not found")));
+    }
+
+    @GetMapping("/customers/{customerId}")
+    public ResponseEntity<?> getCustomerBalance(@PathVariable Long customerId) {
+        if (!userRepository.existsById(customerId)) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error("Customer not found"));
+        }
+        CustomerBalanceResponse summary = balanceRepository.findCustomerSummary(customerId);
+        if (summary == null) {
+            summary = new CustomerBalanceResponse(customerId, null, 0, BigDecimal.ZERO, BigDecimal.ZERO,
+                    BigDecimal.ZERO, BigDecimal.ZERO);
+        }
+        Map<String, Object> body = new HashMap<>();
+        body.put("summary", summary);
+        body.put("orders", balanceRepository.findByCustomerIdOrderByOrderIdAsc(customerId).stream()
+                .map(OrderBalanceResponse::from)
+                .toList());
+        return ResponseEntity.ok(body);
+    }
+
+    /**
+     * Recomputes drifted balances now instead of waiting for the scheduled run.
+     */
+    @PostMapping("/reconcile")
+    public Map<String, Object> reconcile() {
+        Map<String, Object> body = new HashMap<>();
+        body.put("corrected", reconciliationService.reconcile());
+        return body;
+    }
+
+    private Map<String, String> error(String message) {
+        Map<String, String> error = new HashMap<>();
+        error.put("error", message);
+        return error;
+    }
+}
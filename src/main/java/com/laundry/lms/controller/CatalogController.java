@@ -1,12 +1,25 @@
 package com.laundry.lms.controller;
 
+import com.laundry.lms.dto.CatalogEntryRequest;
+import com.laundry.lms.dto.CatalogEntryResponse;
+import com.laundry.lms.model.CatalogEntry;
+import com.laundry.lms.model.CatalogEntryType;
+import com.laundry.lms.repository.CatalogEntryRepository;
 import com.laundry.lms.service.CatalogService;
-import org.springframework.web.bind.annotation.CrossOrigin;
-import org.springframework.web.bind.annotation.GetMapping;
-import org.springframework.web.bind.annotation.RequestMapping;
-import org.springframework.web.bind.annotation.RestController;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
 
+import java.time.Duration;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/api/catalog")
@@ -14,18 +27,137 @@ import java.util.List;
 public class CatalogController {
 
     private final CatalogService catalogService;
+    private final CatalogEntryRepository catalogEntryRepository;
+    private final CacheControl cacheControl;
 
-    public CatalogController(CatalogService catalogService) {
+    public CatalogController(CatalogService catalogService,
+                             CatalogEntryRepository catalogEntryRepository,
+                             @Value("${lms.catalog.max-age:5m}") Duration maxAge) {
         this.catalogService = catalogService;
+        this.catalogEntryRepository = catalogEntryRepository;
+        this.cacheControl = CacheControl.maxAge(maxAge).cachePublic();
     }
 
+    // Spring answers If-None-Match with 304 for GET responses that carry an ETag.
     @GetMapping("/services")
-    public List<String> getServices() {
-        return catalogService.getServices();
+    public ResponseEntity<List<String>> getServices() {
+        CatalogService.Snapshot snapshot = catalogService.snapshot();
+        return cached(snapshot.servicesEtag(), snapshot.services());
     }
 
     @GetMapping("/units")
-    public List<String> getUnits() {
-        return catalogService.getUnits();
+    public ResponseEntity<List<String>> getUnits() {
+        CatalogService.Snapshot snapshot = catalogService.snapshot();
+        return cached(snapshot.unitsEtag(), snapshot.units());
+    }
+
+    @GetMapping("/entries")
+    public ResponseEntity<List<CatalogEntryResponse>> getEntries() {
+        CatalogService.Snapshot snapshot = catalogService.snapshot();
+        return cached(snapshot.entriesEtag(), snapshot.entries());
+    }
+
+    @PostMapping("/entries")
+    public ResponseEntity<?> createEntry(@Valid @RequestBody CatalogEntryRequest request) {
+        CatalogEntryType type = parseType(request.getType());
+        if (type == null) {
+            return ResponseEntity.badRequest().body(error("Invalid type"));
+        }
+        String validationError = validate(type, request);
+        if (validationError != null) {
+            return ResponseEntity.badRequest().body(error(validationError));
+        }
+        String name = request.getName().trim();
+        if (catalogEntryRepository.existsByTypeAndName(type, name)) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(error("Entry already exists"));
+        }
+        CatalogEntry entry = new CatalogEntry();
+        entry.setType(type);
+        apply(entry, name, request);
+        return save(entry, HttpStatus.CREATED);
+    }
+
+    @PutMapping("/entries/{id}")
+    public ResponseEntity<?> updateEntry(@PathVariable Long id, @Valid @RequestBody CatalogEntryRequest request) {
+        Optional<CatalogEntry> entryOpt = catalogEntryRepository.findById(id);
+        if (entryOpt.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error("Entry not found"));
+        }
+        CatalogEntry entry = entryOpt.get();
+        CatalogEntryType type = parseType(request.getType());
+        if (type != entry.getType()) {
+            return ResponseEntity.badRequest().body(error("Entry type cannot be changed"));
+        }
+        String validationError = validate(type, request);
+        if (validationError != null) {
+            return ResponseEntity.badRequest().body(error(validationError));
+        }
+        String name = request.getName().trim();
+        if (!name.equals(entry.getName()) && catalogEntryRepository.existsByTypeAndName(type, name)) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(error("Entry already exists"));
+        }
+        apply(entry, name, request);
+        return save(entry, HttpStatus.OK);
+    }
+
+    @DeleteMapping("/entries/{id}")
+    public ResponseEntity<?> deleteEntry(@PathVariable Long id) {
+        if (!catalogEntryRepository.existsById(id)) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error("Entry not found"));
+        }
+        catalogEntryRepository.deleteById(id);
+        catalogService.reload();
+        return ResponseEntity.noContent().build();
+    }
+
+    private <T> ResponseEntity<T> cached(String etag, T body) {
+        return ResponseEntity.ok().eTag(etag).cacheControl(cacheControl).body(body);
+    }
+
+    private ResponseEntity<?> save(CatalogEntry entry, HttpStatus status) {
+        CatalogEntry saved;
+        try {
+            saved = catalogEntryRepository.save(entry);
+        } catch (DataIntegrityViolationException ex) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(error("Entry already exists"));
+        }
+        catalogService.reload();
+        return ResponseEntity.status(status).body(CatalogEntryResponse.from(saved));
+    }
+
+    private String validate(CatalogEntryType type, CatalogEntryRequest request) {
+        if (type == CatalogEntryType.UNIT && (request.getBasePrice() != null || request.getDefaultUnit() != null)) {
+            return "Units cannot carry pricing";
+        }
+        if (request.getDefaultUnit() != null && !catalogService.isValidUnit(request.getDefaultUnit())) {
+            return "Invalid default unit";
+        }
+        return null;
+    }
+
+    private void apply(CatalogEntry entry, String name, CatalogEntryRequest request) {
+        entry.setName(name);
+        entry.setBasePrice(request.getBasePrice());
+        entry.setDefaultUnit(request.getDefaultUnit());
+        if (request.getActive() != null) {
+            entry.setActive(request.getActive());
+        }
+        if (request.getSortOrder() != null) {
+            entry.setSortOrder(request.getSortOrder());
+        }
+    }
+
+    private CatalogEntryType parseType(String value) {
+        try {
+            return CatalogEntryType.valueOf(value.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException ex) {
+            return null;
+        }
+    }
+
+    private Map<String, String> error(String message) {
+        Map<String, String> error = new HashMap<>();
+        error.put("error", message);
+        return error;
     }
 }
@@ -1,72 +1,291 @@
 package com.laundry.lms.controller;
 
+import com.laundry.lms.dto.BroadcastRequest;
+import com.laundry.lms.dto.InboxEntryResponse;
+import com.laundry.lms.dto.MessageIngestStats;
 import com.laundry.lms.dto.MessageRequest;
 import com.laundry.lms.dto.MessageResponse;
-import com.laundry.lms.model.Message;
-import com.laundry.lms.model.User;
 import com.laundry.lms.repository.MessageRepository;
-import com.laundry.lms.repository.UserRepository;
+import com.laundry.lms.service.MessageArchiveService;
+import com.laundry.lms.service.ConversationVersions;
+import com.laundry.lms.service.MessagePushService;
+import com.laundry.lms.service.MessageHistoryService;
+import com.laundry.lms.service.MessageIngestService;
+import com.laundry.lms.service.UserIdCache;
 import jakarta.validation.Valid;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.Optional;
-import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/messages")
 @CrossOrigin("*")
 public class MessageController {
 
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 200;
+
     private final MessageRepository messageRepository;
-    private final UserRepository userRepository;
+    private final UserIdCache userIdCache;
+    private final MessagePushService messagePushService;
+    private final ConversationVersions conversationVersions;
+    private final MessageIngestService messageIngestService;
+    private final MessageHistoryService messageHistoryService;
+    private final MessageArchiveService messageArchiveService;
 
-    public MessageController(MessageRepository messageRepository, UserRepository userRepository) {
+    public MessageController(MessageRepository messageRepository,
+                             UserIdCache userIdCache,
+                             MessagePushService messagePushService,
+                             ConversationVersions conversationVersions,
+                             MessageIngestService messageIngestService,
+                             MessageHistoryService messageHistoryService,
+                             MessageArchiveService messageArchiveService) {
         this.messageRepository = messageRepository;
-        this.userRepository = userRepository;
+        this.userIdCache = userIdCache;
+        this.messagePushService = messagePushService;
+        this.conversationVersions = conversationVersions;
+        this.messageIngestService = messageIngestService;
+        this.messageHistoryService = messageHistoryService;
+        this.messageArchiveService = messageArchiveService;
     }
 
+    /**
+     * Whole conversation by default, oldest first. {@code afterId}/{@code since} return newer messages,
+     * reaching back a short overlap before the cursor because messages do not commit in id or timestamp
+     * order, so a delta may repeat messages the client already holds; clients drop them by id.
+     * {@code beforeId}/{@code limit} page backwards through older history (returned oldest first),
+     * continuing into archived messages once the hot table runs out. Cursor ids must name an existing
+     * message.
+     * Conversation responses carry the conversation version as ETag, and a matching If-None-Match is
+     * answered with 304 after checking the version alone.
+     */
     @GetMapping
     public ResponseEntity<?> getMessages(@RequestParam("withUserId") Long withUserId,
-                                         @RequestParam(value = "currentUserId", required = false) Long currentUserId) {
-        Optional<User> withUser = userRepository.findById(withUserId);
-        if (withUser.isEmpty()) {
+                                         @RequestParam(value = "currentUserId", required = false) Long currentUserId,
+                                         @RequestParam(value = "afterId", required = false) Long afterId,
+                                         @RequestParam(value = "since", required = false)
+                                         @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime since,
+                                         @RequestParam(value = "beforeId", required = false) Long beforeId,
+                                         @RequestParam(value = "limit", required = false) Integer limit,
+                                         @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        boolean backward = beforeId != null || limit != null;
+        if (backward && (afterId != null || since != null)) {
+            return ResponseEntity.badRequest().body(error("Use either afterId/since or beforeId/limit"));
+        }
+        if (limit != null && (limit < 1 || limit > MAX_PAGE_SIZE)) {
+            return ResponseEntity.badRequest().body(error("limit must be between 1 and " + MAX_PAGE_SIZE));
+        }
+
+        if (!userIdCache.exists(withUserId)) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error("User not found"));
         }
+        int page = limit == null ? DEFAULT_PAGE_SIZE : limit;
+        LocalDateTime beforeTimestamp = null;
+        if (beforeId != null) {
+            beforeTimestamp = messageHistoryService.timestampOf(beforeId);
+            if (beforeTimestamp == null) {
+                return ResponseEntity.badRequest().body(error("Unknown beforeId"));
+            }
+        }
+        LocalDateTime cursor = since;
+        if (afterId != null) {
+            LocalDateTime afterTimestamp = messageHistoryService.timestampOf(afterId);
+            if (afterTimestamp == null) {
+                return ResponseEntity.badRequest().body(error("Unknown afterId"));
+            }
+            if (cursor == null || afterTimestamp.isAfter(cursor)) {
+                cursor = afterTimestamp;
+            }
+        }
 
-        List<Message> messages;
-        if (currentUserId != null) {
-            Optional<User> current = userRepository.findById(currentUserId);
-            if (current.isEmpty()) {
-                return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error("User not found"));
+        if (currentUserId == null) {
+            List<MessageResponse> response;
+            if (backward) {
+                response = messageHistoryService.involvingBefore(withUserId, beforeTimestamp, beforeId, page);
+            } else if (cursor != null) {
+                response = messageHistoryService.involvingAfter(withUserId, cursor);
+            } else {
+                response = messageHistoryService.involving(withUserId);
             }
-            messages = messageRepository.findConversation(currentUserId, withUserId);
+            return ResponseEntity.ok(response);
+        }
+
+        if (!userIdCache.exists(currentUserId)) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error("User not found"));
+        }
+        // Read the version before the rows: a message landing in between is returned under the older
+        // stamp, so the next conditional request refetches rather than missing it.
+        long version = conversationVersions.current(currentUserId, withUserId);
+        if (etagMatches(ifNoneMatch, version)) {
+            return notModified(version);
+        }
+        List<MessageResponse> response;
+        if (backward) {
+            response = messageHistoryService.conversationBefore(currentUserId, withUserId, beforeTimestamp, beforeId, page);
+        } else if (cursor != null) {
+            response = messageHistoryService.conversationAfter(currentUserId, withUserId, cursor);
         } else {
-            messages = messageRepository.findByFromUserIdOrToUserIdOrderByTimestampAsc(withUserId, withUserId);
+            response = messageHistoryService.conversation(currentUserId, withUserId);
+        }
+        return ResponseEntity.ok()
+                .eTag(ConversationVersions.etag(version))
+                .cacheControl(CacheControl.noCache())
+                .body(response);
+    }
+
+    /**
+     * One entry per counterpart of {@code userId} with the last message and unread count, newest first.
+     */
+    @GetMapping("/inbox")
+    public ResponseEntity<?> getInbox(@RequestParam("userId") Long userId) {
+        if (!userIdCache.exists(userId)) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error("User not found"));
         }
+        List<InboxEntryResponse> inbox = messageRepository.findInboxRows(userId).stream()
+                .map(InboxEntryResponse::fromRow)
+                .toList();
+        return ResponseEntity.ok(inbox);
+    }
 
-        List<MessageResponse> response = messages.stream()
-                .map(MessageResponse::from)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(response);
+    /**
+     * Marks messages from {@code withUserId} to {@code userId} as read, optionally only up to and
+     * including message {@code upToId} in conversation order.
+     */
+    @PatchMapping("/read")
+    public ResponseEntity<?> markRead(@RequestParam("userId") Long userId,
+                                      @RequestParam("withUserId") Long withUserId,
+                                      @RequestParam(value = "upToId", required = false) Long upToId) {
+        if (!userIdCache.exists(userId) || !userIdCache.exists(withUserId)) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error("User not found"));
+        }
+        LocalDateTime upToTimestamp = null;
+        if (upToId != null) {
+            upToTimestamp = messageHistoryService.timestampOf(upToId);
+            if (upToTimestamp == null) {
+                return ResponseEntity.badRequest().body(error("Unknown upToId"));
+            }
+        }
+        int updated = messageHistoryService.markRead(withUserId, userId, upToTimestamp, upToId, LocalDateTime.now());
+        return ResponseEntity.ok(Map.of("updated", updated));
+    }
+
+    /**
+     * Server-Sent Events stream of every message sent or received by {@code userId}. Clients reload the
+     * thread once per (re)connect and fall back to polling {@link #getMessages} while disconnected.
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> stream(@RequestParam("userId") Long userId) {
+        if (!userIdCache.exists(userId)) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        }
+        return ResponseEntity.ok()
+                .header("X-Accel-Buffering", "no")
+                .body(messagePushService.subscribe(userId));
     }
 
     @PostMapping
     public ResponseEntity<?> sendMessage(@Valid @RequestBody MessageRequest request) {
-        Optional<User> fromUser = userRepository.findById(request.getFromUserId());
-        Optional<User> toUser = userRepository.findById(request.getToUserId());
+        if (!userIdCache.exists(request.getFromUserId()) || !userIdCache.exists(request.getToUserId())) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error("User not found"));
+        }
+        MessageResponse response = messageIngestService.send(request.getFromUserId(), request.getToUserId(), request.getBody());
+        return ResponseEntity.status(HttpStatus.CREATED).body(response);
+    }
 
-        if (fromUser.isEmpty() || toUser.isEmpty()) {
+    /**
+     * Queues the message for the next batched flush and returns 202 without waiting for the insert.
+     * Subscribers still receive it over the stream once it is written.
+     */
+    @PostMapping("/async")
+    public ResponseEntity<?> sendMessageAsync(@Valid @RequestBody MessageRequest request) {
+        if (!userIdCache.exists(request.getFromUserId()) || !userIdCache.exists(request.getToUserId())) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error("User not found"));
         }
+        return accept(request.getFromUserId(), List.of(request.getToUserId()), request.getBody());
+    }
+
+    /**
+     * Sends one body from {@code fromUserId} to every recipient, queued and written as one batch.
+     */
+    @PostMapping("/broadcast")
+    public ResponseEntity<?> broadcast(@Valid @RequestBody BroadcastRequest request) {
+        if (!userIdCache.exists(request.getFromUserId())) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error("Sender not found"));
+        }
+        List<Long> recipients = new ArrayList<>(new LinkedHashSet<>(request.getToUserIds()));
+        List<Long> unknown = recipients.stream().filter(id -> !userIdCache.exists(id)).toList();
+        if (!unknown.isEmpty()) {
+            Map<String, Object> body = new HashMap<>();
+            body.put("error", "Recipients not found");
+            body.put("userIds", unknown);
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(body);
+        }
+        return accept(request.getFromUserId(), recipients, request.getBody());
+    }
+
+    /**
+     * Runs the archive job now instead of waiting for its schedule.
+     */
+    @PostMapping("/archive")
+    public Map<String, Object> archive() {
+        int moved = messageArchiveService.archive();
+        Map<String, Object> result = new HashMap<>();
+        result.put("archived", moved);
+        result.put("archivedUpToId", messageArchiveService.maxArchivedId());
+        return result;
+    }
 
-        Message message = new Message(fromUser.get(), toUser.get(), request.getBody());
-        Message saved = messageRepository.save(message);
-        return ResponseEntity.status(HttpStatus.CREATED).body(MessageResponse.from(saved));
+    @GetMapping("/ingest/stats")
+    public MessageIngestStats ingestStats() {
+        return messageIngestService.stats();
+    }
+
+    private ResponseEntity<?> accept(Long fromUserId, List<Long> recipients, String body) {
+        if (!messageIngestService.enqueue(fromUserId, recipients, body)) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "1")
+                    .body(error("Message queue is full"));
+        }
+        Map<String, Object> accepted = new HashMap<>();
+        accepted.put("accepted", recipients.size());
+        accepted.put("queueDepth", messageIngestService.stats().getQueueDepth());
+        return ResponseEntity.accepted().body(accepted);
+    }
+
+    private ResponseEntity<?> notModified(long version) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                .eTag(ConversationVersions.etag(version))
+                .cacheControl(CacheControl.noCache())
+                .build();
+    }
+
+    private boolean etagMatches(String ifNoneMatch, long version) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        String etag = ConversationVersions.etag(version);
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
     }
 
     private Map<String, String> error(String message) {
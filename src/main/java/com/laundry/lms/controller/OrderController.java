@@ -1,22 +1,49 @@
 package com.laundry.lms.controller;
 
+import com.laundry.lms.dto.BulkOrderRequest;
+import com.laundry.lms.dto.BulkStatusRequest;
+import com.laundry.lms.dto.BulkStatusResponse;
+import com.laundry.lms.dto.OrderCursor;
+import com.laundry.lms.dto.OrderPageResponse;
 import com.laundry.lms.dto.OrderRequest;
 import com.laundry.lms.dto.OrderResponse;
 import com.laundry.lms.model.LaundryOrder;
 import com.laundry.lms.model.OrderStatus;
 import com.laundry.lms.model.User;
 import com.laundry.lms.repository.LaundryOrderRepository;
+import com.laundry.lms.repository.LaundryOrderSpecifications;
 import com.laundry.lms.repository.UserRepository;
 import com.laundry.lms.service.CatalogService;
+import com.laundry.lms.service.DeadlineAlertService;
+import com.laundry.lms.service.IdempotencyService;
+import com.laundry.lms.service.OrderExportService;
+import com.laundry.lms.service.OrderImportService;
+import com.laundry.lms.service.OrderStatsService;
+import com.laundry.lms.service.SearchService;
+import com.laundry.lms.service.OrderStatusService;
+import com.laundry.lms.service.PaymentReconciliationService;
+import com.laundry.lms.service.ProductionPipelineService;
 import jakarta.validation.Valid;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @RestController
@@ -24,33 +51,165 @@ import java.util.stream.Collectors;
 @CrossOrigin("*")
 public class OrderController {
 
+    private static final int MAX_PAGE_SIZE = 200;
+    private static final int MAX_STATS_DAYS = 366;
+
     private final LaundryOrderRepository orderRepository;
     private final UserRepository userRepository;
     private final CatalogService catalogService;
+    private final OrderExportService orderExportService;
+    private final OrderImportService orderImportService;
+    private final OrderStatusService orderStatusService;
+    private final IdempotencyService idempotencyService;
+    private final OrderStatsService orderStatsService;
+    private final SearchService searchService;
+    private final PaymentReconciliationService reconciliationService;
+    private final ProductionPipelineService pipelineService;
+    private final DeadlineAlertService deadlineAlertService;
 
     public OrderController(LaundryOrderRepository orderRepository,
                            UserRepository userRepository,
-                           CatalogService catalogService) {
+                           CatalogService catalogService,
+                           OrderExportService orderExportService,
+                           OrderImportService orderImportService,
+                           OrderStatusService orderStatusService,
+                           IdempotencyService idempotencyService,
+                           OrderStatsService orderStatsService,
+                           SearchService searchService,
+                           PaymentReconciliationService reconciliationService,
+                           ProductionPipelineService pipelineService,
+                           DeadlineAlertService deadlineAlertService) {
         this.orderRepository = orderRepository;
         this.userRepository = userRepository;
         this.catalogService = catalogService;
+        this.orderExportService = orderExportService;
+        this.orderImportService = orderImportService;
+        this.orderStatusService = orderStatusService;
+        this.idempotencyService = idempotencyService;
+        this.orderStatsService = orderStatsService;
+        this.searchService = searchService;
+        this.reconciliationService = reconciliationService;
+        this.pipelineService = pipelineService;
+        this.deadlineAlertService = deadlineAlertService;
     }
 
     @GetMapping
-    public List<OrderResponse> getOrders(@RequestParam(required = false) Long userId) {
-        List<LaundryOrder> orders = userId != null
-                ? orderRepository.findByCustomerId(userId)
-                : orderRepository.findAll();
-        return orders.stream().map(OrderResponse::from).collect(Collectors.toList());
+    public ResponseEntity<?> getOrders(@RequestParam(required = false) Long userId,
+                                       @RequestParam(required = false) Long customerId,
+                                       @RequestParam(required = false) String status,
+                                       @RequestParam(required = false) String serviceType,
+                                       @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                       @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                       @RequestParam(required = false) String cursor,
+                                       @RequestParam(defaultValue = "50") int limit) {
+        OrderStatus statusFilter;
+        try {
+            statusFilter = parseStatusFilter(status);
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity.badRequest().body(error("Invalid order status"));
+        }
+
+        Specification<LaundryOrder> spec = LaundryOrderSpecifications.filter(
+                customerId != null ? customerId : userId,
+                statusFilter,
+                serviceType,
+                from != null ? from.atStartOfDay() : null,
+                to != null ? to.plusDays(1).atStartOfDay() : null);
+
+        if (cursor != null && !cursor.isBlank()) {
+            try {
+                OrderCursor after = OrderCursor.decode(cursor);
+                spec = spec.and(LaundryOrderSpecifications.before(after.createdAt(), after.id()));
+            } catch (IllegalArgumentException ex) {
+                return ResponseEntity.badRequest().body(error("Invalid cursor"));
+            }
+        }
+
+        // Fetch one extra row to learn whether another page exists without a count query.
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        List<OrderResponse> rows = orderRepository.findResponses(spec, pageSize + 1);
+
+        boolean hasMore = rows.size() > pageSize;
+        List<OrderResponse> items = hasMore ? rows.subList(0, pageSize) : rows;
+        String nextCursor = null;
+        if (hasMore) {
+            OrderResponse last = items.get(items.size() - 1);
+            nextCursor = new OrderCursor(last.getCreatedAt(), last.getId()).encode();
+        }
+
+        return ResponseEntity.ok(new OrderPageResponse(items, nextCursor));
     }
 
-    @PostMapping
-    public ResponseEntity<?> createOrder(@Valid @RequestBody OrderRequest request) {
-        if (!catalogService.isValidService(request.getServiceType())) {
-            return ResponseEntity.badRequest().body(error("Invalid service type"));
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportOrders(@RequestParam(defaultValue = "ndjson") String format,
+                                                              @RequestParam(required = false) Long customerId,
+                                                              @RequestParam(required = false) String status,
+                                                              @RequestParam(required = false) String serviceType,
+                                                              @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                              @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        OrderExportService.Format exportFormat;
+        try {
+            exportFormat = OrderExportService.Format.valueOf(format.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException ex) {
+            return exportError("Invalid export format");
         }
-        if (!catalogService.isValidUnit(request.getUnit())) {
-            return ResponseEntity.badRequest().body(error("Invalid unit"));
+        OrderStatus statusFilter;
+        try {
+            statusFilter = parseStatusFilter(status);
+        } catch (IllegalArgumentException ex) {
+            return exportError("Invalid order status");
+        }
+
+        String serviceFilter = serviceType != null && !serviceType.isBlank() ? serviceType : null;
+        StreamingResponseBody body = out -> orderExportService.export(exportFormat, customerId, statusFilter,
+                serviceFilter,
+                from != null ? from.atStartOfDay() : null,
+                to != null ? to.plusDays(1).atStartOfDay() : null,
+                out);
+
+        boolean csv = exportFormat == OrderExportService.Format.CSV;
+        return ResponseEntity.ok()
+                .contentType(csv ? new MediaType("text", "csv", StandardCharsets.UTF_8) : MediaType.APPLICATION_NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"orders." + (csv ? "csv" : "ndjson") + "\"")
+                .body(body);
+    }
+
+    @GetMapping("/stats")
+    public ResponseEntity<?> getStats(@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                      @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        LocalDate end = to != null ? to : LocalDate.now();
+        LocalDate start = from != null ? from : end.minusDays(29);
+        if (start.isAfter(end) || start.plusDays(MAX_STATS_DAYS).isBefore(end)) {
+            return ResponseEntity.badRequest().body(error("Invalid date range"));
+        }
+        return ResponseEntity.ok(orderStatsService.snapshot(start, end));
+    }
+
+    @GetMapping("/stats/customers/{customerId}")
+    public ResponseEntity<?> getCustomerStats(@PathVariable Long customerId) {
+        if (!userRepository.existsById(customerId)) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error("Customer not found"));
+        }
+        return ResponseEntity.ok(orderRepository.findCustomerStats(customerId,
+                EnumSet.of(OrderStatus.DELIVERED, OrderStatus.CANCELLED)));
+    }
+
+    @PostMapping("/stats/rebuild")
+    public ResponseEntity<?> rebuildStats() {
+        orderStatsService.rebuild();
+        return ResponseEntity.ok(orderStatsService.snapshot(LocalDate.now().minusDays(29), LocalDate.now()));
+    }
+
+    @PostMapping
+    public ResponseEntity<?> createOrder(@Valid @RequestBody OrderRequest request,
+                                         @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey) {
+        return idempotencyService.execute("orders", idempotencyKey, request, () -> insertOrder(request));
+    }
+
+    private ResponseEntity<?> insertOrder(OrderRequest request) {
+        String invalid = validate(request);
+        if (invalid != null) {
+            return ResponseEntity.badRequest().body(error(invalid));
         }
 
         Optional<User> customerOpt = userRepository.findById(request.getCustomerId());
@@ -58,26 +217,56 @@ public class OrderController {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error("Customer not found"));
         }
 
-        LaundryOrder order = new LaundryOrder();
-        order.setCustomer(customerOpt.get());
-        order.setServiceType(request.getServiceType());
-        order.setQuantity(request.getQuantity());
-        order.setUnit(request.getUnit());
-        order.setPrice(request.getPrice());
-        order.setPickupDate(request.getPickupDate());
-        order.setDeliveryDate(request.getDeliveryDate());
-        order.setNotes(request.getNotes());
+        LaundryOrder saved = orderImportService.saveAll(List.of(toOrder(request, customerOpt.get()))).get(0);
+        reconciliationService.recordOrdersCreated(List.of(saved));
+        searchService.indexOrder(saved);
+        pipelineService.expand(List.of(saved));
+        deadlineAlertService.orderChanged(saved);
+        return ResponseEntity.status(HttpStatus.CREATED).body(OrderResponse.from(saved));
+    }
 
-        if (request.getStatus() != null) {
-            try {
-                order.setStatus(OrderStatus.valueOf(request.getStatus()));
-            } catch (IllegalArgumentException ex) {
-                return ResponseEntity.badRequest().body(error("Invalid order status"));
+    @PostMapping("/bulk")
+    public ResponseEntity<?> createOrders(@Valid @RequestBody BulkOrderRequest request) {
+        List<OrderRequest> rows = request.getOrders();
+        Set<Long> customerIds = rows.stream().map(OrderRequest::getCustomerId).collect(Collectors.toSet());
+        Map<Long, User> customers = userRepository.findAllById(customerIds).stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+
+        List<Map<String, Object>> rowErrors = new ArrayList<>();
+        List<LaundryOrder> orders = new ArrayList<>(rows.size());
+        for (int i = 0; i < rows.size(); i++) {
+            OrderRequest row = rows.get(i);
+            String invalid = validate(row);
+            User customer = customers.get(row.getCustomerId());
+            if (invalid == null && customer == null) {
+                invalid = "Customer not found";
+            }
+            if (invalid != null) {
+                Map<String, Object> rowError = new HashMap<>();
+                rowError.put("index", i);
+                rowError.put("error", invalid);
+                rowErrors.add(rowError);
+            } else {
+                orders.add(toOrder(row, customer));
             }
         }
 
-        LaundryOrder saved = orderRepository.save(order);
-        return ResponseEntity.status(HttpStatus.CREATED).body(OrderResponse.from(saved));
+        if (!rowErrors.isEmpty()) {
+            Map<String, Object> body = new HashMap<>();
+            body.put("error", "Invalid orders in batch");
+            body.put("rows", rowErrors);
+            return ResponseEntity.badRequest().body(body);
+        }
+
+        List<LaundryOrder> saved = orderImportService.saveAll(orders);
+        reconciliationService.recordOrdersCreated(saved);
+        searchService.indexOrders(saved);
+        pipelineService.expand(saved);
+        saved.forEach(deadlineAlertService::orderChanged);
+        List<OrderResponse> created = saved.stream()
+                .map(OrderResponse::from)
+                .collect(Collectors.toList());
+        return ResponseEntity.status(HttpStatus.CREATED).body(created);
     }
 
     @PatchMapping("/{id}/status")
@@ -86,26 +275,105 @@ public class OrderController {
         if (orderOpt.isEmpty()) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error("Order not found"));
         }
+        OrderStatus status;
+        try {
+            status = OrderStatus.valueOf(value);
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity.badRequest().body(error("Invalid order status"));
+        }
+        OrderStatus current = orderOpt.get().getStatus();
+        if (!current.canTransitionTo(status)) {
+            return ResponseEntity.badRequest().body(error("Cannot move order from " + current + " to " + status));
+        }
+        Optional<LaundryOrder> savedOpt = orderStatusService.changeStatus(id, current, status);
+        if (savedOpt.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(error("Order was changed by another request"));
+        }
+        LaundryOrder saved = savedOpt.get();
+        pipelineService.closeOrders(List.of(saved.getId()), status).forEach(deadlineAlertService::taskChanged);
+        deadlineAlertService.orderChanged(saved);
+        return ResponseEntity.ok(OrderResponse.from(saved));
+    }
+
+    @PatchMapping("/status")
+    public ResponseEntity<?> updateStatuses(@Valid @RequestBody BulkStatusRequest request) {
+        OrderStatus from;
+        OrderStatus to;
         try {
-            OrderStatus status = OrderStatus.valueOf(value);
-            LaundryOrder order = orderOpt.get();
-            order.setStatus(status);
-            LaundryOrder saved = orderRepository.save(order);
-            return ResponseEntity.ok(OrderResponse.from(saved));
+            from = OrderStatus.valueOf(request.getFrom());
+            to = OrderStatus.valueOf(request.getTo());
         } catch (IllegalArgumentException ex) {
             return ResponseEntity.badRequest().body(error("Invalid order status"));
         }
+        if (!from.canTransitionTo(to)) {
+            return ResponseEntity.badRequest().body(error("Cannot move orders from " + from + " to " + to));
+        }
+        BulkStatusResponse result = orderStatusService.transition(request.getIds(), from, to);
+        pipelineService.closeOrders(result.getUpdated(), to).forEach(deadlineAlertService::taskChanged);
+        deadlineAlertService.ordersChanged(result.getUpdated(), to);
+        return ResponseEntity.ok(result);
     }
 
     @DeleteMapping("/{id}")
     public ResponseEntity<?> deleteOrder(@PathVariable Long id) {
-        if (!orderRepository.existsById(id)) {
+        Optional<LaundryOrder> orderOpt = orderRepository.findById(id);
+        if (orderOpt.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error("Order not found"));
+        }
+        if (!orderStatusService.delete(id)) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error("Order not found"));
         }
-        orderRepository.deleteById(id);
+        reconciliationService.recordOrderDeleted(id);
+        searchService.removeOrder(id);
+        deadlineAlertService.orderDeleted(id);
         return ResponseEntity.noContent().build();
     }
 
+    private String validate(OrderRequest request) {
+        if (!catalogService.isValidService(request.getServiceType())) {
+            return "Invalid service type";
+        }
+        if (!catalogService.isValidUnit(request.getUnit())) {
+            return "Invalid unit";
+        }
+        if (request.getStatus() != null) {
+            try {
+                OrderStatus.valueOf(request.getStatus());
+            } catch (IllegalArgumentException ex) {
+                return "Invalid order status";
+            }
+        }
+        return null;
+    }
+
+    private LaundryOrder toOrder(OrderRequest request, User customer) {
+        LaundryOrder order = new LaundryOrder();
+        order.setCustomer(customer);
+        order.setServiceType(request.getServiceType());
+        order.setQuantity(request.getQuantity());
+        order.setUnit(request.getUnit());
+        order.setPrice(request.getPrice());
+        order.setPickupDate(request.getPickupDate());
+        order.setDeliveryDate(request.getDeliveryDate());
+        order.setNotes(request.getNotes());
+        if (request.getStatus() != null) {
+            order.setStatus(OrderStatus.valueOf(request.getStatus()));
+        }
+        return order;
+    }
+
+    private ResponseEntity<StreamingResponseBody> exportError(String message) {
+        // The streaming return type cannot carry the usual error map, so write it by hand.
+        byte[] json = ("{\"error\":\"" + message + "\"}").getBytes(StandardCharsets.UTF_8);
+        return ResponseEntity.badRequest()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(out -> out.write(json));
+    }
+
+    private OrderStatus parseStatusFilter(String value) {
+        return value == null || value.isBlank() ? null : OrderStatus.valueOf(value);
+    }
+
     private Map<String, String> error(String message) {
         Map<String, String> error = new HashMap<>();
         error.put("error", message);
@@ -1,12 +1,19 @@
 package com.laundry.lms.controller;
 
+import com.laundry.lms.dto.PaymentEventResponse;
+import com.laundry.lms.dto.PaymentReplayResponse;
 import com.laundry.lms.dto.PaymentRequest;
 import com.laundry.lms.dto.PaymentResponse;
+import com.laundry.lms.dto.PaymentSweepStats;
 import com.laundry.lms.model.LaundryOrder;
 import com.laundry.lms.model.Payment;
 import com.laundry.lms.model.PaymentStatus;
 import com.laundry.lms.repository.LaundryOrderRepository;
 import com.laundry.lms.repository.PaymentRepository;
+import com.laundry.lms.service.IdempotencyService;
+import com.laundry.lms.service.PaymentJournalService;
+import com.laundry.lms.service.PaymentService;
+import com.laundry.lms.service.PaymentSweepService;
 import jakarta.validation.Valid;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -16,7 +23,6 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
-import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/payments")
@@ -25,21 +31,37 @@ public class PaymentController {
 
     private final PaymentRepository paymentRepository;
     private final LaundryOrderRepository orderRepository;
+    private final IdempotencyService idempotencyService;
+    private final PaymentService paymentService;
+    private final PaymentJournalService journalService;
+    private final PaymentSweepService sweepService;
 
-    public PaymentController(PaymentRepository paymentRepository, LaundryOrderRepository orderRepository) {
+    public PaymentController(PaymentRepository paymentRepository,
+                             LaundryOrderRepository orderRepository,
+                             IdempotencyService idempotencyService,
+                             PaymentService paymentService,
+                             PaymentJournalService journalService,
+                             PaymentSweepService sweepService) {
         this.paymentRepository = paymentRepository;
         this.orderRepository = orderRepository;
+        this.idempotencyService = idempotencyService;
+        this.paymentService = paymentService;
+        this.journalService = journalService;
+        this.sweepService = sweepService;
     }
 
     @GetMapping
     public List<PaymentResponse> getPayments() {
-        return paymentRepository.findAll().stream()
-                .map(PaymentResponse::from)
-                .collect(Collectors.toList());
+        return paymentRepository.findAllResponses();
     }
 
     @PostMapping
-    public ResponseEntity<?> createPayment(@Valid @RequestBody PaymentRequest request) {
+    public ResponseEntity<?> createPayment(@Valid @RequestBody PaymentRequest request,
+                                           @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey) {
+        return idempotencyService.execute("payments", idempotencyKey, request, () -> insertPayment(request));
+    }
+
+    private ResponseEntity<?> insertPayment(PaymentRequest request) {
         Optional<LaundryOrder> orderOpt = orderRepository.findById(request.getOrderId());
         if (orderOpt.isEmpty()) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error("Order not found"));
@@ -59,36 +81,86 @@ public class PaymentController {
             }
         }
 
-        Payment saved = paymentRepository.save(payment);
+        Payment saved = paymentService.create(payment);
         return ResponseEntity.status(HttpStatus.CREATED).body(PaymentResponse.from(saved));
     }
 
+    /**
+     * Moves a payment along {@link PaymentStatus#nextStatuses()}. The change only applies if the
+     * payment is still in the status read here: a move the current status does not allow gives 400,
+     * and losing the race to a concurrent edit gives 409.
+     */
     @PatchMapping("/{id}/status")
     public ResponseEntity<?> updateStatus(@PathVariable Long id, @RequestParam("value") String value) {
+        PaymentStatus next;
+        try {
+            next = PaymentStatus.valueOf(value);
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity.badRequest().body(error("Invalid payment status"));
+        }
         Optional<Payment> paymentOpt = paymentRepository.findById(id);
         if (paymentOpt.isEmpty()) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error("Payment not found"));
         }
-        try {
-            PaymentStatus status = PaymentStatus.valueOf(value);
-            Payment payment = paymentOpt.get();
-            payment.setStatus(status);
-            Payment saved = paymentRepository.save(payment);
-            return ResponseEntity.ok(PaymentResponse.from(saved));
-        } catch (IllegalArgumentException ex) {
-            return ResponseEntity.badRequest().body(error("Invalid payment status"));
+        PaymentStatus current = paymentOpt.get().getStatus();
+        if (!current.canTransitionTo(next)) {
+            return ResponseEntity.badRequest().body(error("Cannot move payment from " + current + " to " + next));
         }
+        return paymentService.changeStatus(id, current, next)
+                .<ResponseEntity<?>>map(saved -> ResponseEntity.ok(PaymentResponse.from(saved)))
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.CONFLICT).body(error("Payment was changed by another request")));
     }
 
     @DeleteMapping("/{id}")
     public ResponseEntity<?> deletePayment(@PathVariable Long id) {
-        if (!paymentRepository.existsById(id)) {
+        Optional<Payment> paymentOpt = paymentRepository.findWithOrderById(id);
+        if (paymentOpt.isEmpty()) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error("Payment not found"));
         }
-        paymentRepository.deleteById(id);
+        if (!paymentService.delete(paymentOpt.get())) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(error("Payment was changed by another request"));
+        }
         return ResponseEntity.noContent().build();
     }
 
+    /**
+     * Every journaled change to the payment, oldest first. Still available after the payment is deleted.
+     */
+    @GetMapping("/{id}/history")
+    public ResponseEntity<?> getHistory(@PathVariable Long id) {
+        List<PaymentEventResponse> events = journalService.history(id).stream()
+                .map(PaymentEventResponse::from)
+                .toList();
+        if (events.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error("Payment not found"));
+        }
+        return ResponseEntity.ok(events);
+    }
+
+    /**
+     * Rebuilds order balances and revenue rollups from the journal alone.
+     */
+    @PostMapping("/journal/replay")
+    public PaymentReplayResponse replayJournal() {
+        return journalService.replay();
+    }
+
+    /**
+     * Runs the stale-payment sweep now instead of waiting for its schedule.
+     */
+    @PostMapping("/sweep")
+    public Map<String, Object> sweep() {
+        int expired = sweepService.sweep();
+        Map<String, Object> result = new HashMap<>();
+        result.put("expired", expired);
+        return result;
+    }
+
+    @GetMapping("/sweep/stats")
+    public PaymentSweepStats sweepStats() {
+        return sweepService.stats();
+    }
+
     private Map<String, String> error(String message) {
         Map<String, String> error = new HashMap<>();
         error.put("error", message);
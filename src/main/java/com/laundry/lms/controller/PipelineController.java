@@ -0,0 +1,85 @@
+package com.laundry.lms.controller;
+
+import com.laundry.lms.dto.OrderForecastResponse;
+import com.laundry.lms.dto.StageMetricsResponse;
+import com.laundry.lms.dto.TaskResponse;
+import com.laundry.lms.model.LaundryOrder;
+import com.laundry.lms.repository.LaundryOrderRepository;
+import com.laundry.lms.service.ProductionPipelineService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+@RestController
+@RequestMapping("/api/pipeline")
+@CrossOrigin("*")
+public class PipelineController {
+
+    private static final int MAX_AT_RISK = 200;
+
+    private final ProductionPipelineService pipelineService;
+    private final LaundryOrderRepository orderRepository;
+
+    public PipelineController(ProductionPipelineService pipelineService,
+                              LaundryOrderRepository orderRepository) {
+        this.pipelineService = pipelineService;
+        this.orderRepository = orderRepository;
+    }
+
+    /**
+     * Simulated completion of every open order against stage capacity, with the {@code limit} orders
+     * closest to (or past) their delivery promise.
+     */
+    @GetMapping("/forecast")
+    public ResponseEntity<?> getForecast(@RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(pipelineService.forecast(Math.max(0, Math.min(limit, MAX_AT_RISK))));
+    }
+
+    @GetMapping("/orders/{id}")
+    public ResponseEntity<?> getOrderForecast(@PathVariable Long id) {
+        Optional<OrderForecastResponse> forecast = pipelineService.forecastFor(id);
+        if (forecast.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error("No open order with that id"));
+        }
+        return ResponseEntity.ok(forecast.get());
+    }
+
+    @GetMapping("/stages")
+    public List<StageMetricsResponse> getStages() {
+        return pipelineService.stages();
+    }
+
+    /**
+     * Creates the stage tasks an order is missing; a no-op for orders already expanded or closed.
+     */
+    @PostMapping("/orders/{id}/expand")
+    public ResponseEntity<?> expandOrder(@PathVariable Long id) {
+        Optional<LaundryOrder> orderOpt = orderRepository.findById(id);
+        if (orderOpt.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error("Order not found"));
+        }
+        List<TaskResponse> created = pipelineService.expand(List.of(orderOpt.get())).stream()
+                .map(TaskResponse::from)
+                .collect(Collectors.toList());
+        return ResponseEntity.ok(created);
+    }
+
+    @PostMapping("/expand")
+    public Map<String, Object> expandOpenOrders() {
+        Map<String, Object> result = new HashMap<>();
+        result.put("created", pipelineService.expandOpenOrders());
+        return result;
+    }
+
+    private Map<String, String> error(String message) {
+        Map<String, String> error = new HashMap<>();
+        error.put("error", message);
+        return error;
+    }
+}
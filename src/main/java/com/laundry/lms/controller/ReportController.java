@@ -0,0 +1,65 @@
+package com.laundry.lms.controller;
+
+import com.laundry.lms.service.RevenueReportService;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/reports")
+@CrossOrigin("*")
+public class ReportController {
+
+    private static final long MAX_RANGE_DAYS = 3 * 366;
+
+    private final RevenueReportService revenueReportService;
+
+    public ReportController(RevenueReportService revenueReportService) {
+        this.revenueReportService = revenueReportService;
+    }
+
+    /**
+     * Completed-payment revenue per period, service type and payment method. Defaults to the last
+     * 30 days by day.
+     */
+    @GetMapping("/revenue")
+    public ResponseEntity<?> getRevenue(@RequestParam(value = "granularity", defaultValue = "DAY") String granularity,
+                                        @RequestParam(value = "from", required = false)
+                                        @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                        @RequestParam(value = "to", required = false)
+                                        @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        RevenueReportService.Granularity parsed;
+        try {
+            parsed = RevenueReportService.Granularity.valueOf(granularity.toUpperCase());
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity.badRequest().body(error("granularity must be DAY, WEEK or MONTH"));
+        }
+        LocalDate end = to == null ? LocalDate.now() : to;
+        LocalDate start = from == null ? end.minusDays(29) : from;
+        if (start.isAfter(end)) {
+            return ResponseEntity.badRequest().body(error("from must not be after to"));
+        }
+        if (ChronoUnit.DAYS.between(start, end) > MAX_RANGE_DAYS) {
+            return ResponseEntity.badRequest().body(error("Range is limited to " + MAX_RANGE_DAYS + " days"));
+        }
+        return ResponseEntity.ok(revenueReportService.report(parsed, start, end));
+    }
+
+    @PostMapping("/revenue/rebuild")
+    public Map<String, Object> rebuildRevenue() {
+        Map<String, Object> body = new HashMap<>();
+        body.put("rows", revenueReportService.rebuild());
+        return body;
+    }
+
+    private Map<String, String> error(String message) {
+        Map<String, String> error = new HashMap<>();
+        error.put("error", message);
+        return error;
+    }
+}
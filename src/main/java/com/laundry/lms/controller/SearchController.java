@@ -0,0 +1,65 @@
+package com.laundry.lms.controller;
+
+import com.laundry.lms.model.SearchDocumentType;
+import com.laundry.lms.service.SearchService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/search")
+@CrossOrigin("*")
+public class SearchController {
+
+    private static final int DEFAULT_PAGE_SIZE = 20;
+    private static final int MAX_PAGE_SIZE = 50;
+    private static final int MAX_PAGE = 50;
+
+    private final SearchService searchService;
+
+    public SearchController(SearchService searchService) {
+        this.searchService = searchService;
+    }
+
+    /**
+     * Ranked hits over message bodies and order notes containing every word of {@code q}.
+     */
+    @GetMapping
+    public ResponseEntity<?> search(@RequestParam("q") String q,
+                                    @RequestParam(value = "type", required = false) String type,
+                                    @RequestParam(value = "page", defaultValue = "0") int page,
+                                    @RequestParam(value = "size", defaultValue = "" + DEFAULT_PAGE_SIZE) int size) {
+        if (q.isBlank()) {
+            return ResponseEntity.badRequest().body(error("Query is required"));
+        }
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            return ResponseEntity.badRequest().body(error("size must be between 1 and " + MAX_PAGE_SIZE));
+        }
+        if (page < 0 || page > MAX_PAGE) {
+            return ResponseEntity.badRequest().body(error("page must be between 0 and " + MAX_PAGE));
+        }
+        SearchDocumentType docType = null;
+        if (type != null && !type.isBlank()) {
+            try {
+                docType = SearchDocumentType.valueOf(type.toUpperCase());
+            } catch (IllegalArgumentException ex) {
+                return ResponseEntity.badRequest().body(error("Invalid type"));
+            }
+        }
+        return ResponseEntity.ok(searchService.search(q, docType, page, size));
+    }
+
+    @PostMapping("/rebuild")
+    public ResponseEntity<?> rebuild() {
+        searchService.rebuild();
+        return ResponseEntity.noContent().build();
+    }
+
+    private Map<String, String> error(String message) {
+        Map<String, String> error = new HashMap<>();
+        error.put("error", message);
+        return error;
+    }
+}
@@ -1,39 +1,118 @@
 package com.laundry.lms.controller;
 
+import com.laundry.lms.dto.TaskBoardResponse;
+import com.laundry.lms.dto.TaskCursor;
+import com.laundry.lms.dto.TaskPageResponse;
 import com.laundry.lms.dto.TaskRequest;
 import com.laundry.lms.dto.TaskResponse;
+import com.laundry.lms.dto.TaskWorkloadResponse;
 import com.laundry.lms.model.Task;
 import com.laundry.lms.model.TaskStatus;
 import com.laundry.lms.repository.TaskRepository;
+import com.laundry.lms.service.DeadlineAlertService;
+import com.laundry.lms.service.ProductionPipelineService;
+import com.laundry.lms.service.TaskBoardService;
+import com.laundry.lms.service.TaskDispatchService;
 import jakarta.validation.Valid;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
-import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/tasks")
 @CrossOrigin("*")
 public class TaskController {
 
+    private static final int MAX_PAGE_SIZE = 100;
+
     private final TaskRepository taskRepository;
+    private final TaskDispatchService taskDispatchService;
+    private final TaskBoardService taskBoardService;
+    private final ProductionPipelineService pipelineService;
+    private final DeadlineAlertService deadlineAlertService;
 
-    public TaskController(TaskRepository taskRepository) {
+    public TaskController(TaskRepository taskRepository,
+                          TaskDispatchService taskDispatchService,
+                          TaskBoardService taskBoardService,
+                          ProductionPipelineService pipelineService,
+                          DeadlineAlertService deadlineAlertService) {
         this.taskRepository = taskRepository;
+        this.taskDispatchService = taskDispatchService;
+        this.taskBoardService = taskBoardService;
+        this.pipelineService = pipelineService;
+        this.deadlineAlertService = deadlineAlertService;
     }
 
     @GetMapping
     public List<TaskResponse> getTasks() {
-        return taskRepository.findAll().stream()
-                .map(TaskResponse::from)
-                .collect(Collectors.toList());
+        return taskRepository.findAllResponses();
+    }
+
+    /**
+     * Per-status counts and the first page of every status column, earliest due first.
+     */
+    @GetMapping("/board")
+    public ResponseEntity<?> getBoard(@RequestParam(required = false) String assignedTo,
+                                      @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dueFrom,
+                                      @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dueTo,
+                                      @RequestParam(defaultValue = "20") int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            return ResponseEntity.badRequest().body(error("limit must be between 1 and " + MAX_PAGE_SIZE));
+        }
+        if (dueFrom != null && dueTo != null && dueFrom.isAfter(dueTo)) {
+            return ResponseEntity.badRequest().body(error("Invalid due date range"));
+        }
+        TaskBoardResponse board = taskBoardService.board(new TaskBoardService.BoardFilter(assignedTo, dueFrom, dueTo),
+                limit);
+        return ResponseEntity.ok(board);
+    }
+
+    /**
+     * Further pages of one board column; {@code cursor} is the previous page's {@code nextCursor}.
+     */
+    @GetMapping("/board/{status}")
+    public ResponseEntity<?> getBoardColumn(@PathVariable String status,
+                                            @RequestParam(required = false) String assignedTo,
+                                            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dueFrom,
+                                            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dueTo,
+                                            @RequestParam(required = false) String cursor,
+                                            @RequestParam(defaultValue = "20") int limit) {
+        TaskStatus taskStatus;
+        try {
+            taskStatus = TaskStatus.valueOf(status);
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity.badRequest().body(error("Invalid task status"));
+        }
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            return ResponseEntity.badRequest().body(error("limit must be between 1 and " + MAX_PAGE_SIZE));
+        }
+        if (dueFrom != null && dueTo != null && dueFrom.isAfter(dueTo)) {
+            return ResponseEntity.badRequest().body(error("Invalid due date range"));
+        }
+        TaskCursor after = null;
+        if (cursor != null && !cursor.isBlank()) {
+            try {
+                after = TaskCursor.decode(cursor);
+            } catch (IllegalArgumentException ex) {
+                return ResponseEntity.badRequest().body(error("Invalid cursor"));
+            }
+        }
+        TaskPageResponse page = taskBoardService.column(taskStatus,
+                new TaskBoardService.BoardFilter(assignedTo, dueFrom, dueTo), after, limit);
+        return ResponseEntity.ok(page);
     }
 
+    /**
+     * Creates a task. Leaving {@code assignedTo} blank on an open task assigns it to the least-loaded
+     * staff member.
+     */
     @PostMapping
     public ResponseEntity<?> createTask(@Valid @RequestBody TaskRequest request) {
         Task task = new Task();
@@ -51,7 +130,9 @@ public class TaskController {
             }
         }
 
-        Task saved = taskRepository.save(task);
+        Task saved = taskDispatchService.create(task);
+        taskBoardService.invalidate();
+        deadlineAlertService.taskChanged(saved);
         return ResponseEntity.status(HttpStatus.CREATED).body(TaskResponse.from(saved));
     }
 
@@ -66,6 +147,12 @@ public class TaskController {
             Task task = taskOpt.get();
             task.setStatus(status);
             Task saved = taskRepository.save(task);
+            taskDispatchService.record(saved);
+            taskBoardService.invalidate();
+            deadlineAlertService.taskChanged(saved);
+            if (saved.getStage() != null) {
+                pipelineService.invalidate();
+            }
             return ResponseEntity.ok(TaskResponse.from(saved));
         } catch (IllegalArgumentException ex) {
             return ResponseEntity.badRequest().body(error("Invalid task status"));
@@ -78,9 +165,31 @@ public class TaskController {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error("Task not found"));
         }
         taskRepository.deleteById(id);
+        taskDispatchService.recordDeleted(id);
+        taskBoardService.invalidate();
+        pipelineService.invalidate();
+        deadlineAlertService.taskDeleted(id);
         return ResponseEntity.noContent().build();
     }
 
+    @GetMapping("/workload")
+    public List<TaskWorkloadResponse> getWorkload() {
+        return taskDispatchService.workloads();
+    }
+
+    /**
+     * Spreads pending tasks evenly across staff again; tasks in progress keep their assignee.
+     */
+    @PostMapping("/rebalance")
+    public Map<String, Object> rebalance() {
+        int moved = taskDispatchService.rebalance();
+        taskBoardService.invalidate();
+        Map<String, Object> result = new HashMap<>();
+        result.put("moved", moved);
+        result.put("workload", taskDispatchService.workloads());
+        return result;
+    }
+
     private Map<String, String> error(String message) {
         Map<String, String> error = new HashMap<>();
         error.put("error", message);
@@ -0,0 +1,46 @@
+package com.laundry.lms.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public class BroadcastRequest {
+
+    @NotNull(message = "Sender is required")
+    private Long fromUserId;
+
+    @NotEmpty(message = "At least one recipient is required")
+    @Size(max = 5000, message = "A broadcast can reach at most 5000 recipients")
+    private List<@NotNull Long> toUserIds;
+
+    @NotBlank(message = "Message body is required")
+    @Size(max = 1000, message = "Message body must be at most 1000 characters")
+    private String body;
+
+    public Long getFromUserId() {
+        return fromUserId;
+    }
+
+    public void setFromUserId(Long fromUserId) {
+        this.fromUserId = fromUserId;
+    }
+
+    public List<Long> getToUserIds() {
+        return toUserIds;
+    }
+
+    public void setToUserIds(List<Long> toUserIds) {
+        this.toUserIds = toUserIds;
+    }
+
+    public String getBody() {
+        return body;
+    }
+
+    public void setBody(String body) {
+        this.body = body;
+    }
+}
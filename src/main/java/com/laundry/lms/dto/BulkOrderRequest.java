@@ -0,0 +1,22 @@
+package com.laundry.lms.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public class BulkOrderRequest {
+
+    @NotEmpty(message = "At least one order is required")
+    @Size(max = 1000, message = "At most 1000 orders per import")
+    private List<@Valid OrderRequest> orders;
+
+    public List<OrderRequest> getOrders() {
+        return orders;
+    }
+
+    public void setOrders(List<OrderRequest> orders) {
+        this.orders = orders;
+    }
+}
@@ -0,0 +1,45 @@
+package com.laundry.lms.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public class BulkStatusRequest {
+
+    @NotEmpty(message = "At least one id is required")
+    @Size(max = 1000, message = "At most 1000 ids per request")
+    private List<@NotNull Long> ids;
+
+    @NotBlank(message = "Expected status is required")
+    private String from;
+
+    @NotBlank(message = "Target status is required")
+    private String to;
+
+    public List<Long> getIds() {
+        return ids;
+    }
+
+    public void setIds(List<Long> ids) {
+        this.ids = ids;
+    }
+
+    public String getFrom() {
+        return from;
+    }
+
+    public void setFrom(String from) {
+        this.from = from;
+    }
+
+    public String getTo() {
+        return to;
+    }
+
+    public void setTo(String to) {
+        this.to = to;
+    }
+}
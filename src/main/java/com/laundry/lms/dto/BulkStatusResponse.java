@@ -0,0 +1,55 @@
+package com.laundry.lms.dto;
+
+import com.laundry.lms.model.OrderStatus;
+
+import java.util.List;
+
+public class BulkStatusResponse {
+
+    private OrderStatus from;
+    private OrderStatus to;
+    private List<Long> updated;
+    private List<Long> skipped;
+
+    public BulkStatusResponse() {
+    }
+
+    public BulkStatusResponse(OrderStatus from, OrderStatus to, List<Long> updated, List<Long> skipped) {
+        this.from = from;
+        this.to = to;
+        this.updated = updated;
+        this.skipped = skipped;
+    }
+
+    public OrderStatus getFrom() {
+        return from;
+    }
+
+    public void setFrom(OrderStatus from) {
+        this.from = from;
+    }
+
+    public OrderStatus getTo() {
+        return to;
+    }
+
+    public void setTo(OrderStatus to) {
+        this.to = to;
+    }
+
+    public List<Long> getUpdated() {
+        return updated;
+    }
+
+    public void setUpdated(List<Long> updated) {
+        this.updated = updated;
+    }
+
+    public List<Long> getSkipped() {
+        return skipped;
+    }
+
+    public void setSkipped(List<Long> skipped) {
+        this.skipped = skipped;
+    }
+}
@@ -0,0 +1,85 @@
+package com.laundry.lms.dto;
+
+import com.laundry.lms.model.CatalogEntry;
+import com.laundry.lms.model.CatalogEntryType;
+
+import java.math.BigDecimal;
+
+public class CatalogEntryResponse {
+
+    private Long id;
+    private CatalogEntryType type;
+    private String name;
+    private BigDecimal basePrice;
+    private String defaultUnit;
+    private boolean active;
+    private int sortOrder;
+
+    public static CatalogEntryResponse from(CatalogEntry entry) {
+        CatalogEntryResponse response = new CatalogEntryResponse();
+        response.setId(entry.getId());
+        response.setType(entry.getType());
+        response.setName(entry.getName());
+        response.setBasePrice(entry.getBasePrice());
+        response.setDefaultUnit(entry.getDefaultUnit());
+        response.setActive(entry.isActive());
+        response.setSortOrder(entry.getSortOrder());
+        return response;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public CatalogEntryType getType() {
+        return type;
+    }
+
+    public void setType(CatalogEntryType type) {
+        this.type = type;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public BigDecimal getBasePrice() {
+        return basePrice;
+    }
+
+    public void setBasePrice(BigDecimal basePrice) {
+        this.basePrice = basePrice;
+    }
+
+    public String getDefaultUnit() {
+        return defaultUnit;
+    }
+
+    public void setDefaultUnit(String defaultUnit) {
+        this.defaultUnit = defaultUnit;
+    }
+
+    public boolean isActive() {
+        return active;
+    }
+
+    public void setActive(boolean active) {
+        this.active = active;
+    }
+
+    public int getSortOrder() {
+        return sortOrder;
+    }
+
+    public void setSortOrder(int sortOrder) {
+        this.sortOrder = sortOrder;
+    }
+}
@@ -0,0 +1,84 @@
+package com.laundry.lms.dto;
+
+import java.math.BigDecimal;
+
+public class CustomerBalanceResponse {
+
+    private Long customerId;
+    private String customerName;
+    private long orderCount;
+    private BigDecimal amountDue;
+    private BigDecimal amountPaid;
+    private BigDecimal amountPending;
+    private BigDecimal outstanding;
+
+    public CustomerBalanceResponse() {
+    }
+
+    public CustomerBalanceResponse(Long customerId, String customerName, long orderCount, BigDecimal amountDue,
+                                   BigDecimal amountPaid, BigDecimal amountPending, BigDecimal outstanding) {
+        this.customerId = customerId;
+        this.customerName = customerName;
+        this.orderCount = orderCount;
+        this.amountDue = amountDue;
+        this.amountPaid = amountPaid;
+        this.amountPending = amountPending;
+        this.outstanding = outstanding;
+    }
+
+    public Long getCustomerId() {
+        return customerId;
+    }
+
+    public void setCustomerId(Long customerId) {
+        this.customerId = customerId;
+    }
+
+    public String getCustomerName() {
+        return customerName;
+    }
+
+    public void setCustomerName(String customerName) {
+        this.customerName = customerName;
+    }
+
+    public long getOrderCount() {
+        return orderCount;
+    }
+
+    public void setOrderCount(long orderCount) {
+        this.orderCount = orderCount;
+    }
+
+    public BigDecimal getAmountDue() {
+        return amountDue;
+    }
+
+    public void setAmountDue(BigDecimal amountDue) {
+        this.amountDue = amountDue;
+    }
+
+    public BigDecimal getAmountPaid() {
+        return amountPaid;
+    }
+
+    public void setAmountPaid(BigDecimal amountPaid) {
+        this.amountPaid = amountPaid;
+    }
+
+    public BigDecimal getAmountPending() {
+        return amountPending;
+    }
+
+    public void setAmountPending(BigDecimal amountPending) {
+        this.amountPending = amountPending;
+    }
+
+    public BigDecimal getOutstanding() {
+        return outstanding;
+    }
+
+    public void setOutstanding(BigDecimal outstanding) {
+        this.outstanding = outstanding;
+    }
+}
@@ -0,0 +1,44 @@
+package com.laundry.lms.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+public class CustomerOrderStatsResponse {
+
+    private long activeOrders;
+    private BigDecimal totalSpent;
+    private LocalDate lastPickup;
+
+    public CustomerOrderStatsResponse() {
+    }
+
+    public CustomerOrderStatsResponse(Long activeOrders, BigDecimal totalSpent, LocalDate lastPickup) {
+        this.activeOrders = activeOrders != null ? activeOrders : 0;
+        this.totalSpent = totalSpent != null ? totalSpent : BigDecimal.ZERO;
+        this.lastPickup = lastPickup;
+    }
+
+    public long getActiveOrders() {
+        return activeOrders;
+    }
+
+    public void setActiveOrders(long activeOrders) {
+        this.activeOrders = activeOrders;
+    }
+
+    public BigDecimal getTotalSpent() {
+        return totalSpent;
+    }
+
+    public void setTotalSpent(BigDecimal totalSpent) {
+        this.totalSpent = totalSpent;
+    }
+
+    public LocalDate getLastPickup() {
+        return lastPickup;
+    }
+
+    public void setLastPickup(LocalDate lastPickup) {
+        this.lastPickup = lastPickup;
+    }
+}
@@ -0,0 +1,53 @@
+package com.laundry.lms.dto;
+
+import java.time.LocalDateTime;
+
+public class DeadlineAlertStats {
+
+    private final int pending;
+    private final int capacity;
+    private final long fired;
+    private final long dropped;
+    private final long undelivered;
+    private final LocalDateTime lastFiredAt;
+    private final String lead;
+
+    public DeadlineAlertStats(int pending, int capacity, long fired, long dropped, long undelivered,
+                              LocalDateTime lastFiredAt, String lead) {
+        this.pending = pending;
+        this.capacity = capacity;
+        this.fired = fired;
+        this.dropped = dropped;
+        this.undelivered = undelivered;
+        this.lastFiredAt = lastFiredAt;
+        this.lead = lead;
+    }
+
+    public int getPending() {
+        return pending;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public long getFired() {
+        return fired;
+    }
+
+    public long getDropped() {
+        return dropped;
+    }
+
+    public long getUndelivered() {
+        return undelivered;
+    }
+
+    public LocalDateTime getLastFiredAt() {
+        return lastFiredAt;
+    }
+
+    public String getLead() {
+        return lead;
+    }
+}
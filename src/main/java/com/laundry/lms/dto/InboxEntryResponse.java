@@ -0,0 +1,88 @@
+package com.laundry.lms.dto;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+public class InboxEntryResponse {
+
+    private Long counterpartId;
+    private String counterpartName;
+    private Long lastMessageId;
+    private Long lastFromUserId;
+    private String lastBody;
+    private LocalDateTime lastTimestamp;
+    private long unreadCount;
+
+    /**
+     * Maps a row of {@code MessageRepository.findInboxRows}.
+     */
+    public static InboxEntryResponse fromRow(Object[] row) {
+        InboxEntryResponse response = new InboxEntryResponse();
+        response.setCounterpartId(((Number) row[0]).longValue());
+        response.setCounterpartName((String) row[1]);
+        response.setLastMessageId(((Number) row[2]).longValue());
+        response.setLastFromUserId(((Number) row[3]).longValue());
+        response.setLastBody((String) row[4]);
+        response.setLastTimestamp(row[5] instanceof Timestamp timestamp
+                ? timestamp.toLocalDateTime()
+                : (LocalDateTime) row[5]);
+        response.setUnreadCount(row[6] == null ? 0 : ((Number) row[6]).longValue());
+        return response;
+    }
+
+    public Long getCounterpartId() {
+        return counterpartId;
+    }
+
+    public void setCounterpartId(Long counterpartId) {
+        this.counterpartId = counterpartId;
+    }
+
+    public String getCounterpartName() {
+        return counterpartName;
+    }
+
+    public void setCounterpartName(String counterpartName) {
+        this.counterpartName = counterpartName;
+    }
+
+    public Long getLastMessageId() {
+        return lastMessageId;
+    }
+
+    public void setLastMessageId(Long lastMessageId) {
+        this.lastMessageId = lastMessageId;
+    }
+
+    public Long getLastFromUserId() {
+        return lastFromUserId;
+    }
+
+    public void setLastFromUserId(Long lastFromUserId) {
+        this.lastFromUserId = lastFromUserId;
+    }
+
+    public String getLastBody() {
+        return lastBody;
+    }
+
+    public void setLastBody(String lastBody) {
+        this.lastBody = lastBody;
+    }
+
+    public LocalDateTime getLastTimestamp() {
+        return lastTimestamp;
+    }
+
+    public void setLastTimestamp(LocalDateTime lastTimestamp) {
+        this.lastTimestamp = lastTimestamp;
+    }
+
+    public long getUnreadCount() {
+        return unreadCount;
+    }
+
+    public void setUnreadCount(long unreadCount) {
+        this.unreadCount = unreadCount;
+    }
+}
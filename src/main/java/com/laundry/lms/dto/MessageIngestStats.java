@@ -0,0 +1,76 @@
+package com.laundry.lms.dto;
+
+public class MessageIngestStats {
+
+    private final int queueDepth;
+    private final int capacity;
+    private final long oldestPendingMillis;
+    private final long accepted;
+    private final long rejected;
+    private final long persisted;
+    private final long failed;
+    private final long batches;
+    private final long lastBatchSize;
+    private final long lastFlushMillis;
+    private final String deliveryGuarantee;
+
+    public MessageIngestStats(int queueDepth, int capacity, long oldestPendingMillis, long accepted, long rejected,
+                              long persisted, long failed, long batches, long lastBatchSize, long lastFlushMillis,
+                              String deliveryGuarantee) {
+        this.queueDepth = queueDepth;
+        this.capacity = capacity;
+        this.oldestPendingMillis = oldestPendingMillis;
+        this.accepted = accepted;
+        this.rejected = rejected;
+        this.persisted = persisted;
+        this.failed = failed;
+        this.batches = batches;
+        this.lastBatchSize = lastBatchSize;
+        this.lastFlushMillis = lastFlushMillis;
+        this.deliveryGuarantee = deliveryGuarantee;
+    }
+
+    public int getQueueDepth() {
+        return queueDepth;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public long getOldestPendingMillis() {
+        return oldestPendingMillis;
+    }
+
+    public long getAccepted() {
+        return accepted;
+    }
+
+    public long getRejected() {
+        return rejected;
+    }
+
+    public long getPersisted() {
+        return persisted;
+    }
+
+    public long getFailed() {
+        return failed;
+    }
+
+    public long getBatches() {
+        return batches;
+    }
+
+    public long getLastBatchSize() {
+        return lastBatchSize;
+    }
+
+    public long getLastFlushMillis() {
+        return lastFlushMillis;
+    }
+
+    public String getDeliveryGuarantee() {
+        return deliveryGuarantee;
+    }
+}
@@ -2,6 +2,7 @@ package com.laundry.lms.dto;
 
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
 
 public class MessageRequest {
 
@@ -12,6 +13,7 @@ public class MessageRequest {
     private Long toUserId;
 
     @NotBlank(message = "Message body is required")
+    @Size(max = 1000, message = "Message body must be at most 1000 characters")
     private String body;
 
     public Long getFromUserId() {
@@ -12,6 +12,17 @@ public class MessageResponse {
     private String body;
     private LocalDateTime timestamp;
 
+    public MessageResponse() {
+    }
+
+    public MessageResponse(Long id, Long fromUserId, Long toUserId, String body, LocalDateTime timestamp) {
+        this.id = id;
+        this.fromUserId = fromUserId;
+        this.toUserId = toUserId;
+        this.body = body;
+        this.timestamp = timestamp;
+    }
+
     public static MessageResponse from(Message message) {
         MessageResponse response = new MessageResponse();
         response.setId(message.getId());
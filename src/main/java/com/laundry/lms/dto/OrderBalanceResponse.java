@@ -0,0 +1,88 @@
+package com.laundry.lms.dto;
+
+import com.laundry.lms.model.OrderBalance;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+public class OrderBalanceResponse {
+
+    private Long orderId;
+    private Long customerId;
+    private BigDecimal amountDue;
+    private BigDecimal amountPaid;
+    private BigDecimal amountPending;
+    private BigDecimal outstanding;
+    private LocalDateTime updatedAt;
+
+    public OrderBalanceResponse() {
+    }
+
+    public static OrderBalanceResponse from(OrderBalance balance) {
+        OrderBalanceResponse response = new OrderBalanceResponse();
+        response.setOrderId(balance.getOrderId());
+        response.setCustomerId(balance.getCustomerId());
+        response.setAmountDue(balance.getAmountDue());
+        response.setAmountPaid(balance.getAmountPaid());
+        response.setAmountPending(balance.getAmountPending());
+        response.setOutstanding(balance.getOutstanding());
+        response.setUpdatedAt(balance.getUpdatedAt());
+        return response;
+    }
+
+    public Long getOrderId() {
+        return orderId;
+    }
+
+    public void setOrderId(Long orderId) {
+        this.orderId = orderId;
+    }
+
+    public Long getCustomerId() {
+        return customerId;
+    }
+
+    public void setCustomerId(Long customerId) {
+        this.customerId = customerId;
+    }
+
+    public BigDecimal getAmountDue() {
+        return amountDue;
+    }
+
+    public void setAmountDue(BigDecimal amountDue) {
+        this.amountDue = amountDue;
+    }
+
+    public BigDecimal getAmountPaid() {
+        return amountPaid;
+    }
+
+    public void setAmountPaid(BigDecimal amountPaid) {
+        this.amountPaid = amountPaid;
+    }
+
+    public BigDecimal getAmountPending() {
+        return amountPending;
+    }
+
+    public void setAmountPending(BigDecimal amountPending) {
+        this.amountPending = amountPending;
+    }
+
+    public BigDecimal getOutstanding() {
+        return outstanding;
+    }
+
+    public void setOutstanding(BigDecimal outstanding) {
+        this.outstanding = outstanding;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
@@ -0,0 +1,29 @@
+package com.laundry.lms.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+/**
+ * Opaque keyset cursor over (createdAt, id). Clients only ever echo the encoded value back.
+ */
+public record OrderCursor(LocalDateTime createdAt, Long id) {
+
+    public String encode() {
+        String raw = createdAt + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static OrderCursor decode(String value) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(value), StandardCharsets.UTF_8);
+            int sep = raw.indexOf('|');
+            if (sep < 0) {
+                throw new IllegalArgumentException("Malformed cursor");
+            }
+            return new OrderCursor(LocalDateTime.parse(raw.substring(0, sep)), Long.parseLong(raw.substring(sep + 1)));
+        } catch (RuntimeException ex) {
+            throw new IllegalArgumentException("Invalid cursor", ex);
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.laundry.lms.dto;
+
+import com.laundry.lms.model.ProductionStage;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public class OrderForecastResponse {
+
+    private Long orderId;
+    private String serviceType;
+    private List<ProductionStage> remainingStages;
+    private LocalDateTime promisedBy;
+    private LocalDateTime completesAt;
+    private boolean late;
+    private Long slackMinutes;
+
+    public OrderForecastResponse() {
+    }
+
+    public OrderForecastResponse(Long orderId, String serviceType, List<ProductionStage> remainingStages,
+                                 LocalDateTime promisedBy, LocalDateTime completesAt, boolean late, Long slackMinutes) {
+        this.orderId = orderId;
+        this.serviceType = serviceType;
+        this.remainingStages = remainingStages;
+        this.promisedBy = promisedBy;
+        this.completesAt = completesAt;
+        this.late = late;
+        this.slackMinutes = slackMinutes;
+    }
+
+    public Long getOrderId() {
+        return orderId;
+    }
+
+    public void setOrderId(Long orderId) {
+        this.orderId = orderId;
+    }
+
+    public String getServiceType() {
+        return serviceType;
+    }
+
+    public void setServiceType(String serviceType) {
+        this.serviceType = serviceType;
+    }
+
+    public List<ProductionStage> getRemainingStages() {
+        return remainingStages;
+    }
+
+    public void setRemainingStages(List<ProductionStage> remainingStages) {
+        this.remainingStages = remainingStages;
+    }
+
+    public LocalDateTime getPromisedBy() {
+        return promisedBy;
+    }
+
+    public void setPromisedBy(LocalDateTime promisedBy) {
+        this.promisedBy = promisedBy;
+    }
+
+    public LocalDateTime getCompletesAt() {
+        return completesAt;
+    }
+
+    public void setCompletesAt(LocalDateTime completesAt) {
+        this.completesAt = completesAt;
+    }
+
+    public boolean isLate() {
+        return late;
+    }
+
+    public void setLate(boolean late) {
+        this.late = late;
+    }
+
+    public Long getSlackMinutes() {
+        return slackMinutes;
+    }
+
+    public void setSlackMinutes(Long slackMinutes) {
+        this.slackMinutes = slackMinutes;
+    }
+}
@@ -5,6 +5,8 @@ import com.laundry.lms.model.OrderStatus;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Set;
 
 public class OrderResponse {
 
@@ -19,6 +21,27 @@ public class OrderResponse {
     private LocalDate pickupDate;
     private LocalDate deliveryDate;
     private String notes;
+    private LocalDateTime createdAt;
+
+    public OrderResponse() {
+    }
+
+    public OrderResponse(Long id, Long customerId, String customerName, String serviceType, Double quantity,
+                         String unit, BigDecimal price, OrderStatus status, LocalDate pickupDate,
+                         LocalDate deliveryDate, String notes, LocalDateTime createdAt) {
+        this.id = id;
+        this.customerId = customerId;
+        this.customerName = customerName;
+        this.serviceType = serviceType;
+        this.quantity = quantity;
+        this.unit = unit;
+        this.price = price;
+        this.status = status;
+        this.pickupDate = pickupDate;
+        this.deliveryDate = deliveryDate;
+        this.notes = notes;
+        this.createdAt = createdAt;
+    }
 
     public static OrderResponse from(LaundryOrder order) {
         OrderResponse response = new OrderResponse();
@@ -33,6 +56,7 @@ public class OrderResponse {
         response.setPickupDate(order.getPickupDate());
         response.setDeliveryDate(order.getDeliveryDate());
         response.setNotes(order.getNotes());
+        response.setCreatedAt(order.getCreatedAt());
         return response;
     }
 
@@ -100,6 +124,13 @@ public class OrderResponse {
         this.status = status;
     }
 
+    /**
+     * Statuses this order may move to next, so clients only offer allowed changes.
+     */
+    public Set<OrderStatus> getNextStatuses() {
+        return status == null ? Set.of() : status.nextStatuses();
+    }
+
     public LocalDate getPickupDate() {
         return pickupDate;
     }
@@ -123,4 +154,12 @@ public class OrderResponse {
     public void setNotes(String notes) {
         this.notes = notes;
     }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
 }
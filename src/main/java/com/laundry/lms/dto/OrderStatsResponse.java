@@ -0,0 +1,59 @@
+package com.laundry.lms.dto;
+
+import com.laundry.lms.model.OrderStatus;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+public class OrderStatsResponse {
+
+    private long total;
+    private Map<OrderStatus, Long> byStatus;
+    private Map<String, Long> byServiceType;
+    private Map<LocalDate, Long> byDay;
+
+    public OrderStatsResponse() {
+    }
+
+    public OrderStatsResponse(long total,
+                              Map<OrderStatus, Long> byStatus,
+                              Map<String, Long> byServiceType,
+                              Map<LocalDate, Long> byDay) {
+        this.total = total;
+        this.byStatus = byStatus;
+        this.byServiceType = byServiceType;
+        this.byDay = byDay;
+    }
+
+    public long getTotal() {
+        return total;
+    }
+
+    public void setTotal(long total) {
+        this.total = total;
+    }
+
+    public Map<OrderStatus, Long> getByStatus() {
+        return byStatus;
+    }
+
+    public void setByStatus(Map<OrderStatus, Long> byStatus) {
+        this.byStatus = byStatus;
+    }
+
+    public Map<String, Long> getByServiceType() {
+        return byServiceType;
+    }
+
+    public void setByServiceType(Map<String, Long> byServiceType) {
+        this.byServiceType = byServiceType;
+    }
+
+    public Map<LocalDate, Long> getByDay() {
+        return byDay;
+    }
+
+    public void setByDay(Map<LocalDate, Long> byDay) {
+        this.byDay = byDay;
+    }
+}
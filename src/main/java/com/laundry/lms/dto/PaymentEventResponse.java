@@ -0,0 +1,120 @@
+package com.laundry.lms.dto;
+
+import com.laundry.lms.model.PaymentEvent;
+import com.laundry.lms.model.PaymentEventType;
+import com.laundry.lms.model.PaymentStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+public class PaymentEventResponse {
+
+    private Long id;
+    private Long paymentId;
+    private PaymentEventType type;
+    private Long orderId;
+    private BigDecimal amount;
+    private String method;
+    private PaymentStatus fromStatus;
+    private PaymentStatus status;
+    private LocalDateTime paidAt;
+    private LocalDateTime recordedAt;
+
+    public PaymentEventResponse() {
+    }
+
+    public static PaymentEventResponse from(PaymentEvent event) {
+        PaymentEventResponse response = new PaymentEventResponse();
+        response.setId(event.getId());
+        response.setPaymentId(event.getPaymentId());
+        response.setType(event.getType());
+        response.setOrderId(event.getOrderId());
+        response.setAmount(event.getAmount());
+        response.setMethod(event.getMethod());
+        response.setFromStatus(event.getFromStatus());
+        response.setStatus(event.getStatus());
+        response.setPaidAt(event.getPaidAt());
+        response.setRecordedAt(event.getRecordedAt());
+        return response;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getPaymentId() {
+        return paymentId;
+    }
+
+    public void setPaymentId(Long paymentId) {
+        this.paymentId = paymentId;
+    }
+
+    public PaymentEventType getType() {
+        return type;
+    }
+
+    public void setType(PaymentEventType type) {
+        this.type = type;
+    }
+
+    public Long getOrderId() {
+        return orderId;
+    }
+
+    public void setOrderId(Long orderId) {
+        this.orderId = orderId;
+    }
+
+    public BigDecimal getAmount() {
+        return amount;
+    }
+
+    public void setAmount(BigDecimal amount) {
+        this.amount = amount;
+    }
+
+    public String getMethod() {
+        return method;
+    }
+
+    public void setMethod(String method) {
+        this.method = method;
+    }
+
+    public PaymentStatus getFromStatus() {
+        return fromStatus;
+    }
+
+    public void setFromStatus(PaymentStatus fromStatus) {
+        this.fromStatus = fromStatus;
+    }
+
+    public PaymentStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(PaymentStatus status) {
+        this.status = status;
+    }
+
+    public LocalDateTime getPaidAt() {
+        return paidAt;
+    }
+
+    public void setPaidAt(LocalDateTime paidAt) {
+        this.paidAt = paidAt;
+    }
+
+    public LocalDateTime getRecordedAt() {
+        return recordedAt;
+    }
+
+    public void setRecordedAt(LocalDateTime recordedAt) {
+        this.recordedAt = recordedAt;
+    }
+}
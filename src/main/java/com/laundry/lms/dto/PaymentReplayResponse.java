@@ -0,0 +1,72 @@
+package com.laundry.lms.dto;
+
+public class PaymentReplayResponse {
+
+    private long events;
+    private long payments;
+    private long balances;
+    private long revenueRows;
+    private long driftedPayments;
+    private long elapsedMillis;
+
+    public PaymentReplayResponse() {
+    }
+
+    public PaymentReplayResponse(long events, long payments, long balances, long revenueRows,
+                                 long driftedPayments, long elapsedMillis) {
+        this.events = events;
+        this.payments = payments;
+        this.balances = balances;
+        this.revenueRows = revenueRows;
+        this.driftedPayments = driftedPayments;
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    public long getEvents() {
+        return events;
+    }
+
+    public void setEvents(long events) {
+        this.events = events;
+    }
+
+    public long getPayments() {
+        return payments;
+    }
+
+    public void setPayments(long payments) {
+        this.payments = payments;
+    }
+
+    public long getBalances() {
+        return balances;
+    }
+
+    public void setBalances(long balances) {
+        this.balances = balances;
+    }
+
+    public long getRevenueRows() {
+        return revenueRows;
+    }
+
+    public void setRevenueRows(long revenueRows) {
+        this.revenueRows = revenueRows;
+    }
+
+    public long getDriftedPayments() {
+        return driftedPayments;
+    }
+
+    public void setDriftedPayments(long driftedPayments) {
+        this.driftedPayments = driftedPayments;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    public void setElapsedMillis(long elapsedMillis) {
+        this.elapsedMillis = elapsedMillis;
+    }
+}
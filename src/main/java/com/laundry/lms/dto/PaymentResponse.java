@@ -16,6 +16,20 @@ public class PaymentResponse {
     private PaymentStatus status;
     private LocalDateTime paidAt;
 
+    public PaymentResponse() {
+    }
+
+    public PaymentResponse(Long id, Long orderId, String orderServiceType, BigDecimal amount, String method,
+                           PaymentStatus status, LocalDateTime paidAt) {
+        this.id = id;
+        this.orderId = orderId;
+        this.orderServiceType = orderServiceType;
+        this.amount = amount;
+        this.method = method;
+        this.status = status;
+        this.paidAt = paidAt;
+    }
+
     public static PaymentResponse from(Payment payment) {
         PaymentResponse response = new PaymentResponse();
         response.setId(payment.getId());
@@ -0,0 +1,72 @@
+package com.laundry.lms.dto;
+
+import java.time.LocalDateTime;
+
+public class PaymentSweepStats {
+
+    private final boolean running;
+    private final long remaining;
+    private final long runs;
+    private final long batches;
+    private final long expired;
+    private final long currentRunExpired;
+    private final long lastRunExpired;
+    private final long lastRunMillis;
+    private final LocalDateTime lastRunAt;
+    private final String expireAfter;
+
+    public PaymentSweepStats(boolean running, long remaining, long runs, long batches, long expired,
+                             long currentRunExpired, long lastRunExpired, long lastRunMillis,
+                             LocalDateTime lastRunAt, String expireAfter) {
+        this.running = running;
+        this.remaining = remaining;
+        this.runs = runs;
+        this.batches = batches;
+        this.expired = expired;
+        this.currentRunExpired = currentRunExpired;
+        this.lastRunExpired = lastRunExpired;
+        this.lastRunMillis = lastRunMillis;
+        this.lastRunAt = lastRunAt;
+        this.expireAfter = expireAfter;
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    public long getRemaining() {
+        return remaining;
+    }
+
+    public long getRuns() {
+        return runs;
+    }
+
+    public long getBatches() {
+        return batches;
+    }
+
+    public long getExpired() {
+        return expired;
+    }
+
+    public long getCurrentRunExpired() {
+        return currentRunExpired;
+    }
+
+    public long getLastRunExpired() {
+        return lastRunExpired;
+    }
+
+    public long getLastRunMillis() {
+        return lastRunMillis;
+    }
+
+    public LocalDateTime getLastRunAt() {
+        return lastRunAt;
+    }
+
+    public String getExpireAfter() {
+        return expireAfter;
+    }
+}
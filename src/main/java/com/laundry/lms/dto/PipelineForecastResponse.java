@@ -0,0 +1,106 @@
+package com.laundry.lms.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public class PipelineForecastResponse {
+
+    private LocalDateTime generatedAt;
+    private int orders;
+    private int lateOrders;
+    private long makespanMinutes;
+    private LocalDateTime completesAt;
+    private long simulatedEvents;
+    private long elapsedMillis;
+    private List<StageMetricsResponse> stages;
+    private List<OrderForecastResponse> atRisk;
+
+    public PipelineForecastResponse() {
+    }
+
+    public PipelineForecastResponse(LocalDateTime generatedAt, int orders, int lateOrders, long makespanMinutes,
+                                    LocalDateTime completesAt, long simulatedEvents, long elapsedMillis,
+                                    List<StageMetricsResponse> stages, List<OrderForecastResponse> atRisk) {
+        this.generatedAt = generatedAt;
+        this.orders = orders;
+        this.lateOrders = lateOrders;
+        this.makespanMinutes = makespanMinutes;
+        this.completesAt = completesAt;
+        this.simulatedEvents = simulatedEvents;
+        this.elapsedMillis = elapsedMillis;
+        this.stages = stages;
+        this.atRisk = atRisk;
+    }
+
+    public LocalDateTime getGeneratedAt() {
+        return generatedAt;
+    }
+
+    public void setGeneratedAt(LocalDateTime generatedAt) {
+        this.generatedAt = generatedAt;
+    }
+
+    public int getOrders() {
+        return orders;
+    }
+
+    public void setOrders(int orders) {
+        this.orders = orders;
+    }
+
+    public int getLateOrders() {
+        return lateOrders;
+    }
+
+    public void setLateOrders(int lateOrders) {
+        this.lateOrders = lateOrders;
+    }
+
+    public long getMakespanMinutes() {
+        return makespanMinutes;
+    }
+
+    public void setMakespanMinutes(long makespanMinutes) {
+        this.makespanMinutes = makespanMinutes;
+    }
+
+    public LocalDateTime getCompletesAt() {
+        return completesAt;
+    }
+
+    public void setCompletesAt(LocalDateTime completesAt) {
+        this.completesAt = completesAt;
+    }
+
+    public long getSimulatedEvents() {
+        return simulatedEvents;
+    }
+
+    public void setSimulatedEvents(long simulatedEvents) {
+        this.simulatedEvents = simulatedEvents;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    public void setElapsedMillis(long elapsedMillis) {
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    public List<StageMetricsResponse> getStages() {
+        return stages;
+    }
+
+    public void setStages(List<StageMetricsResponse> stages) {
+        this.stages = stages;
+    }
+
+    public List<OrderForecastResponse> getAtRisk() {
+        return atRisk;
+    }
+
+    public void setAtRisk(List<OrderForecastResponse> atRisk) {
+        this.atRisk = atRisk;
+    }
+}
@@ -0,0 +1,65 @@
+package com.laundry.lms.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+public class RevenueBucketResponse {
+
+    private LocalDate periodStart;
+    private String serviceType;
+    private String method;
+    private BigDecimal amount;
+    private long paymentCount;
+
+    public RevenueBucketResponse() {
+    }
+
+    public RevenueBucketResponse(LocalDate periodStart, String serviceType, String method,
+                                 BigDecimal amount, long paymentCount) {
+        this.periodStart = periodStart;
+        this.serviceType = serviceType;
+        this.method = method;
+        this.amount = amount;
+        this.paymentCount = paymentCount;
+    }
+
+    public LocalDate getPeriodStart() {
+        return periodStart;
+    }
+
+    public void setPeriodStart(LocalDate periodStart) {
+        this.periodStart = periodStart;
+    }
+
+    public String getServiceType() {
+        return serviceType;
+    }
+
+    public void setServiceType(String serviceType) {
+        this.serviceType = serviceType;
+    }
+
+    public String getMethod() {
+        return method;
+    }
+
+    public void setMethod(String method) {
+        this.method = method;
+    }
+
+    public BigDecimal getAmount() {
+        return amount;
+    }
+
+    public void setAmount(BigDecimal amount) {
+        this.amount = amount;
+    }
+
+    public long getPaymentCount() {
+        return paymentCount;
+    }
+
+    public void setPaymentCount(long paymentCount) {
+        this.paymentCount = paymentCount;
+    }
+}
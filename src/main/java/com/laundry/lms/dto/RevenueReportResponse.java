@@ -0,0 +1,76 @@
+package com.laundry.lms.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+public class RevenueReportResponse {
+
+    private String granularity;
+    private LocalDate from;
+    private LocalDate to;
+    private BigDecimal totalAmount;
+    private long paymentCount;
+    private List<RevenueBucketResponse> buckets;
+
+    public RevenueReportResponse() {
+    }
+
+    public RevenueReportResponse(String granularity, LocalDate from, LocalDate to, BigDecimal totalAmount,
+                                 long paymentCount, List<RevenueBucketResponse> buckets) {
+        this.granularity = granularity;
+        this.from = from;
+        this.to = to;
+        this.totalAmount = totalAmount;
+        this.paymentCount = paymentCount;
+        this.buckets = buckets;
+    }
+
+    public String getGranularity() {
+        return granularity;
+    }
+
+    public void setGranularity(String granularity) {
+        this.granularity = granularity;
+    }
+
+    public LocalDate getFrom() {
+        return from;
+    }
+
+    public void setFrom(LocalDate from) {
+        this.from = from;
+    }
+
+    public LocalDate getTo() {
+        return to;
+    }
+
+    public void setTo(LocalDate to) {
+        this.to = to;
+    }
+
+    public BigDecimal getTotalAmount() {
+        return totalAmount;
+    }
+
+    public void setTotalAmount(BigDecimal totalAmount) {
+        this.totalAmount = totalAmount;
+    }
+
+    public long getPaymentCount() {
+        return paymentCount;
+    }
+
+    public void setPaymentCount(long paymentCount) {
+        this.paymentCount = paymentCount;
+    }
+
+    public List<RevenueBucketResponse> getBuckets() {
+        return buckets;
+    }
+
+    public void setBuckets(List<RevenueBucketResponse> buckets) {
+        this.buckets = buckets;
+    }
+}
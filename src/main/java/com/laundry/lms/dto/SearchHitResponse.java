@@ -0,0 +1,81 @@
+package com.laundry.lms.dto;
+
+import com.laundry.lms.model.SearchDocumentType;
+
+public class SearchHitResponse {
+
+    private SearchDocumentType type;
+    private Long id;
+    private double score;
+    private String snippet;
+    private MessageResponse message;
+    private OrderResponse order;
+
+    public static SearchHitResponse ofMessage(MessageResponse message, double score, String snippet) {
+        SearchHitResponse hit = new SearchHitResponse();
+        hit.setType(SearchDocumentType.MESSAGE);
+        hit.setId(message.getId());
+        hit.setScore(score);
+        hit.setSnippet(snippet);
+        hit.setMessage(message);
+        return hit;
+    }
+
+    public static SearchHitResponse ofOrder(OrderResponse order, double score, String snippet) {
+        SearchHitResponse hit = new SearchHitResponse();
+        hit.setType(SearchDocumentType.ORDER);
+        hit.setId(order.getId());
+        hit.setScore(score);
+        hit.setSnippet(snippet);
+        hit.setOrder(order);
+        return hit;
+    }
+
+    public SearchDocumentType getType() {
+        return type;
+    }
+
+    public void setType(SearchDocumentType type) {
+        this.type = type;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public double getScore() {
+        return score;
+    }
+
+    public void setScore(double score) {
+        this.score = score;
+    }
+
+    public String getSnippet() {
+        return snippet;
+    }
+
+    public void setSnippet(String snippet) {
+        this.snippet = snippet;
+    }
+
+    public MessageResponse getMessage() {
+        return message;
+    }
+
+    public void setMessage(MessageResponse message) {
+        this.message = message;
+    }
+
+    public OrderResponse getOrder() {
+        return order;
+    }
+
+    public void setOrder(OrderResponse order) {
+        this.order = order;
+    }
+}
@@ -0,0 +1,63 @@
+package com.laundry.lms.dto;
+
+import java.util.List;
+
+public class SearchPageResponse {
+
+    private String query;
+    private int page;
+    private int size;
+    private boolean hasMore;
+    private List<SearchHitResponse> hits;
+
+    public SearchPageResponse() {
+    }
+
+    public SearchPageResponse(String query, int page, int size, boolean hasMore, List<SearchHitResponse> hits) {
+        this.query = query;
+        this.page = page;
+        this.size = size;
+        this.hasMore = hasMore;
+        this.hits = hits;
+    }
+
+    public String getQuery() {
+        return query;
+    }
+
+    public void setQuery(String query) {
+        this.query = query;
+    }
+
+    public int getPage() {
+        return page;
+    }
+
+    public void setPage(int page) {
+        this.page = page;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public void setSize(int size) {
+        this.size = size;
+    }
+
+    public boolean isHasMore() {
+        return hasMore;
+    }
+
+    public void setHasMore(boolean hasMore) {
+        this.hasMore = hasMore;
+    }
+
+    public List<SearchHitResponse> getHits() {
+        return hits;
+    }
+
+    public void setHits(List<SearchHitResponse> hits) {
+        this.hits = hits;
+    }
+}
@@ -0,0 +1,146 @@
+package com.laundry.lms.dto;
+
+import com.laundry.lms.model.ProductionStage;
+
+public class StageMetricsResponse {
+
+    private ProductionStage stage;
+    private int machines;
+    private int staff;
+    private int servers;
+    private long pendingTasks;
+    private long inProgressTasks;
+    private long simulatedJobs;
+    private double throughputPerHour;
+    private double utilization;
+    private double averageQueueLength;
+    private int maxQueueLength;
+    private double averageWaitMinutes;
+    private long maxWaitMinutes;
+
+    public StageMetricsResponse() {
+    }
+
+    public StageMetricsResponse(ProductionStage stage, int machines, int staff, int servers, long pendingTasks,
+                                long inProgressTasks, long simulatedJobs, double throughputPerHour, double utilization,
+                                double averageQueueLength, int maxQueueLength, double averageWaitMinutes,
+                                long maxWaitMinutes) {
+        this.stage = stage;
+        this.machines = machines;
+        this.staff = staff;
+        this.servers = servers;
+        this.pendingTasks = pendingTasks;
+        this.inProgressTasks = inProgressTasks;
+        this.simulatedJobs = simulatedJobs;
+        this.throughputPerHour = throughputPerHour;
+        this.utilization = utilization;
+        this.averageQueueLength = averageQueueLength;
+        this.maxQueueLength = maxQueueLength;
+        this.averageWaitMinutes = averageWaitMinutes;
+        this.maxWaitMinutes = maxWaitMinutes;
+    }
+
+    public ProductionStage getStage() {
+        return stage;
+    }
+
+    public void setStage(ProductionStage stage) {
+        this.stage = stage;
+    }
+
+    public int getMachines() {
+        return machines;
+    }
+
+    public void setMachines(int machines) {
+        this.machines = machines;
+    }
+
+    public int getStaff() {
+        return staff;
+    }
+
+    public void setStaff(int staff) {
+        this.staff = staff;
+    }
+
+    public int getServers() {
+        return servers;
+    }
+
+    public void setServers(int servers) {
+        this.servers = servers;
+    }
+
+    public long getPendingTasks() {
+        return pendingTasks;
+    }
+
+    public void setPendingTasks(long pendingTasks) {
+        this.pendingTasks = pendingTasks;
+    }
+
+    public long getInProgressTasks() {
+        return inProgressTasks;
+    }
+
+    public void setInProgressTasks(long inProgressTasks) {
+        this.inProgressTasks = inProgressTasks;
+    }
+
+    public long getSimulatedJobs() {
+        return simulatedJobs;
+    }
+
+    public void setSimulatedJobs(long simulatedJobs) {
+        this.simulatedJobs = simulatedJobs;
+    }
+
+    public double getThroughputPerHour() {
+        return throughputPerHour;
+    }
+
+    public void setThroughputPerHour(double throughputPerHour) {
+        this.throughputPerHour = throughputPerHour;
+    }
+
+    public double getUtilization() {
+        return utilization;
+    }
+
+    public void setUtilization(double utilization) {
+        this.utilization = utilization;
+    }
+
+    public double getAverageQueueLength() {
+        return averageQueueLength;
+    }
+
+    public void setAverageQueueLength(double averageQueueLength) {
+        this.averageQueueLength = averageQueueLength;
+    }
+
+    public int getMaxQueueLength() {
+        return maxQueueLength;
+    }
+
+    public void setMaxQueueLength(int maxQueueLength) {
+        this.maxQueueLength = maxQueueLength;
+    }
+
+    public double getAverageWaitMinutes() {
+        return averageWaitMinutes;
+    }
+
+    public void setAverageWaitMinutes(double averageWaitMinutes) {
+        this.averageWaitMinutes = averageWaitMinutes;
+    }
+
+    public long getMaxWaitMinutes() {
+        return maxWaitMinutes;
+    }
+
+    public void setMaxWaitMinutes(long maxWaitMinutes) {
+        this.maxWaitMinutes = maxWaitMinutes;
+    }
+}
@@ -0,0 +1,35 @@
+package com.laundry.lms.dto;
+
+import com.laundry.lms.model.TaskStatus;
+
+import java.util.Map;
+
+public class TaskBoardResponse {
+
+    private Map<TaskStatus, Long> counts;
+    private Map<TaskStatus, TaskPageResponse> columns;
+
+    public TaskBoardResponse() {
+    }
+
+    public TaskBoardResponse(Map<TaskStatus, Long> counts, Map<TaskStatus, TaskPageResponse> columns) {
+        this.counts = counts;
+        this.columns = columns;
+    }
+
+    public Map<TaskStatus, Long> getCounts() {
+        return counts;
+    }
+
+    public void setCounts(Map<TaskStatus, Long> counts) {
+        this.counts = counts;
+    }
+
+    public Map<TaskStatus, TaskPageResponse> getColumns() {
+        return columns;
+    }
+
+    public void setColumns(Map<TaskStatus, TaskPageResponse> columns) {
+        this.columns = columns;
+    }
+}
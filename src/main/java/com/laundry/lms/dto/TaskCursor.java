@@ -0,0 +1,31 @@
+package com.laundry.lms.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Base64;
+
+/**
+ * Opaque keyset cursor over (dueDate, id) within one board column; {@code dueDate} is null for
+ * undated tasks.
+ */
+public record TaskCursor(LocalDate dueDate, Long id) {
+
+    public String encode() {
+        String raw = (dueDate == null ? "" : dueDate.toString()) + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static TaskCursor decode(String value) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(value), StandardCharsets.UTF_8);
+            int sep = raw.indexOf('|');
+            if (sep < 0) {
+                throw new IllegalArgumentException("Malformed cursor");
+            }
+            String date = raw.substring(0, sep);
+            return new TaskCursor(date.isEmpty() ? null : LocalDate.parse(date), Long.parseLong(raw.substring(sep + 1)));
+        } catch (RuntimeException ex) {
+            throw new IllegalArgumentException("Invalid cursor", ex);
+        }
+    }
+}
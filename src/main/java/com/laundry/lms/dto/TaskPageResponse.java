@@ -0,0 +1,43 @@
+package com.laundry.lms.dto;
+
+import java.util.List;
+
+public class TaskPageResponse {
+
+    private List<TaskResponse> items;
+    private String nextCursor;
+    private boolean hasMore;
+
+    public TaskPageResponse() {
+    }
+
+    public TaskPageResponse(List<TaskResponse> items, String nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+        this.hasMore = nextCursor != null;
+    }
+
+    public List<TaskResponse> getItems() {
+        return items;
+    }
+
+    public void setItems(List<TaskResponse> items) {
+        this.items = items;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+
+    public boolean isHasMore() {
+        return hasMore;
+    }
+
+    public void setHasMore(boolean hasMore) {
+        this.hasMore = hasMore;
+    }
+}
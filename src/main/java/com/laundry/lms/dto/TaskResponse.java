@@ -1,5 +1,6 @@
 package com.laundry.lms.dto;
 
+import com.laundry.lms.model.ProductionStage;
 import com.laundry.lms.model.Task;
 import com.laundry.lms.model.TaskStatus;
 
@@ -15,6 +16,24 @@ public class TaskResponse {
     private BigDecimal price;
     private TaskStatus status;
     private String notes;
+    private Long orderId;
+    private ProductionStage stage;
+
+    public TaskResponse() {
+    }
+
+    public TaskResponse(Long id, String title, String assignedTo, LocalDate dueDate, BigDecimal price,
+                        TaskStatus status, String notes, Long orderId, ProductionStage stage) {
+        this.id = id;
+        this.title = title;
+        this.assignedTo = assignedTo;
+        this.dueDate = dueDate;
+        this.price = price;
+        this.status = status;
+        this.notes = notes;
+        this.orderId = orderId;
+        this.stage = stage;
+    }
 
     public static TaskResponse from(Task task) {
         TaskResponse response = new TaskResponse();
@@ -25,6 +44,8 @@ public class TaskResponse {
         response.setPrice(task.getPrice());
         response.setStatus(task.getStatus());
         response.setNotes(task.getNotes());
+        response.setOrderId(task.getOrder() != null ? task.getOrder().getId() : null);
+        response.setStage(task.getStage());
         return response;
     }
 
@@ -83,4 +104,20 @@ public class TaskResponse {
     public void setNotes(String notes) {
         this.notes = notes;
     }
+
+    public Long getOrderId() {
+        return orderId;
+    }
+
+    public void setOrderId(Long orderId) {
+        this.orderId = orderId;
+    }
+
+    public ProductionStage getStage() {
+        return stage;
+    }
+
+    public void setStage(ProductionStage stage) {
+        this.stage = stage;
+    }
 }
@@ -0,0 +1,64 @@
+package com.laundry.lms.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+public class TaskWorkloadResponse {
+
+    private String staff;
+    private boolean eligible;
+    private int openTasks;
+    private BigDecimal openEffort;
+    private LocalDate nextDue;
+
+    public TaskWorkloadResponse() {
+    }
+
+    public TaskWorkloadResponse(String staff, boolean eligible, int openTasks, BigDecimal openEffort, LocalDate nextDue) {
+        this.staff = staff;
+        this.eligible = eligible;
+        this.openTasks = openTasks;
+        this.openEffort = openEffort;
+        this.nextDue = nextDue;
+    }
+
+    public String getStaff() {
+        return staff;
+    }
+
+    public void setStaff(String staff) {
+        this.staff = staff;
+    }
+
+    public boolean isEligible() {
+        return eligible;
+    }
+
+    public void setEligible(boolean eligible) {
+        this.eligible = eligible;
+    }
+
+    public int getOpenTasks() {
+        return openTasks;
+    }
+
+    public void setOpenTasks(int openTasks) {
+        this.openTasks = openTasks;
+    }
+
+    public BigDecimal getOpenEffort() {
+        return openEffort;
+    }
+
+    public void setOpenEffort(BigDecimal openEffort) {
+        this.openEffort = openEffort;
+    }
+
+    public LocalDate getNextDue() {
+        return nextDue;
+    }
+
+    public void setNextDue(LocalDate nextDue) {
+        this.nextDue = nextDue;
+    }
+}
@@ -10,6 +10,16 @@ public class UserResponse {
     private String email;
     private UserRole role;
 
+    public UserResponse() {
+    }
+
+    public UserResponse(Long id, String name, String email, UserRole role) {
+        this.id = id;
+        this.name = name;
+        this.email = email;
+        this.role = role;
+    }
+
     public static UserResponse from(User user) {
         UserResponse response = new UserResponse();
         response.setId(user.getId());
@@ -0,0 +1,99 @@
+package com.laundry.lms.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+import java.time.LocalDateTime;
+
+/**
+ * A message moved out of the hot {@code messages} table once it passed the archive age. Keeps the
+ * original id, so cursors and search postings stay valid, and plain user id columns, so archived
+ * history survives without joins.
+ */
+@Entity
+@Table(name = "messages_archive", indexes = {
+        @Index(name = "idx_messages_archive_from_to_timestamp", columnList = "from_user_id, to_user_id, timestamp"),
+        @Index(name = "idx_messages_archive_to_timestamp", columnList = "to_user_id, timestamp"),
+        @Index(name = "idx_messages_archive_timestamp", columnList = "timestamp")
+})
+public class ArchivedMessage {
+
+    @Id
+    private Long id;
+
+    @Column(name = "from_user_id", nullable = false)
+    private Long fromUserId;
+
+    @Column(name = "to_user_id", nullable = false)
+    private Long toUserId;
+
+    @Column(nullable = false, length = 1000)
+    private String body;
+
+    @Column(nullable = false)
+    private LocalDateTime timestamp;
+
+    private LocalDateTime readAt;
+
+    @Column(nullable = false)
+    private LocalDateTime archivedAt;
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getFromUserId() {
+        return fromUserId;
+    }
+
+    public void setFromUserId(Long fromUserId) {
+        this.fromUserId = fromUserId;
+    }
+
+    public Long getToUserId() {
+        return toUserId;
+    }
+
+    public void setToUserId(Long toUserId) {
+        this.toUserId = toUserId;
+    }
+
+    public String getBody() {
+        return body;
+    }
+
+    public void setBody(String body) {
+        this.body = body;
+    }
+
+    public LocalDateTime getTimestamp() {
+        return timestamp;
+    }
+
+    public void setTimestamp(LocalDateTime timestamp) {
+        this.timestamp = timestamp;
+    }
+
+    public LocalDateTime getReadAt() {
+        return readAt;
+    }
+
+    public void setReadAt(LocalDateTime readAt) {
+        this.readAt = readAt;
+    }
+
+    public LocalDateTime getArchivedAt() {
+        return archivedAt;
+    }
+
+    public void setArchivedAt(LocalDateTime archivedAt) {
+        this.archivedAt = archivedAt;
+    }
+}
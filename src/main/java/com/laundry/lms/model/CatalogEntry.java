@@ -0,0 +1,112 @@
+package com.laundry.lms.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+
+import java.math.BigDecimal;
+
+/**
+ * A service or unit offered at the counter. Services carry their pricing metadata; units only a name.
+ */
+@Entity
+@Table(name = "catalog_entries", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_catalog_entries_type_name", columnNames = {"type", "name"})
+})
+public class CatalogEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private CatalogEntryType type;
+
+    @Column(nullable = false, length = 80)
+    private String name;
+
+    @Column(precision = 12, scale = 2)
+    private BigDecimal basePrice;
+
+    private String defaultUnit;
+
+    @Column(nullable = false)
+    private boolean active = true;
+
+    @Column(nullable = false)
+    private int sortOrder;
+
+    public CatalogEntry() {
+    }
+
+    public CatalogEntry(CatalogEntryType type, String name, BigDecimal basePrice, String defaultUnit, int sortOrder) {
+        this.type = type;
+        this.name = name;
+        this.basePrice = basePrice;
+        this.defaultUnit = defaultUnit;
+        this.sortOrder = sortOrder;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public CatalogEntryType getType() {
+        return type;
+    }
+
+    public void setType(CatalogEntryType type) {
+        this.type = type;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public BigDecimal getBasePrice() {
+        return basePrice;
+    }
+
+    public void setBasePrice(BigDecimal basePrice) {
+        this.basePrice = basePrice;
+    }
+
+    public String getDefaultUnit() {
+        return defaultUnit;
+    }
+
+    public void setDefaultUnit(String defaultUnit) {
+        this.defaultUnit = defaultUnit;
+    }
+
+    public boolean isActive() {
+        return active;
+    }
+
+    public void setActive(boolean active) {
+        this.active = active;
+    }
+
+    public int getSortOrder() {
+        return sortOrder;
+    }
+
+    public void setSortOrder(int sortOrder) {
+        this.sortOrder = sortOrder;
+    }
+}
@@ -0,0 +1,78 @@
+package com.laundry.lms.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
+import org.springframework.data.domain.Persistable;
+
+import java.time.LocalDateTime;
+
+/**
+ * A deadline alert that has been sent, keyed by what it was about and the deadline it warned of. The
+ * instance that inserts the row sends the alert; any other instance holding the same alert skips it.
+ */
+@Entity
+@Table(name = "fired_alerts", indexes = {
+        @Index(name = "idx_fired_alerts_deadline", columnList = "deadline")
+})
+public class FiredAlert implements Persistable<String> {
+
+    @Id
+    @Column(length = 64)
+    private String id;
+
+    @Column(nullable = false)
+    private LocalDateTime deadline;
+
+    @Column(nullable = false)
+    private LocalDateTime firedAt;
+
+    @Transient
+    private boolean isNew = true;
+
+    public FiredAlert() {
+    }
+
+    public FiredAlert(String id, LocalDateTime deadline) {
+        this.id = id;
+        this.deadline = deadline;
+        this.firedAt = LocalDateTime.now();
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        this.isNew = false;
+    }
+
+    @Override
+    public String getId() {
+        return id;
+    }
+
+    @Override
+    public boolean isNew() {
+        return isNew;
+    }
+
+    public LocalDateTime getDeadline() {
+        return deadline;
+    }
+
+    public void setDeadline(LocalDateTime deadline) {
+        this.deadline = deadline;
+    }
+
+    public LocalDateTime getFiredAt() {
+        return firedAt;
+    }
+
+    public void setFiredAt(LocalDateTime firedAt) {
+        this.firedAt = firedAt;
+    }
+}
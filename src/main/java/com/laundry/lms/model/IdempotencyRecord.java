@@ -0,0 +1,128 @@
+package com.laundry.lms.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Lob;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
+import org.springframework.data.domain.Persistable;
+
+import java.time.LocalDateTime;
+
+/**
+ * Outcome of a write request keyed by its Idempotency-Key. A row without a response status is a
+ * claim held by the request that is still executing, identified by its {@code token}; it is marked
+ * {@code committed} in the transaction that performs the request's write.
+ */
+@Entity
+@Table(name = "idempotency_keys", indexes = {
+        @Index(name = "idx_idempotency_keys_created_at", columnList = "created_at")
+})
+public class IdempotencyRecord implements Persistable<String> {
+
+    @Id
+    @Column(length = 160)
+    private String id;
+
+    @Column(nullable = false, length = 64)
+    private String requestHash;
+
+    @Column(length = 36)
+    private String token;
+
+    @Column(nullable = false)
+    private boolean committed;
+
+    private Integer responseStatus;
+
+    @Lob
+    private String responseBody;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    @Transient
+    private boolean isNew = true;
+
+    public IdempotencyRecord() {
+    }
+
+    public IdempotencyRecord(String id, String requestHash, String token) {
+        this.id = id;
+        this.requestHash = requestHash;
+        this.token = token;
+        this.createdAt = LocalDateTime.now();
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        this.isNew = false;
+    }
+
+    @Override
+    public String getId() {
+        return id;
+    }
+
+    @Override
+    public boolean isNew() {
+        return isNew;
+    }
+
+    public boolean isCompleted() {
+        return responseStatus != null;
+    }
+
+    public String getRequestHash() {
+        return requestHash;
+    }
+
+    public void setRequestHash(String requestHash) {
+        this.requestHash = requestHash;
+    }
+
+    public String getToken() {
+        return token;
+    }
+
+    public void setToken(String token) {
+        this.token = token;
+    }
+
+    public boolean isCommitted() {
+        return committed;
+    }
+
+    public void setCommitted(boolean committed) {
+        this.committed = committed;
+    }
+
+    public Integer getResponseStatus() {
+        return responseStatus;
+    }
+
+    public void setResponseStatus(Integer responseStatus) {
+        this.responseStatus = responseStatus;
+    }
+
+    public String getResponseBody() {
+        return responseBody;
+    }
+
+    public void setResponseBody(String responseBody) {
+        this.responseBody = responseBody;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+}
@@ -0,0 +1,102 @@
+package com.laundry.lms.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Materialized paid-vs-due figures for one order: the order price, the sum of its completed and
+ * pending payments, and what is still owed. Kept current by payment and order writes and
+ * recomputed from the source tables by reconciliation.
+ */
+@Entity
+@Table(name = "order_balances", indexes = {
+        @Index(name = "idx_order_balances_outstanding", columnList = "outstanding, order_id"),
+        @Index(name = "idx_order_balances_customer", columnList = "customer_id, outstanding")
+})
+public class OrderBalance {
+
+    @Id
+    @Column(name = "order_id")
+    private Long orderId;
+
+    @Column(name = "customer_id", nullable = false)
+    private Long customerId;
+
+    @Column(nullable = false)
+    private BigDecimal amountDue;
+
+    @Column(nullable = false)
+    private BigDecimal amountPaid;
+
+    @Column(nullable = false)
+    private BigDecimal amountPending;
+
+    // amountDue - amountPaid; stored so "who owes us" is an index range scan. Negative means credit.
+    @Column(nullable = false)
+    private BigDecimal outstanding;
+
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+
+    public Long getOrderId() {
+        return orderId;
+    }
+
+    public void setOrderId(Long orderId) {
+        this.orderId = orderId;
+    }
+
+    public Long getCustomerId() {
+        return customerId;
+    }
+
+    public void setCustomerId(Long customerId) {
+        this.customerId = customerId;
+    }
+
+    public BigDecimal getAmountDue() {
+        return amountDue;
+    }
+
+    public void setAmountDue(BigDecimal amountDue) {
+        this.amountDue = amountDue;
+    }
+
+    public BigDecimal getAmountPaid() {
+        return amountPaid;
+    }
+
+    public void setAmountPaid(BigDecimal amountPaid) {
+        this.amountPaid = amountPaid;
+    }
+
+    public BigDecimal getAmountPending() {
+        return amountPending;
+    }
+
+    public void setAmountPending(BigDecimal amountPending) {
+        this.amountPending = amountPending;
+    }
+
+    public BigDecimal getOutstanding() {
+        return outstanding;
+    }
+
+    public void setOutstanding(BigDecimal outstanding) {
+        this.outstanding = outstanding;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
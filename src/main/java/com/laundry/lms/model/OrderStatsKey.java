@@ -0,0 +1,71 @@
+package com.laundry.lms.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.Objects;
+
+@Embeddable
+public class OrderStatsKey implements Serializable {
+
+    @Column(name = "stat_date", nullable = false)
+    private LocalDate day;
+
+    @Column(nullable = false)
+    private String serviceType;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private OrderStatus status;
+
+    public OrderStatsKey() {
+    }
+
+    public OrderStatsKey(LocalDate day, String serviceType, OrderStatus status) {
+        this.day = day;
+        this.serviceType = serviceType;
+        this.status = status;
+    }
+
+    public static OrderStatsKey of(LaundryOrder order) {
+        return new OrderStatsKey(order.getCreatedAt().toLocalDate(), order.getServiceType(), order.getStatus());
+    }
+
+    public OrderStatsKey withStatus(OrderStatus newStatus) {
+        return new OrderStatsKey(day, serviceType, newStatus);
+    }
+
+    public LocalDate getDay() {
+        return day;
+    }
+
+    public String getServiceType() {
+        return serviceType;
+    }
+
+    public OrderStatus getStatus() {
+        return status;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof OrderStatsKey other)) {
+            return false;
+        }
+        return Objects.equals(day, other.day)
+                && Objects.equals(serviceType, other.serviceType)
+                && status == other.status;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(day, serviceType, status);
+    }
+}
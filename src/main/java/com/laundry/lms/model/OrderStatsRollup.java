@@ -0,0 +1,44 @@
+package com.laundry.lms.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.EmbeddedId;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Table;
+
+/**
+ * Durable copy of the order counters, one row per (day, service type, status).
+ */
+@Entity
+@Table(name = "order_stats_daily")
+public class OrderStatsRollup {
+
+    @EmbeddedId
+    private OrderStatsKey id;
+
+    @Column(nullable = false)
+    private long orderCount;
+
+    public OrderStatsRollup() {
+    }
+
+    public OrderStatsRollup(OrderStatsKey id, long orderCount) {
+        this.id = id;
+        this.orderCount = orderCount;
+    }
+
+    public OrderStatsKey getId() {
+        return id;
+    }
+
+    public void setId(OrderStatsKey id) {
+        this.id = id;
+    }
+
+    public long getOrderCount() {
+        return orderCount;
+    }
+
+    public void setOrderCount(long orderCount) {
+        this.orderCount = orderCount;
+    }
+}
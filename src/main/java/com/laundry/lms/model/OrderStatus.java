@@ -1,9 +1,28 @@
 package com.laundry.lms.model;
 
+import java.util.EnumSet;
+import java.util.Set;
+
 public enum OrderStatus {
     PENDING,
     IN_PROGRESS,
     READY,
     DELIVERED,
-    CANCELLED
+    CANCELLED;
+
+    /**
+     * Statuses an order may move to from this one. Delivered and cancelled orders are final.
+     */
+    public Set<OrderStatus> nextStatuses() {
+        return switch (this) {
+            case PENDING -> EnumSet.of(IN_PROGRESS, CANCELLED);
+            case IN_PROGRESS -> EnumSet.of(READY, CANCELLED);
+            case READY -> EnumSet.of(DELIVERED, CANCELLED);
+            case DELIVERED, CANCELLED -> EnumSet.noneOf(OrderStatus.class);
+        };
+    }
+
+    public boolean canTransitionTo(OrderStatus next) {
+        return next != null && nextStatuses().contains(next);
+    }
 }
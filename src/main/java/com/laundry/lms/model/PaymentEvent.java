@@ -0,0 +1,202 @@
+package com.laundry.lms.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import org.hibernate.annotations.Immutable;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * One entry in the append-only payment journal. Each event carries the payment as it stood after
+ * the change (order and service type included), so replaying the journal needs no other table.
+ * Rows are never updated or deleted; Hibernate treats the entity as immutable.
+ * <p>
+ * {@code version} numbers a payment's events from 1 in the order their transactions committed: every
+ * change holds the payment's row lock when it appends. Event ids come from pooled sequence blocks and
+ * do not follow commit order, so readers order a payment's events by version.
+ */
+@Entity
+@Immutable
+@Table(name = "payment_events", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_payment_events_payment_version", columnNames = {"payment_id", "version"})
+})
+public class PaymentEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "payment_events_seq")
+    @SequenceGenerator(name = "payment_events_seq", sequenceName = "payment_events_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "payment_id", nullable = false)
+    private Long paymentId;
+
+    // Null only on events journaled before versions existed; those sort first, by id.
+    private Integer version;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private PaymentEventType type;
+
+    private Long orderId;
+
+    private String serviceType;
+
+    @Column(nullable = false)
+    private BigDecimal amount;
+
+    private String method;
+
+    @Enumerated(EnumType.STRING)
+    @JdbcTypeCode(SqlTypes.VARCHAR)
+    @Column(length = 16)
+    private PaymentStatus fromStatus;
+
+    @Enumerated(EnumType.STRING)
+    @JdbcTypeCode(SqlTypes.VARCHAR)
+    @Column(nullable = false, length = 16)
+    private PaymentStatus status;
+
+    private LocalDateTime paidAt;
+
+    @Column(nullable = false)
+    private LocalDateTime paymentCreatedAt;
+
+    @Column(nullable = false)
+    private LocalDateTime recordedAt;
+
+    public PaymentEvent() {
+    }
+
+    public static PaymentEvent of(PaymentEventType type, Payment payment, PaymentStatus fromStatus) {
+        PaymentEvent event = new PaymentEvent();
+        event.setPaymentId(payment.getId());
+        event.setType(type);
+        if (payment.getOrder() != null) {
+            event.setOrderId(payment.getOrder().getId());
+            event.setServiceType(payment.getOrder().getServiceType());
+        }
+        event.setAmount(payment.getAmount());
+        event.setMethod(payment.getMethod());
+        event.setFromStatus(fromStatus);
+        event.setStatus(payment.getStatus());
+        event.setPaidAt(payment.getPaidAt());
+        event.setPaymentCreatedAt(payment.getCreatedAt());
+        event.setRecordedAt(LocalDateTime.now());
+        return event;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getPaymentId() {
+        return paymentId;
+    }
+
+    public void setPaymentId(Long paymentId) {
+        this.paymentId = paymentId;
+    }
+
+    public Integer getVersion() {
+        return version;
+    }
+
+    public void setVersion(Integer version) {
+        this.version = version;
+    }
+
+    public PaymentEventType getType() {
+        return type;
+    }
+
+    public void setType(PaymentEventType type) {
+        this.type = type;
+    }
+
+    public Long getOrderId() {
+        return orderId;
+    }
+
+    public void setOrderId(Long orderId) {
+        this.orderId = orderId;
+    }
+
+    public String getServiceType() {
+        return serviceType;
+    }
+
+    public void setServiceType(String serviceType) {
+        this.serviceType = serviceType;
+    }
+
+    public BigDecimal getAmount() {
+        return amount;
+    }
+
+    public void setAmount(BigDecimal amount) {
+        this.amount = amount;
+    }
+
+    public String getMethod() {
+        return method;
+    }
+
+    public void setMethod(String method) {
+        this.method = method;
+    }
+
+    public PaymentStatus getFromStatus() {
+        return fromStatus;
+    }
+
+    public void setFromStatus(PaymentStatus fromStatus) {
+        this.fromStatus = fromStatus;
+    }
+
+    public PaymentStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(PaymentStatus status) {
+        this.status = status;
+    }
+
+    public LocalDateTime getPaidAt() {
+        return paidAt;
+    }
+
+    public void setPaidAt(LocalDateTime paidAt) {
+        this.paidAt = paidAt;
+    }
+
+    public LocalDateTime getPaymentCreatedAt() {
+        return paymentCreatedAt;
+    }
+
+    public void setPaymentCreatedAt(LocalDateTime paymentCreatedAt) {
+        this.paymentCreatedAt = paymentCreatedAt;
+    }
+
+    public LocalDateTime getRecordedAt() {
+        return recordedAt;
+    }
+
+    public void setRecordedAt(LocalDateTime recordedAt) {
+        this.recordedAt = recordedAt;
+    }
+}
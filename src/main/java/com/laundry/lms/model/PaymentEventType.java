@@ -0,0 +1,7 @@
+package com.laundry.lms.model;
+
+public enum PaymentEventType {
+    CREATED,
+    STATUS_CHANGED,
+    DELETED
+}
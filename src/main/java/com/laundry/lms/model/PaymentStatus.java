@@ -1,6 +1,24 @@
 package com.laundry.lms.model;
 
+import java.util.EnumSet;
+import java.util.Set;
+
 public enum PaymentStatus {
     PENDING,
-    COMPLETED
+    COMPLETED,
+    EXPIRED;
+
+    /**
+     * Statuses a payment may move to from this one. Completed and expired payments are final.
+     */
+    public Set<PaymentStatus> nextStatuses() {
+        return switch (this) {
+            case PENDING -> EnumSet.of(COMPLETED, EXPIRED);
+            case COMPLETED, EXPIRED -> EnumSet.noneOf(PaymentStatus.class);
+        };
+    }
+
+    public boolean canTransitionTo(PaymentStatus next) {
+        return next != null && nextStatuses().contains(next);
+    }
 }
@@ -0,0 +1,51 @@
+package com.laundry.lms.model;
+
+import java.util.EnumSet;
+import java.util.List;
+
+/**
+ * Workshop stages an order passes through, in order. Each stage takes a fixed setup time plus a time
+ * per unit of the order's quantity; kilograms, items and sets are treated alike.
+ */
+public enum ProductionStage {
+    WASH("Wash", 15, 4),
+    DRY("Dry", 10, 5),
+    IRON("Iron", 5, 6),
+    PACK("Pack", 5, 1);
+
+    private final String label;
+    private final int setupMinutes;
+    private final int minutesPerUnit;
+
+    ProductionStage(String label, int setupMinutes, int minutesPerUnit) {
+        this.label = label;
+        this.setupMinutes = setupMinutes;
+        this.minutesPerUnit = minutesPerUnit;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    public long minutesFor(Double quantity) {
+        double units = quantity == null || quantity < 0 ? 0 : quantity;
+        return setupMinutes + (long) Math.ceil(units * minutesPerUnit);
+    }
+
+    /**
+     * Stages a service goes through. Pressing-only and dry-cleaning jobs skip the washer, folded and
+     * bedding loads skip the iron, and anything else (express, stain removal, new services) does all four.
+     */
+    public static List<ProductionStage> routeFor(String serviceType) {
+        if (serviceType == null) {
+            return List.of(values());
+        }
+        EnumSet<ProductionStage> stages = switch (serviceType) {
+            case "Ironing" -> EnumSet.of(IRON, PACK);
+            case "Dry Cleaning" -> EnumSet.of(DRY, IRON, PACK);
+            case "Wash & Fold", "Bedding" -> EnumSet.of(WASH, DRY, PACK);
+            default -> EnumSet.allOf(ProductionStage.class);
+        };
+        return List.copyOf(stages);
+    }
+}
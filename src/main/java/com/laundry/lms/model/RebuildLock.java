@@ -0,0 +1,35 @@
+package com.laundry.lms.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+/**
+ * One row per family of derived tables. Writers that apply deltas to those tables hold a shared lock
+ * on the row for their transaction, and a rebuild holds an exclusive one, so across every instance a
+ * rebuild sees either all of a write or none of it.
+ */
+@Entity
+@Table(name = "rebuild_locks")
+public class RebuildLock {
+
+    @Id
+    @Column(length = 32)
+    private String name;
+
+    public RebuildLock() {
+    }
+
+    public RebuildLock(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+}
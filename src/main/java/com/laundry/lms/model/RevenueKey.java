@@ -0,0 +1,79 @@
+package com.laundry.lms.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+@Embeddable
+public class RevenueKey implements Serializable {
+
+    public static final String UNASSIGNED_SERVICE = "Unassigned";
+    public static final String UNKNOWN_METHOD = "Unknown";
+
+    @Column(name = "stat_date", nullable = false)
+    private LocalDate day;
+
+    @Column(nullable = false)
+    private String serviceType;
+
+    @Column(nullable = false)
+    private String method;
+
+    public RevenueKey() {
+    }
+
+    public RevenueKey(LocalDate day, String serviceType, String method) {
+        this.day = day;
+        this.serviceType = serviceType;
+        this.method = method;
+    }
+
+    /**
+     * Revenue is booked on the day the payment was made, or the day it was recorded when no
+     * payment date was given.
+     */
+    public static RevenueKey of(Payment payment) {
+        return of(payment.getPaidAt(), payment.getCreatedAt(),
+                payment.getOrder() != null ? payment.getOrder().getServiceType() : null, payment.getMethod());
+    }
+
+    public static RevenueKey of(LocalDateTime paidAt, LocalDateTime createdAt, String serviceType, String method) {
+        return new RevenueKey((paidAt != null ? paidAt : createdAt).toLocalDate(),
+                serviceType != null ? serviceType : UNASSIGNED_SERVICE,
+                method != null ? method : UNKNOWN_METHOD);
+    }
+
+    public LocalDate getDay() {
+        return day;
+    }
+
+    public String getServiceType() {
+        return serviceType;
+    }
+
+    public String getMethod() {
+        return method;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof RevenueKey other)) {
+            return false;
+        }
+        return Objects.equals(day, other.day)
+                && Objects.equals(serviceType, other.serviceType)
+                && Objects.equals(method, other.method);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(day, serviceType, method);
+    }
+}
@@ -0,0 +1,59 @@
+package com.laundry.lms.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.EmbeddedId;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Table;
+
+import java.math.BigDecimal;
+
+/**
+ * Completed-payment revenue per (day, service type, payment method). Weekly and monthly reports
+ * are summed from these rows.
+ */
+@Entity
+@Table(name = "revenue_daily")
+public class RevenueRollup {
+
+    @EmbeddedId
+    private RevenueKey id;
+
+    @Column(nullable = false)
+    private BigDecimal amount;
+
+    @Column(nullable = false)
+    private long paymentCount;
+
+    public RevenueRollup() {
+    }
+
+    public RevenueRollup(RevenueKey id, BigDecimal amount, long paymentCount) {
+        this.id = id;
+        this.amount = amount;
+        this.paymentCount = paymentCount;
+    }
+
+    public RevenueKey getId() {
+        return id;
+    }
+
+    public void setId(RevenueKey id) {
+        this.id = id;
+    }
+
+    public BigDecimal getAmount() {
+        return amount;
+    }
+
+    public void setAmount(BigDecimal amount) {
+        this.amount = amount;
+    }
+
+    public long getPaymentCount() {
+        return paymentCount;
+    }
+
+    public void setPaymentCount(long paymentCount) {
+        this.paymentCount = paymentCount;
+    }
+}
@@ -0,0 +1,6 @@
+package com.laundry.lms.model;
+
+public enum SearchDocumentType {
+    MESSAGE,
+    ORDER
+}
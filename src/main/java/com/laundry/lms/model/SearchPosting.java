@@ -0,0 +1,48 @@
+package com.laundry.lms.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.EmbeddedId;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+/**
+ * One entry of the inverted index: a term and how often it occurs in one message body or order notes.
+ * The primary key leads with the term, so looking up a term's postings is an index range scan.
+ */
+@Entity
+@Table(name = "search_postings", indexes = {
+        @Index(name = "idx_search_postings_doc", columnList = "doc_type, doc_id")
+})
+public class SearchPosting {
+
+    @EmbeddedId
+    private SearchPostingKey id;
+
+    @Column(nullable = false)
+    private int termFrequency;
+
+    public SearchPosting() {
+    }
+
+    public SearchPosting(SearchPostingKey id, int termFrequency) {
+        this.id = id;
+        this.termFrequency = termFrequency;
+    }
+
+    public SearchPostingKey getId() {
+        return id;
+    }
+
+    public void setId(SearchPostingKey id) {
+        this.id = id;
+    }
+
+    public int getTermFrequency() {
+        return termFrequency;
+    }
+
+    public void setTermFrequency(int termFrequency) {
+        this.termFrequency = termFrequency;
+    }
+}
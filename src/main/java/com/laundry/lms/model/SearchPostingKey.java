@@ -0,0 +1,72 @@
+package com.laundry.lms.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+@Embeddable
+public class SearchPostingKey implements Serializable {
+
+    @Column(nullable = false, length = 40)
+    private String term;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private SearchDocumentType docType;
+
+    @Column(nullable = false)
+    private Long docId;
+
+    public SearchPostingKey() {
+    }
+
+    public SearchPostingKey(String term, SearchDocumentType docType, Long docId) {
+        this.term = term;
+        this.docType = docType;
+        this.docId = docId;
+    }
+
+    public String getTerm() {
+        return term;
+    }
+
+    public void setTerm(String term) {
+        this.term = term;
+    }
+
+    public SearchDocumentType getDocType() {
+        return docType;
+    }
+
+    public void setDocType(SearchDocumentType docType) {
+        this.docType = docType;
+    }
+
+    public Long getDocId() {
+        return docId;
+    }
+
+    public void setDocId(Long docId) {
+        this.docId = docId;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof SearchPostingKey that)) {
+            return false;
+        }
+        return Objects.equals(term, that.term) && docType == that.docType && Objects.equals(docId, that.docId);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(term, docType, docId);
+    }
+}
@@ -4,22 +4,35 @@ import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
+import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
 import jakarta.persistence.PrePersist;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "tasks")
+@Table(name = "tasks", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_tasks_order_stage", columnNames = {"order_id", "stage"})
+}, indexes = {
+        @Index(name = "idx_tasks_status_due_date", columnList = "status, due_date"),
+        @Index(name = "idx_tasks_assignee_status_due_date", columnList = "assigned_to, status, due_date"),
+        @Index(name = "idx_tasks_stage_status", columnList = "stage, status")
+})
 public class Task {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "tasks_seq")
+    @SequenceGenerator(name = "tasks_seq", sequenceName = "tasks_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
@@ -42,6 +55,15 @@ public class Task {
     @Column(nullable = false)
     private LocalDateTime createdAt;
 
+    // Set on stage tasks generated from an order; plain tasks have neither.
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "order_id")
+    private LaundryOrder order;
+
+    @Enumerated(EnumType.STRING)
+    @Column(length = 16)
+    private ProductionStage stage;
+
     public Task() {
     }
 
@@ -116,4 +138,20 @@ public class Task {
     public void setCreatedAt(LocalDateTime createdAt) {
         this.createdAt = createdAt;
     }
+
+    public LaundryOrder getOrder() {
+        return order;
+    }
+
+    public void setOrder(LaundryOrder order) {
+        this.order = order;
+    }
+
+    public ProductionStage getStage() {
+        return stage;
+    }
+
+    public void setStage(ProductionStage stage) {
+        this.stage = stage;
+    }
 }
@@ -0,0 +1,86 @@
+package com.laundry.lms.repository;
+
+import com.laundry.lms.dto.MessageResponse;
+import com.laundry.lms.model.ArchivedMessage;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface ArchivedMessageRepository extends JpaRepository<ArchivedMessage, Long> {
+
+    @Query("select max(a.id) from ArchivedMessage a")
+    Long findMaxId();
+
+    /**
+     * Copies the given hot messages into the archive, keeping their ids.
+     */
+    @Modifying
+    @Query("insert into ArchivedMessage (id, fromUserId, toUserId, body, timestamp, readAt, archivedAt) " +
+            "select m.id, m.fromUser.id, m.toUser.id, m.body, m.timestamp, m.readAt, :archivedAt " +
+            "from Message m where m.id in :ids")
+    int copyFromMessages(@Param("ids") Collection<Long> ids, @Param("archivedAt") LocalDateTime archivedAt);
+
+    @Query("select new com.laundry.lms.dto.MessageResponse(a.id, a.fromUserId, a.toUserId, a.body, a.timestamp) " +
+            "from ArchivedMessage a where (a.fromUserId, a.toUserId) in ((:userA, :userB), (:userB, :userA)) " +
+            "and (:from is null or a.timestamp > :from) order by a.timestamp asc, a.id asc")
+    List<MessageResponse> findConversationResponsesAfter(@Param("userA") Long userA, @Param("userB") Long userB,
+                                                         @Param("from") LocalDateTime from);
+
+    @Query("select new com.laundry.lms.dto.MessageResponse(a.id, a.fromUserId, a.toUserId, a.body, a.timestamp) " +
+            "from ArchivedMessage a where (a.fromUserId, a.toUserId) in ((:userA, :userB), (:userB, :userA)) " +
+            "and (:beforeTimestamp is null or a.timestamp < :beforeTimestamp " +
+            "or (a.timestamp = :beforeTimestamp and a.id < :beforeId)) " +
+            "order by a.timestamp desc, a.id desc")
+    List<MessageResponse> findConversationResponsesBefore(@Param("userA") Long userA, @Param("userB") Long userB,
+                                                          @Param("beforeTimestamp") LocalDateTime beforeTimestamp,
+                                                          @Param("beforeId") Long beforeId, Limit limit);
+
+    @Query("select count(a) from ArchivedMessage a " +
+            "where (a.fromUserId, a.toUserId) in ((:userA, :userB), (:userB, :userA))")
+    long countConversation(@Param("userA") Long userA, @Param("userB") Long userB);
+
+    @Query("select a.timestamp from ArchivedMessage a where a.id = :id")
+    LocalDateTime findTimestampById(@Param("id") Long id);
+
+    @Query("select new com.laundry.lms.dto.MessageResponse(a.id, a.fromUserId, a.toUserId, a.body, a.timestamp) " +
+            "from ArchivedMessage a where a.id in (" +
+            "select s.id from ArchivedMessage s where s.fromUserId = :userId " +
+            "union all select r.id from ArchivedMessage r where r.toUserId = :userId) " +
+            "and (:from is null or a.timestamp > :from) order by a.timestamp asc, a.id asc")
+    List<MessageResponse> findResponsesInvolvingAfter(@Param("userId") Long userId,
+                                                      @Param("from") LocalDateTime from);
+
+    @Query("select new com.laundry.lms.dto.MessageResponse(a.id, a.fromUserId, a.toUserId, a.body, a.timestamp) " +
+            "from ArchivedMessage a where a.id in (" +
+            "select s.id from ArchivedMessage s where s.fromUserId = :userId " +
+            "union all select r.id from ArchivedMessage r where r.toUserId = :userId) " +
+            "and (:beforeTimestamp is null or a.timestamp < :beforeTimestamp " +
+            "or (a.timestamp = :beforeTimestamp and a.id < :beforeId)) " +
+            "order by a.timestamp desc, a.id desc")
+    List<MessageResponse> findResponsesInvolvingBefore(@Param("userId") Long userId,
+                                                       @Param("beforeTimestamp") LocalDateTime beforeTimestamp,
+                                                       @Param("beforeId") Long beforeId, Limit limit);
+
+    @Query("select new com.laundry.lms.dto.MessageResponse(a.id, a.fromUserId, a.toUserId, a.body, a.timestamp) " +
+            "from ArchivedMessage a where a.id in :ids")
+    List<MessageResponse> findResponsesByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Transactional
+    @Modifying
+    @Query("update ArchivedMessage a set a.readAt = :readAt where a.fromUserId = :fromUserId and a.toUserId = :toUserId " +
+            "and a.readAt is null and (:upToTimestamp is null or a.timestamp < :upToTimestamp " +
+            "or (a.timestamp = :upToTimestamp and a.id <= :upToId))")
+    int markRead(@Param("fromUserId") Long fromUserId, @Param("toUserId") Long toUserId,
+                 @Param("upToTimestamp") LocalDateTime upToTimestamp, @Param("upToId") Long upToId,
+                 @Param("readAt") LocalDateTime readAt);
+
+    @Query("select a.id, a.body from ArchivedMessage a where a.id > :afterId order by a.id")
+    List<Object[]> findBodiesAfter(@Param("afterId") Long afterId, Limit limit);
+}
@@ -0,0 +1,14 @@
+package com.laundry.lms.repository;
+
+import com.laundry.lms.model.CatalogEntry;
+import com.laundry.lms.model.CatalogEntryType;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+
+public interface CatalogEntryRepository extends JpaRepository<CatalogEntry, Long> {
+
+    List<CatalogEntry> findAllByOrderByTypeAscSortOrderAscNameAsc();
+
+    boolean existsByTypeAndName(CatalogEntryType type, String name);
+}
@@ -0,0 +1,18 @@
+package com.laundry.lms.repository;
+
+import com.laundry.lms.model.FiredAlert;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+public interface FiredAlertRepository extends JpaRepository<FiredAlert, String> {
+
+    @Transactional
+    @Modifying
+    @Query("delete from FiredAlert a where a.deadline < :cutoff")
+    int deleteDeadlinesBefore(@Param("cutoff") LocalDateTime cutoff);
+}
@@ -0,0 +1,45 @@
+package com.laundry.lms.repository;
+
+import com.laundry.lms.model.IdempotencyRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, String> {
+
+    @Transactional
+    @Modifying
+    @Query("delete from IdempotencyRecord r where r.createdAt < :cutoff")
+    int deleteOlderThan(@Param("cutoff") LocalDateTime cutoff);
+
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("delete from IdempotencyRecord r where r.id = :id and r.responseStatus is null and r.committed = false "
+            + "and r.createdAt < :cutoff")
+    int deleteExpiredClaim(@Param("id") String id, @Param("cutoff") LocalDateTime cutoff);
+
+    /**
+     * Joins the caller's transaction, so the claim commits together with the write it covers.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    @Modifying
+    @Query("update IdempotencyRecord r set r.committed = true where r.id = :id and r.token = :token")
+    int markCommitted(@Param("id") String id, @Param("token") String token);
+
+    @Transactional
+    @Modifying
+    @Query("update IdempotencyRecord r set r.responseStatus = :status, r.responseBody = :body "
+            + "where r.id = :id and r.token = :token")
+    int complete(@Param("id") String id, @Param("token") String token,
+                 @Param("status") int status, @Param("body") String body);
+
+    @Transactional
+    @Modifying
+    @Query("delete from IdempotencyRecord r where r.id = :id and r.token = :token and r.committed = false")
+    int release(@Param("id") String id, @Param("token") String token);
+}
@@ -1,10 +1,124 @@
 package com.laundry.lms.repository;
 
+import com.laundry.lms.dto.CustomerOrderStatsResponse;
 import com.laundry.lms.model.LaundryOrder;
+import com.laundry.lms.model.OrderStatus;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
-public interface LaundryOrderRepository extends JpaRepository<LaundryOrder, Long> {
-    List<LaundryOrder> findByCustomerId(Long customerId);
+public interface LaundryOrderRepository extends JpaRepository<LaundryOrder, Long>, JpaSpecificationExecutor<LaundryOrder>,
+        LaundryOrderRepositoryCustom {
+
+    int EXPORT_FETCH_SIZE = 500;
+
+    @Override
+    @EntityGraph(attributePaths = "customer")
+    List<LaundryOrder> findAll();
+
+    @Query("select o from LaundryOrder o join fetch o.customer where o.customer.id = :customerId")
+    List<LaundryOrder> findByCustomerId(@Param("customerId") Long customerId);
+
+    /**
+     * One customer's dashboard figures, aggregated over the customer index: orders not in
+     * {@code closed}, the sum of all order prices and the latest pickup date.
+     */
+    @Query("select new com.laundry.lms.dto.CustomerOrderStatsResponse(" +
+            "sum(case when o.status not in :closed then 1L else 0L end), sum(o.price), max(o.pickupDate)) " +
+            "from LaundryOrder o where o.customer.id = :customerId")
+    CustomerOrderStatsResponse findCustomerStats(@Param("customerId") Long customerId,
+                                                 @Param("closed") Collection<OrderStatus> closed);
+
+    /**
+     * Locks the orders among {@code ids} that are currently in {@code status} and returns
+     * {@code [id, serviceType, createdAt]} for each, without loading the rows as entities.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select o.id, o.serviceType, o.createdAt from LaundryOrder o where o.id in :ids and o.status = :status")
+    List<Object[]> lockInStatus(@Param("ids") Collection<Long> ids, @Param("status") OrderStatus status);
+
+    /**
+     * Locks one order and returns {@code [serviceType, createdAt, status]} as committed, for a delete
+     * that has to know the status it removes.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select o.serviceType, o.createdAt, o.status from LaundryOrder o where o.id = :id")
+    List<Object[]> lockStatsRow(@Param("id") Long id);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update LaundryOrder o set o.status = :to where o.id in :ids and o.status = :from")
+    int transitionStatus(@Param("ids") Collection<Long> ids,
+                         @Param("from") OrderStatus from,
+                         @Param("to") OrderStatus to);
+
+    /**
+     * Scrolls matching orders oldest first. Must be consumed inside a transaction and closed;
+     * rows are pulled from the driver {@value #EXPORT_FETCH_SIZE} at a time.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + EXPORT_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select o from LaundryOrder o join fetch o.customer c " +
+            "where (:customerId is null or c.id = :customerId) " +
+            "and (:status is null or o.status = :status) " +
+            "and (:serviceType is null or o.serviceType = :serviceType) " +
+            "and (:createdFrom is null or o.createdAt >= :createdFrom) " +
+            "and (:createdTo is null or o.createdAt < :createdTo) " +
+            "order by o.createdAt asc, o.id asc")
+    Stream<LaundryOrder> streamForExport(@Param("customerId") Long customerId,
+                                         @Param("status") OrderStatus status,
+                                         @Param("serviceType") String serviceType,
+                                         @Param("createdFrom") LocalDateTime createdFrom,
+                                         @Param("createdTo") LocalDateTime createdTo);
+
+    /**
+     * Id and notes of orders after {@code afterId}, in id order, for rebuilding the search index.
+     */
+    @Query("select o.id, o.notes from LaundryOrder o where o.id > :afterId and o.notes is not null order by o.id")
+    List<Object[]> findNotesAfter(@Param("afterId") Long afterId, Limit limit);
+
+    /**
+     * Id, customer id and price of orders after {@code afterId}, in id order, for rebuilding balances.
+     */
+    @Query("select o.id, o.customer.id, o.price from LaundryOrder o where o.id > :afterId order by o.id")
+    List<Object[]> findPricesAfter(@Param("afterId") Long afterId, Limit limit);
+
+    /**
+     * {@code [id, serviceType, quantity, deliveryDate]} of every order in one of {@code statuses}, for the
+     * production forecast. Must be consumed inside a transaction and closed.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + EXPORT_FETCH_SIZE))
+    @Query("select o.id, o.serviceType, o.quantity, o.deliveryDate from LaundryOrder o where o.status in :statuses")
+    Stream<Object[]> streamPipelineRows(@Param("statuses") Collection<OrderStatus> statuses);
+
+    /**
+     * {@code [id, serviceType, deliveryDate]} of orders in one of {@code statuses} due on or after {@code from}.
+     */
+    @Query("select o.id, o.serviceType, o.deliveryDate from LaundryOrder o " +
+            "where o.status in :statuses and o.deliveryDate >= :from")
+    List<Object[]> findAlertRows(@Param("statuses") Collection<OrderStatus> statuses, @Param("from") LocalDate from);
+
+    /**
+     * {@code [id, serviceType, deliveryDate]} of those of {@code ids} still in one of {@code statuses}.
+     */
+    @Query("select o.id, o.serviceType, o.deliveryDate from LaundryOrder o " +
+            "where o.id in :ids and o.status in :statuses")
+    List<Object[]> findAlertRowsByIds(@Param("ids") Collection<Long> ids,
+                                      @Param("statuses") Collection<OrderStatus> statuses);
 }
@@ -0,0 +1,16 @@
+package com.laundry.lms.repository;
+
+import com.laundry.lms.dto.OrderResponse;
+import com.laundry.lms.model.LaundryOrder;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+public interface LaundryOrderRepositoryCustom {
+
+    /**
+     * Newest-first page of orders matching {@code spec}, selected straight into
+     * {@link OrderResponse} without hydrating entities.
+     */
+    List<OrderResponse> findResponses(Specification<LaundryOrder> spec, int limit);
+}
@@ -0,0 +1,55 @@
+package com.laundry.lms.repository;
+
+import com.laundry.lms.dto.OrderResponse;
+import com.laundry.lms.model.LaundryOrder;
+import com.laundry.lms.model.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+class LaundryOrderRepositoryImpl implements LaundryOrderRepositoryCustom {
+
+    private final EntityManager entityManager;
+
+    LaundryOrderRepositoryImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public List<OrderResponse> findResponses(Specification<LaundryOrder> spec, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<OrderResponse> query = cb.createQuery(OrderResponse.class);
+        Root<LaundryOrder> order = query.from(LaundryOrder.class);
+        Join<LaundryOrder, User> customer = order.join("customer");
+
+        query.select(cb.construct(OrderResponse.class,
+                order.get("id"),
+                customer.get("id"),
+                customer.get("name"),
+                order.get("serviceType"),
+                order.get("quantity"),
+                order.get("unit"),
+                order.get("price"),
+                order.get("status"),
+                order.get("pickupDate"),
+                order.get("deliveryDate"),
+                order.get("notes"),
+                order.get("createdAt")));
+
+        Predicate predicate = spec.toPredicate(order, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.orderBy(cb.desc(order.get("createdAt")), cb.desc(order.get("id")));
+
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+}
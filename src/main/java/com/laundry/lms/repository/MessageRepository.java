@@ -1,17 +1,148 @@
 package com.laundry.lms.repository;
 
+import com.laundry.lms.dto.MessageResponse;
 import com.laundry.lms.model.Message;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 public interface MessageRepository extends JpaRepository<Message, Long> {
 
-    @Query("select m from Message m where (m.fromUser.id = :userA and m.toUser.id = :userB) " +
-            "or (m.fromUser.id = :userB and m.toUser.id = :userA) order by m.timestamp asc")
+    @Query("select m from Message m where (m.fromUser.id, m.toUser.id) in ((:userA, :userB), (:userB, :userA)) " +
+            "order by m.timestamp asc")
     List<Message> findConversation(@Param("userA") Long userA, @Param("userB") Long userB);
 
-    List<Message> findByFromUserIdOrToUserIdOrderByTimestampAsc(Long fromUserId, Long toUserId);
+    @Query("select m from Message m where m.id in (" +
+            "select s.id from Message s where s.fromUser.id = :fromUserId " +
+            "union all select r.id from Message r where r.toUser.id = :toUserId) " +
+            "order by m.timestamp asc")
+    List<Message> findByFromUserIdOrToUserIdOrderByTimestampAsc(@Param("fromUserId") Long fromUserId,
+                                                                @Param("toUserId") Long toUserId);
+
+    @Query("select new com.laundry.lms.dto.MessageResponse(m.id, m.fromUser.id, m.toUser.id, m.body, m.timestamp) " +
+            "from Message m where (m.fromUser.id, m.toUser.id) in ((:userA, :userB), (:userB, :userA)) " +
+            "order by m.timestamp asc")
+    List<MessageResponse> findConversationResponses(@Param("userA") Long userA, @Param("userB") Long userB);
+
+    @Query("select new com.laundry.lms.dto.MessageResponse(m.id, m.fromUser.id, m.toUser.id, m.body, m.timestamp) " +
+            "from Message m where m.id in (" +
+            "select s.id from Message s where s.fromUser.id = :userId " +
+            "union all select r.id from Message r where r.toUser.id = :userId) " +
+            "order by m.timestamp asc")
+    List<MessageResponse> findResponsesInvolving(@Param("userId") Long userId);
+
+    @Query("select new com.laundry.lms.dto.MessageResponse(m.id, m.fromUser.id, m.toUser.id, m.body, m.timestamp) " +
+            "from Message m where (m.fromUser.id, m.toUser.id) in ((:userA, :userB), (:userB, :userA)) " +
+            "and m.timestamp > :from order by m.timestamp asc, m.id asc")
+    List<MessageResponse> findConversationResponsesAfter(@Param("userA") Long userA, @Param("userB") Long userB,
+                                                         @Param("from") LocalDateTime from);
+
+    /**
+     * Newest messages before the {@code (beforeTimestamp, beforeId)} cursor, or the newest overall when
+     * {@code beforeTimestamp} is null, newest first; callers reverse the page for display.
+     */
+    @Query("select new com.laundry.lms.dto.MessageResponse(m.id, m.fromUser.id, m.toUser.id, m.body, m.timestamp) " +
+            "from Message m where (m.fromUser.id, m.toUser.id) in ((:userA, :userB), (:userB, :userA)) " +
+            "and (:beforeTimestamp is null or m.timestamp < :beforeTimestamp " +
+            "or (m.timestamp = :beforeTimestamp and m.id < :beforeId)) " +
+            "order by m.timestamp desc, m.id desc")
+    List<MessageResponse> findConversationResponsesBefore(@Param("userA") Long userA, @Param("userB") Long userB,
+                                                          @Param("beforeTimestamp") LocalDateTime beforeTimestamp,
+                                                          @Param("beforeId") Long beforeId, Limit limit);
+
+    @Query("select count(m) from Message m " +
+            "where (m.fromUser.id, m.toUser.id) in ((:userA, :userB), (:userB, :userA))")
+    long countConversation(@Param("userA") Long userA, @Param("userB") Long userB);
+
+    @Query("select m.timestamp from Message m where m.id = :id")
+    LocalDateTime findTimestampById(@Param("id") Long id);
+
+    @Query("select new com.laundry.lms.dto.MessageResponse(m.id, m.fromUser.id, m.toUser.id, m.body, m.timestamp) " +
+            "from Message m where m.id in (" +
+            "select s.id from Message s where s.fromUser.id = :userId " +
+            "union all select r.id from Message r where r.toUser.id = :userId) " +
+            "and m.timestamp > :from order by m.timestamp asc, m.id asc")
+    List<MessageResponse> findResponsesInvolvingAfter(@Param("userId") Long userId,
+                                                      @Param("from") LocalDateTime from);
+
+    @Query("select new com.laundry.lms.dto.MessageResponse(m.id, m.fromUser.id, m.toUser.id, m.body, m.timestamp) " +
+            "from Message m where m.id in (" +
+            "select s.id from Message s where s.fromUser.id = :userId " +
+            "union all select r.id from Message r where r.toUser.id = :userId) " +
+            "and (:beforeTimestamp is null or m.timestamp < :beforeTimestamp " +
+            "or (m.timestamp = :beforeTimestamp and m.id < :beforeId)) " +
+            "order by m.timestamp desc, m.id desc")
+    List<MessageResponse> findResponsesInvolvingBefore(@Param("userId") Long userId,
+                                                       @Param("beforeTimestamp") LocalDateTime beforeTimestamp,
+                                                       @Param("beforeId") Long beforeId, Limit limit);
+
+    /**
+     * One row per counterpart of {@code userId}: counterpart id and name, then the last message's id,
+     * sender, body and timestamp, then the number of messages from that counterpart still unread.
+     * The last message is the newest by {@code (timestamp, id)}, the order conversations are read in.
+     * Archived messages count too, so a conversation that went quiet long ago keeps its entry.
+     * The union keeps each branch on an index; OR across the two user columns would not be.
+     */
+    @Query(value = "select c.counterpart_id, u.name, c.id, coalesce(m.from_user_id, a.from_user_id), " +
+            "coalesce(m.body, a.body), c.ts, c.unread " +
+            "from (select x.counterpart_id, x.id, x.ts, " +
+            "row_number() over (partition by x.counterpart_id order by x.ts desc, x.id desc) as rn, " +
+            "sum(x.unread) over (partition by x.counterpart_id) as unread from (" +
+            "select s.to_user_id as counterpart_id, s.id, s.timestamp as ts, 0 as unread " +
+            "from messages s where s.from_user_id = :userId " +
+            "union all " +
+            "select r.from_user_id, r.id, r.timestamp, case when r.read_at is null then 1 else 0 end " +
+            "from messages r where r.to_user_id = :userId " +
+            "union all " +
+            "select sa.to_user_id, sa.id, sa.timestamp, 0 from messages_archive sa where sa.from_user_id = :userId " +
+            "union all " +
+            "select ra.from_user_id, ra.id, ra.timestamp, case when ra.read_at is null then 1 else 0 end " +
+            "from messages_archive ra where ra.to_user_id = :userId" +
+            ") x) c " +
+            "left join messages m on m.id = c.id " +
+            "left join messages_archive a on a.id = c.id " +
+            "join users u on u.id = c.counterpart_id " +
+            "where c.rn = 1 " +
+            "order by c.ts desc, c.id desc", nativeQuery = true)
+    List<Object[]> findInboxRows(@Param("userId") Long userId);
+
+    /**
+     * Marks unread messages up to the {@code (upToTimestamp, upToId)} cursor as read, or all of them when
+     * {@code upToTimestamp} is null.
+     */
+    @Transactional
+    @Modifying
+    @Query("update Message m set m.readAt = :readAt where m.fromUser.id = :fromUserId and m.toUser.id = :toUserId " +
+            "and m.readAt is null and (:upToTimestamp is null or m.timestamp < :upToTimestamp " +
+            "or (m.timestamp = :upToTimestamp and m.id <= :upToId))")
+    int markRead(@Param("fromUserId") Long fromUserId, @Param("toUserId") Long toUserId,
+                 @Param("upToTimestamp") LocalDateTime upToTimestamp, @Param("upToId") Long upToId,
+                 @Param("readAt") LocalDateTime readAt);
+
+    @Query("select new com.laundry.lms.dto.MessageResponse(m.id, m.fromUser.id, m.toUser.id, m.body, m.timestamp) " +
+            "from Message m where m.id in :ids")
+    List<MessageResponse> findResponsesByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Id and body of messages after {@code afterId}, in id order, for rebuilding the search index.
+     */
+    @Query("select m.id, m.body from Message m where m.id > :afterId order by m.id")
+    List<Object[]> findBodiesAfter(@Param("afterId") Long afterId, Limit limit);
+
+    /**
+     * Ids of messages sent before {@code cutoff}, oldest first, for moving to the archive.
+     */
+    @Query("select m.id from Message m where m.timestamp < :cutoff order by m.timestamp")
+    List<Long> findIdsOlderThan(@Param("cutoff") LocalDateTime cutoff, Limit limit);
+
+    @Modifying
+    @Query("delete from Message m where m.id in :ids")
+    int deleteAllByIdIn(@Param("ids") Collection<Long> ids);
 }
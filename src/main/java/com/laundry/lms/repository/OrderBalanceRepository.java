@@ -0,0 +1,96 @@
+package com.laundry.lms.repository;
+
+import com.laundry.lms.dto.CustomerBalanceResponse;
+import com.laundry.lms.model.OrderBalance;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface OrderBalanceRepository extends JpaRepository<OrderBalance, Long> {
+
+    /**
+     * Applies a payment delta in place; concurrent writers serialize on the row instead of
+     * overwriting each other's read-modify-write.
+     */
+    @Modifying
+    @Query("update OrderBalance b set b.amountPaid = b.amountPaid + :paid, " +
+            "b.amountPending = b.amountPending + :pending, b.outstanding = b.outstanding - :paid, " +
+            "b.updatedAt = :now where b.orderId = :orderId")
+    int applyPayment(@Param("orderId") Long orderId, @Param("paid") BigDecimal paid,
+                     @Param("pending") BigDecimal pending, @Param("now") LocalDateTime now);
+
+    /**
+     * Computes balances for the given orders from orders and payments in one statement.
+     */
+    @Modifying
+    @Query("insert into OrderBalance (orderId, customerId, amountDue, amountPaid, amountPending, outstanding, updatedAt) " +
+            "select o.id, o.customer.id, o.price, " +
+            "coalesce(sum(case when p.status = com.laundry.lms.model.PaymentStatus.COMPLETED then p.amount end), 0), " +
+            "coalesce(sum(case when p.status = com.laundry.lms.model.PaymentStatus.PENDING then p.amount end), 0), " +
+            "o.price - coalesce(sum(case when p.status = com.laundry.lms.model.PaymentStatus.COMPLETED then p.amount end), 0), " +
+            ":now from LaundryOrder o left join Payment p on p.order = o " +
+            "where o.id in :orderIds group by o.id, o.customer.id, o.price")
+    int insertComputed(@Param("orderIds") Collection<Long> orderIds, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("insert into OrderBalance (orderId, customerId, amountDue, amountPaid, amountPending, outstanding, updatedAt) " +
+            "select o.id, o.customer.id, o.price, " +
+            "coalesce(sum(case when p.status = com.laundry.lms.model.PaymentStatus.COMPLETED then p.amount end), 0), " +
+            "coalesce(sum(case when p.status = com.laundry.lms.model.PaymentStatus.PENDING then p.amount end), 0), " +
+            "o.price - coalesce(sum(case when p.status = com.laundry.lms.model.PaymentStatus.COMPLETED then p.amount end), 0), " +
+            ":now from LaundryOrder o left join Payment p on p.order = o " +
+            "group by o.id, o.customer.id, o.price")
+    int insertAllComputed(@Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("delete from OrderBalance b where b.orderId in :orderIds")
+    int deleteByOrderIdIn(@Param("orderIds") Collection<Long> orderIds);
+
+    /**
+     * Orders whose stored balance is missing or disagrees with their payments, plus balances left
+     * behind by deleted orders.
+     */
+    @Query("select o.id from LaundryOrder o left join OrderBalance b on b.orderId = o.id " +
+            "left join Payment p on p.order = o " +
+            "group by o.id, o.price, b.orderId, b.amountDue, b.amountPaid, b.amountPending " +
+            "having b.orderId is null or b.amountDue <> o.price " +
+            "or b.amountPaid <> coalesce(sum(case when p.status = com.laundry.lms.model.PaymentStatus.COMPLETED then p.amount end), 0) " +
+            "or b.amountPending <> coalesce(sum(case when p.status = com.laundry.lms.model.PaymentStatus.PENDING then p.amount end), 0)")
+    List<Long> findDriftedOrderIds();
+
+    @Query("select b.orderId from OrderBalance b where not exists (select 1 from LaundryOrder o where o.id = b.orderId)")
+    List<Long> findOrphanedOrderIds();
+
+    /**
+     * Orders still owed money, largest balance first.
+     */
+    @Query("select b from OrderBalance b where b.outstanding > 0 order by b.outstanding desc, b.orderId")
+    List<OrderBalance> findOutstanding(Limit limit);
+
+    List<OrderBalance> findByCustomerIdOrderByOrderIdAsc(Long customerId);
+
+    /**
+     * Customers with at least one unpaid order, summed over those orders, largest balance first.
+     */
+    @Query("select new com.laundry.lms.dto.CustomerBalanceResponse(b.customerId, u.name, count(b), " +
+            "sum(b.amountDue), sum(b.amountPaid), sum(b.amountPending), sum(b.outstanding)) " +
+            "from OrderBalance b join User u on u.id = b.customerId where b.outstanding > 0 " +
+            "group by b.customerId, u.name order by sum(b.outstanding) desc, b.customerId")
+    List<CustomerBalanceResponse> findCustomersOwing(Limit limit);
+
+    @Query("select new com.laundry.lms.dto.CustomerBalanceResponse(b.customerId, u.name, count(b), " +
+            "sum(b.amountDue), sum(b.amountPaid), sum(b.amountPending), sum(b.outstanding)) " +
+            "from OrderBalance b join User u on u.id = b.customerId where b.customerId = :customerId " +
+            "group by b.customerId, u.name")
+    CustomerBalanceResponse findCustomerSummary(@Param("customerId") Long customerId);
+
+    @Query("select coalesce(sum(b.outstanding), 0) from OrderBalance b where b.outstanding > 0")
+    BigDecimal sumOutstanding();
+}
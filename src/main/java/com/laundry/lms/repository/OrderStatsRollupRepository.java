@@ -0,0 +1,42 @@
+package com.laundry.lms.repository;
+
+import com.laundry.lms.model.OrderStatsKey;
+import com.laundry.lms.model.OrderStatsRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface OrderStatsRollupRepository extends JpaRepository<OrderStatsRollup, OrderStatsKey> {
+
+    /**
+     * Adds to the row for the key, creating it if missing, in one statement, so it can run inside the
+     * order write's transaction without a duplicate-key failure when another writer creates the row.
+     */
+    @Modifying
+    @Query("insert into OrderStatsRollup (id.day, id.serviceType, id.status, orderCount) " +
+            "values (:#{#id.day}, :#{#id.serviceType}, :#{#id.status}, :delta) " +
+            "on conflict(id) do update set orderCount = orderCount + excluded.orderCount")
+    int upsert(@Param("id") OrderStatsKey id, @Param("delta") long delta);
+
+    // The rollup holds one row per day, service type and status, so these sums stay small.
+    @Query("select r.id.status, sum(r.orderCount) from OrderStatsRollup r group by r.id.status")
+    List<Object[]> sumByStatus();
+
+    @Query("select r.id.serviceType, sum(r.orderCount) from OrderStatsRollup r group by r.id.serviceType")
+    List<Object[]> sumByServiceType();
+
+    @Query("select r.id.day, sum(r.orderCount) from OrderStatsRollup r where r.id.day between :from and :to " +
+            "group by r.id.day")
+    List<Object[]> sumByDayBetween(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    /**
+     * Recomputes every counter from the orders table, for recovery.
+     */
+    @Query("select cast(o.createdAt as LocalDate), o.serviceType, o.status, count(o) " +
+            "from LaundryOrder o group by cast(o.createdAt as LocalDate), o.serviceType, o.status")
+    List<Object[]> aggregateFromOrders();
+}
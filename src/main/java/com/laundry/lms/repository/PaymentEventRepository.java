@@ -0,0 +1,32 @@
+package com.laundry.lms.repository;
+
+import com.laundry.lms.model.PaymentEvent;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface PaymentEventRepository extends JpaRepository<PaymentEvent, Long> {
+
+    List<PaymentEvent> findByPaymentIdOrderByVersionAscIdAsc(Long paymentId);
+
+    @Query("select max(e.version) from PaymentEvent e where e.paymentId = :paymentId")
+    Integer findMaxVersion(@Param("paymentId") Long paymentId);
+
+    /**
+     * Payment id and highest event version, for each of the given payments that has events.
+     */
+    @Query("select e.paymentId, max(e.version) from PaymentEvent e where e.paymentId in :paymentIds group by e.paymentId")
+    List<Object[]> findMaxVersions(@Param("paymentIds") Collection<Long> paymentIds);
+
+    /**
+     * Journal rows after {@code afterId}, paged by id, as plain columns: id, payment id, version, type,
+     * order id, service type, method, amount, status, paid at, payment created at.
+     */
+    @Query("select e.id, e.paymentId, e.version, e.type, e.orderId, e.serviceType, e.method, e.amount, e.status, " +
+            "e.paidAt, e.paymentCreatedAt from PaymentEvent e where e.id > :afterId order by e.id")
+    List<Object[]> findRowsAfter(@Param("afterId") Long afterId, Limit limit);
+}
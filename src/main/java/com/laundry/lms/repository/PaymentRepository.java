@@ -1,11 +1,86 @@
 package com.laundry.lms.repository;
 
+import com.laundry.lms.dto.PaymentResponse;
 import com.laundry.lms.model.Payment;
 import com.laundry.lms.model.PaymentStatus;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 public interface PaymentRepository extends JpaRepository<Payment, Long> {
+
+    @Override
+    @EntityGraph(attributePaths = "order")
+    List<Payment> findAll();
+
+    @EntityGraph(attributePaths = "order")
     List<Payment> findByStatus(PaymentStatus status);
+
+    @EntityGraph(attributePaths = "order")
+    Optional<Payment> findWithOrderById(Long id);
+
+    /**
+     * Compare-and-set on the status column: moves the payment only if it is still in {@code from}.
+     *
+     * @return 1 if this call made the transition, 0 if the payment is gone or another writer got there first
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Payment p set p.status = :to where p.id = :id and p.status = :from")
+    int compareAndSetStatus(@Param("id") Long id, @Param("from") PaymentStatus from, @Param("to") PaymentStatus to);
+
+    /**
+     * Deletes the payment only if it is still in {@code status}, so a concurrent transition is not lost.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from Payment p where p.id = :id and p.status = :status")
+    int deleteInStatus(@Param("id") Long id, @Param("status") PaymentStatus status);
+
+    @EntityGraph(attributePaths = "order")
+    List<Payment> findWithOrderByIdIn(Collection<Long> ids);
+
+    /**
+     * Locks and returns the ids of the next payments in {@code status} created before {@code cutoff},
+     * in {@code (created_at, id)} order after the given cursor. Rows another transaction already holds
+     * are skipped instead of waited on, so concurrent callers split the queue between them. Native
+     * because Hibernate's H2 dialect drops SKIP LOCKED from the lock hint; H2 and MySQL 8 both accept
+     * this form.
+     */
+    @Query(value = "select id from payments where status = :status and created_at < :cutoff " +
+            "and created_at >= :afterCreatedAt and (created_at > :afterCreatedAt or id > :afterId) " +
+            "order by created_at, id limit :limit for update skip locked", nativeQuery = true)
+    List<Long> claimOlderThan(@Param("status") String status,
+                              @Param("cutoff") LocalDateTime cutoff,
+                              @Param("afterCreatedAt") LocalDateTime afterCreatedAt,
+                              @Param("afterId") Long afterId,
+                              @Param("limit") int limit);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Payment p set p.status = :to where p.id in :ids and p.status = :from")
+    int transitionStatus(@Param("ids") Collection<Long> ids,
+                         @Param("from") PaymentStatus from,
+                         @Param("to") PaymentStatus to);
+
+    long countByStatusAndCreatedAtBefore(PaymentStatus status, LocalDateTime cutoff);
+
+    @Query("select new com.laundry.lms.dto.PaymentResponse(p.id, o.id, o.serviceType, p.amount, p.method, p.status, p.paidAt) " +
+            "from Payment p left join p.order o order by p.id")
+    List<PaymentResponse> findAllResponses();
+
+    @EntityGraph(attributePaths = "order")
+    @Query("select p from Payment p where p.id > :afterId order by p.id")
+    List<Payment> findAfter(@Param("afterId") Long afterId, Limit limit);
+
+    @Query("select min(p.id) from Payment p")
+    Long findMinId();
+
+    @Query("select max(p.id) from Payment p")
+    Long findMaxId();
 }
@@ -0,0 +1,21 @@
+package com.laundry.lms.repository;
+
+import com.laundry.lms.model.RebuildLock;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Optional;
+
+public interface RebuildLockRepository extends JpaRepository<RebuildLock, String> {
+
+    @Lock(LockModeType.PESSIMISTIC_READ)
+    @Query("select l from RebuildLock l where l.name = :name")
+    Optional<RebuildLock> lockShared(@Param("name") String name);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select l from RebuildLock l where l.name = :name")
+    Optional<RebuildLock> lockExclusive(@Param("name") String name);
+}
@@ -0,0 +1,44 @@
+package com.laundry.lms.repository;
+
+import com.laundry.lms.model.RevenueKey;
+import com.laundry.lms.model.RevenueRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+public interface RevenueRollupRepository extends JpaRepository<RevenueRollup, RevenueKey> {
+
+    /**
+     * Adds to the row for the key, creating it if missing, in one statement, so it can run inside a
+     * larger transaction without a duplicate-key failure when another writer creates the row first.
+     */
+    @Modifying
+    @Query("insert into RevenueRollup (id.day, id.serviceType, id.method, amount, paymentCount) " +
+            "values (:#{#id.day}, :#{#id.serviceType}, :#{#id.method}, :amount, :count) " +
+            "on conflict(id) do update set amount = amount + excluded.amount, paymentCount = paymentCount + excluded.paymentCount")
+    int upsert(@Param("id") RevenueKey id, @Param("amount") BigDecimal amount, @Param("count") long count);
+
+    @Query("select r from RevenueRollup r where r.id.day between :from and :to")
+    List<RevenueRollup> findByDayBetween(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    /**
+     * Revenue of completed payments with ids in {@code [fromId, toId]}, grouped like the rollup
+     * rows, so a backfill can split the payments table into independent chunks.
+     */
+    String AGGREGATE_FROM_PAYMENTS = "select cast(coalesce(p.paidAt, p.createdAt) as LocalDate), " +
+            "coalesce(o.serviceType, '" + RevenueKey.UNASSIGNED_SERVICE + "'), " +
+            "coalesce(p.method, '" + RevenueKey.UNKNOWN_METHOD + "'), sum(p.amount), count(p) " +
+            "from Payment p left join p.order o " +
+            "where p.id between :fromId and :toId and p.status = com.laundry.lms.model.PaymentStatus.COMPLETED " +
+            "group by cast(coalesce(p.paidAt, p.createdAt) as LocalDate), " +
+            "coalesce(o.serviceType, '" + RevenueKey.UNASSIGNED_SERVICE + "'), " +
+            "coalesce(p.method, '" + RevenueKey.UNKNOWN_METHOD + "')";
+
+    @Query(AGGREGATE_FROM_PAYMENTS)
+    List<Object[]> aggregateFromPayments(@Param("fromId") Long fromId, @Param("toId") Long toId);
+}
@@ -0,0 +1,25 @@
+package com.laundry.lms.repository;
+
+import com.laundry.lms.model.SearchDocumentType;
+import com.laundry.lms.model.SearchPosting;
+import com.laundry.lms.model.SearchPostingKey;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface SearchPostingRepository extends JpaRepository<SearchPosting, SearchPostingKey> {
+
+    /**
+     * Document frequency of each term that occurs at least once.
+     */
+    @Query("select p.id.term, count(p) from SearchPosting p where p.id.term in :terms group by p.id.term")
+    List<Object[]> countDocumentsByTerm(@Param("terms") Collection<String> terms);
+
+    @Modifying
+    @Query("delete from SearchPosting p where p.id.docType = :docType and p.id.docId in :docIds")
+    int deleteDocuments(@Param("docType") SearchDocumentType docType, @Param("docIds") Collection<Long> docIds);
+}
@@ -1,11 +1,68 @@
 package com.laundry.lms.repository;
 
+import com.laundry.lms.dto.TaskResponse;
 import com.laundry.lms.model.Task;
 import com.laundry.lms.model.TaskStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 
-public interface TaskRepository extends JpaRepository<Task, Long> {
+public interface TaskRepository extends JpaRepository<Task, Long>, TaskRepositoryCustom {
     List<Task> findByStatus(TaskStatus status);
+
+    @Query("select new com.laundry.lms.dto.TaskResponse(t.id, t.title, t.assignedTo, t.dueDate, t.price, t.status, t.notes, " +
+            "t.order.id, t.stage) from Task t order by t.id")
+    List<TaskResponse> findAllResponses();
+
+    /**
+     * {@code [id, assignedTo, dueDate, price, status]} for every task in one of {@code statuses}.
+     */
+    @Query("select t.id, t.assignedTo, t.dueDate, t.price, t.status from Task t where t.status in :statuses")
+    List<Object[]> findWorkloadRows(@Param("statuses") Collection<TaskStatus> statuses);
+
+    /**
+     * {@code [id, title, dueDate]} of plain (non-stage) tasks in one of {@code statuses} due on or after {@code from}.
+     */
+    @Query("select t.id, t.title, t.dueDate from Task t " +
+            "where t.status in :statuses and t.dueDate >= :from and t.stage is null")
+    List<Object[]> findAlertRows(@Param("statuses") Collection<TaskStatus> statuses, @Param("from") LocalDate from);
+
+    /**
+     * {@code [id, title, dueDate]} of those of {@code ids} that are still plain tasks in one of {@code statuses}.
+     */
+    @Query("select t.id, t.title, t.dueDate from Task t " +
+            "where t.id in :ids and t.status in :statuses and t.stage is null")
+    List<Object[]> findAlertRowsByIds(@Param("ids") Collection<Long> ids,
+                                      @Param("statuses") Collection<TaskStatus> statuses);
+
+    /**
+     * {@code [orderId, stage, status]} for every stage task of the given orders.
+     */
+    @Query("select t.order.id, t.stage, t.status from Task t where t.order.id in :orderIds")
+    List<Object[]> findStageRows(@Param("orderIds") Collection<Long> orderIds);
+
+    @Query("select t from Task t where t.order.id in :orderIds and t.stage is not null and t.status in :statuses")
+    List<Task> findStageTasks(@Param("orderIds") Collection<Long> orderIds,
+                              @Param("statuses") Collection<TaskStatus> statuses);
+
+    @Query("select t.id from Task t where t.order.id = :orderId")
+    List<Long> findIdsByOrderId(@Param("orderId") Long orderId);
+
+    /**
+     * {@code [stage, status, count]} of stage tasks in one of {@code statuses}.
+     */
+    @Query("select t.stage, t.status, count(t) from Task t where t.stage is not null and t.status in :statuses " +
+            "group by t.stage, t.status")
+    List<Object[]> countByStage(@Param("statuses") Collection<TaskStatus> statuses);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Task t set t.assignedTo = :assignee where t.id in :ids and t.status = :status")
+    int reassign(@Param("ids") Collection<Long> ids,
+                 @Param("assignee") String assignee,
+                 @Param("status") TaskStatus status);
 }
@@ -0,0 +1,24 @@
+package com.laundry.lms.repository;
+
+import com.laundry.lms.dto.TaskResponse;
+import com.laundry.lms.model.Task;
+import com.laundry.lms.model.TaskStatus;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+import java.util.Map;
+
+public interface TaskRepositoryCustom {
+
+    /**
+     * Earliest-due-first page of tasks matching {@code spec}, selected straight into
+     * {@link TaskResponse}.
+     */
+    List<TaskResponse> findResponses(Specification<Task> spec, int limit);
+
+    /**
+     * Number of tasks matching {@code spec} per status, from one grouped query. Statuses without
+     * tasks are absent.
+     */
+    Map<TaskStatus, Long> countByStatus(Specification<Task> spec);
+}
@@ -0,0 +1,73 @@
+package com.laundry.lms.repository;
+
+import com.laundry.lms.dto.TaskResponse;
+import com.laundry.lms.model.Task;
+import com.laundry.lms.model.TaskStatus;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+class TaskRepositoryImpl implements TaskRepositoryCustom {
+
+    private final EntityManager entityManager;
+
+    TaskRepositoryImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public List<TaskResponse> findResponses(Specification<Task> spec, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<TaskResponse> query = cb.createQuery(TaskResponse.class);
+        Root<Task> task = query.from(Task.class);
+
+        query.select(cb.construct(TaskResponse.class,
+                task.get("id"),
+                task.get("title"),
+                task.get("assignedTo"),
+                task.get("dueDate"),
+                task.get("price"),
+                task.get("status"),
+                task.get("notes"),
+                task.get("order").get("id"),
+                task.get("stage")));
+
+        Predicate predicate = spec.toPredicate(task, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.orderBy(cb.asc(task.get("dueDate")), cb.asc(task.get("id")));
+
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    @Override
+    public Map<TaskStatus, Long> countByStatus(Specification<Task> spec) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Task> task = query.from(Task.class);
+
+        query.multiselect(task.get("status"), cb.count(task));
+        Predicate predicate = spec.toPredicate(task, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.groupBy(task.get("status"));
+
+        Map<TaskStatus, Long> counts = new EnumMap<>(TaskStatus.class);
+        for (Tuple row : entityManager.createQuery(query).getResultList()) {
+            counts.put(row.get(0, TaskStatus.class), row.get(1, Long.class));
+        }
+        return counts;
+    }
+}
@@ -1,8 +1,10 @@
 package com.laundry.lms.repository;
 
+import com.laundry.lms.dto.UserResponse;
 import com.laundry.lms.model.User;
 import com.laundry.lms.model.UserRole;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
 import java.util.List;
 import java.util.Optional;
@@ -10,4 +12,10 @@ import java.util.Optional;
 public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByEmail(String email);
     List<User> findByRole(UserRole role);
+
+    @Query("select new com.laundry.lms.dto.UserResponse(u.id, u.name, u.email, u.role) from User u order by u.id")
+    List<UserResponse> findAllResponses();
+
+    @Query("select u.id from User u")
+    List<Long> findAllIds();
 }
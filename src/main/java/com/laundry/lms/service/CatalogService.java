@@ -1,40 +1,133 @@
 package com.laundry.lms.service;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.laundry.lms.dto.CatalogEntryResponse;
+import com.laundry.lms.model.CatalogEntry;
+import com.laundry.lms.model.CatalogEntryType;
+import com.laundry.lms.repository.CatalogEntryRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Base64;
 import java.util.List;
+import java.util.Set;
 
+/**
+ * Serves the catalog from an immutable in-memory snapshot of {@code catalog_entries}. Edits go to the
+ * table and then {@link #reload()} builds a new snapshot and swaps it in with a single volatile write,
+ * so readers never see a half-applied change and validation never queries the database.
+ */
 @Service
 public class CatalogService {
 
-    private static final List<String> SERVICES = List.of(
-            "Wash & Fold",
-            "Dry Cleaning",
-            "Ironing",
-            "Express",
-            "Stain Removal",
-            "Bedding"
-    );
-
-    private static final List<String> UNITS = List.of(
-            "Kg",
-            "Items",
-            "Sets"
-    );
+    private final CatalogEntryRepository catalogEntryRepository;
+    private final ObjectMapper objectMapper;
+
+    private volatile Snapshot snapshot;
+
+    public CatalogService(CatalogEntryRepository catalogEntryRepository, ObjectMapper objectMapper) {
+        this.catalogEntryRepository = catalogEntryRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    @PostConstruct
+    void load() {
+        if (catalogEntryRepository.count() == 0) {
+            catalogEntryRepository.saveAll(defaults());
+        }
+        reload();
+    }
+
+    /**
+     * Re-reads the table and publishes a new snapshot. Also runs periodically so edits made through
+     * another instance show up here; an unchanged table keeps the current snapshot and its ETags.
+     */
+    @Scheduled(fixedDelayString = "${lms.catalog.refresh-interval:60000}",
+            initialDelayString = "${lms.catalog.refresh-interval:60000}")
+    public synchronized void reload() {
+        Snapshot next = buildSnapshot(catalogEntryRepository.findAllByOrderByTypeAscSortOrderAscNameAsc());
+        Snapshot current = snapshot;
+        if (current == null || !current.entriesEtag().equals(next.entriesEtag())) {
+            snapshot = next;
+        }
+    }
+
+    public Snapshot snapshot() {
+        return snapshot;
+    }
 
     public List<String> getServices() {
-        return SERVICES;
+        return snapshot.services();
     }
 
     public List<String> getUnits() {
-        return UNITS;
+        return snapshot.units();
     }
 
     public boolean isValidService(String value) {
-        return value != null && SERVICES.contains(value);
+        return value != null && snapshot.serviceSet().contains(value);
     }
 
     public boolean isValidUnit(String value) {
-        return value != null && UNITS.contains(value);
+        return value != null && snapshot.unitSet().contains(value);
+    }
+
+    private Snapshot buildSnapshot(List<CatalogEntry> rows) {
+        List<String> services = new ArrayList<>();
+        List<String> units = new ArrayList<>();
+        List<CatalogEntryResponse> entries = new ArrayList<>(rows.size());
+        for (CatalogEntry row : rows) {
+            entries.add(CatalogEntryResponse.from(row));
+            if (!row.isActive()) {
+                continue;
+            }
+            if (row.getType() == CatalogEntryType.SERVICE) {
+                services.add(row.getName());
+            } else {
+                units.add(row.getName());
+            }
+        }
+        return new Snapshot(List.copyOf(services), Set.copyOf(services), etag(services),
+                List.copyOf(units), Set.copyOf(units), etag(units),
+                List.copyOf(entries), etag(entries));
+    }
+
+    // Hash of the serialized body, so the tag changes exactly when the response would.
+    private String etag(Object body) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(objectMapper.writeValueAsBytes(body));
+            return "\"" + Base64.getUrlEncoder().withoutPadding().encodeToString(digest) + "\"";
+        } catch (JsonProcessingException | NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("Could not fingerprint catalog", ex);
+        }
+    }
+
+    // Services are seeded without prices; each shop sets its own through the catalog API.
+    private static List<CatalogEntry> defaults() {
+        return List.of(
+                new CatalogEntry(CatalogEntryType.SERVICE, "Wash & Fold", null, "Kg", 0),
+                new CatalogEntry(CatalogEntryType.SERVICE, "Dry Cleaning", null, "Items", 1),
+                new CatalogEntry(CatalogEntryType.SERVICE, "Ironing", null, "Items", 2),
+                new CatalogEntry(CatalogEntryType.SERVICE, "Express", null, "Kg", 3),
+                new CatalogEntry(CatalogEntryType.SERVICE, "Stain Removal", null, "Items", 4),
+                new CatalogEntry(CatalogEntryType.SERVICE, "Bedding", null, "Sets", 5),
+                new CatalogEntry(CatalogEntryType.UNIT, "Kg", null, null, 0),
+                new CatalogEntry(CatalogEntryType.UNIT, "Items", null, null, 1),
+                new CatalogEntry(CatalogEntryType.UNIT, "Sets", null, null, 2)
+        );
+    }
+
+    /**
+     * Active service and unit names (with hash sets for validation), every entry including inactive
+     * ones, and a strong ETag per response body.
+     */
+    public record Snapshot(List<String> services, Set<String> serviceSet, String servicesEtag,
+                           List<String> units, Set<String> unitSet, String unitsEtag,
+                           List<CatalogEntryResponse> entries, String entriesEtag) {
     }
 }
@@ -0,0 +1,27 @@
+package com.laundry.lms.service;
+
+import org.springframework.stereotype.Service;
+
+/**
+ * Version stamp per conversation: the number of messages in it, hot and archived, or 0 when it is
+ * empty. Every send raises it whatever id or timestamp the new message got, and moving a message to the
+ * archive leaves it unchanged. It is read from the database on every request, an index-only count,
+ * so a 304 never hides a message written through another instance.
+ */
+@Service
+public class ConversationVersions {
+
+    private final MessageHistoryService messageHistoryService;
+
+    public ConversationVersions(MessageHistoryService messageHistoryService) {
+        this.messageHistoryService = messageHistoryService;
+    }
+
+    public long current(Long userA, Long userB) {
+        return messageHistoryService.conversationSize(userA, userB);
+    }
+
+    public static String etag(long version) {
+        return "\"" + version + "\"";
+    }
+}
@@ -0,0 +1,281 @@
+package com.laundry.lms.service;
+
+import com.laundry.lms.dto.DeadlineAlertStats;
+import com.laundry.lms.model.LaundryOrder;
+import com.laundry.lms.model.OrderStatus;
+import com.laundry.lms.model.Task;
+import com.laundry.lms.model.User;
+import com.laundry.lms.model.UserRole;
+import com.laundry.lms.model.FiredAlert;
+import com.laundry.lms.repository.FiredAlertRepository;
+import com.laundry.lms.repository.LaundryOrderRepository;
+import com.laundry.lms.repository.TaskRepository;
+import com.laundry.lms.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Warns admins, with a message from the first admin account, {@code lead} before an open task's
+ * {@code dueDate} or an open order's {@code deliveryDate} passes; a date's deadline is
+ * {@code deadline-time} on that day. Pending alerts live in a {@link TimingWheel} with one-minute
+ * ticks: loaded from the tables once at startup, then kept current by the task and order write paths,
+ * so firing them never queries either table.
+ * <p>
+ * Deadlines already past are not alerted, and one inside the lead window fires on the next tick.
+ * Stage tasks are left out since their order's own alert covers them.
+ * <p>
+ * Each instance's wheel is kept current only by the writes it serves itself, so a task or order
+ * closed, deleted or rescheduled through another instance can still come due here. Alerts that come
+ * due are therefore re-read from the tables in one query per kind. An alert is dropped if its target
+ * is closed or gone. If the target's deadline has moved, the alert is rescheduled instead. Several
+ * instances can hold the same alert, so before sending one an instance claims it in
+ * {@code fired_alerts}. Only the instance whose insert succeeds sends it, and an alert reloaded after
+ * a restart is not sent twice. Claims are purged once their deadline has passed.
+ */
+@Service
+public class DeadlineAlertService {
+
+    private static final Logger log = LoggerFactory.getLogger(DeadlineAlertService.class);
+
+    public static final Set<OrderStatus> OPEN_ORDERS = EnumSet.of(OrderStatus.PENDING, OrderStatus.IN_PROGRESS,
+            OrderStatus.READY);
+
+    private static final DateTimeFormatter DEADLINE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+
+    private final TaskRepository taskRepository;
+    private final LaundryOrderRepository orderRepository;
+    private final UserRepository userRepository;
+    private final FiredAlertRepository firedAlertRepository;
+    private final MessageIngestService messageIngestService;
+    private final Duration lead;
+    private final LocalTime deadlineTime;
+    private final TimingWheel<AlertKey, Alert> wheel;
+
+    private final LongAdder fired = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder undelivered = new LongAdder();
+    private volatile LocalDateTime lastFiredAt;
+
+    public DeadlineAlertService(TaskRepository taskRepository,
+                                LaundryOrderRepository orderRepository,
+                                UserRepository userRepository,
+                                FiredAlertRepository firedAlertRepository,
+                                MessageIngestService messageIngestService,
+                                @Value("${lms.alerts.lead:2h}") Duration lead,
+                                @Value("${lms.alerts.deadline-time:${lms.pipeline.promise-time:18:00}}") LocalTime deadlineTime,
+                                @Value("${lms.alerts.capacity:100000}") int capacity) {
+        this.taskRepository = taskRepository;
+        this.orderRepository = orderRepository;
+        this.userRepository = userRepository;
+        this.firedAlertRepository = firedAlertRepository;
+        this.messageIngestService = messageIngestService;
+        this.lead = lead;
+        this.deadlineTime = deadlineTime;
+        this.wheel = new TimingWheel<>(tick(LocalDateTime.now()), capacity);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        LocalDate today = LocalDate.now();
+        for (Object[] row : taskRepository.findAlertRows(TaskDispatchService.OPEN, today)) {
+            schedule(new AlertKey(Kind.TASK, (Long) row[0]), "Task #" + row[0] + " \"" + row[1] + "\"",
+                    (LocalDate) row[2]);
+        }
+        for (Object[] row : orderRepository.findAlertRows(OPEN_ORDERS, today)) {
+            schedule(new AlertKey(Kind.ORDER, (Long) row[0]), "Order #" + row[0] + " (" + row[1] + ")",
+                    (LocalDate) row[2]);
+        }
+        log.info("Deadline alerts loaded {} pending alerts", wheel.size());
+    }
+
+    /**
+     * Schedules, moves or cancels a task's alert to match its saved row.
+     */
+    public void taskChanged(Task task) {
+        AlertKey key = new AlertKey(Kind.TASK, task.getId());
+        if (task.getStage() != null || !TaskDispatchService.OPEN.contains(task.getStatus())) {
+            wheel.cancel(key);
+            return;
+        }
+        schedule(key, "Task #" + task.getId() + " \"" + task.getTitle() + "\"", task.getDueDate());
+    }
+
+    public void taskDeleted(Long taskId) {
+        wheel.cancel(new AlertKey(Kind.TASK, taskId));
+    }
+
+    /**
+     * Schedules, moves or cancels an order's alert to match its saved row.
+     */
+    public void orderChanged(LaundryOrder order) {
+        AlertKey key = new AlertKey(Kind.ORDER, order.getId());
+        if (!OPEN_ORDERS.contains(order.getStatus())) {
+            wheel.cancel(key);
+            return;
+        }
+        schedule(key, "Order #" + order.getId() + " (" + order.getServiceType() + ")", order.getDeliveryDate());
+    }
+
+    /**
+     * Records a bulk move of orders to {@code status}; only a move out of the open statuses matters.
+     */
+    public void ordersChanged(Collection<Long> orderIds, OrderStatus status) {
+        if (!OPEN_ORDERS.contains(status)) {
+            orderIds.forEach(this::orderDeleted);
+        }
+    }
+
+    public void orderDeleted(Long orderId) {
+        wheel.cancel(new AlertKey(Kind.ORDER, orderId));
+    }
+
+    @Scheduled(fixedDelayString = "${lms.alerts.tick-interval:60000}",
+            initialDelayString = "${lms.alerts.tick-interval:60000}")
+    public void tick() {
+        advanceTo(LocalDateTime.now());
+    }
+
+    @Scheduled(fixedDelayString = "${lms.alerts.purge-interval:PT1H}")
+    public void purgeFired() {
+        firedAlertRepository.deleteDeadlinesBefore(LocalDateTime.now());
+    }
+
+    /**
+     * Fires every alert due by {@code time} whose target is still open with the same deadline and
+     * that no other instance has already claimed.
+     *
+     * @return the number of alerts that came due and were still current
+     */
+    public int advanceTo(LocalDateTime time) {
+        List<Alert> due = current(wheel.advanceTo(tick(time)));
+        if (due.isEmpty()) {
+            return 0;
+        }
+        List<Long> admins = userRepository.findByRole(UserRole.ADMIN).stream().map(User::getId).sorted().toList();
+        if (admins.isEmpty()) {
+            undelivered.add(due.size());
+            log.warn("No admins to receive {} deadline alerts", due.size());
+            return due.size();
+        }
+        Long senderId = admins.get(0);
+        for (Alert alert : due) {
+            if (!claim(alert)) {
+                continue;
+            }
+            String body = "Deadline alert: " + alert.label() + " is due by "
+                    + alert.deadline().format(DEADLINE_FORMAT) + ".";
+            if (messageIngestService.enqueue(senderId, admins, body)) {
+                fired.increment();
+            } else {
+                undelivered.increment();
+            }
+        }
+        lastFiredAt = time;
+        return due.size();
+    }
+
+    public DeadlineAlertStats stats() {
+        return new DeadlineAlertStats(wheel.size(), wheel.capacity(), fired.sum(), dropped.sum(), undelivered.sum(),
+                lastFiredAt, lead.toString());
+    }
+
+    /**
+     * Keeps the alerts whose target is still open with the deadline they were scheduled for, and
+     * reschedules those whose deadline has moved.
+     */
+    private List<Alert> current(List<Alert> due) {
+        if (due.isEmpty()) {
+            return due;
+        }
+        Map<AlertKey, Object[]> rows = new HashMap<>();
+        List<Long> taskIds = ids(due, Kind.TASK);
+        if (!taskIds.isEmpty()) {
+            for (Object[] row : taskRepository.findAlertRowsByIds(taskIds, TaskDispatchService.OPEN)) {
+                rows.put(new AlertKey(Kind.TASK, (Long) row[0]), row);
+            }
+        }
+        List<Long> orderIds = ids(due, Kind.ORDER);
+        if (!orderIds.isEmpty()) {
+            for (Object[] row : orderRepository.findAlertRowsByIds(orderIds, OPEN_ORDERS)) {
+                rows.put(new AlertKey(Kind.ORDER, (Long) row[0]), row);
+            }
+        }
+        List<Alert> current = new ArrayList<>(due.size());
+        for (Alert alert : due) {
+            Object[] row = rows.get(alert.key());
+            LocalDate date = row == null ? null : (LocalDate) row[2];
+            if (date != null && date.atTime(deadlineTime).equals(alert.deadline())) {
+                current.add(alert);
+            } else if (date != null) {
+                schedule(alert.key(), alert.label(), date);
+            }
+        }
+        if (current.size() < due.size()) {
+            log.debug("Dropped or rescheduled {} deadline alerts changed through another instance",
+                    due.size() - current.size());
+        }
+        return current;
+    }
+
+    private static List<Long> ids(List<Alert> alerts, Kind kind) {
+        return alerts.stream().map(Alert::key).filter(key -> key.kind() == kind).map(AlertKey::id).toList();
+    }
+
+    private boolean claim(Alert alert) {
+        String id = alert.key().kind() + ":" + alert.key().id() + ":" + alert.deadline();
+        try {
+            firedAlertRepository.saveAndFlush(new FiredAlert(id, alert.deadline()));
+            return true;
+        } catch (DataIntegrityViolationException ex) {
+            // Another instance, or this one before a restart, already sent it.
+            return false;
+        }
+    }
+
+    private void schedule(AlertKey key, String label, LocalDate date) {
+        LocalDateTime deadline = date == null ? null : date.atTime(deadlineTime);
+        if (deadline == null || !deadline.isAfter(LocalDateTime.now())) {
+            wheel.cancel(key);
+            return;
+        }
+        if (!wheel.schedule(key, new Alert(key, label, deadline), tick(deadline.minus(lead)))) {
+            dropped.increment();
+        }
+    }
+
+    private static long tick(LocalDateTime time) {
+        return Math.floorDiv(time.toEpochSecond(ZoneOffset.UTC), 60);
+    }
+
+    private enum Kind {
+        TASK,
+        ORDER
+    }
+
+    private record AlertKey(Kind kind, Long id) {
+    }
+
+    private record Alert(AlertKey key, String label, LocalDateTime deadline) {
+    }
+}
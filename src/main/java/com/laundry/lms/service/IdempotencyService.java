@@ -0,0 +1,306 @@
+package com.laundry.lms.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.laundry.lms.model.IdempotencyRecord;
+import com.laundry.lms.repository.IdempotencyRecordRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Makes create endpoints safe to retry. The first request with a given Idempotency-Key runs the
+ * write and records its response; retries get that response back without touching the write path.
+ * Completed responses are served from a bounded in-memory cache, falling back to the
+ * {@code idempotency_keys} table, whose primary key also arbitrates between app instances.
+ * <p>
+ * Each claim carries a random token. The service that performs the request's write calls
+ * {@link #bindToTransaction()} from the write's transaction, which marks the claim committed there,
+ * and only if it still holds the claimant's token. Once the write has committed the claim is kept
+ * even if a later step of the request fails, so a retry cannot repeat the write. Such a retry gets
+ * 409, since the response was never recorded.
+ * <p>
+ * A claim whose write has not committed after {@code lms.idempotency.lease} is taken to belong to a
+ * request that died with its instance: the next request with that key deletes it and runs the write
+ * itself, instead of getting 409 until the claim is purged. If the original request was only slow,
+ * its write finds its token gone and rolls back, so the write still happens once.
+ */
+@Service
+public class IdempotencyService {
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final int MAX_KEY_LENGTH = 128;
+    private static final long WAIT_SECONDS = 30;
+
+    private final IdempotencyRecordRepository repository;
+    private final ObjectMapper objectMapper;
+    private final Duration ttl;
+    private final Duration lease;
+    private final TtlCache<String, IdempotencyRecord> completed;
+    private final ConcurrentHashMap<String, CompletableFuture<Outcome>> inFlight = new ConcurrentHashMap<>();
+    private final ThreadLocal<Claim> current = new ThreadLocal<>();
+
+    public IdempotencyService(IdempotencyRecordRepository repository,
+                              ObjectMapper objectMapper,
+                              @Value("${lms.idempotency.ttl:24h}") Duration ttl,
+                              @Value("${lms.idempotency.lease:PT1M}") Duration lease,
+                              @Value("${lms.idempotency.cache-size:10000}") int cacheSize) {
+        this.repository = repository;
+        this.objectMapper = objectMapper;
+        this.ttl = ttl;
+        this.lease = lease;
+        this.completed = new TtlCache<>(cacheSize, ttl);
+    }
+
+    public ResponseEntity<?> execute(String scope, String key, Object request, Supplier<ResponseEntity<?>> action) {
+        if (key == null || key.isBlank()) {
+            return action.get();
+        }
+        if (key.length() > MAX_KEY_LENGTH) {
+            return ResponseEntity.badRequest().body(error("Idempotency-Key is too long"));
+        }
+
+        String id = scope + ":" + key;
+        String requestHash = hash(request);
+
+        IdempotencyRecord cached = completed.get(id);
+        if (cached != null) {
+            return replay(cached, requestHash);
+        }
+
+        // Requests racing on this instance wait for the first one instead of hitting the table.
+        CompletableFuture<Outcome> mine = new CompletableFuture<>();
+        CompletableFuture<Outcome> running = inFlight.putIfAbsent(id, mine);
+        if (running != null) {
+            return awaitOther(running, requestHash);
+        }
+
+        try {
+            Outcome outcome = executeOnce(id, requestHash, action);
+            mine.complete(outcome);
+            return outcome.response();
+        } catch (RuntimeException ex) {
+            mine.completeExceptionally(ex);
+            throw ex;
+        } finally {
+            inFlight.remove(id, mine);
+        }
+    }
+
+    /**
+     * Ties the write in the current transaction to the claim of the request executing it, if it runs
+     * under an Idempotency-Key. Call it from the transaction that performs the request's main write.
+     *
+     * @throws ClaimLostException if the claim was taken over, which rolls the write back
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void bindToTransaction() {
+        Claim claim = current.get();
+        if (claim == null) {
+            return;
+        }
+        if (repository.markCommitted(claim.id, claim.token) == 0) {
+            throw new ClaimLostException(claim.id);
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                claim.committed = true;
+            }
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${lms.idempotency.purge-interval:PT1H}")
+    public void purgeExpired() {
+        repository.deleteOlderThan(LocalDateTime.now().minus(ttl));
+    }
+
+    private Outcome executeOnce(String id, String requestHash, Supplier<ResponseEntity<?>> action) {
+        Optional<IdempotencyRecord> existing = repository.findById(id);
+        if (existing.isPresent() && !takeOver(existing.get())) {
+            return new Outcome(requestHash, resolveExisting(existing.get(), requestHash));
+        }
+
+        Claim claim = new Claim(id, UUID.randomUUID().toString());
+        try {
+            repository.saveAndFlush(new IdempotencyRecord(id, requestHash, claim.token));
+        } catch (DataIntegrityViolationException ex) {
+            // Another instance claimed the key between our lookup and insert.
+            Optional<IdempotencyRecord> winner = repository.findById(id);
+            return new Outcome(requestHash, winner.isPresent()
+                    ? resolveExisting(winner.get(), requestHash)
+                    : inProgress());
+        }
+
+        ResponseEntity<?> response;
+        current.set(claim);
+        try {
+            response = action.get();
+        } catch (ClaimLostException ex) {
+            return new Outcome(requestHash, inProgress());
+        } catch (RuntimeException ex) {
+            release(claim);
+            throw ex;
+        } finally {
+            current.remove();
+        }
+
+        if (!response.getStatusCode().is2xxSuccessful()) {
+            // Failed requests are not remembered, so the client can fix the payload and retry.
+            release(claim);
+            return new Outcome(requestHash, response);
+        }
+
+        IdempotencyRecord record = new IdempotencyRecord(id, requestHash, claim.token);
+        record.setCommitted(true);
+        record.setResponseStatus(response.getStatusCode().value());
+        record.setResponseBody(toJson(response.getBody()));
+        if (repository.complete(id, claim.token, record.getResponseStatus(), record.getResponseBody()) > 0) {
+            completed.put(id, record);
+        }
+        return new Outcome(requestHash, response);
+    }
+
+    // A claim whose write committed stays, so a retry cannot run the write a second time.
+    private void release(Claim claim) {
+        if (!claim.committed) {
+            repository.release(claim.id, claim.token);
+        }
+    }
+
+    // Of several requests finding the same expired claim, only the one whose delete hits it goes on.
+    private boolean takeOver(IdempotencyRecord record) {
+        LocalDateTime cutoff = LocalDateTime.now().minus(lease);
+        return !record.isCompleted()
+                && record.getCreatedAt().isBefore(cutoff)
+                && repository.deleteExpiredClaim(record.getId(), cutoff) > 0;
+    }
+
+    private ResponseEntity<?> resolveExisting(IdempotencyRecord record, String requestHash) {
+        if (!record.isCompleted()) {
+            return record.isCommitted() ? unanswered() : inProgress();
+        }
+        completed.put(record.getId(), record);
+        return replay(record, requestHash);
+    }
+
+    private ResponseEntity<?> awaitOther(CompletableFuture<Outcome> running, String requestHash) {
+        try {
+            Outcome outcome = running.get(WAIT_SECONDS, TimeUnit.SECONDS);
+            if (!outcome.requestHash().equals(requestHash)) {
+                return mismatch();
+            }
+            ResponseEntity<?> response = outcome.response();
+            if (!response.getStatusCode().is2xxSuccessful()) {
+                return response;
+            }
+            return ResponseEntity.status(response.getStatusCode())
+                    .header(REPLAYED_HEADER, "true")
+                    .body(response.getBody());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return inProgress();
+        } catch (ExecutionException | TimeoutException ex) {
+            return inProgress();
+        }
+    }
+
+    private ResponseEntity<?> replay(IdempotencyRecord record, String requestHash) {
+        if (!record.getRequestHash().equals(requestHash)) {
+            return mismatch();
+        }
+        return ResponseEntity.status(record.getResponseStatus())
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(REPLAYED_HEADER, "true")
+                .body(record.getResponseBody());
+    }
+
+    private ResponseEntity<?> inProgress() {
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(error("A request with this Idempotency-Key is still in progress"));
+    }
+
+    private ResponseEntity<?> unanswered() {
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(error("A request with this Idempotency-Key was already applied, but its response was not recorded"));
+    }
+
+    private ResponseEntity<?> mismatch() {
+        return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY)
+                .body(error("Idempotency-Key was already used for a different request"));
+    }
+
+    private String hash(Object request) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(toJson(request).getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private String toJson(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Could not serialize idempotent payload", ex);
+        }
+    }
+
+    private Map<String, String> error(String message) {
+        Map<String, String> error = new HashMap<>();
+        error.put("error", message);
+        return error;
+    }
+
+    private record Outcome(String requestHash, ResponseEntity<?> response) {
+    }
+
+    private static final class Claim {
+        private final String id;
+        private final String token;
+        private volatile boolean committed;
+
+        private Claim(String id, String token) {
+            this.id = id;
+            this.token = token;
+        }
+    }
+
+    /**
+     * The request's claim was taken over after its lease expired, so its write must not commit.
+     */
+    public static class ClaimLostException extends RuntimeException {
+
+        public ClaimLostException(String id) {
+            super("Idempotency claim " + id + " was taken over by another request");
+        }
+    }
+}
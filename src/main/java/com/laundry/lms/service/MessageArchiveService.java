@@ -0,0 +1,121 @@
+package com.laundry.lms.service;
+
+import com.laundry.lms.repository.ArchivedMessageRepository;
+import com.laundry.lms.repository.MessageRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Keeps the {@code messages} table small by moving messages older than {@code max-age} into
+ * {@code messages_archive}. Each batch is copied and deleted in one transaction, oldest first, so a
+ * message is always in exactly one of the two tables.
+ * <p>
+ * Nothing younger than {@code max-age} is ever archived, whichever instance runs the job, so every
+ * instance can tell from the clock alone which cursors the archive can reach: {@link #horizon()}.
+ * Readers skip the archive past it, which is the common case for live conversations, and consult it
+ * otherwise.
+ */
+@Service
+public class MessageArchiveService {
+
+    private static final Logger log = LoggerFactory.getLogger(MessageArchiveService.class);
+
+    private static final Duration CLOCK_SKEW_ALLOWANCE = Duration.ofMinutes(1);
+
+    private final MessageRepository messageRepository;
+    private final ArchivedMessageRepository archivedMessageRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration maxAge;
+    private final int batchSize;
+
+    private final LongAdder archived = new LongAdder();
+
+    public MessageArchiveService(MessageRepository messageRepository,
+                                 ArchivedMessageRepository archivedMessageRepository,
+                                 TransactionTemplate transactionTemplate,
+                                 @Value("${lms.messages.archive.max-age:180d}") Duration maxAge,
+                                 @Value("${lms.messages.archive.batch-size:500}") int batchSize) {
+        this.messageRepository = messageRepository;
+        this.archivedMessageRepository = archivedMessageRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.maxAge = maxAge;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Moves every message older than the configured age, one batch per transaction.
+     *
+     * @return the number of messages moved
+     */
+    @Scheduled(fixedDelayString = "${lms.messages.archive.interval:3600000}",
+            initialDelayString = "${lms.messages.archive.interval:3600000}")
+    public synchronized int archive() {
+        return archiveOlderThan(LocalDateTime.now().minus(maxAge));
+    }
+
+    /**
+     * Moves messages older than {@code cutoff}, or than {@code max-age} if that is earlier, since
+     * readers rely on nothing younger being archived.
+     */
+    public synchronized int archiveOlderThan(LocalDateTime cutoff) {
+        LocalDateTime oldest = LocalDateTime.now().minus(maxAge);
+        LocalDateTime before = cutoff.isAfter(oldest) ? oldest : cutoff;
+        int total = 0;
+        try {
+            int moved;
+            do {
+                moved = transactionTemplate.execute(status -> moveBatch(before));
+                total += moved;
+            } while (moved == batchSize);
+        } catch (DataIntegrityViolationException ex) {
+            // Another instance moved the same rows first; whatever is left goes on the next run.
+            log.warn("Message archive batch conflicted, stopping this run: {}", ex.getMessage());
+        }
+        if (total > 0) {
+            archived.add(total);
+            log.info("Archived {} messages older than {}", total, before);
+        }
+        return total;
+    }
+
+    /**
+     * Every archived message was sent before this instant. The allowance covers clocks of other
+     * instances running ahead of this one.
+     */
+    public LocalDateTime horizon() {
+        return LocalDateTime.now().minus(maxAge).plus(CLOCK_SKEW_ALLOWANCE);
+    }
+
+    /**
+     * Highest archived id, or 0 while the archive is empty.
+     */
+    public long maxArchivedId() {
+        Long maxId = archivedMessageRepository.findMaxId();
+        return maxId == null ? 0L : maxId;
+    }
+
+    public long archivedCount() {
+        return archived.sum();
+    }
+
+    private int moveBatch(LocalDateTime cutoff) {
+        List<Long> ids = messageRepository.findIdsOlderThan(cutoff, Limit.of(batchSize));
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        archivedMessageRepository.copyFromMessages(ids, LocalDateTime.now());
+        messageRepository.deleteAllByIdIn(ids);
+        return ids.size();
+    }
+}
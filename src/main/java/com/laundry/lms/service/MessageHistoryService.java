@@ -0,0 +1,158 @@
+package com.laundry.lms.service;
+
+import com.laundry.lms.dto.MessageResponse;
+import com.laundry.lms.repository.ArchivedMessageRepository;
+import com.laundry.lms.repository.MessageRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Reads conversations across the hot {@code messages} table and {@code messages_archive}, so callers
+ * see one history regardless of where a message currently lives. Reads that may reach back before the
+ * archive horizon consult the archive too: whole conversations always do, delta fetches of live
+ * threads stay on the hot table, and backward paging falls through to the archive once it reaches
+ * the horizon. The horizon comes from the clock, so it holds whichever instance archived.
+ * <p>
+ * Messages are ordered and paged by {@code (timestamp, id)}. Neither ids nor timestamps follow commit
+ * order (ids come from pooled sequence blocks, and a message commits shortly after it is stamped), so
+ * forward deltas reach back {@code cursor-overlap} before the cursor and may repeat messages the caller
+ * already holds; callers drop those by id.
+ */
+@Service
+public class MessageHistoryService {
+
+    private static final Comparator<MessageResponse> CHRONOLOGICAL =
+            Comparator.comparing(MessageResponse::getTimestamp).thenComparing(MessageResponse::getId);
+
+    private final MessageRepository messageRepository;
+    private final ArchivedMessageRepository archivedMessageRepository;
+    private final MessageArchiveService messageArchiveService;
+    private final Duration cursorOverlap;
+
+    public MessageHistoryService(MessageRepository messageRepository,
+                                 ArchivedMessageRepository archivedMessageRepository,
+                                 MessageArchiveService messageArchiveService,
+                                 @Value("${lms.messages.cursor-overlap:10s}") Duration cursorOverlap) {
+        this.messageRepository = messageRepository;
+        this.archivedMessageRepository = archivedMessageRepository;
+        this.messageArchiveService = messageArchiveService;
+        this.cursorOverlap = cursorOverlap;
+    }
+
+    /**
+     * Timestamp of the message with the given id, hot or archived, or {@code null} if there is none.
+     */
+    public LocalDateTime timestampOf(Long messageId) {
+        LocalDateTime timestamp = messageRepository.findTimestampById(messageId);
+        if (timestamp == null) {
+            timestamp = archivedMessageRepository.findTimestampById(messageId);
+        }
+        return timestamp;
+    }
+
+    public List<MessageResponse> conversation(Long userA, Long userB) {
+        List<MessageResponse> hot = messageRepository.findConversationResponses(userA, userB);
+        return concat(archivedMessageRepository.findConversationResponsesAfter(userA, userB, null), hot);
+    }
+
+    /**
+     * Messages sent after {@code cursor} less the overlap, oldest first.
+     */
+    public List<MessageResponse> conversationAfter(Long userA, Long userB, LocalDateTime cursor) {
+        LocalDateTime from = cursor.minus(cursorOverlap);
+        List<MessageResponse> hot = messageRepository.findConversationResponsesAfter(userA, userB, from);
+        if (!from.isBefore(messageArchiveService.horizon())) {
+            return hot;
+        }
+        return concat(archivedMessageRepository.findConversationResponsesAfter(userA, userB, from), hot);
+    }
+
+    /**
+     * Up to {@code limit} messages before the {@code (beforeTimestamp, beforeId)} cursor, or the newest
+     * ones when {@code beforeTimestamp} is null, oldest first.
+     */
+    public List<MessageResponse> conversationBefore(Long userA, Long userB, LocalDateTime beforeTimestamp,
+                                                    Long beforeId, int limit) {
+        List<MessageResponse> hot = messageRepository.findConversationResponsesBefore(
+                userA, userB, beforeTimestamp, beforeId, Limit.of(limit));
+        if (!needsArchive(hot, limit)) {
+            return oldestFirst(hot, limit);
+        }
+        return oldestFirst(concat(hot, archivedMessageRepository.findConversationResponsesBefore(
+                userA, userB, beforeTimestamp, beforeId, Limit.of(limit))), limit);
+    }
+
+    public List<MessageResponse> involving(Long userId) {
+        List<MessageResponse> hot = messageRepository.findResponsesInvolving(userId);
+        return concat(archivedMessageRepository.findResponsesInvolvingAfter(userId, null), hot);
+    }
+
+    public List<MessageResponse> involvingAfter(Long userId, LocalDateTime cursor) {
+        LocalDateTime from = cursor.minus(cursorOverlap);
+        List<MessageResponse> hot = messageRepository.findResponsesInvolvingAfter(userId, from);
+        if (!from.isBefore(messageArchiveService.horizon())) {
+            return hot;
+        }
+        return concat(archivedMessageRepository.findResponsesInvolvingAfter(userId, from), hot);
+    }
+
+    public List<MessageResponse> involvingBefore(Long userId, LocalDateTime beforeTimestamp, Long beforeId, int limit) {
+        List<MessageResponse> hot = messageRepository.findResponsesInvolvingBefore(
+                userId, beforeTimestamp, beforeId, Limit.of(limit));
+        if (!needsArchive(hot, limit)) {
+            return oldestFirst(hot, limit);
+        }
+        return oldestFirst(concat(hot, archivedMessageRepository.findResponsesInvolvingBefore(
+                userId, beforeTimestamp, beforeId, Limit.of(limit))), limit);
+    }
+
+    /**
+     * Number of messages in the conversation. Messages are never deleted, so every send changes it,
+     * whatever id or timestamp the new message has.
+     */
+    public long conversationSize(Long userA, Long userB) {
+        return messageRepository.countConversation(userA, userB)
+                + archivedMessageRepository.countConversation(userA, userB);
+    }
+
+    /**
+     * Marks messages from {@code fromUserId} to {@code toUserId} as read up to and including the
+     * {@code (upToTimestamp, upToId)} cursor, in conversation order, or all of them when
+     * {@code upToTimestamp} is null.
+     */
+    public int markRead(Long fromUserId, Long toUserId, LocalDateTime upToTimestamp, Long upToId,
+                        LocalDateTime readAt) {
+        return messageRepository.markRead(fromUserId, toUserId, upToTimestamp, upToId, readAt)
+                + archivedMessageRepository.markRead(fromUserId, toUserId, upToTimestamp, upToId, readAt);
+    }
+
+    // The archive is only skipped when the hot page is full and entirely inside the horizon.
+    private boolean needsArchive(List<MessageResponse> newestFirst, int limit) {
+        if (newestFirst.size() < limit) {
+            return true;
+        }
+        return newestFirst.get(newestFirst.size() - 1).getTimestamp().isBefore(messageArchiveService.horizon());
+    }
+
+    private static List<MessageResponse> concat(List<MessageResponse> first, List<MessageResponse> second) {
+        List<MessageResponse> merged = new ArrayList<>(first.size() + second.size());
+        merged.addAll(first);
+        merged.addAll(second);
+        return merged;
+    }
+
+    private static List<MessageResponse> oldestFirst(List<MessageResponse> rows, int limit) {
+        return rows.stream()
+                .sorted(CHRONOLOGICAL.reversed())
+                .limit(limit)
+                .sorted(CHRONOLOGICAL)
+                .toList();
+    }
+}
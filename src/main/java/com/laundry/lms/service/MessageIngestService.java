@@ -0,0 +1,247 @@
+package com.laundry.lms.service;
+
+import com.laundry.lms.dto.MessageIngestStats;
+import com.laundry.lms.dto.MessageResponse;
+import com.laundry.lms.model.Message;
+import com.laundry.lms.model.User;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Single write path for messages. {@link #send} persists one message synchronously; {@link #enqueue}
+ * admits messages into a bounded in-memory queue that one background thread flushes in JDBC batches.
+ * Either way, persisted messages are then indexed for search and pushed to subscribers.
+ * <p>
+ * Admission is all-or-nothing per call, so a broadcast is either fully queued or rejected. Queued
+ * messages are flushed within the linger interval and drained on graceful shutdown; a crash before
+ * the flush loses them, which is the trade-off for taking inserts off the request thread. A queued
+ * message that cannot be written (typically because its sender or recipient was deleted after
+ * admission) is logged with its ids and counted as failed, and both users are evicted from the
+ * {@link UserIdCache} so they are checked against the table again.
+ */
+@Service
+public class MessageIngestService {
+
+    public static final String DELIVERY_GUARANTEE =
+            "at-most-once: accepted messages are persisted unless the process stops abruptly before the next flush";
+
+    private static final Logger log = LoggerFactory.getLogger(MessageIngestService.class);
+
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final SearchService searchService;
+    private final MessagePushService messagePushService;
+    private final UserIdCache userIdCache;
+    private final int capacity;
+    private final int maxBatch;
+    private final int jdbcBatchSize;
+    private final long lingerMillis;
+
+    private final ConcurrentLinkedQueue<Pending> queue = new ConcurrentLinkedQueue<>();
+    private final Semaphore permits;
+    private final AtomicBoolean flushRequested = new AtomicBoolean();
+    private final ScheduledExecutorService flusher;
+
+    private final LongAdder accepted = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder persisted = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+    private final AtomicLong lastBatchSize = new AtomicLong();
+    private final AtomicLong lastFlushMillis = new AtomicLong();
+
+    public MessageIngestService(EntityManager entityManager,
+                                TransactionTemplate transactionTemplate,
+                                SearchService searchService,
+                                MessagePushService messagePushService,
+                                UserIdCache userIdCache,
+                                @Value("${lms.messages.ingest.capacity:10000}") int capacity,
+                                @Value("${lms.messages.ingest.max-batch:1000}") int maxBatch,
+                                @Value("${lms.messages.ingest.linger:50ms}") Duration linger,
+                                @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}") int jdbcBatchSize) {
+        this.entityManager = entityManager;
+        this.transactionTemplate = transactionTemplate;
+        this.searchService = searchService;
+        this.messagePushService = messagePushService;
+        this.userIdCache = userIdCache;
+        this.capacity = capacity;
+        this.maxBatch = maxBatch;
+        this.jdbcBatchSize = jdbcBatchSize;
+        this.lingerMillis = linger.toMillis();
+        this.permits = new Semaphore(capacity);
+        this.flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "message-ingest");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        flusher.scheduleWithFixedDelay(this::flushQueued, lingerMillis, lingerMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Persists one message on the caller's thread. Users are attached as references, so no SELECT is
+     * issued for them; callers validate ids first.
+     */
+    public MessageResponse send(Long fromUserId, Long toUserId, String body) {
+        List<Message> saved;
+        try {
+            saved = persist(List.of(new Pending(fromUserId, toUserId, body, System.nanoTime())));
+        } catch (RuntimeException ex) {
+            userIdCache.evict(fromUserId);
+            userIdCache.evict(toUserId);
+            throw ex;
+        }
+        afterPersist(saved);
+        return MessageResponse.from(saved.get(0));
+    }
+
+    /**
+     * Queues one body for each recipient, or none of them if the queue lacks room.
+     *
+     * @return whether the messages were accepted
+     */
+    public boolean enqueue(Long fromUserId, List<Long> toUserIds, String body) {
+        int count = toUserIds.size();
+        if (!permits.tryAcquire(count)) {
+            rejected.add(count);
+            return false;
+        }
+        long now = System.nanoTime();
+        for (Long toUserId : toUserIds) {
+            queue.add(new Pending(fromUserId, toUserId, body, now));
+        }
+        accepted.add(count);
+        if (capacity - permits.availablePermits() >= maxBatch) {
+            requestFlush();
+        }
+        return true;
+    }
+
+    public MessageIngestStats stats() {
+        Pending oldest = queue.peek();
+        long oldestAgeMillis = oldest == null ? 0 : TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - oldest.enqueuedAt());
+        return new MessageIngestStats(capacity - permits.availablePermits(), capacity, oldestAgeMillis,
+                accepted.sum(), rejected.sum(), persisted.sum(), failed.sum(), batches.sum(),
+                lastBatchSize.get(), lastFlushMillis.get(), DELIVERY_GUARANTEE);
+    }
+
+    /**
+     * Writes everything queued so far, in batches of at most {@code max-batch}. Runs on the flusher
+     * thread, and once more at shutdown after the flusher has stopped.
+     */
+    public void flushQueued() {
+        flushRequested.set(false);
+        try {
+            List<Pending> batch;
+            while (!(batch = drain()).isEmpty()) {
+                flushBatch(batch);
+            }
+        } catch (RuntimeException ex) {
+            log.error("Message flush failed", ex);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        flusher.shutdown();
+        flusher.awaitTermination(10, TimeUnit.SECONDS);
+        flushQueued();
+    }
+
+    private void requestFlush() {
+        if (flushRequested.compareAndSet(false, true)) {
+            flusher.execute(this::flushQueued);
+        }
+    }
+
+    private List<Pending> drain() {
+        List<Pending> batch = new ArrayList<>();
+        Pending next;
+        while (batch.size() < maxBatch && (next = queue.poll()) != null) {
+            batch.add(next);
+        }
+        return batch;
+    }
+
+    private void flushBatch(List<Pending> batch) {
+        long started = System.nanoTime();
+        List<Message> saved;
+        try {
+            saved = persist(batch);
+        } catch (RuntimeException ex) {
+            // One bad row (say, a user deleted after admission) fails the whole batch; retry one by one.
+            log.warn("Batch of {} messages failed, retrying individually: {}", batch.size(), ex.getMessage());
+            saved = new ArrayList<>();
+            for (Pending pending : batch) {
+                try {
+                    saved.addAll(persist(List.of(pending)));
+                } catch (RuntimeException rowEx) {
+                    failed.increment();
+                    userIdCache.evict(pending.fromUserId());
+                    userIdCache.evict(pending.toUserId());
+                    log.warn("Dropped queued message from user {} to user {} ({} chars): {}", pending.fromUserId(),
+                            pending.toUserId(), pending.body().length(), rowEx.getMessage());
+                }
+            }
+        } finally {
+            permits.release(batch.size());
+        }
+        batches.increment();
+        lastBatchSize.set(batch.size());
+        lastFlushMillis.set(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+        afterPersist(saved);
+    }
+
+    private List<Message> persist(List<Pending> batch) {
+        List<Message> messages = new ArrayList<>(batch.size());
+        transactionTemplate.executeWithoutResult(status -> {
+            for (Pending pending : batch) {
+                Message message = new Message(entityManager.getReference(User.class, pending.fromUserId()),
+                        entityManager.getReference(User.class, pending.toUserId()), pending.body());
+                entityManager.persist(message);
+                messages.add(message);
+                if (messages.size() % jdbcBatchSize == 0) {
+                    entityManager.flush();
+                    entityManager.clear();
+                }
+            }
+        });
+        persisted.add(messages.size());
+        return messages;
+    }
+
+    private void afterPersist(List<Message> messages) {
+        if (messages.isEmpty()) {
+            return;
+        }
+        searchService.indexMessages(messages);
+        for (Message message : messages) {
+            messagePushService.publish(MessageResponse.from(message));
+        }
+    }
+
+    private record Pending(Long fromUserId, Long toUserId, String body, long enqueuedAt) {
+    }
+}
@@ -0,0 +1,220 @@
+package com.laundry.lms.service;
+
+import com.laundry.lms.dto.MessageResponse;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Pushes new messages to the sender and recipient over Server-Sent Events. Subscriptions are
+ * registered per user; each one owns a bounded event queue drained by a small dispatcher pool, so
+ * publishing never blocks on a socket. A subscriber that lets its queue fill up is disconnected and
+ * the browser reconnects and reloads the thread, instead of the server buffering without limit.
+ */
+@Service
+public class MessagePushService {
+
+    private static final Logger log = LoggerFactory.getLogger(MessagePushService.class);
+
+    private final ConcurrentHashMap<Long, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final ExecutorService dispatcher;
+    private final long timeoutMillis;
+    private final int queueCapacity;
+    private final int maxPerUser;
+    private final LongAdder delivered = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+
+    public MessagePushService(@Value("${lms.messages.push.timeout:15m}") Duration timeout,
+                              @Value("${lms.messages.push.queue-capacity:64}") int queueCapacity,
+                              @Value("${lms.messages.push.max-per-user:5}") int maxPerUser,
+                              @Value("${lms.messages.push.threads:8}") int threads) {
+        this.timeoutMillis = timeout.toMillis();
+        this.queueCapacity = queueCapacity;
+        this.maxPerUser = maxPerUser;
+        AtomicInteger counter = new AtomicInteger();
+        this.dispatcher = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "message-push-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public SseEmitter subscribe(Long userId) {
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        Subscriber subscriber = new Subscriber(userId, emitter);
+        Set<Subscriber> userSubscribers = subscribers.compute(userId, (id, existing) -> {
+            Set<Subscriber> set = existing == null ? new CopyOnWriteArraySet<>() : existing;
+            set.add(subscriber);
+            return set;
+        });
+        emitter.onCompletion(subscriber::close);
+        emitter.onTimeout(subscriber::close);
+        emitter.onError(ex -> subscriber.close());
+
+        // Extra tabs beyond the cap push out the oldest subscription for that user.
+        while (userSubscribers.size() > maxPerUser) {
+            userSubscribers.iterator().next().disconnect();
+        }
+        subscriber.enqueue(() -> SseEmitter.event().name("ready").data(""));
+        return emitter;
+    }
+
+    /**
+     * Queues the message for every open subscription of its sender and recipient. Must be called after
+     * the message is committed, so a client that reloads on reconnect always sees it.
+     */
+    public void publish(MessageResponse message) {
+        Supplier<SseEmitter.SseEventBuilder> event = () -> SseEmitter.event()
+                .id(String.valueOf(message.getId()))
+                .name("message")
+                .data(message);
+        deliver(message.getFromUserId(), event);
+        if (!message.getToUserId().equals(message.getFromUserId())) {
+            deliver(message.getToUserId(), event);
+        }
+    }
+
+    public int subscriberCount(Long userId) {
+        Set<Subscriber> userSubscribers = subscribers.get(userId);
+        return userSubscribers == null ? 0 : userSubscribers.size();
+    }
+
+    public long deliveredCount() {
+        return delivered.sum();
+    }
+
+    public long droppedCount() {
+        return dropped.sum();
+    }
+
+    // Keeps idle connections open through proxies and flushes out dead ones.
+    @Scheduled(fixedRateString = "${lms.messages.push.heartbeat:20000}")
+    public void heartbeat() {
+        for (Set<Subscriber> userSubscribers : subscribers.values()) {
+            for (Subscriber subscriber : userSubscribers) {
+                subscriber.enqueue(() -> SseEmitter.event().comment("ping"));
+            }
+        }
+    }
+
+    // Published before the web server's graceful shutdown, which would otherwise wait on open streams.
+    @EventListener(ContextClosedEvent.class)
+    public void disconnectAll() {
+        subscribers.values().forEach(userSubscribers -> userSubscribers.forEach(Subscriber::disconnect));
+    }
+
+    @PreDestroy
+    void shutdown() {
+        dispatcher.shutdown();
+    }
+
+    private void deliver(Long userId, Supplier<SseEmitter.SseEventBuilder> event) {
+        Set<Subscriber> userSubscribers = subscribers.get(userId);
+        if (userSubscribers == null) {
+            return;
+        }
+        for (Subscriber subscriber : userSubscribers) {
+            subscriber.enqueue(event);
+        }
+    }
+
+    private final class Subscriber {
+
+        private final Long userId;
+        private final SseEmitter emitter;
+        // Builders are single-use, so the queue holds factories and each send builds a fresh event.
+        private final BlockingQueue<Supplier<SseEmitter.SseEventBuilder>> queue = new ArrayBlockingQueue<>(queueCapacity);
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private volatile boolean disconnecting;
+        private volatile boolean closed;
+
+        private Subscriber(Long userId, SseEmitter emitter) {
+            this.userId = userId;
+            this.emitter = emitter;
+        }
+
+        void enqueue(Supplier<SseEmitter.SseEventBuilder> event) {
+            if (closed) {
+                return;
+            }
+            if (!queue.offer(event)) {
+                dropped.increment();
+                log.debug("Disconnecting slow message subscriber for user {}", userId);
+                disconnecting = true;
+            }
+            schedule();
+        }
+
+        // Completing the emitter can wait on an in-flight send, so it is left to the dispatcher.
+        void disconnect() {
+            disconnecting = true;
+            unregister();
+            schedule();
+        }
+
+        private void schedule() {
+            if (draining.compareAndSet(false, true)) {
+                try {
+                    dispatcher.execute(this::drain);
+                } catch (RuntimeException ex) {
+                    draining.set(false);
+                }
+            }
+        }
+
+        // Runs on the dispatcher; at most one drain per subscriber at a time keeps events in order.
+        private void drain() {
+            try {
+                Supplier<SseEmitter.SseEventBuilder> event;
+                while (!closed && !disconnecting && (event = queue.poll()) != null) {
+                    emitter.send(event.get());
+                    delivered.increment();
+                }
+                if (disconnecting && !closed) {
+                    close();
+                    emitter.complete();
+                }
+            } catch (IOException | IllegalStateException ex) {
+                close();
+            } finally {
+                draining.set(false);
+                if (!closed && (disconnecting || !queue.isEmpty())) {
+                    schedule();
+                }
+            }
+        }
+
+        void close() {
+            closed = true;
+            queue.clear();
+            unregister();
+        }
+
+        private void unregister() {
+            subscribers.computeIfPresent(userId, (id, userSubscribers) -> {
+                userSubscribers.remove(this);
+                return userSubscribers.isEmpty() ? null : userSubscribers;
+            });
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.laundry.lms.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.laundry.lms.dto.OrderResponse;
+import com.laundry.lms.model.LaundryOrder;
+import com.laundry.lms.model.OrderStatus;
+import com.laundry.lms.repository.LaundryOrderRepository;
+import jakarta.persistence.EntityManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Writes orders straight from a scrolling cursor to the response body. Entities are dropped from
+ * the persistence context every {@link LaundryOrderRepository#EXPORT_FETCH_SIZE} rows so heap
+ * use does not grow with the size of the export.
+ */
+@Service
+public class OrderExportService {
+
+    public enum Format {
+        NDJSON,
+        CSV
+    }
+
+    private static final String CSV_HEADER = "id,customerId,customerName,serviceType,quantity,unit,price,status,"
+            + "pickupDate,deliveryDate,createdAt,notes";
+
+    private final LaundryOrderRepository orderRepository;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+
+    public OrderExportService(LaundryOrderRepository orderRepository,
+                              EntityManager entityManager,
+                              ObjectMapper objectMapper) {
+        this.orderRepository = orderRepository;
+        this.entityManager = entityManager;
+        this.objectMapper = objectMapper;
+    }
+
+    @Transactional(readOnly = true)
+    public long export(Format format,
+                       Long customerId,
+                       OrderStatus status,
+                       String serviceType,
+                       LocalDateTime createdFrom,
+                       LocalDateTime createdTo,
+                       OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        if (format == Format.CSV) {
+            writer.write(CSV_HEADER);
+            writer.write('\n');
+        }
+
+        long written = 0;
+        try (Stream<LaundryOrder> orders = orderRepository.streamForExport(
+                customerId, status, serviceType, createdFrom, createdTo)) {
+            Iterator<LaundryOrder> it = orders.iterator();
+            while (it.hasNext()) {
+                LaundryOrder order = it.next();
+                if (format == Format.CSV) {
+                    writeCsvRow(writer, order);
+                } else {
+                    writer.write(objectMapper.writeValueAsString(OrderResponse.from(order)));
+                    writer.write('\n');
+                }
+                written++;
+                if (written % LaundryOrderRepository.EXPORT_FETCH_SIZE == 0) {
+                    entityManager.clear();
+                    writer.flush();
+                }
+            }
+        }
+        writer.flush();
+        return written;
+    }
+
+    private void writeCsvRow(Writer writer, LaundryOrder order) throws IOException {
+        writer.write(String.valueOf(order.getId()));
+        writer.write(',');
+        writer.write(String.valueOf(order.getCustomer().getId()));
+        writer.write(',');
+        writer.write(csv(order.getCustomer().getName()));
+        writer.write(',');
+        writer.write(csv(order.getServiceType()));
+        writer.write(',');
+        writer.write(csv(order.getQuantity()));
+        writer.write(',');
+        writer.write(csv(order.getUnit()));
+        writer.write(',');
+        writer.write(order.getPrice() != null ? order.getPrice().toPlainString() : "");
+        writer.write(',');
+        writer.write(csv(order.getStatus()));
+        writer.write(',');
+        writer.write(csv(order.getPickupDate()));
+        writer.write(',');
+        writer.write(csv(order.getDeliveryDate()));
+        writer.write(',');
+        writer.write(csv(order.getCreatedAt()));
+        writer.write(',');
+        writer.write(csv(order.getNotes()));
+        writer.write('\n');
+    }
+
+    private static String csv(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String text = value.toString();
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+            return text;
+        }
+        return '"' + text.replace("\"", "\"\"") + '"';
+    }
+}
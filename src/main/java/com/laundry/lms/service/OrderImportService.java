@@ -0,0 +1,50 @@
+package com.laundry.lms.service;
+
+import com.laundry.lms.model.LaundryOrder;
+import com.laundry.lms.repository.LaundryOrderRepository;
+import jakarta.persistence.EntityManager;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * Persists a pre-validated batch of orders in one transaction, together with their order stats
+ * deltas and the Idempotency-Key claim of the request creating them, if any. Flushing in chunks of
+ * the configured JDBC batch size lets Hibernate send each chunk as a single batched INSERT.
+ */
+@Service
+public class OrderImportService {
+
+    private final LaundryOrderRepository orderRepository;
+    private final OrderStatsService orderStatsService;
+    private final IdempotencyService idempotencyService;
+    private final EntityManager entityManager;
+    private final int batchSize;
+
+    public OrderImportService(LaundryOrderRepository orderRepository,
+                              OrderStatsService orderStatsService,
+                              IdempotencyService idempotencyService,
+                              EntityManager entityManager,
+                              @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}") int batchSize) {
+        this.orderRepository = orderRepository;
+        this.orderStatsService = orderStatsService;
+        this.idempotencyService = idempotencyService;
+        this.entityManager = entityManager;
+        this.batchSize = batchSize;
+    }
+
+    @Transactional
+    public List<LaundryOrder> saveAll(List<LaundryOrder> orders) {
+        for (int from = 0; from < orders.size(); from += batchSize) {
+            int to = Math.min(from + batchSize, orders.size());
+            orderRepository.saveAll(orders.subList(from, to));
+            entityManager.flush();
+            entityManager.clear();
+        }
+        orderStatsService.recordCreated(orders);
+        idempotencyService.bindToTransaction();
+        return orders;
+    }
+}
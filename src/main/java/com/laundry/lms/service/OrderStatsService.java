@@ -0,0 +1,190 @@
+package com.laundry.lms.service;
+
+import com.laundry.lms.dto.OrderStatsResponse;
+import com.laundry.lms.model.LaundryOrder;
+import com.laundry.lms.model.OrderStatsKey;
+import com.laundry.lms.model.OrderStatsRollup;
+import com.laundry.lms.model.OrderStatus;
+import com.laundry.lms.repository.OrderStatsRollupRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Order counts by status, service type and creation day, kept in {@code order_stats_daily}. Every
+ * order write adjusts its rows in the same transaction, so the table is exact and shared by all
+ * instances; reads sum it and never touch the orders table. Writers hold the shared
+ * {@link RebuildFence#ORDER_STATS} lock and {@link #rebuild()} the exclusive one, so a rebuild counts
+ * each order exactly once.
+ * <p>
+ * Snapshots are cached per date range for {@code lms.stats.cache-ttl}. A write on this instance drops
+ * them once it commits (a snapshot computed under an older generation is not stored); writes on other
+ * instances show up within the TTL.
+ */
+@Service
+public class OrderStatsService {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderStatsService.class);
+
+    // Deltas are applied in key order, so two transactions touching the same rows lock them alike.
+    private static final Comparator<OrderStatsKey> KEY_ORDER = Comparator.comparing(OrderStatsKey::getDay)
+            .thenComparing(OrderStatsKey::getServiceType)
+            .thenComparing(OrderStatsKey::getStatus);
+
+    private final OrderStatsRollupRepository rollupRepository;
+    private final RebuildFence rebuildFence;
+    private final TransactionTemplate transactionTemplate;
+    private final TtlCache<Range, OrderStatsResponse> snapshots;
+    private final AtomicLong generation = new AtomicLong();
+
+    public OrderStatsService(OrderStatsRollupRepository rollupRepository,
+                             RebuildFence rebuildFence,
+                             TransactionTemplate transactionTemplate,
+                             @Value("${lms.stats.cache-size:100}") int cacheSize,
+                             @Value("${lms.stats.cache-ttl:5s}") Duration cacheTtl) {
+        this.rollupRepository = rollupRepository;
+        this.rebuildFence = rebuildFence;
+        this.transactionTemplate = transactionTemplate;
+        this.snapshots = new TtlCache<>(cacheSize, cacheTtl);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        if (rollupRepository.count() == 0) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Counts new orders; must join the transaction that inserts them, after the insert.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordCreated(Collection<LaundryOrder> orders) {
+        Map<OrderStatsKey, Long> deltas = new TreeMap<>(KEY_ORDER);
+        orders.forEach(order -> deltas.merge(OrderStatsKey.of(order), 1L, Long::sum));
+        apply(deltas);
+    }
+
+    /**
+     * Uncounts a deleted order, given its key as read under the delete's lock.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordDeleted(OrderStatsKey key) {
+        Map<OrderStatsKey, Long> deltas = new TreeMap<>(KEY_ORDER);
+        deltas.put(key, -1L);
+        apply(deltas);
+    }
+
+    /**
+     * Moves one order per key (its status before the change) to {@code next}.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordStatusChanges(Collection<OrderStatsKey> previousKeys, OrderStatus next) {
+        Map<OrderStatsKey, Long> deltas = new TreeMap<>(KEY_ORDER);
+        for (OrderStatsKey key : previousKeys) {
+            deltas.merge(key, -1L, Long::sum);
+            deltas.merge(key.withStatus(next), 1L, Long::sum);
+        }
+        apply(deltas);
+    }
+
+    public OrderStatsResponse snapshot(LocalDate from, LocalDate to) {
+        Range range = new Range(from, to);
+        OrderStatsResponse cached = snapshots.get(range);
+        if (cached != null) {
+            return cached;
+        }
+        long seen = generation.get();
+        Map<OrderStatus, Long> statusCounts = new EnumMap<>(OrderStatus.class);
+        for (OrderStatus status : OrderStatus.values()) {
+            statusCounts.put(status, 0L);
+        }
+        long total = 0;
+        for (Object[] row : rollupRepository.sumByStatus()) {
+            long count = ((Number) row[1]).longValue();
+            statusCounts.put((OrderStatus) row[0], count);
+            total += count;
+        }
+        Map<String, Long> serviceCounts = new TreeMap<>();
+        for (Object[] row : rollupRepository.sumByServiceType()) {
+            long count = ((Number) row[1]).longValue();
+            if (count != 0) {
+                serviceCounts.put((String) row[0], count);
+            }
+        }
+        Map<LocalDate, Long> dayCounts = new TreeMap<>();
+        for (Object[] row : rollupRepository.sumByDayBetween(from, to)) {
+            long count = ((Number) row[1]).longValue();
+            if (count != 0) {
+                dayCounts.put((LocalDate) row[0], count);
+            }
+        }
+        OrderStatsResponse snapshot = new OrderStatsResponse(total, statusCounts, serviceCounts, dayCounts);
+        if (generation.get() == seen) {
+            snapshots.put(range, snapshot);
+        }
+        return snapshot;
+    }
+
+    /**
+     * Recomputes the rollup table from the orders table, in one transaction behind the exclusive
+     * {@link RebuildFence#ORDER_STATS} lock.
+     */
+    public void rebuild() {
+        Integer rows = transactionTemplate.execute(status -> {
+            rebuildFence.exclusive(RebuildFence.ORDER_STATS);
+            rollupRepository.deleteAllInBatch();
+            List<OrderStatsRollup> computed = new ArrayList<>();
+            for (Object[] row : rollupRepository.aggregateFromOrders()) {
+                OrderStatsKey key = new OrderStatsKey((LocalDate) row[0], (String) row[1], (OrderStatus) row[2]);
+                computed.add(new OrderStatsRollup(key, ((Number) row[3]).longValue()));
+            }
+            rollupRepository.saveAll(computed);
+            return computed.size();
+        });
+        invalidate();
+        log.info("Rebuilt {} order stats rows", rows);
+    }
+
+    private void apply(Map<OrderStatsKey, Long> deltas) {
+        rebuildFence.shared(RebuildFence.ORDER_STATS);
+        deltas.forEach((key, delta) -> {
+            if (delta != 0) {
+                rollupRepository.upsert(key, delta);
+            }
+        });
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                invalidate();
+            }
+        });
+    }
+
+    private void invalidate() {
+        generation.incrementAndGet();
+        snapshots.clear();
+    }
+
+    private record Range(LocalDate from, LocalDate to) {
+    }
+}
@@ -0,0 +1,95 @@
+package com.laundry.lms.service;
+
+import com.laundry.lms.dto.BulkStatusResponse;
+import com.laundry.lms.model.LaundryOrder;
+import com.laundry.lms.model.OrderStatsKey;
+import com.laundry.lms.model.OrderStatus;
+import com.laundry.lms.repository.LaundryOrderRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Order status changes and deletions, each committed together with its order stats deltas; a deletion
+ * also removes the order's stage tasks in the same transaction. Bulk moves use set-based statements
+ * instead of a find/save per order.
+ */
+@Service
+public class OrderStatusService {
+
+    private final LaundryOrderRepository orderRepository;
+    private final OrderStatsService orderStatsService;
+    private final ProductionPipelineService pipelineService;
+
+    public OrderStatusService(LaundryOrderRepository orderRepository, OrderStatsService orderStatsService,
+                              ProductionPipelineService pipelineService) {
+        this.orderRepository = orderRepository;
+        this.orderStatsService = orderStatsService;
+        this.pipelineService = pipelineService;
+    }
+
+    /**
+     * Applies {@code from -> to} to every id still in {@code from}. The matching ids are locked
+     * first so the reported split between updated and skipped is exact under concurrent edits.
+     */
+    @Transactional
+    public BulkStatusResponse transition(List<Long> ids, OrderStatus from, OrderStatus to) {
+        Set<Long> requested = new LinkedHashSet<>(ids);
+        Map<Long, OrderStatsKey> matched = new HashMap<>();
+        for (Object[] row : orderRepository.lockInStatus(requested, from)) {
+            LocalDateTime createdAt = (LocalDateTime) row[2];
+            matched.put((Long) row[0], new OrderStatsKey(createdAt.toLocalDate(), (String) row[1], from));
+        }
+        if (!matched.isEmpty()) {
+            orderRepository.transitionStatus(matched.keySet(), from, to);
+            orderStatsService.recordStatusChanges(matched.values(), to);
+        }
+
+        List<Long> updated = new ArrayList<>(matched.size());
+        List<Long> skipped = new ArrayList<>();
+        for (Long id : requested) {
+            (matched.containsKey(id) ? updated : skipped).add(id);
+        }
+        return new BulkStatusResponse(from, to, updated, skipped);
+    }
+
+    /**
+     * Moves one order from {@code from} to {@code to}, or returns empty if it has left {@code from} since
+     * the caller read it. The caller is expected to have checked that the move is allowed.
+     */
+    @Transactional
+    public Optional<LaundryOrder> changeStatus(Long id, OrderStatus from, OrderStatus to) {
+        if (transition(List.of(id), from, to).getUpdated().isEmpty()) {
+            return Optional.empty();
+        }
+        return orderRepository.findById(id);
+    }
+
+    /**
+     * Deletes an order and its stage tasks, locking it first so the stats row decremented is the one
+     * for the status it has when it is deleted, not when the caller read it.
+     *
+     * @return false if the order no longer exists
+     */
+    @Transactional
+    public boolean delete(Long id) {
+        List<Object[]> rows = orderRepository.lockStatsRow(id);
+        if (rows.isEmpty()) {
+            return false;
+        }
+        Object[] row = rows.get(0);
+        pipelineService.removeOrder(id);
+        orderRepository.deleteAllByIdInBatch(List.of(id));
+        orderStatsService.recordDeleted(new OrderStatsKey(((LocalDateTime) row[1]).toLocalDate(), (String) row[0],
+                (OrderStatus) row[2]));
+        return true;
+    }
+}
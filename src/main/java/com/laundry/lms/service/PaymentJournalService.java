@@ -0,0 +1,246 @@
+package com.laundry.lms.service;
+
+import com.laundry.lms.dto.PaymentReplayResponse;
+import com.laundry.lms.dto.PaymentResponse;
+import com.laundry.lms.model.Payment;
+import com.laundry.lms.model.PaymentEvent;
+import com.laundry.lms.model.PaymentEventType;
+import com.laundry.lms.model.PaymentStatus;
+import com.laundry.lms.model.RevenueKey;
+import com.laundry.lms.model.RevenueRollup;
+import com.laundry.lms.repository.PaymentEventRepository;
+import com.laundry.lms.repository.PaymentRepository;
+import jakarta.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Append-only journal of payment changes in {@code payment_events}. Events are written in the same
+ * transaction as the payment change they describe, and each carries the payment's full post-image
+ * and its version among that payment's events, so {@link #replay()} can rebuild balances and revenue
+ * rollups from each payment's latest event without reading the payments table.
+ */
+@Service
+public class PaymentJournalService {
+
+    private static final Logger log = LoggerFactory.getLogger(PaymentJournalService.class);
+
+    private final PaymentEventRepository eventRepository;
+    private final PaymentRepository paymentRepository;
+    private final PaymentReconciliationService reconciliationService;
+    private final RevenueReportService revenueReportService;
+    private final RebuildFence rebuildFence;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final int replayPageSize;
+
+    public PaymentJournalService(PaymentEventRepository eventRepository,
+                                 PaymentRepository paymentRepository,
+                                 PaymentReconciliationService reconciliationService,
+                                 RevenueReportService revenueReportService,
+                                 RebuildFence rebuildFence,
+                                 EntityManager entityManager,
+                                 TransactionTemplate transactionTemplate,
+                                 @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}") int batchSize,
+                                 @Value("${lms.payments.journal.replay-page-size:10000}") int replayPageSize) {
+        this.eventRepository = eventRepository;
+        this.paymentRepository = paymentRepository;
+        this.reconciliationService = reconciliationService;
+        this.revenueReportService = revenueReportService;
+        this.rebuildFence = rebuildFence;
+        this.entityManager = entityManager;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+        this.replayPageSize = replayPageSize;
+    }
+
+    /**
+     * Journals payments that predate the journal (seed data, rows from before this table existed)
+     * as CREATED events, so replay starts from the full set.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void seed() {
+        if (eventRepository.count() > 0 || paymentRepository.count() == 0) {
+            return;
+        }
+        long seeded = 0;
+        long afterId = 0;
+        List<Payment> page;
+        while (!(page = paymentRepository.findAfter(afterId, Limit.of(batchSize))).isEmpty()) {
+            List<PaymentEvent> events = page.stream()
+                    .map(payment -> PaymentEvent.of(PaymentEventType.CREATED, payment, null))
+                    .toList();
+            events.forEach(event -> event.setVersion(1));
+            transactionTemplate.executeWithoutResult(status -> persistAll(events));
+            seeded += events.size();
+            afterId = page.get(page.size() - 1).getId();
+        }
+        log.info("Seeded payment journal with {} existing payments", seeded);
+    }
+
+    /**
+     * Appends one event as the payment's next version; must join the transaction that changes the
+     * payment, after that transaction has locked the payment row (or inserted it).
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void append(PaymentEvent event) {
+        if (event.getType() == PaymentEventType.CREATED) {
+            event.setVersion(1);
+        } else {
+            Integer last = eventRepository.findMaxVersion(event.getPaymentId());
+            event.setVersion(last == null ? 1 : last + 1);
+        }
+        entityManager.persist(event);
+    }
+
+    /**
+     * Appends events for payments already locked by the caller's transaction, numbering each after
+     * the latest version of its payment; several events for one payment keep their order.
+     */
+    @Transactional
+    public void appendAll(Collection<PaymentEvent> events) {
+        Set<Long> paymentIds = new HashSet<>();
+        events.forEach(event -> paymentIds.add(event.getPaymentId()));
+        Map<Long, Integer> versions = new HashMap<>();
+        for (Object[] row : eventRepository.findMaxVersions(paymentIds)) {
+            versions.put((Long) row[0], (Integer) row[1]);
+        }
+        for (PaymentEvent event : events) {
+            event.setVersion(versions.merge(event.getPaymentId(), 1, Integer::sum));
+        }
+        persistAll(events);
+    }
+
+    public List<PaymentEvent> history(Long paymentId) {
+        return eventRepository.findByPaymentIdOrderByVersionAscIdAsc(paymentId);
+    }
+
+    /**
+     * Folds the journal into the last image of every live payment, then replaces order balances and
+     * revenue rollups with figures derived from those images. Also counts payments whose row no
+     * longer matches the journal, which points at edits made outside the application.
+     * <p>
+     * Runs in one transaction behind the exclusive {@link RebuildFence#PAYMENTS} lock: payment writes
+     * apply their deltas in their own transaction behind the shared lock, so every payment is either
+     * committed before the journal is read (and replayed) or waits and applies its delta to the
+     * rebuilt rows.
+     */
+    public PaymentReplayResponse replay() {
+        PaymentReplayResponse response = transactionTemplate.execute(status -> {
+            rebuildFence.exclusive(RebuildFence.PAYMENTS);
+            return replayFenced();
+        });
+        log.info("Replayed {} payment events into {} balances and {} revenue rows in {} ms ({} payments drifted)",
+                response.getEvents(), response.getBalances(), response.getRevenueRows(), response.getElapsedMillis(),
+                response.getDriftedPayments());
+        return response;
+    }
+
+    private PaymentReplayResponse replayFenced() {
+        long started = System.nanoTime();
+        Map<Long, Folded> latest = new HashMap<>();
+        long events = 0;
+        long afterId = 0;
+        List<Object[]> page;
+        while (!(page = eventRepository.findRowsAfter(afterId, Limit.of(replayPageSize))).isEmpty()) {
+            for (Object[] row : page) {
+                Long eventId = (Long) row[0];
+                Integer version = (Integer) row[2];
+                PaymentImage image = row[3] == PaymentEventType.DELETED ? null
+                        : new PaymentImage((Long) row[4], (String) row[5], (String) row[6], (BigDecimal) row[7],
+                        (PaymentStatus) row[8], (LocalDateTime) row[9], (LocalDateTime) row[10]);
+                Folded event = new Folded(version == null ? 0 : version, eventId, image);
+                latest.merge((Long) row[1], event, (a, b) -> a.isAfter(b) ? a : b);
+            }
+            events += page.size();
+            afterId = (Long) page.get(page.size() - 1)[0];
+        }
+        Map<Long, PaymentImage> images = new HashMap<>();
+        latest.forEach((paymentId, folded) -> {
+            if (folded.image() != null) {
+                images.put(paymentId, folded.image());
+            }
+        });
+
+        Map<Long, PaymentReconciliationService.PaymentTotals> totals = new HashMap<>();
+        Map<RevenueKey, RevenueRollup> revenue = new HashMap<>();
+        for (PaymentImage image : images.values()) {
+            if (image.orderId() != null) {
+                totals.merge(image.orderId(),
+                        PaymentReconciliationService.PaymentTotals.NONE.plus(image.status(), image.amount()),
+                        (a, b) -> new PaymentReconciliationService.PaymentTotals(
+                                a.paid().add(b.paid()), a.pending().add(b.pending())));
+            }
+            if (image.status() == PaymentStatus.COMPLETED) {
+                RevenueKey key = RevenueKey.of(image.paidAt(), image.createdAt(), image.serviceType(), image.method());
+                revenue.merge(key, new RevenueRollup(key, image.amount(), 1), (a, b) ->
+                        new RevenueRollup(key, a.getAmount().add(b.getAmount()), a.getPaymentCount() + b.getPaymentCount()));
+            }
+        }
+        int balances = reconciliationService.replaceAll(totals);
+        revenueReportService.replaceAll(revenue.values());
+
+        long drifted = countDrift(images);
+        long elapsed = (System.nanoTime() - started) / 1_000_000;
+        return new PaymentReplayResponse(events, images.size(), balances, revenue.size(), drifted, elapsed);
+    }
+
+    private long countDrift(Map<Long, PaymentImage> images) {
+        Set<Long> seen = new HashSet<>();
+        long drifted = 0;
+        for (PaymentResponse row : paymentRepository.findAllResponses()) {
+            seen.add(row.getId());
+            PaymentImage image = images.get(row.getId());
+            if (image == null
+                    || image.status() != row.getStatus()
+                    || image.amount().compareTo(row.getAmount()) != 0
+                    || !Objects.equals(image.orderId(), row.getOrderId())) {
+                drifted++;
+            }
+        }
+        // Journaled payments whose row is gone.
+        return drifted + images.keySet().stream().filter(id -> !seen.contains(id)).count();
+    }
+
+    private void persistAll(Collection<PaymentEvent> events) {
+        int written = 0;
+        for (PaymentEvent event : events) {
+            entityManager.persist(event);
+            if (++written % batchSize == 0) {
+                entityManager.flush();
+                entityManager.clear();
+            }
+        }
+    }
+
+    // A payment's event during the fold; a null image is a deletion.
+    private record Folded(int version, long eventId, PaymentImage image) {
+
+        boolean isAfter(Folded other) {
+            return version != other.version ? version > other.version : eventId > other.eventId;
+        }
+    }
+
+    private record PaymentImage(Long orderId, String serviceType, String method, BigDecimal amount,
+                                PaymentStatus status, LocalDateTime paidAt, LocalDateTime createdAt) {
+    }
+}
@@ -0,0 +1,210 @@
+package com.laundry.lms.service;
+
+import com.laundry.lms.model.LaundryOrder;
+import com.laundry.lms.model.OrderBalance;
+import com.laundry.lms.model.PaymentStatus;
+import com.laundry.lms.repository.LaundryOrderRepository;
+import com.laundry.lms.repository.OrderBalanceRepository;
+import jakarta.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Maintains {@code order_balances}, one paid-vs-due row per order. Payment writes apply their deltas
+ * in the payment's transaction and order writes after they commit; a set-based reconciliation
+ * recomputes any row that drifted (a crash between an order write and its delta, a direct SQL edit)
+ * from the orders and payments tables.
+ */
+@Service
+public class PaymentReconciliationService {
+
+    private static final Logger log = LoggerFactory.getLogger(PaymentReconciliationService.class);
+
+    private final OrderBalanceRepository balanceRepository;
+    private final LaundryOrderRepository orderRepository;
+    private final RebuildFence rebuildFence;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManager entityManager;
+    private final int batchSize;
+
+    private final LongAdder corrected = new LongAdder();
+
+    public PaymentReconciliationService(OrderBalanceRepository balanceRepository,
+                                        LaundryOrderRepository orderRepository,
+                                        RebuildFence rebuildFence,
+                                        TransactionTemplate transactionTemplate,
+                                        EntityManager entityManager,
+                                        @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}") int batchSize) {
+        this.balanceRepository = balanceRepository;
+        this.orderRepository = orderRepository;
+        this.rebuildFence = rebuildFence;
+        this.transactionTemplate = transactionTemplate;
+        this.entityManager = entityManager;
+        this.batchSize = batchSize;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        if (balanceRepository.count() == 0 && orderRepository.count() > 0) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Replaces every balance with one computed from the source tables.
+     */
+    public int rebuild() {
+        Integer rows = transactionTemplate.execute(status -> {
+            rebuildFence.exclusive(RebuildFence.PAYMENTS);
+            balanceRepository.deleteAllInBatch();
+            return balanceRepository.insertAllComputed(LocalDateTime.now());
+        });
+        log.info("Rebuilt {} order balances", rows);
+        return rows == null ? 0 : rows;
+    }
+
+    /**
+     * Replaces every balance using the given paid and pending totals per order id (orders missing
+     * from the map have no payments), with the amount due read from the orders table. Used to
+     * rebuild balances from the payment journal; joins the caller's transaction, which must hold the
+     * exclusive {@link RebuildFence#PAYMENTS} lock.
+     */
+    public int replaceAll(Map<Long, PaymentTotals> totals) {
+        Integer rows = transactionTemplate.execute(status -> {
+            balanceRepository.deleteAllInBatch();
+            LocalDateTime now = LocalDateTime.now();
+            int written = 0;
+            long afterId = 0;
+            List<Object[]> page;
+            while (!(page = orderRepository.findPricesAfter(afterId, Limit.of(batchSize))).isEmpty()) {
+                for (Object[] row : page) {
+                    Long orderId = (Long) row[0];
+                    PaymentTotals orderTotals = totals.getOrDefault(orderId, PaymentTotals.NONE);
+                    OrderBalance balance = new OrderBalance();
+                    balance.setOrderId(orderId);
+                    balance.setCustomerId((Long) row[1]);
+                    balance.setAmountDue((BigDecimal) row[2]);
+                    balance.setAmountPaid(orderTotals.paid());
+                    balance.setAmountPending(orderTotals.pending());
+                    balance.setOutstanding(balance.getAmountDue().subtract(orderTotals.paid()));
+                    balance.setUpdatedAt(now);
+                    entityManager.persist(balance);
+                    written++;
+                    afterId = orderId;
+                }
+                entityManager.flush();
+                entityManager.clear();
+            }
+            return written;
+        });
+        return rows == null ? 0 : rows;
+    }
+
+    public void recordOrdersCreated(Collection<LaundryOrder> orders) {
+        List<Long> ids = orders.stream().map(LaundryOrder::getId).toList();
+        if (ids.isEmpty()) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status ->
+                    balanceRepository.insertComputed(ids, LocalDateTime.now()));
+        } catch (DataIntegrityViolationException ex) {
+            // A payment for one of them got there first and created the row; recompute them all.
+            recompute(ids);
+        }
+    }
+
+    public void recordOrderDeleted(Long orderId) {
+        transactionTemplate.executeWithoutResult(status -> balanceRepository.deleteByOrderIdIn(List.of(orderId)));
+    }
+
+    /**
+     * Applies a payment moving from {@code from} to {@code to} on its order. Pass {@code null} for
+     * {@code from} when the payment is new and for {@code to} when it was deleted. Joins the
+     * caller's transaction, so the balance changes with the payment.
+     */
+    public void recordPayment(Long orderId, BigDecimal amount, PaymentStatus from, PaymentStatus to) {
+        if (orderId == null || amount == null || from == to) {
+            return;
+        }
+        BigDecimal paid = share(amount, to, PaymentStatus.COMPLETED).subtract(share(amount, from, PaymentStatus.COMPLETED));
+        BigDecimal pending = share(amount, to, PaymentStatus.PENDING).subtract(share(amount, from, PaymentStatus.PENDING));
+        if (paid.signum() == 0 && pending.signum() == 0) {
+            return;
+        }
+        int updated = transactionTemplate.execute(status ->
+                balanceRepository.applyPayment(orderId, paid, pending, LocalDateTime.now()));
+        if (updated == 0) {
+            // No row yet: computing it from the tables already includes this payment.
+            recompute(List.of(orderId));
+        }
+    }
+
+    /**
+     * Recomputes every balance that disagrees with its order and payments, and drops balances of
+     * deleted orders.
+     *
+     * @return the number of balances corrected
+     */
+    @Scheduled(fixedDelayString = "${lms.payments.reconcile-interval:3600000}",
+            initialDelayString = "${lms.payments.reconcile-interval:3600000}")
+    public int reconcile() {
+        Set<Long> drifted = new LinkedHashSet<>(balanceRepository.findDriftedOrderIds());
+        List<Long> orphaned = balanceRepository.findOrphanedOrderIds();
+        if (!orphaned.isEmpty()) {
+            transactionTemplate.executeWithoutResult(status -> balanceRepository.deleteByOrderIdIn(orphaned));
+        }
+        if (!drifted.isEmpty()) {
+            recompute(new ArrayList<>(drifted));
+        }
+        int total = drifted.size() + orphaned.size();
+        if (total > 0) {
+            corrected.add(total);
+            log.warn("Reconciliation corrected {} order balances", total);
+        }
+        return total;
+    }
+
+    public long correctedCount() {
+        return corrected.sum();
+    }
+
+    private void recompute(List<Long> orderIds) {
+        transactionTemplate.executeWithoutResult(status -> {
+            balanceRepository.deleteByOrderIdIn(orderIds);
+            balanceRepository.insertComputed(orderIds, LocalDateTime.now());
+        });
+    }
+
+    public record PaymentTotals(BigDecimal paid, BigDecimal pending) {
+
+        public static final PaymentTotals NONE = new PaymentTotals(BigDecimal.ZERO, BigDecimal.ZERO);
+
+        public PaymentTotals plus(PaymentStatus status, BigDecimal amount) {
+            return new PaymentTotals(paid.add(share(amount, status, PaymentStatus.COMPLETED)),
+                    pending.add(share(amount, status, PaymentStatus.PENDING)));
+        }
+    }
+
+    private static BigDecimal share(BigDecimal amount, PaymentStatus status, PaymentStatus counted) {
+        return status == counted ? amount : BigDecimal.ZERO;
+    }
+}
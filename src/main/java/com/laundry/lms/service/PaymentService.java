@@ -0,0 +1,136 @@
+package com.laundry.lms.service;
+
+import com.laundry.lms.model.Payment;
+import com.laundry.lms.model.PaymentEvent;
+import com.laundry.lms.model.PaymentEventType;
+import com.laundry.lms.model.PaymentStatus;
+import com.laundry.lms.repository.PaymentRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Write path for payments. Each change, its journal event and the balance and revenue rollup deltas
+ * it causes (and, for a create, the request's Idempotency-Key claim) commit in one transaction, which
+ * first takes the shared {@link RebuildFence#PAYMENTS} lock so a journal replay or rollup rebuild never
+ * runs between the change and its deltas.
+ */
+@Service
+public class PaymentService {
+
+    private final PaymentRepository paymentRepository;
+    private final PaymentJournalService journalService;
+    private final PaymentReconciliationService reconciliationService;
+    private final RevenueReportService revenueReportService;
+    private final IdempotencyService idempotencyService;
+    private final RebuildFence rebuildFence;
+    private final TransactionTemplate transactionTemplate;
+
+    public PaymentService(PaymentRepository paymentRepository,
+                          PaymentJournalService journalService,
+                          PaymentReconciliationService reconciliationService,
+                          RevenueReportService revenueReportService,
+                          IdempotencyService idempotencyService,
+                          RebuildFence rebuildFence,
+                          TransactionTemplate transactionTemplate) {
+        this.paymentRepository = paymentRepository;
+        this.journalService = journalService;
+        this.reconciliationService = reconciliationService;
+        this.revenueReportService = revenueReportService;
+        this.idempotencyService = idempotencyService;
+        this.rebuildFence = rebuildFence;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    public Payment create(Payment payment) {
+        return transactionTemplate.execute(status -> {
+            rebuildFence.shared(RebuildFence.PAYMENTS);
+            Payment row = paymentRepository.save(payment);
+            journalService.append(PaymentEvent.of(PaymentEventType.CREATED, row, null));
+            applyDerived(row, null, row.getStatus());
+            idempotencyService.bindToTransaction();
+            return row;
+        });
+    }
+
+    /**
+     * Moves the payment from {@code expected} to {@code next} with a conditional UPDATE instead of a
+     * read-modify-write, so of two concurrent callers exactly one succeeds and the other finds out
+     * immediately rather than waiting on a lock or overwriting the first.
+     *
+     * @return the updated payment, or empty if it no longer exists or is no longer in {@code expected}
+     */
+    public Optional<Payment> changeStatus(Long id, PaymentStatus expected, PaymentStatus next) {
+        if (!expected.canTransitionTo(next)) {
+            throw new IllegalArgumentException("Cannot move payment from " + expected + " to " + next);
+        }
+        return transactionTemplate.execute(status -> {
+            rebuildFence.shared(RebuildFence.PAYMENTS);
+            if (paymentRepository.compareAndSetStatus(id, expected, next) == 0) {
+                return Optional.<Payment>empty();
+            }
+            Payment row = paymentRepository.findWithOrderById(id).orElseThrow();
+            journalService.append(PaymentEvent.of(PaymentEventType.STATUS_CHANGED, row, expected));
+            applyDerived(row, expected, next);
+            return Optional.of(row);
+        });
+    }
+
+    /**
+     * Deletes the payment as long as its status is still the one the caller saw.
+     *
+     * @return whether this call removed it
+     */
+    public boolean delete(Payment payment) {
+        PaymentStatus seen = payment.getStatus();
+        return Boolean.TRUE.equals(transactionTemplate.execute(status -> {
+            rebuildFence.shared(RebuildFence.PAYMENTS);
+            if (paymentRepository.deleteInStatus(payment.getId(), seen) == 0) {
+                return false;
+            }
+            journalService.append(PaymentEvent.of(PaymentEventType.DELETED, payment, seen));
+            applyDerived(payment, seen, null);
+            return true;
+        }));
+    }
+
+    /**
+     * Claims the next {@code limit} pending payments created before {@code cutoff} (after the cursor)
+     * and expires them with one UPDATE, journaling each. Payments locked by another sweeper are
+     * skipped, so they are expired by exactly one caller.
+     *
+     * @return the expired payments in claim order; empty once nothing past the cursor is left
+     */
+    public List<Payment> expirePending(LocalDateTime cutoff, LocalDateTime afterCreatedAt, Long afterId, int limit) {
+        return transactionTemplate.execute(status -> {
+            rebuildFence.shared(RebuildFence.PAYMENTS);
+            List<Long> ids = paymentRepository.claimOlderThan(PaymentStatus.PENDING.name(), cutoff,
+                    afterCreatedAt, afterId, limit);
+            if (ids.isEmpty()) {
+                return List.<Payment>of();
+            }
+            paymentRepository.transitionStatus(ids, PaymentStatus.PENDING, PaymentStatus.EXPIRED);
+            List<Payment> rows = new ArrayList<>(paymentRepository.findWithOrderByIdIn(ids));
+            rows.sort(Comparator.comparing(Payment::getCreatedAt).thenComparing(Payment::getId));
+            journalService.appendAll(rows.stream()
+                    .map(row -> PaymentEvent.of(PaymentEventType.STATUS_CHANGED, row, PaymentStatus.PENDING))
+                    .toList());
+            // Balances in order id order, so two sweeps touching the same orders lock them alike.
+            rows.stream()
+                    .sorted(Comparator.comparing((Payment row) -> row.getOrder() == null ? 0L : row.getOrder().getId()))
+                    .forEach(row -> applyDerived(row, PaymentStatus.PENDING, PaymentStatus.EXPIRED));
+            return rows;
+        });
+    }
+
+    private void applyDerived(Payment payment, PaymentStatus from, PaymentStatus to) {
+        Long orderId = payment.getOrder() == null ? null : payment.getOrder().getId();
+        reconciliationService.recordPayment(orderId, payment.getAmount(), from, to);
+        revenueReportService.recordPayment(payment, from, to);
+    }
+}
@@ -0,0 +1,107 @@
+package com.laundry.lms.service;
+
+import com.laundry.lms.dto.PaymentSweepStats;
+import com.laundry.lms.model.Payment;
+import com.laundry.lms.model.PaymentStatus;
+import com.laundry.lms.repository.PaymentRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Expires payments left PENDING longer than {@code expire-after}. Each batch claims at most
+ * {@code batch-size} rows with {@code FOR UPDATE SKIP LOCKED}, expires them with one UPDATE and
+ * commits, then continues after the last claimed {@code (createdAt, id)}. Memory stays bounded by the
+ * batch size however large the backlog, and instances sweeping at the same time each take different
+ * rows instead of queueing behind each other's locks.
+ */
+@Service
+public class PaymentSweepService {
+
+    private static final Logger log = LoggerFactory.getLogger(PaymentSweepService.class);
+    private static final LocalDateTime START = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    private final PaymentService paymentService;
+    private final PaymentRepository paymentRepository;
+    private final Duration expireAfter;
+    private final int batchSize;
+
+    private final LongAdder runs = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder expired = new LongAdder();
+    private final AtomicLong currentRunExpired = new AtomicLong();
+    private final AtomicLong lastRunExpired = new AtomicLong();
+    private final AtomicLong lastRunMillis = new AtomicLong();
+    private volatile LocalDateTime lastRunAt;
+    private volatile boolean running;
+
+    public PaymentSweepService(PaymentService paymentService,
+                               PaymentRepository paymentRepository,
+                               @Value("${lms.payments.sweep.expire-after:30d}") Duration expireAfter,
+                               @Value("${lms.payments.sweep.batch-size:200}") int batchSize) {
+        this.paymentService = paymentService;
+        this.paymentRepository = paymentRepository;
+        this.expireAfter = expireAfter;
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(fixedDelayString = "${lms.payments.sweep.interval:600000}",
+            initialDelayString = "${lms.payments.sweep.interval:600000}")
+    public int sweep() {
+        return sweepOlderThan(LocalDateTime.now().minus(expireAfter));
+    }
+
+    /**
+     * Expires every pending payment created before {@code cutoff} that no other sweeper holds.
+     *
+     * @return the number of payments this call expired
+     */
+    public synchronized int sweepOlderThan(LocalDateTime cutoff) {
+        long started = System.nanoTime();
+        running = true;
+        currentRunExpired.set(0);
+        int total = 0;
+        try {
+            LocalDateTime afterCreatedAt = START;
+            Long afterId = 0L;
+            List<Payment> batch;
+            // An empty claim can also mean the rest is locked by another sweeper, which keeps going until
+            // it sees an empty claim itself, so stopping here never strands a stale payment.
+            while (!(batch = paymentService.expirePending(cutoff, afterCreatedAt, afterId, batchSize)).isEmpty()) {
+                Payment last = batch.get(batch.size() - 1);
+                afterCreatedAt = last.getCreatedAt();
+                afterId = last.getId();
+                total += batch.size();
+                batches.increment();
+                expired.add(batch.size());
+                currentRunExpired.addAndGet(batch.size());
+            }
+        } finally {
+            running = false;
+            runs.increment();
+            lastRunExpired.set(total);
+            lastRunMillis.set(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+            lastRunAt = LocalDateTime.now();
+        }
+        if (total > 0) {
+            log.info("Expired {} payments pending since before {}", total, cutoff);
+        }
+        return total;
+    }
+
+    public PaymentSweepStats stats() {
+        long remaining = paymentRepository.countByStatusAndCreatedAtBefore(PaymentStatus.PENDING,
+                LocalDateTime.now().minus(expireAfter));
+        return new PaymentSweepStats(running, remaining, runs.sum(), batches.sum(), expired.sum(),
+                currentRunExpired.get(), lastRunExpired.get(), lastRunMillis.get(), lastRunAt, expireAfter.toString());
+    }
+}
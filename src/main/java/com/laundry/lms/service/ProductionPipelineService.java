@@ -0,0 +1,385 @@
+package com.laundry.lms.service;
+
+import com.laundry.lms.dto.OrderForecastResponse;
+import com.laundry.lms.dto.PipelineForecastResponse;
+import com.laundry.lms.dto.StageMetricsResponse;
+import com.laundry.lms.model.LaundryOrder;
+import com.laundry.lms.model.OrderStatus;
+import com.laundry.lms.model.ProductionStage;
+import com.laundry.lms.model.Task;
+import com.laundry.lms.model.TaskStatus;
+import com.laundry.lms.repository.LaundryOrderRepository;
+import com.laundry.lms.repository.TaskRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Links orders to the workshop. Each open order is expanded into one task per stage of its service's
+ * route ({@link ProductionStage#routeFor}), and the forecast replays every open order's remaining
+ * stages through a {@link ProductionSimulator} sized by the configured machines and staff per stage, so
+ * each {@code deliveryDate} promise can be checked against the capacity actually available.
+ * <p>
+ * A stage counts as done once its task is completed or cancelled; orders without stage tasks are
+ * simulated from their first stage. Forecasts are cached until a stage task or open order changes, or
+ * for at most {@code forecast-ttl}, since the simulation starts from "now".
+ */
+@Service
+public class ProductionPipelineService {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductionPipelineService.class);
+
+    public static final Set<OrderStatus> OPEN = EnumSet.of(OrderStatus.PENDING, OrderStatus.IN_PROGRESS);
+
+    private static final Set<TaskStatus> DONE = EnumSet.of(TaskStatus.COMPLETED, TaskStatus.CANCELLED);
+    private static final int BATCH_SIZE = 500;
+
+    // Late orders first, then by how little slack is left; orders without a promise go last.
+    private static final Comparator<OrderForecastResponse> BY_SLACK = Comparator
+            .comparing(OrderForecastResponse::getSlackMinutes, Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparing(OrderForecastResponse::getOrderId);
+
+    private final LaundryOrderRepository orderRepository;
+    private final TaskRepository taskRepository;
+    private final TaskDispatchService taskDispatchService;
+    private final TaskBoardService taskBoardService;
+    private final TransactionTemplate transactionTemplate;
+    private final Map<ProductionStage, Integer> machines;
+    private final Map<ProductionStage, Integer> staff;
+    private final ProductionSimulator simulator;
+    private final LocalTime promiseTime;
+    private final Duration forecastTtl;
+
+    private final AtomicLong generation = new AtomicLong();
+    private volatile Snapshot snapshot;
+
+    public ProductionPipelineService(LaundryOrderRepository orderRepository,
+                                     TaskRepository taskRepository,
+                                     TaskDispatchService taskDispatchService,
+                                     TaskBoardService taskBoardService,
+                                     TransactionTemplate transactionTemplate,
+                                     @Value("#{${lms.pipeline.machines:{WASH:4,DRY:4,IRON:3,PACK:2}}}") Map<String, Integer> machines,
+                                     @Value("#{${lms.pipeline.staff:{WASH:2,DRY:2,IRON:3,PACK:2}}}") Map<String, Integer> staff,
+                                     @Value("${lms.pipeline.promise-time:18:00}") LocalTime promiseTime,
+                                     @Value("${lms.pipeline.forecast-ttl:1m}") Duration forecastTtl) {
+        this.orderRepository = orderRepository;
+        this.taskRepository = taskRepository;
+        this.taskDispatchService = taskDispatchService;
+        this.taskBoardService = taskBoardService;
+        this.transactionTemplate = transactionTemplate;
+        this.machines = byStage(machines);
+        this.staff = byStage(staff);
+        Map<ProductionStage, Integer> servers = new EnumMap<>(ProductionStage.class);
+        for (ProductionStage stage : ProductionStage.values()) {
+            servers.put(stage, Math.min(this.machines.get(stage), this.staff.get(stage)));
+        }
+        this.simulator = new ProductionSimulator(servers);
+        this.promiseTime = promiseTime;
+        this.forecastTtl = forecastTtl;
+    }
+
+    /**
+     * Creates the missing stage tasks of each open order. Stage tasks start unassigned and due on the
+     * order's delivery date; a rebalance hands them out with the rest of the pending work.
+     *
+     * @return the tasks created
+     */
+    public List<Task> expand(List<LaundryOrder> orders) {
+        List<OrderRow> rows = new ArrayList<>(orders.size());
+        for (LaundryOrder order : orders) {
+            if (order.getStatus() == null || OPEN.contains(order.getStatus())) {
+                rows.add(new OrderRow(order.getId(), order.getServiceType(), order.getQuantity(), order.getDeliveryDate()));
+            }
+        }
+        return expandRows(rows);
+    }
+
+    /**
+     * Creates the missing stage tasks of every open order, e.g. for orders placed before the pipeline.
+     *
+     * @return the number of tasks created
+     */
+    public int expandOpenOrders() {
+        List<OrderRow> rows = loadOpenOrders();
+        int created = 0;
+        for (int from = 0; from < rows.size(); from += BATCH_SIZE) {
+            created += expandRows(rows.subList(from, Math.min(from + BATCH_SIZE, rows.size()))).size();
+        }
+        log.info("Pipeline backfill created {} stage tasks for {} open orders", created, rows.size());
+        return created;
+    }
+
+    /**
+     * Deletes an order's stage tasks in the transaction that deletes the order. Workloads, the task
+     * board and the forecast are only updated once that transaction commits, so a rolled back delete
+     * leaves them as they were.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void removeOrder(Long orderId) {
+        List<Long> taskIds = taskRepository.findIdsByOrderId(orderId);
+        if (!taskIds.isEmpty()) {
+            taskRepository.deleteAllByIdInBatch(taskIds);
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                if (!taskIds.isEmpty()) {
+                    taskIds.forEach(taskDispatchService::recordDeleted);
+                    taskBoardService.invalidate();
+                }
+                invalidate();
+            }
+        });
+    }
+
+    /**
+     * Closes the open stage tasks of orders that moved to {@code status} once it is no longer an open
+     * status: completed when the orders are ready or delivered, cancelled when they were cancelled.
+     * Always drops the cached forecast, since the orders' status changed.
+     *
+     * @return the tasks closed
+     */
+    public List<Task> closeOrders(Collection<Long> orderIds, OrderStatus status) {
+        if (OPEN.contains(status) || orderIds.isEmpty()) {
+            invalidate();
+            return List.of();
+        }
+        TaskStatus closed = status == OrderStatus.CANCELLED ? TaskStatus.CANCELLED : TaskStatus.COMPLETED;
+        List<Long> ids = List.copyOf(orderIds);
+        List<Task> tasks = transactionTemplate.execute(tx -> {
+            List<Task> open = new ArrayList<>();
+            for (int from = 0; from < ids.size(); from += BATCH_SIZE) {
+                open.addAll(taskRepository.findStageTasks(ids.subList(from, Math.min(from + BATCH_SIZE, ids.size())),
+                        TaskDispatchService.OPEN));
+            }
+            open.forEach(task -> task.setStatus(closed));
+            return taskRepository.saveAll(open);
+        });
+        if (!tasks.isEmpty()) {
+            tasks.forEach(taskDispatchService::record);
+            taskBoardService.invalidate();
+        }
+        invalidate();
+        return tasks;
+    }
+
+    /**
+     * Drops the cached forecast. Called after any order or stage task write that can move it.
+     */
+    public void invalidate() {
+        generation.incrementAndGet();
+    }
+
+    public PipelineForecastResponse forecast(int limit) {
+        Snapshot current = snapshot();
+        List<OrderForecastResponse> atRisk = current.ranked().subList(0, Math.min(limit, current.ranked().size()));
+        return new PipelineForecastResponse(current.generatedAt(), current.ranked().size(), current.lateOrders(),
+                current.result().makespan(), current.generatedAt().plusMinutes(current.result().makespan()),
+                current.result().events(), current.elapsedMillis(), stageMetrics(current), atRisk);
+    }
+
+    public Optional<OrderForecastResponse> forecastFor(Long orderId) {
+        return Optional.ofNullable(snapshot().byOrder().get(orderId));
+    }
+
+    /**
+     * Capacity, live open stage tasks and forecast queue metrics for every stage.
+     */
+    public List<StageMetricsResponse> stages() {
+        return stageMetrics(snapshot());
+    }
+
+    private List<Task> expandRows(List<OrderRow> rows) {
+        if (rows.isEmpty()) {
+            return List.of();
+        }
+        List<Task> saved = transactionTemplate.execute(status -> {
+            Map<Long, Set<ProductionStage>> existing = stagesByOrder(rows, false);
+            List<Task> tasks = new ArrayList<>();
+            for (OrderRow row : rows) {
+                Set<ProductionStage> present = existing.getOrDefault(row.id(), Set.of());
+                for (ProductionStage stage : ProductionStage.routeFor(row.serviceType())) {
+                    if (!present.contains(stage)) {
+                        tasks.add(stageTask(row, stage));
+                    }
+                }
+            }
+            return taskRepository.saveAll(tasks);
+        });
+        if (!saved.isEmpty()) {
+            saved.forEach(taskDispatchService::record);
+            taskBoardService.invalidate();
+            invalidate();
+        }
+        return saved;
+    }
+
+    private Task stageTask(OrderRow row, ProductionStage stage) {
+        Task task = new Task();
+        task.setTitle(stage.getLabel() + " - Order #" + row.id());
+        task.setOrder(orderRepository.getReferenceById(row.id()));
+        task.setStage(stage);
+        task.setDueDate(row.deliveryDate());
+        task.setPrice(BigDecimal.ZERO);
+        task.setStatus(TaskStatus.PENDING);
+        task.setNotes(row.serviceType() + ", " + row.quantity());
+        return task;
+    }
+
+    private synchronized Snapshot snapshot() {
+        Snapshot current = snapshot;
+        if (current != null && current.generation() == generation.get()
+                && current.generatedAt().plus(forecastTtl).isAfter(LocalDateTime.now())) {
+            return current;
+        }
+        long seen = generation.get();
+        long started = System.nanoTime();
+        LocalDateTime now = LocalDateTime.now();
+
+        List<OrderRow> rows = loadOpenOrders();
+        Map<Long, Set<ProductionStage>> done = stagesByOrder(rows, true);
+        List<ProductionSimulator.Job> jobs = new ArrayList<>(rows.size());
+        List<List<ProductionStage>> remaining = new ArrayList<>(rows.size());
+        for (OrderRow row : rows) {
+            Set<ProductionStage> finished = done.getOrDefault(row.id(), Set.of());
+            List<ProductionStage> stages = new ArrayList<>();
+            List<ProductionSimulator.Step> steps = new ArrayList<>();
+            for (ProductionStage stage : ProductionStage.routeFor(row.serviceType())) {
+                if (!finished.contains(stage)) {
+                    stages.add(stage);
+                    steps.add(new ProductionSimulator.Step(stage, stage.minutesFor(row.quantity())));
+                }
+            }
+            LocalDateTime promisedBy = promisedBy(row);
+            long dueAt = promisedBy == null ? Long.MAX_VALUE : Duration.between(now, promisedBy).toMinutes();
+            jobs.add(new ProductionSimulator.Job(dueAt, steps));
+            remaining.add(stages);
+        }
+
+        ProductionSimulator.Result result = simulator.run(jobs);
+        Map<Long, OrderForecastResponse> byOrder = new HashMap<>(rows.size() * 2);
+        List<OrderForecastResponse> ranked = new ArrayList<>(rows.size());
+        int late = 0;
+        for (int i = 0; i < rows.size(); i++) {
+            OrderRow row = rows.get(i);
+            LocalDateTime promisedBy = promisedBy(row);
+            LocalDateTime completesAt = now.plusMinutes(result.completions()[i]);
+            Long slack = promisedBy == null ? null : Duration.between(completesAt, promisedBy).toMinutes();
+            boolean isLate = slack != null && slack < 0;
+            if (isLate) {
+                late++;
+            }
+            OrderForecastResponse forecast = new OrderForecastResponse(row.id(), row.serviceType(), remaining.get(i),
+                    promisedBy, completesAt, isLate, slack);
+            byOrder.put(row.id(), forecast);
+            ranked.add(forecast);
+        }
+        ranked.sort(BY_SLACK);
+
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+        Snapshot computed = new Snapshot(seen, now, result, byOrder, List.copyOf(ranked), late, elapsedMillis);
+        if (generation.get() == seen) {
+            snapshot = computed;
+        }
+        log.debug("Pipeline forecast of {} orders took {} ms ({} events)", rows.size(), elapsedMillis, result.events());
+        return computed;
+    }
+
+    private List<StageMetricsResponse> stageMetrics(Snapshot current) {
+        Map<ProductionStage, Map<TaskStatus, Long>> open = new EnumMap<>(ProductionStage.class);
+        for (Object[] row : taskRepository.countByStage(TaskDispatchService.OPEN)) {
+            open.computeIfAbsent((ProductionStage) row[0], stage -> new EnumMap<>(TaskStatus.class))
+                    .put((TaskStatus) row[1], (Long) row[2]);
+        }
+        long makespan = current.result().makespan();
+        List<StageMetricsResponse> metrics = new ArrayList<>();
+        for (ProductionSimulator.StageResult stage : current.result().stages()) {
+            Map<TaskStatus, Long> counts = open.getOrDefault(stage.stage(), Map.of());
+            metrics.add(new StageMetricsResponse(stage.stage(), machines.get(stage.stage()), staff.get(stage.stage()),
+                    stage.servers(), counts.getOrDefault(TaskStatus.PENDING, 0L),
+                    counts.getOrDefault(TaskStatus.IN_PROGRESS, 0L), stage.completed(),
+                    stage.throughputPerHour(makespan), stage.utilization(makespan),
+                    stage.averageQueueLength(makespan), stage.maxQueue(), stage.averageWait(), stage.maxWait()));
+        }
+        return metrics;
+    }
+
+    private List<OrderRow> loadOpenOrders() {
+        return transactionTemplate.execute(status -> {
+            List<OrderRow> rows = new ArrayList<>();
+            try (Stream<Object[]> stream = orderRepository.streamPipelineRows(OPEN)) {
+                stream.forEach(row -> rows.add(new OrderRow((Long) row[0], (String) row[1], (Double) row[2],
+                        (LocalDate) row[3])));
+            }
+            return rows;
+        });
+    }
+
+    /**
+     * Stages that already have a task, per order; with {@code doneOnly}, just the completed or cancelled ones.
+     */
+    private Map<Long, Set<ProductionStage>> stagesByOrder(List<OrderRow> rows, boolean doneOnly) {
+        Map<Long, Set<ProductionStage>> stages = new HashMap<>();
+        for (int from = 0; from < rows.size(); from += BATCH_SIZE) {
+            List<Long> ids = rows.subList(from, Math.min(from + BATCH_SIZE, rows.size())).stream()
+                    .map(OrderRow::id)
+                    .toList();
+            for (Object[] row : taskRepository.findStageRows(ids)) {
+                if (!doneOnly || DONE.contains((TaskStatus) row[2])) {
+                    stages.computeIfAbsent((Long) row[0], id -> EnumSet.noneOf(ProductionStage.class))
+                            .add((ProductionStage) row[1]);
+                }
+            }
+        }
+        return stages;
+    }
+
+    private LocalDateTime promisedBy(OrderRow row) {
+        return row.deliveryDate() == null ? null : row.deliveryDate().atTime(promiseTime);
+    }
+
+    private static Map<ProductionStage, Integer> byStage(Map<String, Integer> configured) {
+        Map<ProductionStage, Integer> result = new EnumMap<>(ProductionStage.class);
+        configured.forEach((name, count) -> result.put(ProductionStage.valueOf(name.trim().toUpperCase(Locale.ROOT)), count));
+        for (ProductionStage stage : ProductionStage.values()) {
+            if (result.getOrDefault(stage, 0) < 1) {
+                throw new IllegalArgumentException("Pipeline capacity for " + stage + " must be at least 1");
+            }
+        }
+        return result;
+    }
+
+    private record OrderRow(Long id, String serviceType, Double quantity, LocalDate deliveryDate) {
+    }
+
+    private record Snapshot(long generation, LocalDateTime generatedAt, ProductionSimulator.Result result,
+                            Map<Long, OrderForecastResponse> byOrder, List<OrderForecastResponse> ranked,
+                            int lateOrders, long elapsedMillis) {
+    }
+}
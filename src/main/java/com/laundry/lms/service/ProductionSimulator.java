@@ -0,0 +1,188 @@
+package com.laundry.lms.service;
+
+import com.laundry.lms.model.ProductionStage;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Discrete-event simulation of jobs moving through the production stages. Every job is released at
+ * minute zero and visits its stages in order; a stage runs a fixed number of parallel servers, and a
+ * freed server takes the waiting job with the earliest due time, then the one that arrived first.
+ * <p>
+ * Pending events sit in one heap ordered by time and then by scheduling order, so ties resolve the same
+ * way on every run and a run costs O(e log e) for its e events, two per stage visit.
+ */
+public class ProductionSimulator {
+
+    private static final ProductionStage[] STAGES = ProductionStage.values();
+
+    private static final Comparator<Event> BY_TIME = Comparator
+            .comparingLong(Event::time)
+            .thenComparingLong(Event::seq);
+
+    private static final Comparator<Waiting> BY_DUE = Comparator
+            .comparingLong(Waiting::dueAt)
+            .thenComparingLong(Waiting::seq);
+
+    private final int[] servers = new int[STAGES.length];
+
+    public ProductionSimulator(Map<ProductionStage, Integer> servers) {
+        for (ProductionStage stage : STAGES) {
+            Integer count = servers.get(stage);
+            if (count == null || count < 1) {
+                throw new IllegalArgumentException("Stage " + stage + " needs at least one server");
+            }
+            this.servers[stage.ordinal()] = count;
+        }
+    }
+
+    public Result run(List<Job> jobs) {
+        StageState[] stages = new StageState[STAGES.length];
+        for (ProductionStage stage : STAGES) {
+            stages[stage.ordinal()] = new StageState(servers[stage.ordinal()]);
+        }
+        PriorityQueue<Event> events = new PriorityQueue<>(Math.max(1, jobs.size()), BY_TIME);
+        long[] completions = new long[jobs.size()];
+        long seq = 0;
+        for (int i = 0; i < jobs.size(); i++) {
+            if (!jobs.get(i).steps().isEmpty()) {
+                events.add(new Event(0, seq++, i, 0, false));
+            }
+        }
+
+        long now = 0;
+        long processed = 0;
+        Event event;
+        while ((event = events.poll()) != null) {
+            now = event.time();
+            processed++;
+            Job job = jobs.get(event.job());
+            Step step = job.steps().get(event.step());
+            StageState stage = stages[step.stage().ordinal()];
+            if (!event.done()) {
+                Waiting arrival = new Waiting(job.dueAt(), seq++, event.job(), event.step(), now);
+                if (stage.free > 0) {
+                    events.add(stage.start(arrival, step.minutes(), now, seq++));
+                } else {
+                    stage.enqueue(arrival, now);
+                }
+                continue;
+            }
+            stage.completed++;
+            if (event.step() + 1 < job.steps().size()) {
+                events.add(new Event(now, seq++, event.job(), event.step() + 1, false));
+            } else {
+                completions[event.job()] = now;
+            }
+            stage.free++;
+            if (!stage.queue.isEmpty()) {
+                Waiting next = stage.dequeue(now);
+                long minutes = jobs.get(next.job()).steps().get(next.step()).minutes();
+                events.add(stage.start(next, minutes, now, seq++));
+            }
+        }
+
+        List<StageResult> results = new ArrayList<>(STAGES.length);
+        for (ProductionStage stage : STAGES) {
+            StageState state = stages[stage.ordinal()];
+            state.recordQueueLength(now);
+            results.add(new StageResult(stage, state.servers, state.completed, state.busyMinutes, state.queueArea,
+                    state.maxQueue, state.totalWait, state.maxWait));
+        }
+        return new Result(completions, now, processed, results);
+    }
+
+    /**
+     * One order's remaining work. {@code dueAt} is in minutes from the start of the run and may be
+     * negative for jobs already late.
+     */
+    public record Job(long dueAt, List<Step> steps) {
+    }
+
+    public record Step(ProductionStage stage, long minutes) {
+    }
+
+    /**
+     * {@code completions[i]} is the minute job {@code i} leaves its last stage, or zero if it had none.
+     */
+    public record Result(long[] completions, long makespan, long events, List<StageResult> stages) {
+    }
+
+    public record StageResult(ProductionStage stage, int servers, long completed, long busyMinutes,
+                              long queueArea, int maxQueue, long totalWait, long maxWait) {
+
+        public double throughputPerHour(long makespan) {
+            return makespan == 0 ? 0 : completed * 60.0 / makespan;
+        }
+
+        public double utilization(long makespan) {
+            return makespan == 0 ? 0 : (double) busyMinutes / ((long) servers * makespan);
+        }
+
+        /**
+         * Jobs waiting for a free server, averaged over the run.
+         */
+        public double averageQueueLength(long makespan) {
+            return makespan == 0 ? 0 : (double) queueArea / makespan;
+        }
+
+        public double averageWait() {
+            return completed == 0 ? 0 : (double) totalWait / completed;
+        }
+    }
+
+    private record Event(long time, long seq, int job, int step, boolean done) {
+    }
+
+    private record Waiting(long dueAt, long seq, int job, int step, long arrivedAt) {
+    }
+
+    private static final class StageState {
+
+        private final int servers;
+        private final PriorityQueue<Waiting> queue = new PriorityQueue<>(BY_DUE);
+        private int free;
+        private long completed;
+        private long busyMinutes;
+        private long totalWait;
+        private long maxWait;
+        private int maxQueue;
+        // Integral of queue length over time, advanced whenever the length changes.
+        private long queueArea;
+        private long queueSince;
+
+        private StageState(int servers) {
+            this.servers = servers;
+            this.free = servers;
+        }
+
+        Event start(Waiting job, long minutes, long now, long seq) {
+            free--;
+            long wait = now - job.arrivedAt();
+            totalWait += wait;
+            maxWait = Math.max(maxWait, wait);
+            busyMinutes += minutes;
+            return new Event(now + minutes, seq, job.job(), job.step(), true);
+        }
+
+        void enqueue(Waiting job, long now) {
+            recordQueueLength(now);
+            queue.add(job);
+            maxQueue = Math.max(maxQueue, queue.size());
+        }
+
+        Waiting dequeue(long now) {
+            recordQueueLength(now);
+            return queue.poll();
+        }
+
+        void recordQueueLength(long now) {
+            queueArea += (long) queue.size() * (now - queueSince);
+            queueSince = now;
+        }
+    }
+}
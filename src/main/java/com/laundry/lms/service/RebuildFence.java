@@ -0,0 +1,86 @@
+package com.laundry.lms.service;
+
+import com.laundry.lms.model.RebuildLock;
+import com.laundry.lms.repository.RebuildLockRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * Keeps rebuilds of derived tables from interleaving with the deltas that maintain them, across
+ * instances. A write that changes a source table and applies its delta in one transaction calls
+ * {@link #shared} first; a rebuild that reads the sources and replaces the derived rows in one
+ * transaction calls {@link #exclusive} first. The rebuild waits for writes already in flight, and
+ * writes wait while a rebuild runs.
+ * <p>
+ * On MySQL the shared lock is {@code FOR SHARE}, so writes do not block each other. H2 has no shared
+ * row lock and takes {@code PESSIMISTIC_READ} as {@code FOR UPDATE}, so there every write behind the
+ * same fence queues behind the one before it until that commits. Fenced transactions therefore hold
+ * only the source change and its delta: anything slow (cache updates, notifications, in-memory
+ * indexes) runs after commit.
+ */
+@Service
+public class RebuildFence {
+
+    /**
+     * Order balances and revenue rollups, maintained from payments.
+     */
+    public static final String PAYMENTS = "payments";
+
+    /**
+     * The search index, maintained from messages and orders.
+     */
+    public static final String SEARCH = "search";
+
+    /**
+     * Order counts in {@code order_stats_daily}, maintained from orders.
+     */
+    public static final String ORDER_STATS = "order-stats";
+
+    private static final List<String> NAMES = List.of(PAYMENTS, SEARCH, ORDER_STATS);
+
+    private final RebuildLockRepository lockRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    public RebuildFence(RebuildLockRepository lockRepository, TransactionTemplate transactionTemplate) {
+        this.lockRepository = lockRepository;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    @PostConstruct
+    public void createLocks() {
+        for (String name : NAMES) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    if (!lockRepository.existsById(name)) {
+                        lockRepository.saveAndFlush(new RebuildLock(name));
+                    }
+                });
+            } catch (DataIntegrityViolationException ex) {
+                // Another instance created it first.
+            }
+        }
+    }
+
+    /**
+     * Locks {@code name} for a write until the caller's transaction ends. Only shared on databases
+     * with shared row locks; see the class comment.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void shared(String name) {
+        lockRepository.lockShared(name).orElseThrow(() -> new IllegalStateException("No rebuild lock " + name));
+    }
+
+    /**
+     * Locks {@code name} for a rebuild until the caller's transaction ends.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void exclusive(String name) {
+        lockRepository.lockExclusive(name).orElseThrow(() -> new IllegalStateException("No rebuild lock " + name));
+    }
+}
@@ -0,0 +1,301 @@
+package com.laundry.lms.service;
+
+import com.laundry.lms.dto.RevenueBucketResponse;
+import com.laundry.lms.dto.RevenueReportResponse;
+import com.laundry.lms.model.Payment;
+import com.laundry.lms.model.PaymentStatus;
+import com.laundry.lms.model.RevenueKey;
+import com.laundry.lms.model.RevenueRollup;
+import com.laundry.lms.repository.PaymentRepository;
+import com.laundry.lms.repository.RevenueRollupRepository;
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Revenue of completed payments by day, service type and payment method, kept in
+ * {@code revenue_daily}. Status changes into or out of COMPLETED adjust one row in place; weekly and
+ * monthly reports are summed from the daily rows. Finished reports are cached by their parameters,
+ * and a write to a day drops every cached report covering it, so late-arriving payments show up
+ * immediately on this instance and within the cache TTL elsewhere. Writes bump a generation first,
+ * and a report built under an older generation is returned but not cached.
+ * <p>
+ * Payment writes apply their delta in their own transaction behind the shared
+ * {@link RebuildFence#PAYMENTS} lock; {@link #rebuild()} holds the exclusive one from before it reads
+ * the payment id range until its rows commit, so every payment is counted by the rebuild or by its
+ * delta, never both. Payment writers waiting on that lock keep their pooled connections, so the
+ * rebuild's chunk queries run on a small pool of their own ({@code lms.reports.backfill.threads}
+ * connections) rather than the application's.
+ */
+@Service
+public class RevenueReportService {
+
+    private static final Logger log = LoggerFactory.getLogger(RevenueReportService.class);
+
+    private final RevenueRollupRepository rollupRepository;
+    private final PaymentRepository paymentRepository;
+    private final RebuildFence rebuildFence;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManager entityManager;
+    private final SessionFactory sessionFactory;
+    private final HikariDataSource backfillConnections;
+    private final int chunkSize;
+    private final int batchSize;
+    private final ExecutorService backfillPool;
+    private final TtlCache<ReportKey, RevenueReportResponse> reports;
+    private final AtomicLong generation = new AtomicLong();
+
+    public RevenueReportService(RevenueRollupRepository rollupRepository,
+                                PaymentRepository paymentRepository,
+                                RebuildFence rebuildFence,
+                                TransactionTemplate transactionTemplate,
+                                EntityManager entityManager,
+                                EntityManagerFactory entityManagerFactory,
+                                DataSourceProperties dataSourceProperties,
+                                @Value("${lms.reports.backfill.chunk-size:5000}") int chunkSize,
+                                @Value("${lms.reports.backfill.threads:4}") int threads,
+                                @Value("${lms.reports.cache.size:500}") int cacheSize,
+                                @Value("${lms.reports.cache.ttl:1m}") Duration cacheTtl,
+                                @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}") int batchSize) {
+        this.rollupRepository = rollupRepository;
+        this.paymentRepository = paymentRepository;
+        this.rebuildFence = rebuildFence;
+        this.transactionTemplate = transactionTemplate;
+        this.entityManager = entityManager;
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        this.backfillConnections = dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        this.backfillConnections.setPoolName("revenue-backfill");
+        this.backfillConnections.setMaximumPoolSize(threads);
+        this.backfillConnections.setMinimumIdle(0);
+        this.chunkSize = chunkSize;
+        this.batchSize = batchSize;
+        this.reports = new TtlCache<>(cacheSize, cacheTtl);
+        AtomicInteger counter = new AtomicInteger();
+        this.backfillPool = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "revenue-backfill-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        if (rollupRepository.count() == 0 && paymentRepository.count() > 0) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Books or reverses a payment's revenue when it moves into or out of COMPLETED. Pass
+     * {@code null} for {@code from} when the payment is new and for {@code to} when it was deleted.
+     * Joins the caller's transaction, so the row changes with the payment; cached reports covering
+     * the day are dropped once that commits.
+     */
+    public void recordPayment(Payment payment, PaymentStatus from, PaymentStatus to) {
+        int sign = (to == PaymentStatus.COMPLETED ? 1 : 0) - (from == PaymentStatus.COMPLETED ? 1 : 0);
+        if (sign == 0 || payment.getAmount() == null) {
+            return;
+        }
+        RevenueKey key = RevenueKey.of(payment);
+        BigDecimal amount = sign > 0 ? payment.getAmount() : payment.getAmount().negate();
+        transactionTemplate.executeWithoutResult(status -> rollupRepository.upsert(key, amount, sign));
+        afterCommit(() -> invalidate(key.getDay()));
+    }
+
+    /**
+     * Recomputes every rollup row from the payments table. Payment ids are split into ranges that
+     * are aggregated concurrently on the backfill connections, merged, and written in one transaction
+     * that holds the exclusive {@link RebuildFence#PAYMENTS} lock throughout, so the id range read at
+     * the start covers every committed payment and no payment commits until the new rows do.
+     *
+     * @return the number of rollup rows written
+     */
+    public int rebuild() {
+        Integer rows = transactionTemplate.execute(status -> {
+            rebuildFence.exclusive(RebuildFence.PAYMENTS);
+            long started = System.nanoTime();
+            Long minId = paymentRepository.findMinId();
+            Long maxId = paymentRepository.findMaxId();
+            List<CompletableFuture<List<Object[]>>> chunks = new ArrayList<>();
+            if (minId != null) {
+                for (long fromId = minId; fromId <= maxId; fromId += chunkSize) {
+                    long start = fromId;
+                    long end = Math.min(maxId, fromId + chunkSize - 1);
+                    chunks.add(CompletableFuture.supplyAsync(() -> aggregateChunk(start, end), backfillPool));
+                }
+            }
+
+            Map<RevenueKey, RevenueRollup> merged = new HashMap<>();
+            for (CompletableFuture<List<Object[]>> chunk : chunks) {
+                for (Object[] row : chunk.join()) {
+                    RevenueKey key = new RevenueKey((LocalDate) row[0], (String) row[1], (String) row[2]);
+                    BigDecimal amount = (BigDecimal) row[3];
+                    long count = ((Number) row[4]).longValue();
+                    merged.merge(key, new RevenueRollup(key, amount, count), (a, b) ->
+                            new RevenueRollup(key, a.getAmount().add(b.getAmount()), a.getPaymentCount() + b.getPaymentCount()));
+                }
+            }
+            writeAll(merged.values());
+            log.info("Rebuilt {} revenue rollup rows from {} payment chunks in {} ms", merged.size(), chunks.size(),
+                    Duration.ofNanos(System.nanoTime() - started).toMillis());
+            return merged.size();
+        });
+        return rows == null ? 0 : rows;
+    }
+
+    /**
+     * Replaces every rollup row with {@code rows}, for rebuilds from another source such as the
+     * payment journal. Joins the caller's transaction, which must hold the exclusive
+     * {@link RebuildFence#PAYMENTS} lock; cached reports are dropped once it commits.
+     */
+    public void replaceAll(Collection<RevenueRollup> rows) {
+        writeAll(rows);
+    }
+
+    public RevenueReportResponse report(Granularity granularity, LocalDate from, LocalDate to) {
+        ReportKey key = new ReportKey(granularity, from, to);
+        RevenueReportResponse cached = reports.get(key);
+        if (cached != null) {
+            return cached;
+        }
+        long seen = generation.get();
+        RevenueReportResponse report = buildReport(granularity, from, to);
+        if (generation.get() == seen) {
+            reports.put(key, report);
+        }
+        return report;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        backfillPool.shutdown();
+        backfillConnections.close();
+    }
+
+    /**
+     * Runs one chunk of the rebuild on a reserved connection. The payments it reads were committed
+     * before the rebuild took the fence, so the chunk needs no transaction of its own.
+     */
+    private List<Object[]> aggregateChunk(long fromId, long toId) {
+        try (Connection connection = backfillConnections.getConnection();
+             Session session = sessionFactory.withOptions().connection(connection).openSession()) {
+            return session.createQuery(RevenueRollupRepository.AGGREGATE_FROM_PAYMENTS, Object[].class)
+                    .setParameter("fromId", fromId)
+                    .setParameter("toId", toId)
+                    .getResultList();
+        } catch (SQLException ex) {
+            throw new IllegalStateException("No backfill connection for payments " + fromId + "-" + toId, ex);
+        }
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private void invalidate(LocalDate day) {
+        generation.incrementAndGet();
+        reports.removeIf(report -> report.covers(day));
+    }
+
+    // Rows are known to be new, so persist skips the per-row SELECT that save() would issue for an assigned id.
+    private void writeAll(Collection<RevenueRollup> rows) {
+        transactionTemplate.executeWithoutResult(status -> {
+            rollupRepository.deleteAllInBatch();
+            int written = 0;
+            for (RevenueRollup row : rows) {
+                entityManager.persist(row);
+                if (++written % batchSize == 0) {
+                    entityManager.flush();
+                    entityManager.clear();
+                }
+            }
+        });
+        afterCommit(() -> {
+            generation.incrementAndGet();
+            reports.clear();
+        });
+    }
+
+    private RevenueReportResponse buildReport(Granularity granularity, LocalDate from, LocalDate to) {
+        Map<RevenueKey, RevenueBucketResponse> buckets = new HashMap<>();
+        BigDecimal total = BigDecimal.ZERO;
+        long count = 0;
+        for (RevenueRollup row : rollupRepository.findByDayBetween(from, to)) {
+            RevenueKey day = row.getId();
+            RevenueKey period = new RevenueKey(granularity.periodStart(day.getDay()), day.getServiceType(), day.getMethod());
+            RevenueBucketResponse bucket = buckets.computeIfAbsent(period, k -> new RevenueBucketResponse(
+                    k.getDay(), k.getServiceType(), k.getMethod(), BigDecimal.ZERO, 0));
+            bucket.setAmount(bucket.getAmount().add(row.getAmount()));
+            bucket.setPaymentCount(bucket.getPaymentCount() + row.getPaymentCount());
+            total = total.add(row.getAmount());
+            count += row.getPaymentCount();
+        }
+        List<RevenueBucketResponse> ordered = buckets.values().stream()
+                .filter(bucket -> bucket.getPaymentCount() != 0)
+                .sorted(Comparator.comparing(RevenueBucketResponse::getPeriodStart)
+                        .thenComparing(RevenueBucketResponse::getServiceType)
+                        .thenComparing(RevenueBucketResponse::getMethod))
+                .toList();
+        return new RevenueReportResponse(granularity.name(), from, to, total, count, ordered);
+    }
+
+    public enum Granularity {
+        DAY, WEEK, MONTH;
+
+        LocalDate periodStart(LocalDate day) {
+            return switch (this) {
+                case DAY -> day;
+                case WEEK -> day.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+                case MONTH -> day.withDayOfMonth(1);
+            };
+        }
+    }
+
+    private record ReportKey(Granularity granularity, LocalDate from, LocalDate to) {
+
+        boolean covers(LocalDate day) {
+            return !day.isBefore(from) && !day.isAfter(to);
+        }
+    }
+}
@@ -0,0 +1,408 @@
+package com.laundry.lms.service;
+
+import com.laundry.lms.dto.MessageResponse;
+import com.laundry.lms.dto.OrderResponse;
+import com.laundry.lms.dto.SearchHitResponse;
+import com.laundry.lms.dto.SearchPageResponse;
+import com.laundry.lms.model.LaundryOrder;
+import com.laundry.lms.model.Message;
+import com.laundry.lms.model.SearchDocumentType;
+import com.laundry.lms.repository.ArchivedMessageRepository;
+import com.laundry.lms.repository.LaundryOrderRepository;
+import com.laundry.lms.repository.LaundryOrderSpecifications;
+import com.laundry.lms.repository.MessageRepository;
+import com.laundry.lms.repository.SearchPostingRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Full-text search over message bodies and order notes, backed by an inverted index in
+ * {@code search_postings} that is updated on every write. A query reads only the postings of its
+ * terms: documents must contain every term and are ranked by BM25-style weights (rarer terms count
+ * more, repeated terms saturate). Common words are dropped at tokenization so no term's posting list
+ * spans a large share of the corpus.
+ * <p>
+ * Indexing a document replaces its postings, so writing it twice is harmless. A write that fails is
+ * logged and queued for {@link #repair()} instead of failing the request that saved the document.
+ * Writes hold the shared {@link RebuildFence#SEARCH} lock and {@link #rebuild()} the exclusive one,
+ * so a rebuild never interleaves with them on any instance.
+ */
+@Service
+public class SearchService {
+
+    private static final Logger log = LoggerFactory.getLogger(SearchService.class);
+
+    static final int MAX_QUERY_TERMS = 8;
+    static final int MAX_TERM_LENGTH = 40;
+    private static final double K1 = 1.2;
+    private static final int SNIPPET_LENGTH = 160;
+
+    private static final String INSERT_POSTING =
+            "insert into search_postings (term, doc_type, doc_id, term_frequency) values (?, ?, ?, ?)";
+
+    private static final Set<String> STOP_WORDS = Set.of(
+            "a", "an", "and", "are", "as", "at", "be", "but", "by", "for", "from", "has", "have", "hi",
+            "hello", "i", "in", "is", "it", "its", "me", "my", "of", "on", "or", "our", "so", "that", "the",
+            "this", "to", "was", "we", "were", "will", "with", "you", "your");
+
+    private final SearchPostingRepository postingRepository;
+    private final MessageRepository messageRepository;
+    private final ArchivedMessageRepository archivedMessageRepository;
+    private final LaundryOrderRepository orderRepository;
+    private final RebuildFence rebuildFence;
+    private final EntityManager entityManager;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+
+    // Documents whose index write failed, with the text to index (null to remove the document).
+    private final BlockingQueue<PendingDocument> repairs;
+
+    // Document count for the idf term. Approximate is fine, so it is refreshed rather than kept exact.
+    private final AtomicLong corpusSize = new AtomicLong();
+
+    public SearchService(SearchPostingRepository postingRepository,
+                         MessageRepository messageRepository,
+                         ArchivedMessageRepository archivedMessageRepository,
+                         LaundryOrderRepository orderRepository,
+                         RebuildFence rebuildFence,
+                         EntityManager entityManager,
+                         JdbcTemplate jdbcTemplate,
+                         TransactionTemplate transactionTemplate,
+                         @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}") int batchSize,
+                         @Value("${lms.search.repair-capacity:10000}") int repairCapacity) {
+        this.postingRepository = postingRepository;
+        this.messageRepository = messageRepository;
+        this.archivedMessageRepository = archivedMessageRepository;
+        this.orderRepository = orderRepository;
+        this.rebuildFence = rebuildFence;
+        this.entityManager = entityManager;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+        this.repairs = new LinkedBlockingQueue<>(repairCapacity);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        refreshCorpusSize();
+        if (postingRepository.count() == 0 && corpusSize.get() > 0) {
+            rebuild();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${lms.search.corpus-refresh-interval:600000}",
+            initialDelayString = "${lms.search.corpus-refresh-interval:600000}")
+    public void refreshCorpusSize() {
+        corpusSize.set(messageRepository.count() + archivedMessageRepository.count() + orderRepository.count());
+    }
+
+    public void indexMessage(Message message) {
+        indexMessages(List.of(message));
+    }
+
+    public void indexMessages(Collection<Message> messages) {
+        Map<Long, String> documents = new LinkedHashMap<>();
+        messages.forEach(message -> documents.put(message.getId(), message.getBody()));
+        addDocuments(SearchDocumentType.MESSAGE, documents);
+    }
+
+    public void indexOrder(LaundryOrder order) {
+        indexOrders(List.of(order));
+    }
+
+    public void indexOrders(Collection<LaundryOrder> orders) {
+        Map<Long, String> documents = new LinkedHashMap<>();
+        orders.stream()
+                .filter(order -> order.getNotes() != null)
+                .forEach(order -> documents.put(order.getId(), order.getNotes()));
+        addDocuments(SearchDocumentType.ORDER, documents);
+    }
+
+    public void removeOrder(Long orderId) {
+        Map<Long, String> removed = new HashMap<>();
+        removed.put(orderId, null);
+        if (write(SearchDocumentType.ORDER, removed)) {
+            corpusSize.decrementAndGet();
+        }
+    }
+
+    /**
+     * Drops the index and re-tokenizes every message and order, in id order and fixed-size chunks,
+     * in one transaction behind the exclusive {@link RebuildFence#SEARCH} lock.
+     */
+    public void rebuild() {
+        long[] counts = transactionTemplate.execute(status -> {
+            rebuildFence.exclusive(RebuildFence.SEARCH);
+            postingRepository.deleteAllInBatch();
+            // Archived messages keep their ids, so they stay searchable under the same document keys.
+            long messages = reindex(SearchDocumentType.MESSAGE, archivedMessageRepository::findBodiesAfter)
+                    + reindex(SearchDocumentType.MESSAGE, messageRepository::findBodiesAfter);
+            long orders = reindex(SearchDocumentType.ORDER, orderRepository::findNotesAfter);
+            return new long[] {messages, orders};
+        });
+        refreshCorpusSize();
+        log.info("Rebuilt search index from {} messages and {} orders", counts[0], counts[1]);
+    }
+
+    /**
+     * Retries the index writes that failed, oldest first; ones that fail again go back on the queue.
+     *
+     * @return the number of documents written
+     */
+    @Scheduled(fixedDelayString = "${lms.search.repair-interval:60000}",
+            initialDelayString = "${lms.search.repair-interval:60000}")
+    public int repair() {
+        List<PendingDocument> pending = new ArrayList<>();
+        repairs.drainTo(pending);
+        Map<SearchDocumentType, Map<Long, String>> byType = new EnumMap<>(SearchDocumentType.class);
+        for (PendingDocument document : pending) {
+            byType.computeIfAbsent(document.type(), type -> new LinkedHashMap<>()).put(document.id(), document.text());
+        }
+        int repaired = 0;
+        for (Map.Entry<SearchDocumentType, Map<Long, String>> documents : byType.entrySet()) {
+            if (write(documents.getKey(), documents.getValue())) {
+                repaired += documents.getValue().size();
+            }
+        }
+        if (repaired > 0) {
+            log.info("Repaired the search index entries of {} documents", repaired);
+        }
+        return repaired;
+    }
+
+    public int pendingRepairs() {
+        return repairs.size();
+    }
+
+    public SearchPageResponse search(String query, SearchDocumentType type, int page, int size) {
+        List<String> terms = queryTerms(query);
+        if (terms.isEmpty()) {
+            return new SearchPageResponse(query, page, size, false, List.of());
+        }
+
+        Map<String, Long> documentFrequency = new HashMap<>();
+        for (Object[] row : postingRepository.countDocumentsByTerm(terms)) {
+            documentFrequency.put((String) row[0], ((Number) row[1]).longValue());
+        }
+        // Every term must match, so a term nobody used means no hits.
+        if (documentFrequency.size() < terms.size()) {
+            return new SearchPageResponse(query, page, size, false, List.of());
+        }
+
+        List<Object[]> ranked = rank(terms, documentFrequency, type, page * size, size + 1);
+        boolean hasMore = ranked.size() > size;
+        if (hasMore) {
+            ranked = ranked.subList(0, size);
+        }
+        return new SearchPageResponse(query, page, size, hasMore, hydrate(ranked, terms));
+    }
+
+    public static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) {
+            return tokens;
+        }
+        for (String token : text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+            if (token.length() >= 2 && !STOP_WORDS.contains(token)) {
+                tokens.add(token.length() > MAX_TERM_LENGTH ? token.substring(0, MAX_TERM_LENGTH) : token);
+            }
+        }
+        return tokens;
+    }
+
+    private List<String> queryTerms(String query) {
+        return new ArrayList<>(new LinkedHashSet<>(tokenize(query))).stream()
+                .limit(MAX_QUERY_TERMS)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Groups the postings of the query terms by document, keeps documents containing all of them and
+     * orders by score. The per-term idf weights are computed here and inlined as numeric literals.
+     */
+    private List<Object[]> rank(List<String> terms, Map<String, Long> documentFrequency,
+                                SearchDocumentType type, int offset, int limit) {
+        long documents = Math.max(corpusSize.get(), 1);
+        StringBuilder weight = new StringBuilder("case p.id.term");
+        for (int i = 0; i < terms.size(); i++) {
+            long df = documentFrequency.get(terms.get(i));
+            double idf = Math.log(1 + (documents - df + 0.5) / (df + 0.5));
+            weight.append(" when :t").append(i).append(" then ").append(String.format(Locale.ROOT, "%.6f", idf));
+        }
+        weight.append(" else 0.0 end");
+
+        String jpql = "select p.id.docType, p.id.docId, " +
+                "sum(" + weight + " * p.termFrequency * " + (K1 + 1) + " / (p.termFrequency + " + K1 + ")) as score " +
+                "from SearchPosting p where p.id.term in :terms" +
+                (type != null ? " and p.id.docType = :type" : "") +
+                " group by p.id.docType, p.id.docId having count(p) = :termCount " +
+                "order by score desc, p.id.docId desc";
+        TypedQuery<Object[]> query = entityManager.createQuery(jpql, Object[].class)
+                .setParameter("terms", terms)
+                .setParameter("termCount", (long) terms.size())
+                .setFirstResult(offset)
+                .setMaxResults(limit);
+        for (int i = 0; i < terms.size(); i++) {
+            query.setParameter("t" + i, terms.get(i));
+        }
+        if (type != null) {
+            query.setParameter("type", type);
+        }
+        return query.getResultList();
+    }
+
+    private List<SearchHitResponse> hydrate(List<Object[]> ranked, List<String> terms) {
+        List<Long> messageIds = new ArrayList<>();
+        List<Long> orderIds = new ArrayList<>();
+        for (Object[] row : ranked) {
+            (row[0] == SearchDocumentType.MESSAGE ? messageIds : orderIds).add((Long) row[1]);
+        }
+        Map<Long, MessageResponse> messages = messageIds.isEmpty() ? Map.of()
+                : messageRepository.findResponsesByIdIn(messageIds).stream()
+                .collect(Collectors.toMap(MessageResponse::getId, Function.identity(), (a, b) -> a, HashMap::new));
+        List<Long> archivedIds = messageIds.stream().filter(id -> !messages.containsKey(id)).toList();
+        if (!archivedIds.isEmpty()) {
+            archivedMessageRepository.findResponsesByIdIn(archivedIds)
+                    .forEach(message -> messages.put(message.getId(), message));
+        }
+        Map<Long, OrderResponse> orders = orderIds.isEmpty() ? Map.of()
+                : orderRepository.findResponses(LaundryOrderSpecifications.hasIdIn(orderIds), orderIds.size()).stream()
+                .collect(Collectors.toMap(OrderResponse::getId, Function.identity()));
+
+        List<SearchHitResponse> hits = new ArrayList<>(ranked.size());
+        for (Object[] row : ranked) {
+            SearchDocumentType docType = (SearchDocumentType) row[0];
+            Long id = (Long) row[1];
+            double score = ((Number) row[2]).doubleValue();
+            if (docType == SearchDocumentType.MESSAGE && messages.containsKey(id)) {
+                MessageResponse message = messages.get(id);
+                hits.add(SearchHitResponse.ofMessage(message, score, snippet(message.getBody(), terms)));
+            } else if (docType == SearchDocumentType.ORDER && orders.containsKey(id)) {
+                OrderResponse order = orders.get(id);
+                hits.add(SearchHitResponse.ofOrder(order, score, snippet(order.getNotes(), terms)));
+            }
+        }
+        return hits;
+    }
+
+    // Text around the first matching term, so long bodies do not bloat the result page.
+    private String snippet(String text, List<String> terms) {
+        if (text == null || text.length() <= SNIPPET_LENGTH) {
+            return text;
+        }
+        String lower = text.toLowerCase(Locale.ROOT);
+        int at = terms.stream().mapToInt(lower::indexOf).filter(i -> i >= 0).min().orElse(0);
+        int start = Math.max(0, Math.min(at - SNIPPET_LENGTH / 4, text.length() - SNIPPET_LENGTH));
+        String excerpt = text.substring(start, start + SNIPPET_LENGTH);
+        return (start > 0 ? "…" : "") + excerpt + (start + SNIPPET_LENGTH < text.length() ? "…" : "");
+    }
+
+    private void addDocuments(SearchDocumentType type, Map<Long, String> documents) {
+        if (documents.isEmpty()) {
+            return;
+        }
+        if (write(type, documents)) {
+            corpusSize.addAndGet(documents.size());
+        }
+    }
+
+    /**
+     * Replaces the postings of the documents (a null text just removes them). On failure the
+     * documents are queued for {@link #repair()}.
+     *
+     * @return whether the write committed
+     */
+    private boolean write(SearchDocumentType type, Map<Long, String> documents) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                rebuildFence.shared(RebuildFence.SEARCH);
+                List<Long> ids = List.copyOf(documents.keySet());
+                for (int from = 0; from < ids.size(); from += batchSize) {
+                    postingRepository.deleteDocuments(type, ids.subList(from, Math.min(from + batchSize, ids.size())));
+                }
+                insertPostings(type, documents);
+            });
+            return true;
+        } catch (RuntimeException ex) {
+            log.warn("Indexing {} {} documents failed; queued for repair", documents.size(), type, ex);
+            documents.forEach((id, text) -> {
+                if (!repairs.offer(new PendingDocument(type, id, text))) {
+                    log.error("Search repair queue is full; dropped {} {}, rebuild the index to restore it", type, id);
+                }
+            });
+            return false;
+        }
+    }
+
+    private long reindex(SearchDocumentType type, SourcePage source) {
+        long indexed = 0;
+        long afterId = 0;
+        while (true) {
+            List<Object[]> rows = source.fetch(afterId, Limit.of(500));
+            if (rows.isEmpty()) {
+                return indexed;
+            }
+            Map<Long, String> documents = new LinkedHashMap<>();
+            for (Object[] row : rows) {
+                documents.put((Long) row[0], (String) row[1]);
+            }
+            insertPostings(type, documents);
+            indexed += rows.size();
+            afterId = (Long) rows.get(rows.size() - 1)[0];
+        }
+    }
+
+    // Batched JDBC inserts: the shared persistence context of the request is never flushed or cleared.
+    private void insertPostings(SearchDocumentType type, Map<Long, String> documents) {
+        List<Object[]> rows = new ArrayList<>();
+        for (Map.Entry<Long, String> document : documents.entrySet()) {
+            Map<String, Integer> frequencies = new HashMap<>();
+            tokenize(document.getValue()).forEach(term -> frequencies.merge(term, 1, Integer::sum));
+            for (Map.Entry<String, Integer> term : frequencies.entrySet()) {
+                rows.add(new Object[] {term.getKey(), type.name(), document.getKey(), term.getValue()});
+                if (rows.size() == batchSize) {
+                    jdbcTemplate.batchUpdate(INSERT_POSTING, rows);
+                    rows.clear();
+                }
+            }
+        }
+        if (!rows.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_POSTING, rows);
+        }
+    }
+
+    @FunctionalInterface
+    private interface SourcePage {
+        List<Object[]> fetch(Long afterId, Limit limit);
+    }
+
+    private record PendingDocument(SearchDocumentType type, Long id, String text) {
+    }
+}
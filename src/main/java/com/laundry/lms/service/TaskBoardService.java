@@ -0,0 +1,112 @@
+package com.laundry.lms.service;
+
+import com.laundry.lms.dto.TaskBoardResponse;
+import com.laundry.lms.dto.TaskCursor;
+import com.laundry.lms.dto.TaskPageResponse;
+import com.laundry.lms.dto.TaskResponse;
+import com.laundry.lms.model.Task;
+import com.laundry.lms.model.TaskStatus;
+import com.laundry.lms.repository.TaskRepository;
+import com.laundry.lms.repository.TaskSpecifications;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Serves the task board: a count per status plus one keyset page per status column. Counts come from
+ * one grouped query per filter and are cached until the next task write, so a board whose completed
+ * column keeps growing still costs one indexed page read per column on each load.
+ * <p>
+ * Writes bump a generation before clearing the cache, and counts computed under an older generation
+ * are returned but not stored, so a count racing a write can never outlive it.
+ */
+@Service
+public class TaskBoardService {
+
+    private final TaskRepository taskRepository;
+    private final TtlCache<BoardFilter, Map<TaskStatus, Long>> counts;
+    private final AtomicLong generation = new AtomicLong();
+
+    public TaskBoardService(TaskRepository taskRepository,
+                            @Value("${lms.tasks.board.cache-size:500}") int cacheSize,
+                            @Value("${lms.tasks.board.cache-ttl:5m}") Duration cacheTtl) {
+        this.taskRepository = taskRepository;
+        this.counts = new TtlCache<>(cacheSize, cacheTtl);
+    }
+
+    public TaskBoardResponse board(BoardFilter filter, int pageSize) {
+        Map<TaskStatus, TaskPageResponse> columns = new EnumMap<>(TaskStatus.class);
+        for (TaskStatus status : TaskStatus.values()) {
+            columns.put(status, column(status, filter, null, pageSize));
+        }
+        return new TaskBoardResponse(counts(filter), columns);
+    }
+
+    public TaskPageResponse column(TaskStatus status, BoardFilter filter, TaskCursor after, int pageSize) {
+        Specification<Task> spec = filter.toSpecification().and(TaskSpecifications.hasStatus(status));
+        if (after != null) {
+            spec = spec.and(TaskSpecifications.after(after.dueDate(), after.id()));
+        }
+        // One extra row tells whether another page exists without a count query.
+        List<TaskResponse> rows = taskRepository.findResponses(spec, pageSize + 1);
+        boolean hasMore = rows.size() > pageSize;
+        List<TaskResponse> items = hasMore ? rows.subList(0, pageSize) : rows;
+        String nextCursor = null;
+        if (hasMore) {
+            TaskResponse last = items.get(items.size() - 1);
+            nextCursor = new TaskCursor(last.getDueDate(), last.getId()).encode();
+        }
+        return new TaskPageResponse(items, nextCursor);
+    }
+
+    /**
+     * Tasks per status for the filter, with every status present.
+     */
+    public Map<TaskStatus, Long> counts(BoardFilter filter) {
+        Map<TaskStatus, Long> cached = counts.get(filter);
+        if (cached != null) {
+            return cached;
+        }
+        long seen = generation.get();
+        Map<TaskStatus, Long> computed = new EnumMap<>(TaskStatus.class);
+        for (TaskStatus status : TaskStatus.values()) {
+            computed.put(status, 0L);
+        }
+        computed.putAll(taskRepository.countByStatus(filter.toSpecification()));
+        Map<TaskStatus, Long> result = Collections.unmodifiableMap(computed);
+        if (generation.get() == seen) {
+            counts.put(filter, result);
+        }
+        return result;
+    }
+
+    /**
+     * Drops every cached count. Called after any task insert, update or delete.
+     */
+    public void invalidate() {
+        generation.incrementAndGet();
+        counts.clear();
+    }
+
+    /**
+     * Board filters; also the count cache key.
+     */
+    public record BoardFilter(String assignedTo, LocalDate dueFrom, LocalDate dueTo) {
+
+        public BoardFilter {
+            assignedTo = assignedTo == null || assignedTo.isBlank() ? null : assignedTo.trim();
+        }
+
+        Specification<Task> toSpecification() {
+            return TaskSpecifications.filter(assignedTo, dueFrom, dueTo);
+        }
+    }
+}
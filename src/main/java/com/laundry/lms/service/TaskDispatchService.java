@@ -0,0 +1,257 @@
+package com.laundry.lms.service;
+
+import com.laundry.lms.dto.TaskWorkloadResponse;
+import com.laundry.lms.model.Task;
+import com.laundry.lms.model.TaskStatus;
+import com.laundry.lms.repository.TaskRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Assigns open tasks to staff by workload. Each staff member keeps their open tasks in a queue ordered
+ * by due date, and eligible members (the configured roster) sit in a tree ordered by open effort, then
+ * by how soon their next task is due, so picking the least-loaded member and re-ranking them after a
+ * change are both O(log n). A task's effort is its price, floored at {@code min-effort} so free jobs
+ * still count.
+ * <p>
+ * The state is rebuilt from the open rows of {@code tasks} at startup and at every rebalance, and kept
+ * current in between by the task write paths. Names outside the roster are tracked but never picked.
+ * The roster ({@code lms.tasks.staff}) has no default; without one, new tasks are left unassigned.
+ */
+@Service
+public class TaskDispatchService {
+
+    private static final Logger log = LoggerFactory.getLogger(TaskDispatchService.class);
+
+    public static final Set<TaskStatus> OPEN = EnumSet.of(TaskStatus.PENDING, TaskStatus.IN_PROGRESS);
+
+    private static final Comparator<OpenTask> BY_DUE_DATE = Comparator
+            .comparing(OpenTask::dueDate, Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparing(OpenTask::id);
+
+    // Least effort first; on a tie, whoever's next deadline is furthest away (or who has none).
+    private static final Comparator<Staff> BY_LOAD = Comparator
+            .comparing((Staff staff) -> staff.effort)
+            .thenComparing(Staff::nextDue, Comparator.nullsFirst(Comparator.<LocalDate>reverseOrder()))
+            .thenComparing(staff -> staff.name);
+
+    private final TaskRepository taskRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Set<String> roster;
+    private final BigDecimal minEffort;
+
+    private final Map<String, Staff> staffByName = new HashMap<>();
+    private final Map<Long, OpenTask> openTasks = new HashMap<>();
+    private final TreeSet<Staff> ranking = new TreeSet<>(BY_LOAD);
+
+    public TaskDispatchService(TaskRepository taskRepository,
+                               TransactionTemplate transactionTemplate,
+                               @Value("${lms.tasks.staff:}") List<String> roster,
+                               @Value("${lms.tasks.dispatch.min-effort:100}") BigDecimal minEffort) {
+        this.taskRepository = taskRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.roster = new LinkedHashSet<>();
+        roster.stream().map(String::trim).filter(name -> !name.isEmpty()).forEach(this.roster::add);
+        this.minEffort = minEffort;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        staffByName.clear();
+        openTasks.clear();
+        ranking.clear();
+        roster.forEach(this::staff);
+        for (Object[] row : taskRepository.findWorkloadRows(OPEN)) {
+            track(new OpenTask((Long) row[0], normalize((String) row[1]), (LocalDate) row[2],
+                    effort((BigDecimal) row[3]), (TaskStatus) row[4]));
+        }
+        log.info("Task dispatch loaded {} open tasks across {} staff", openTasks.size(), staffByName.size());
+    }
+
+    /**
+     * Saves a new task. An open task without an assignee goes to the least-loaded eligible staff
+     * member; picking and recording the assignment happen under one lock, so concurrent creates
+     * never both land on the member who was least loaded before either of them.
+     */
+    public synchronized Task create(Task task) {
+        task.setAssignedTo(normalize(task.getAssignedTo()));
+        if (task.getAssignedTo() == null && isOpen(task.getStatus()) && !ranking.isEmpty()) {
+            task.setAssignedTo(ranking.first().name);
+        }
+        Task saved = taskRepository.save(task);
+        record(saved);
+        return saved;
+    }
+
+    /**
+     * Brings the in-memory state in line with a task's saved row, e.g. after a status change.
+     */
+    public synchronized void record(Task task) {
+        untrack(task.getId());
+        if (isOpen(task.getStatus())) {
+            track(new OpenTask(task.getId(), normalize(task.getAssignedTo()), task.getDueDate(),
+                    effort(task.getPrice()), task.getStatus()));
+        }
+    }
+
+    public synchronized void recordDeleted(Long taskId) {
+        untrack(taskId);
+    }
+
+    /**
+     * Redistributes every PENDING task; tasks already in progress stay with whoever started them.
+     * Starting from fresh table state, pending tasks are handed out earliest due date first (larger
+     * jobs first on the same date) to the least-loaded eligible member, and only the tasks whose
+     * assignee changes are written, with one UPDATE per receiving member. A task started while this
+     * runs is left where it was.
+     *
+     * @return the number of tasks that moved
+     */
+    public synchronized int rebalance() {
+        rebuild();
+        if (ranking.isEmpty()) {
+            return 0;
+        }
+        List<OpenTask> pending = new ArrayList<>();
+        for (OpenTask task : openTasks.values()) {
+            if (task.status() == TaskStatus.PENDING) {
+                pending.add(task);
+            }
+        }
+        pending.forEach(task -> untrack(task.id()));
+        pending.sort(BY_DUE_DATE.thenComparing(OpenTask::effort, Comparator.reverseOrder()));
+
+        Map<String, List<Long>> moves = new LinkedHashMap<>();
+        for (OpenTask task : pending) {
+            String assignee = ranking.first().name;
+            track(task.withAssignee(assignee));
+            if (!assignee.equals(task.assignee())) {
+                moves.computeIfAbsent(assignee, name -> new ArrayList<>()).add(task.id());
+            }
+        }
+        int moved = transactionTemplate.execute(status -> moves.entrySet().stream()
+                .mapToInt(move -> taskRepository.reassign(move.getValue(), move.getKey(), TaskStatus.PENDING))
+                .sum());
+        if (moved != moves.values().stream().mapToInt(List::size).sum()) {
+            rebuild();
+        }
+        log.info("Task rebalance moved {} of {} pending tasks", moved, pending.size());
+        return moved;
+    }
+
+    /**
+     * Eligible staff in pick order (the first entry gets the next unassigned task), then everyone else
+     * holding open tasks by name.
+     */
+    public synchronized List<TaskWorkloadResponse> workloads() {
+        List<TaskWorkloadResponse> result = new ArrayList<>(staffByName.size());
+        ranking.forEach(staff -> result.add(workload(staff)));
+        staffByName.values().stream()
+                .filter(staff -> !staff.eligible)
+                .sorted(Comparator.comparing(staff -> staff.name))
+                .forEach(staff -> result.add(workload(staff)));
+        return result;
+    }
+
+    private TaskWorkloadResponse workload(Staff staff) {
+        return new TaskWorkloadResponse(staff.name, staff.eligible, staff.queue.size(), staff.effort, staff.nextDue());
+    }
+
+    private void track(OpenTask task) {
+        openTasks.put(task.id(), task);
+        if (task.assignee() != null) {
+            Staff staff = staff(task.assignee());
+            rerank(staff, () -> {
+                staff.queue.add(task);
+                staff.effort = staff.effort.add(task.effort());
+            });
+        }
+    }
+
+    private void untrack(Long taskId) {
+        OpenTask task = openTasks.remove(taskId);
+        if (task == null || task.assignee() == null) {
+            return;
+        }
+        Staff staff = staffByName.get(task.assignee());
+        rerank(staff, () -> {
+            staff.queue.remove(task);
+            staff.effort = staff.effort.subtract(task.effort());
+        });
+    }
+
+    // The tree orders by mutable fields, so a member is taken out before changing and put back after.
+    private void rerank(Staff staff, Runnable change) {
+        if (staff.eligible) {
+            ranking.remove(staff);
+        }
+        change.run();
+        if (staff.eligible) {
+            ranking.add(staff);
+        }
+    }
+
+    private Staff staff(String name) {
+        return staffByName.computeIfAbsent(name, key -> {
+            Staff staff = new Staff(key, roster.contains(key));
+            if (staff.eligible) {
+                ranking.add(staff);
+            }
+            return staff;
+        });
+    }
+
+    private BigDecimal effort(BigDecimal price) {
+        return price == null ? minEffort : price.max(minEffort);
+    }
+
+    private static boolean isOpen(TaskStatus status) {
+        return status == null || OPEN.contains(status);
+    }
+
+    private static String normalize(String name) {
+        return name == null || name.isBlank() ? null : name.trim();
+    }
+
+    private static final class Staff {
+
+        private final String name;
+        private final boolean eligible;
+        private final TreeSet<OpenTask> queue = new TreeSet<>(BY_DUE_DATE);
+        private BigDecimal effort = BigDecimal.ZERO;
+
+        private Staff(String name, boolean eligible) {
+            this.name = name;
+            this.eligible = eligible;
+        }
+
+        LocalDate nextDue() {
+            return queue.isEmpty() ? null : queue.first().dueDate();
+        }
+    }
+
+    private record OpenTask(Long id, String assignee, LocalDate dueDate, BigDecimal effort, TaskStatus status) {
+
+        OpenTask withAssignee(String name) {
+            return new OpenTask(id, name, dueDate, effort, status);
+        }
+    }
+}
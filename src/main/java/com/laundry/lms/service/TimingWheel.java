@@ -0,0 +1,182 @@
+package com.laundry.lms.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Thread-safe hierarchical timing wheel keyed by {@code K}. Four levels of 64 slots each, every slot
+ * spanning 64 times the ticks of one slot in the level below, cover deadlines up to 64^4 ticks ahead;
+ * later ones wait in the last slot and are re-placed when it comes round. Scheduling, rescheduling and
+ * cancelling are O(1): a slot is a doubly linked list and a map finds an entry's node by key. An entry
+ * moves down one level when the wheel reaches the start of its slot, so it is touched at most once per
+ * level before it fires.
+ * <p>
+ * At most {@code capacity} keys are held; {@link #schedule} refuses new keys beyond that.
+ */
+public class TimingWheel<K, V> {
+
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int MASK = SLOTS - 1;
+    private static final int LEVELS = 4;
+    private static final long SPAN = 1L << (SLOT_BITS * LEVELS);
+
+    private final Node<K, V>[][] slots;
+    private final Map<K, Node<K, V>> nodes = new HashMap<>();
+    private final int capacity;
+    // The next tick to expire; every earlier tick has been processed.
+    private long current;
+
+    @SuppressWarnings("unchecked")
+    public TimingWheel(long startTick, int capacity) {
+        this.slots = new Node[LEVELS][SLOTS];
+        for (Node<K, V>[] level : slots) {
+            for (int i = 0; i < SLOTS; i++) {
+                level[i] = new Node<>(null);
+            }
+        }
+        this.capacity = capacity;
+        this.current = startTick;
+    }
+
+    /**
+     * Schedules {@code key} to fire at {@code tick}, replacing its previous schedule. A tick already
+     * passed fires on the next advance.
+     *
+     * @return false if the key is new and the wheel is full
+     */
+    public synchronized boolean schedule(K key, V value, long tick) {
+        Node<K, V> node = nodes.get(key);
+        if (node == null) {
+            if (nodes.size() >= capacity) {
+                return false;
+            }
+            node = new Node<>(key);
+            nodes.put(key, node);
+        } else {
+            node.unlink();
+        }
+        node.value = value;
+        node.tick = tick;
+        place(node);
+        return true;
+    }
+
+    public synchronized boolean cancel(K key) {
+        Node<K, V> node = nodes.remove(key);
+        if (node == null) {
+            return false;
+        }
+        node.unlink();
+        return true;
+    }
+
+    /**
+     * Moves the wheel through {@code tick} inclusive and removes the entries due by then.
+     *
+     * @return their values, earliest tick first
+     */
+    public synchronized List<V> advanceTo(long tick) {
+        List<V> due = new ArrayList<>();
+        while (current <= tick) {
+            if ((current & MASK) == 0) {
+                cascade(1);
+            }
+            Node<K, V> node = detach(slots[0][(int) (current & MASK)]);
+            while (node != null) {
+                Node<K, V> next = node.next;
+                if (node.tick <= current) {
+                    nodes.remove(node.key);
+                    due.add(node.value);
+                } else {
+                    place(node);
+                }
+                node = next;
+            }
+            current++;
+        }
+        return due;
+    }
+
+    public synchronized int size() {
+        return nodes.size();
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    // Empties the slot at the current position of this level into the levels below, after doing the
+    // same for the next level up when this one has just wrapped.
+    private void cascade(int level) {
+        if (level >= LEVELS) {
+            return;
+        }
+        int index = (int) ((current >> (SLOT_BITS * level)) & MASK);
+        if (index == 0) {
+            cascade(level + 1);
+        }
+        Node<K, V> node = detach(slots[level][index]);
+        while (node != null) {
+            Node<K, V> next = node.next;
+            place(node);
+            node = next;
+        }
+    }
+
+    private void place(Node<K, V> node) {
+        long tick = Math.max(node.tick, current);
+        long delta = tick - current;
+        if (delta >= SPAN) {
+            tick = current + SPAN - 1;
+            delta = SPAN - 1;
+        }
+        int level = 0;
+        while (delta >= 1L << (SLOT_BITS * (level + 1))) {
+            level++;
+        }
+        slots[level][(int) ((tick >> (SLOT_BITS * level)) & MASK)].append(node);
+    }
+
+    /**
+     * Unlinks every node of a slot and returns the first; the chain stays walkable through {@code next}.
+     */
+    private static <K, V> Node<K, V> detach(Node<K, V> sentinel) {
+        Node<K, V> first = sentinel.next == sentinel ? null : sentinel.next;
+        if (first != null) {
+            sentinel.prev.next = null;
+            sentinel.next = sentinel;
+            sentinel.prev = sentinel;
+        }
+        return first;
+    }
+
+    private static final class Node<K, V> {
+
+        private final K key;
+        private V value;
+        private long tick;
+        private Node<K, V> prev = this;
+        private Node<K, V> next = this;
+
+        private Node(K key) {
+            this.key = key;
+        }
+
+        void append(Node<K, V> node) {
+            node.prev = prev;
+            node.next = this;
+            prev.next = node;
+            prev = node;
+        }
+
+        void unlink() {
+            prev.next = next;
+            next.prev = prev;
+            prev = this;
+            next = this;
+        }
+    }
+}
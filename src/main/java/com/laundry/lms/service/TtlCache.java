@@ -0,0 +1,69 @@
+package com.laundry.lms.service;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * Small thread-safe LRU map whose entries also expire a fixed time after they were written.
+ */
+public class TtlCache<K, V> {
+
+    private final int maxEntries;
+    private final long ttlMillis;
+    private final Clock clock;
+    private final LinkedHashMap<K, Entry<V>> entries;
+
+    public TtlCache(int maxEntries, Duration ttl) {
+        this(maxEntries, ttl, Clock.systemUTC());
+    }
+
+    public TtlCache(int maxEntries, Duration ttl, Clock clock) {
+        this.maxEntries = maxEntries;
+        this.ttlMillis = ttl.toMillis();
+        this.clock = clock;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                return size() > TtlCache.this.maxEntries;
+            }
+        };
+    }
+
+    public synchronized V get(K key) {
+        Entry<V> entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.expiresAt <= clock.millis()) {
+            entries.remove(key);
+            return null;
+        }
+        return entry.value;
+    }
+
+    public synchronized void put(K key, V value) {
+        entries.put(key, new Entry<>(value, clock.millis() + ttlMillis));
+    }
+
+    public synchronized void remove(K key) {
+        entries.remove(key);
+    }
+
+    public synchronized void removeIf(Predicate<K> condition) {
+        entries.keySet().removeIf(condition);
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    private record Entry<V>(V value, long expiresAt) {
+    }
+}
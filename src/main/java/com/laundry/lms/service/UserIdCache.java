@@ -0,0 +1,49 @@
+package com.laundry.lms.service;
+
+import com.laundry.lms.repository.UserRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Ids of existing users, so message senders and recipients can be checked without a query. Warmed
+ * at startup; a miss is checked against the table, so ids registered later are added on their first
+ * lookup. Deletes on this instance evict; a user deleted through another instance stays cached until
+ * a write naming them fails, which evicts them so the next lookup goes back to the table.
+ */
+@Service
+public class UserIdCache {
+
+    private final UserRepository userRepository;
+    private final Set<Long> ids = ConcurrentHashMap.newKeySet();
+
+    public UserIdCache(UserRepository userRepository) {
+        this.userRepository = userRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        ids.addAll(userRepository.findAllIds());
+    }
+
+    public boolean exists(Long id) {
+        if (id == null) {
+            return false;
+        }
+        if (ids.contains(id)) {
+            return true;
+        }
+        if (userRepository.existsById(id)) {
+            ids.add(id);
+            return true;
+        }
+        return false;
+    }
+
+    public void evict(Long id) {
+        ids.remove(id);
+    }
+}
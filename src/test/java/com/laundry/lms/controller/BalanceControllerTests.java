@@ -0,0 +1,125 @@
+package com.laundry.lms.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.laundry.lms.model.LaundryOrder;
+import com.laundry.lms.model.Payment;
+import com.laundry.lms.model.PaymentStatus;
+import com.laundry.lms.repository.LaundryOrderRepository;
+import com.laundry.lms.repository.PaymentRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class BalanceControllerTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private LaundryOrderRepository orderRepository;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void balanceFollowsPaymentLifecycle() throws Exception {
+        LaundryOrder order = orderRepository.findAll().get(0);
+        BigDecimal paid = completedTotal(order.getId());
+        JsonNode initial = balance(order.getId());
+        assertThat(initial.get("amountDue").decimalValue()).isEqualByComparingTo(order.getPrice());
+        assertThat(initial.get("amountPaid").decimalValue()).isEqualByComparingTo(paid);
+
+        MockHttpServletResponse created = mockMvc.perform(post("/api/payments")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"orderId\":" + order.getId() + ",\"amount\":100.00,\"method\":\"Cash\"}"))
+                .andReturn().getResponse();
+        long paymentId = objectMapper.readTree(created.getContentAsString()).get("id").asLong();
+        JsonNode pending = balance(order.getId());
+        assertThat(pending.get("amountPending").decimalValue())
+                .isEqualByComparingTo(initial.get("amountPending").decimalValue().add(new BigDecimal("100")));
+        assertThat(pending.get("outstanding").decimalValue())
+                .isEqualByComparingTo(initial.get("outstanding").decimalValue());
+
+        mockMvc.perform(patch("/api/payments/" + paymentId + "/status?value=COMPLETED"));
+        JsonNode completed = balance(order.getId());
+        assertThat(completed.get("amountPaid").decimalValue()).isEqualByComparingTo(paid.add(new BigDecimal("100")));
+        assertThat(completed.get("outstanding").decimalValue())
+                .isEqualByComparingTo(initial.get("outstanding").decimalValue().subtract(new BigDecimal("100")));
+
+        mockMvc.perform(delete("/api/payments/" + paymentId));
+        JsonNode afterDelete = balance(order.getId());
+        assertThat(afterDelete.get("outstanding").decimalValue())
+                .isEqualByComparingTo(initial.get("outstanding").decimalValue());
+        assertThat(afterDelete.get("amountPending").decimalValue())
+                .isEqualByComparingTo(initial.get("amountPending").decimalValue());
+    }
+
+    @Test
+    void reconcileRepairsDriftedBalances() throws Exception {
+        LaundryOrder order = orderRepository.findAll().get(1);
+        jdbcTemplate.update("update order_balances set amount_paid = amount_paid + 999, outstanding = outstanding - 999 " +
+                "where order_id = ?", order.getId());
+
+        JsonNode result = objectMapper.readTree(mockMvc.perform(post("/api/balances/reconcile"))
+                .andReturn().getResponse().getContentAsString());
+
+        assertThat(result.get("corrected").asInt()).isEqualTo(1);
+        assertThat(balance(order.getId()).get("amountPaid").decimalValue())
+                .isEqualByComparingTo(completedTotal(order.getId()));
+    }
+
+    @Test
+    void outstandingListsCustomersLargestFirst() throws Exception {
+        JsonNode body = objectMapper.readTree(mockMvc.perform(get("/api/balances/outstanding?limit=500"))
+                .andReturn().getResponse().getContentAsString());
+
+        JsonNode customers = body.get("customers");
+        assertThat(customers).isNotEmpty();
+        BigDecimal sum = BigDecimal.ZERO;
+        BigDecimal previous = null;
+        for (JsonNode customer : customers) {
+            BigDecimal outstanding = customer.get("outstanding").decimalValue();
+            assertThat(outstanding.signum()).isPositive();
+            if (previous != null) {
+                assertThat(outstanding).isLessThanOrEqualTo(previous);
+            }
+            previous = outstanding;
+            sum = sum.add(outstanding);
+        }
+        assertThat(body.get("totalOutstanding").decimalValue()).isEqualByComparingTo(sum);
+    }
+
+    private BigDecimal completedTotal(Long orderId) {
+        return paymentRepository.findByStatus(PaymentStatus.COMPLETED).stream()
+                .filter(payment -> payment.getOrder().getId().equals(orderId))
+                .map(Payment::getAmount)
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+    }
+
+    private JsonNode balance(Long orderId) throws Exception {
+        return objectMapper.readTree(mockMvc.perform(get("/api/balances/orders/" + orderId))
+                .andReturn().getResponse().getContentAsString());
+    }
+}
@@ -0,0 +1,80 @@
+package com.laundry.lms.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.laundry.lms.service.CatalogService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class CatalogControllerTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private CatalogService catalogService;
+
+    @Test
+    void servicesCarryStrongEtagAndRevalidateWith304() throws Exception {
+        MockHttpServletResponse first = mockMvc.perform(get("/api/catalog/services")).andReturn().getResponse();
+        String etag = first.getHeader(HttpHeaders.ETAG);
+
+        assertThat(first.getStatus()).isEqualTo(200);
+        assertThat(etag).startsWith("\"").doesNotStartWith("W/");
+        assertThat(first.getHeader(HttpHeaders.CACHE_CONTROL)).contains("max-age=", "public");
+
+        MockHttpServletResponse revalidated = mockMvc.perform(get("/api/catalog/services")
+                .header(HttpHeaders.IF_NONE_MATCH, etag)).andReturn().getResponse();
+
+        assertThat(revalidated.getStatus()).isEqualTo(304);
+        assertThat(revalidated.getContentAsString()).isEmpty();
+    }
+
+    @Test
+    void adminEditSwapsSnapshotAndEtag() throws Exception {
+        String before = mockMvc.perform(get("/api/catalog/services")).andReturn().getResponse()
+                .getHeader(HttpHeaders.ETAG);
+
+        MockHttpServletResponse created = mockMvc.perform(post("/api/catalog/entries")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"type\":\"SERVICE\",\"name\":\"Curtain Care\",\"basePrice\":1500,\"defaultUnit\":\"Items\"}"))
+                .andReturn().getResponse();
+        assertThat(created.getStatus()).isEqualTo(201);
+        assertThat(catalogService.isValidService("Curtain Care")).isTrue();
+
+        MockHttpServletResponse after = mockMvc.perform(get("/api/catalog/services")
+                .header(HttpHeaders.IF_NONE_MATCH, before)).andReturn().getResponse();
+        assertThat(after.getStatus()).isEqualTo(200);
+        assertThat(after.getHeader(HttpHeaders.ETAG)).isNotEqualTo(before);
+        assertThat(after.getContentAsString()).contains("Curtain Care");
+
+        long id = objectMapper.readTree(created.getContentAsString()).get("id").asLong();
+        mockMvc.perform(delete("/api/catalog/entries/" + id));
+        assertThat(catalogService.isValidService("Curtain Care")).isFalse();
+    }
+
+    @Test
+    void duplicateEntryIsRejected() throws Exception {
+        MockHttpServletResponse duplicate = mockMvc.perform(post("/api/catalog/entries")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"type\":\"UNIT\",\"name\":\"Kg\"}"))
+                .andReturn().getResponse();
+
+        assertThat(duplicate.getStatus()).isEqualTo(409);
+    }
+}
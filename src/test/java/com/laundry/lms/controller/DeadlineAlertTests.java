@@ -0,0 +1,131 @@
+package com.laundry.lms.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.laundry.lms.model.UserRole;
+import com.laundry.lms.repository.LaundryOrderRepository;
+import com.laundry.lms.repository.UserRepository;
+import com.laundry.lms.service.DeadlineAlertService;
+import com.laundry.lms.service.MessageIngestService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+/**
+ * Moves the alert wheel forward by hand, so it runs in its own context (the scheduled tick is pushed
+ * out) instead of leaving a wheel ahead of the clock for other tests.
+ */
+@SpringBootTest(properties = {
+        "lms.alerts.lead=3h",
+        "lms.alerts.tick-interval=3600000"
+})
+@AutoConfigureMockMvc
+class DeadlineAlertTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private DeadlineAlertService deadlineAlertService;
+
+    @Autowired
+    private MessageIngestService messageIngestService;
+
+    @Autowired
+    private LaundryOrderRepository orderRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void alertsFireLeadTimeBeforeDeadlinesThatAreStillOpen() throws Exception {
+        LocalDate taskDue = LocalDate.now().plusDays(2);
+        LocalDate orderDue = LocalDate.now().plusDays(3);
+        long task = id(mockMvc.perform(post("/api/tasks")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"title\":\"Steam curtains\",\"assignedTo\":\"Dilani\",\"price\":900,\"dueDate\":\""
+                        + taskDue + "\"}")));
+        long closedTask = id(mockMvc.perform(post("/api/tasks")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"title\":\"Fold towels\",\"assignedTo\":\"Dilani\",\"price\":300,\"dueDate\":\""
+                        + taskDue + "\"}")));
+        long openOrder = createOrder(orderDue);
+        long cancelledOrder = createOrder(orderDue);
+        long deletedOrder = createOrder(orderDue);
+        long closedElsewhere = createOrder(orderDue);
+        long movedElsewhere = id(mockMvc.perform(post("/api/tasks")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"title\":\"Press suits\",\"assignedTo\":\"Dilani\",\"price\":400,\"dueDate\":\""
+                        + taskDue + "\"}")));
+        mockMvc.perform(patch("/api/tasks/" + closedTask + "/status").param("value", "COMPLETED"));
+        mockMvc.perform(patch("/api/orders/" + cancelledOrder + "/status").param("value", "CANCELLED"));
+        mockMvc.perform(delete("/api/orders/" + deletedOrder));
+        // Changed through another instance, so this instance's wheel still holds the old alerts.
+        jdbcTemplate.update("update orders set status = 'DELIVERED' where id = ?", closedElsewhere);
+        jdbcTemplate.update("update tasks set due_date = ? where id = ?", orderDue, movedElsewhere);
+
+        LocalDateTime taskAlert = taskDue.atTime(15, 0);
+        deadlineAlertService.advanceTo(taskAlert.minusMinutes(1));
+        assertThat(alerts("Task #" + task + " ")).isZero();
+        deadlineAlertService.advanceTo(taskAlert);
+        int admins = userRepository.findByRole(UserRole.ADMIN).size();
+        assertThat(alerts("Task #" + task + " ")).isEqualTo(admins);
+        assertThat(alerts("Task #" + movedElsewhere + " ")).isZero();
+
+        deadlineAlertService.advanceTo(orderDue.atTime(18, 0));
+        assertThat(alerts("Order #" + openOrder + " ")).isEqualTo(admins);
+        assertThat(alerts("Task #" + closedTask + " ")).isZero();
+        assertThat(alerts("Order #" + cancelledOrder + " ")).isZero();
+        assertThat(alerts("Order #" + deletedOrder + " ")).isZero();
+        assertThat(alerts("Order #" + closedElsewhere + " ")).isZero();
+        assertThat(alerts("Task #" + movedElsewhere + " ")).isEqualTo(admins);
+
+        // A second instance (or a restart) loads the same open deadlines; the claims keep them from firing twice.
+        deadlineAlertService.load();
+        deadlineAlertService.advanceTo(orderDue.atTime(18, 1));
+        assertThat(alerts("Order #" + openOrder + " ")).isEqualTo(admins);
+
+        JsonNode stats = objectMapper.readTree(mockMvc.perform(get("/api/alerts/stats"))
+                .andReturn().getResponse().getContentAsString());
+        assertThat(stats.get("fired").asLong()).isGreaterThanOrEqualTo(2);
+        assertThat(stats.get("lead").asText()).isEqualTo("PT3H");
+    }
+
+    private long createOrder(LocalDate deliveryDate) throws Exception {
+        Long customerId = orderRepository.findAll().get(0).getCustomer().getId();
+        return id(mockMvc.perform(post("/api/orders")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"customerId\":" + customerId + ",\"serviceType\":\"Ironing\",\"quantity\":3,"
+                        + "\"unit\":\"Items\",\"price\":600,\"deliveryDate\":\"" + deliveryDate + "\"}")));
+    }
+
+    private long alerts(String subject) {
+        messageIngestService.flushQueued();
+        return jdbcTemplate.queryForObject("select count(*) from messages where body like ?", Long.class,
+                "Deadline alert: " + subject + "%");
+    }
+
+    private long id(ResultActions result) throws Exception {
+        return objectMapper.readTree(result.andReturn().getResponse().getContentAsString()).get("id").asLong();
+    }
+}
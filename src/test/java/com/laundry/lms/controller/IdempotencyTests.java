@@ -0,0 +1,211 @@
+package com.laundry.lms.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.laundry.lms.model.LaundryOrder;
+import com.laundry.lms.model.Payment;
+import com.laundry.lms.repository.LaundryOrderRepository;
+import com.laundry.lms.repository.PaymentRepository;
+import com.laundry.lms.service.IdempotencyService;
+import com.laundry.lms.service.PaymentService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class IdempotencyTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private LaundryOrderRepository orderRepository;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private IdempotencyService idempotencyService;
+
+    @Autowired
+    private PaymentService paymentService;
+
+    @Test
+    void retriedOrderReturnsOriginalResponse() throws Exception {
+        String key = UUID.randomUUID().toString();
+        String body = orderJson();
+        long before = orderRepository.count();
+
+        MockHttpServletResponse first = postWithKey("/api/orders", key, body);
+        MockHttpServletResponse retry = postWithKey("/api/orders", key, body);
+
+        assertThat(first.getStatus()).isEqualTo(201);
+        assertThat(retry.getStatus()).isEqualTo(201);
+        assertThat(retry.getHeader(IdempotencyService.REPLAYED_HEADER)).isEqualTo("true");
+        assertThat(id(retry)).isEqualTo(id(first));
+        assertThat(orderRepository.count()).isEqualTo(before + 1);
+    }
+
+    @Test
+    void reusingKeyForDifferentPayloadIsRejected() throws Exception {
+        String key = UUID.randomUUID().toString();
+        postWithKey("/api/orders", key, orderJson());
+
+        MockHttpServletResponse reused = postWithKey("/api/orders", key, orderJson().replace("\"Kg\"", "\"Items\""));
+
+        assertThat(reused.getStatus()).isEqualTo(422);
+    }
+
+    @Test
+    void concurrentPaymentsWithSameKeyInsertOnce() throws Exception {
+        LaundryOrder order = orderRepository.findAll().get(0);
+        String key = UUID.randomUUID().toString();
+        String body = "{\"orderId\":" + order.getId() + ",\"amount\":1500,\"method\":\"Card\"}";
+        long before = paymentRepository.count();
+
+        int threads = 16;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<MockHttpServletResponse>> results = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            Callable<MockHttpServletResponse> call = () -> {
+                start.await();
+                return postWithKey("/api/payments", key, body);
+            };
+            results.add(pool.submit(call));
+        }
+        start.countDown();
+
+        List<Long> ids = new ArrayList<>();
+        for (Future<MockHttpServletResponse> result : results) {
+            MockHttpServletResponse response = result.get();
+            assertThat(response.getStatus()).isIn(201, 409);
+            if (response.getStatus() == 201) {
+                ids.add(id(response));
+            }
+        }
+        pool.shutdown();
+
+        assertThat(ids).isNotEmpty();
+        assertThat(ids).containsOnly(ids.get(0));
+        assertThat(paymentRepository.count()).isEqualTo(before + 1);
+    }
+
+    @Test
+    void claimLeftByADeadRequestExpiresAfterTheLease() throws Exception {
+        String live = UUID.randomUUID().toString();
+        String dead = UUID.randomUUID().toString();
+        insertClaim("orders:" + live, LocalDateTime.now());
+        insertClaim("orders:" + dead, LocalDateTime.now().minusMinutes(5));
+        long before = orderRepository.count();
+
+        assertThat(postWithKey("/api/orders", live, orderJson()).getStatus()).isEqualTo(409);
+        MockHttpServletResponse takenOver = postWithKey("/api/orders", dead, orderJson());
+        assertThat(takenOver.getStatus()).isEqualTo(201);
+        assertThat(takenOver.getHeader(IdempotencyService.REPLAYED_HEADER)).isNull();
+        assertThat(orderRepository.count()).isEqualTo(before + 1);
+
+        MockHttpServletResponse retry = postWithKey("/api/orders", dead, orderJson());
+        assertThat(retry.getHeader(IdempotencyService.REPLAYED_HEADER)).isEqualTo("true");
+        assertThat(id(retry)).isEqualTo(id(takenOver));
+    }
+
+    @Test
+    void committedWriteIsNotRepeatedWhenALaterStepFails() {
+        LaundryOrder order = orderRepository.findAll().get(0);
+        String key = UUID.randomUUID().toString();
+        long before = paymentRepository.count();
+
+        assertThatThrownBy(() -> idempotencyService.execute("payments", key, "late-failure", () -> {
+            paymentService.create(payment(order));
+            throw new IllegalStateException("follow-up step failed");
+        })).isInstanceOf(IllegalStateException.class);
+        ResponseEntity<?> retry = idempotencyService.execute("payments", key, "late-failure", () -> {
+            paymentService.create(payment(order));
+            return ResponseEntity.status(HttpStatus.CREATED).build();
+        });
+
+        assertThat(retry.getStatusCode().value()).isEqualTo(409);
+        assertThat(paymentRepository.count()).isEqualTo(before + 1);
+    }
+
+    @Test
+    void writeUnderAClaimThatWasTakenOverRollsBack() {
+        LaundryOrder order = orderRepository.findAll().get(0);
+        String key = UUID.randomUUID().toString();
+        long before = paymentRepository.count();
+
+        ResponseEntity<?> response = idempotencyService.execute("payments", key, "slow", () -> {
+            // The lease ran out while this request was still working and another request took the key.
+            jdbcTemplate.update("update idempotency_keys set token = ? where id = ?",
+                    UUID.randomUUID().toString(), "payments:" + key);
+            paymentService.create(payment(order));
+            return ResponseEntity.status(HttpStatus.CREATED).build();
+        });
+
+        assertThat(response.getStatusCode().value()).isEqualTo(409);
+        assertThat(paymentRepository.count()).isEqualTo(before);
+    }
+
+    private static Payment payment(LaundryOrder order) {
+        Payment payment = new Payment();
+        payment.setOrder(order);
+        payment.setAmount(new BigDecimal("15.00"));
+        payment.setMethod("Cash");
+        return payment;
+    }
+
+    private void insertClaim(String id, LocalDateTime createdAt) {
+        jdbcTemplate.update("insert into idempotency_keys (id, request_hash, token, committed, created_at) "
+                + "values (?, ?, ?, false, ?)", id, "0".repeat(64), UUID.randomUUID().toString(), createdAt);
+    }
+
+    private MockHttpServletResponse postWithKey(String url, String key, String body) throws Exception {
+        return mockMvc.perform(post(url)
+                        .header(IdempotencyService.HEADER, key)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andReturn()
+                .getResponse();
+    }
+
+    private long id(MockHttpServletResponse response) throws Exception {
+        JsonNode json = objectMapper.readTree(response.getContentAsString());
+        return json.get("id").asLong();
+    }
+
+    private String orderJson() {
+        Long customerId = orderRepository.findAll().get(0).getCustomer().getId();
+        return "{\"customerId\":" + customerId + ",\"serviceType\":\"Ironing\",\"quantity\":2,"
+                + "\"unit\":\"Kg\",\"price\":750}";
+    }
+}
@@ -0,0 +1,119 @@
+package com.laundry.lms.controller;
+
+import com.laundry.lms.model.LaundryOrder;
+import com.laundry.lms.model.Payment;
+import com.laundry.lms.model.User;
+import com.laundry.lms.model.UserRole;
+import com.laundry.lms.repository.LaundryOrderRepository;
+import com.laundry.lms.repository.PaymentRepository;
+import com.laundry.lms.repository.UserRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureMockMvc
+@Transactional
+class ListQueryCountTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private LaundryOrderRepository orderRepository;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void orderListingUsesConstantStatementCount() throws Exception {
+        long before = statementsFor("/api/orders?limit=200");
+        seedOrdersForNewCustomers(15);
+        long after = statementsFor("/api/orders?limit=200");
+
+        assertThat(after).isEqualTo(before);
+        assertThat(after).isLessThanOrEqualTo(1);
+    }
+
+    @Test
+    void customerOrderListingUsesConstantStatementCount() throws Exception {
+        User customer = userRepository.findByEmail("nimali@smartfold.lk").orElseThrow();
+        long before = statementsFor("/api/orders?userId=" + customer.getId());
+        seedOrdersForNewCustomers(5);
+        long after = statementsFor("/api/orders?userId=" + customer.getId());
+
+        assertThat(after).isEqualTo(before);
+    }
+
+    @Test
+    void paymentListingUsesConstantStatementCount() throws Exception {
+        long before = statementsFor("/api/payments");
+        for (LaundryOrder order : seedOrdersForNewCustomers(15)) {
+            Payment payment = new Payment();
+            payment.setOrder(order);
+            payment.setAmount(order.getPrice());
+            payment.setMethod("Cash");
+            paymentRepository.save(payment);
+        }
+        long after = statementsFor("/api/payments");
+
+        assertThat(after).isEqualTo(before);
+        assertThat(after).isLessThanOrEqualTo(1);
+    }
+
+    private List<LaundryOrder> seedOrdersForNewCustomers(int count) {
+        List<LaundryOrder> orders = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            User customer = userRepository.save(new User("Stats Customer " + i,
+                    "stats" + i + "-" + System.nanoTime() + "@smartfold.lk", "x", UserRole.USER));
+            LaundryOrder order = new LaundryOrder();
+            order.setCustomer(customer);
+            order.setServiceType("Ironing");
+            order.setQuantity(1.0);
+            order.setUnit("Items");
+            order.setPrice(BigDecimal.valueOf(100 + i));
+            orders.add(orderRepository.save(order));
+        }
+        return orders;
+    }
+
+    private long statementsFor(String url) throws Exception {
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+        mockMvc.perform(get(url)).andExpect(status().isOk());
+        return statistics.getPrepareStatementCount();
+    }
+}
@@ -0,0 +1,121 @@
+package com.laundry.lms.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.laundry.lms.model.SearchDocumentType;
+import com.laundry.lms.model.User;
+import com.laundry.lms.model.UserRole;
+import com.laundry.lms.repository.ArchivedMessageRepository;
+import com.laundry.lms.repository.MessageRepository;
+import com.laundry.lms.repository.UserRepository;
+import com.laundry.lms.service.MessageArchiveService;
+import com.laundry.lms.service.SearchService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+@SpringBootTest(properties = {
+        "lms.messages.archive.batch-size=7",
+        "lms.messages.archive.max-age=0s"
+})
+@AutoConfigureMockMvc
+class MessageArchiveTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private MessageRepository messageRepository;
+
+    @Autowired
+    private ArchivedMessageRepository archivedMessageRepository;
+
+    @Autowired
+    private MessageArchiveService messageArchiveService;
+
+    @Autowired
+    private SearchService searchService;
+
+    @Test
+    void archivedHistoryStaysVisibleThroughTheApi() throws Exception {
+        User admin = userRepository.findByRole(UserRole.ADMIN).get(0);
+        List<User> customers = userRepository.findByRole(UserRole.USER);
+        User active = customers.get(0);
+        User quiet = customers.get(1);
+        String url = "/api/messages?withUserId=" + active.getId() + "&currentUserId=" + admin.getId();
+
+        List<Long> seeded = ids(json(mockMvc.perform(get(url)).andReturn().getResponse()));
+        long hotBefore = messageRepository.count();
+        LocalDateTime cutoff = LocalDateTime.now();
+        Thread.sleep(10);
+        long sentId = send(admin, active, "Your duvet is ready");
+
+        int moved = messageArchiveService.archiveOlderThan(cutoff);
+
+        assertThat(moved).isEqualTo(hotBefore);
+        assertThat(messageRepository.count()).isEqualTo(1);
+        assertThat(archivedMessageRepository.count()).isEqualTo(hotBefore);
+        assertThat(messageArchiveService.maxArchivedId()).isEqualTo(archivedMessageRepository.findMaxId());
+
+        List<Long> expected = new ArrayList<>(seeded);
+        expected.add(sentId);
+        assertThat(ids(json(mockMvc.perform(get(url)).andReturn().getResponse()))).isEqualTo(expected);
+
+        List<Long> olderPage = ids(json(mockMvc.perform(get(url + "&beforeId=" + sentId + "&limit=3"))
+                .andReturn().getResponse()));
+        assertThat(olderPage).isEqualTo(seeded.subList(seeded.size() - 3, seeded.size()));
+
+        List<Long> delta = ids(json(mockMvc.perform(get(url + "&afterId=" + seeded.get(seeded.size() - 1)))
+                .andReturn().getResponse()));
+        assertThat(delta).endsWith(sentId);
+        assertThat(seeded).containsAll(delta.subList(0, delta.size() - 1));
+
+        JsonNode inbox = json(mockMvc.perform(get("/api/messages/inbox?userId=" + admin.getId()))
+                .andReturn().getResponse());
+        assertThat(inbox).hasSize(customers.size());
+        assertThat(inbox.get(0).get("lastMessageId").asLong()).isEqualTo(sentId);
+
+        JsonNode read = json(mockMvc.perform(patch("/api/messages/read?userId=" + admin.getId()
+                + "&withUserId=" + quiet.getId())).andReturn().getResponse());
+        assertThat(read.get("updated").asInt()).isEqualTo(5);
+
+        assertThat(searchService.search("checking", SearchDocumentType.MESSAGE, 0, 5).getHits()).isNotEmpty();
+    }
+
+    private long send(User from, User to, String body) throws Exception {
+        MockHttpServletResponse response = mockMvc.perform(post("/api/messages")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"fromUserId\":" + from.getId() + ",\"toUserId\":" + to.getId() + ",\"body\":\"" + body + "\"}"))
+                .andReturn().getResponse();
+        return json(response).get("id").asLong();
+    }
+
+    private List<Long> ids(JsonNode messages) {
+        List<Long> ids = new ArrayList<>();
+        messages.forEach(message -> ids.add(message.get("id").asLong()));
+        return ids;
+    }
+
+    private JsonNode json(MockHttpServletResponse response) throws Exception {
+        return objectMapper.readTree(response.getContentAsString());
+    }
+}
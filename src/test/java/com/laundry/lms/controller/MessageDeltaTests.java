@@ -0,0 +1,134 @@
+package com.laundry.lms.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.laundry.lms.model.Message;
+import com.laundry.lms.model.User;
+import com.laundry.lms.model.UserRole;
+import com.laundry.lms.repository.MessageRepository;
+import com.laundry.lms.repository.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureMockMvc
+class MessageDeltaTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private MessageRepository messageRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void idlePollIsAnsweredWith304FromTheVersionCheckAlone() throws Exception {
+        User admin = userRepository.findByRole(UserRole.ADMIN).get(0);
+        User customer = userRepository.findByRole(UserRole.USER).get(1);
+        String url = "/api/messages?withUserId=" + customer.getId() + "&currentUserId=" + admin.getId();
+
+        MockHttpServletResponse full = mockMvc.perform(get(url)).andReturn().getResponse();
+        String etag = full.getHeader(HttpHeaders.ETAG);
+        assertThat(full.getStatus()).isEqualTo(200);
+        assertThat(etag).isNotNull();
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        MockHttpServletResponse idle = mockMvc.perform(get(url).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andReturn().getResponse();
+
+        assertThat(idle.getStatus()).isEqualTo(304);
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(2);
+
+        send(customer, admin, "Is my bedding ready?");
+        MockHttpServletResponse changed = mockMvc.perform(get(url).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andReturn().getResponse();
+        assertThat(changed.getStatus()).isEqualTo(200);
+        assertThat(changed.getHeader(HttpHeaders.ETAG)).isNotEqualTo(etag);
+
+        // Written behind this instance's back, as another instance would, and stamped in the past.
+        String current = changed.getHeader(HttpHeaders.ETAG);
+        insertDirectly(admin, customer, "Written elsewhere", LocalDateTime.now().minusHours(1));
+        MockHttpServletResponse elsewhere = mockMvc.perform(get(url).header(HttpHeaders.IF_NONE_MATCH, current))
+                .andReturn().getResponse();
+        assertThat(elsewhere.getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    void afterIdReturnsOnlyNewerMessagesAndBeforeIdPagesBack() throws Exception {
+        User admin = userRepository.findByRole(UserRole.ADMIN).get(0);
+        User customer = userRepository.findByRole(UserRole.USER).get(2);
+        String url = "/api/messages?withUserId=" + customer.getId() + "&currentUserId=" + admin.getId();
+
+        JsonNode full = json(mockMvc.perform(get(url)).andReturn().getResponse());
+        long lastId = full.get(full.size() - 1).get("id").asLong();
+
+        long sentId = send(admin, customer, "Pickup at 5pm");
+        LocalDateTime stamped = LocalDateTime.parse(full.get(full.size() - 1).get("timestamp").asText());
+        long lateId = insertDirectly(customer, admin, "Committed late", stamped.minusSeconds(2));
+        JsonNode delta = json(mockMvc.perform(get(url + "&afterId=" + lastId)).andReturn().getResponse());
+        List<Long> deltaIds = new ArrayList<>();
+        delta.forEach(message -> deltaIds.add(message.get("id").asLong()));
+        assertThat(deltaIds).contains(sentId, lateId);
+        assertThat(deltaIds.indexOf(lateId)).isLessThan(deltaIds.indexOf(sentId));
+        List<Long> fullIds = new ArrayList<>();
+        full.forEach(message -> fullIds.add(message.get("id").asLong()));
+        deltaIds.removeAll(List.of(sentId, lateId));
+        assertThat(fullIds).containsAll(deltaIds);
+
+        assertThat(mockMvc.perform(get(url + "&afterId=999999999")).andReturn().getResponse().getStatus())
+                .isEqualTo(400);
+
+        JsonNode older = json(mockMvc.perform(get(url + "&beforeId=" + sentId + "&limit=3")).andReturn().getResponse());
+        assertThat(older).hasSize(3);
+        assertThat(older.get(2).get("id").asLong()).isEqualTo(lastId);
+        assertThat(older.get(0).get("id").asLong()).isLessThan(older.get(1).get("id").asLong());
+    }
+
+    private long insertDirectly(User from, User to, String body, LocalDateTime timestamp) {
+        long id = messageRepository.save(new Message(from, to, body)).getId();
+        jdbcTemplate.update("update messages set timestamp = ? where id = ?", timestamp, id);
+        return id;
+    }
+
+    private long send(User from, User to, String body) throws Exception {
+        MockHttpServletResponse response = mockMvc.perform(post("/api/messages")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"fromUserId\":" + from.getId() + ",\"toUserId\":" + to.getId() + ",\"body\":\"" + body + "\"}"))
+                .andReturn().getResponse();
+        return json(response).get("id").asLong();
+    }
+
+    private JsonNode json(MockHttpServletResponse response) throws Exception {
+        return objectMapper.readTree(response.getContentAsString());
+    }
+}
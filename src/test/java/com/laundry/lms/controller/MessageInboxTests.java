@@ -0,0 +1,99 @@
+package com.laundry.lms.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.laundry.lms.model.Message;
+import com.laundry.lms.model.User;
+import com.laundry.lms.model.UserRole;
+import com.laundry.lms.repository.MessageRepository;
+import com.laundry.lms.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class MessageInboxTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private MessageRepository messageRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void inboxSummarisesEachConversationAndTracksReads() throws Exception {
+        User admin = userRepository.findByRole(UserRole.ADMIN).get(0);
+        User customer = userRepository.save(new User("Inbox Tester", "inbox-tester@smartfold.lk", "x", UserRole.USER));
+        messageRepository.saveAll(List.of(
+                new Message(customer, admin, "Is the red silk dress done?"),
+                new Message(admin, customer, "Tomorrow morning"),
+                new Message(customer, admin, "Thanks!")));
+
+        JsonNode entry = inboxEntry(admin, customer);
+        assertThat(entry.get("counterpartName").asText()).isEqualTo("Inbox Tester");
+        assertThat(entry.get("lastBody").asText()).isEqualTo("Thanks!");
+        assertThat(entry.get("lastFromUserId").asLong()).isEqualTo(customer.getId());
+        assertThat(entry.get("unreadCount").asLong()).isEqualTo(2);
+
+        mockMvc.perform(patch("/api/messages/read")
+                .param("userId", admin.getId().toString())
+                .param("withUserId", customer.getId().toString()));
+
+        assertThat(inboxEntry(admin, customer).get("unreadCount").asLong()).isZero();
+        assertThat(inboxEntry(customer, admin).get("unreadCount").asLong()).isEqualTo(1);
+    }
+
+    @Test
+    void lastMessageAndReadCursorFollowTimestampsNotIds() throws Exception {
+        User admin = userRepository.findByRole(UserRole.ADMIN).get(0);
+        User customer = userRepository.save(new User("Cursor Tester", "cursor-tester@smartfold.lk", "x", UserRole.USER));
+        Message newest = messageRepository.save(new Message(customer, admin, "Sent just now"));
+        // A higher id stamped earlier, as a message from another instance's sequence block would be.
+        Message older = messageRepository.save(new Message(customer, admin, "Sent an hour ago"));
+        jdbcTemplate.update("update messages set timestamp = ? where id = ?",
+                LocalDateTime.now().minusHours(1), older.getId());
+        assertThat(older.getId()).isGreaterThan(newest.getId());
+
+        JsonNode entry = inboxEntry(admin, customer);
+        assertThat(entry.get("lastMessageId").asLong()).isEqualTo(newest.getId());
+        assertThat(entry.get("lastBody").asText()).isEqualTo("Sent just now");
+
+        JsonNode read = objectMapper.readTree(mockMvc.perform(patch("/api/messages/read")
+                .param("userId", admin.getId().toString())
+                .param("withUserId", customer.getId().toString())
+                .param("upToId", older.getId().toString())).andReturn().getResponse().getContentAsString());
+        assertThat(read.get("updated").asInt()).isEqualTo(1);
+        assertThat(inboxEntry(admin, customer).get("unreadCount").asLong()).isEqualTo(1);
+    }
+
+    private JsonNode inboxEntry(User owner, User counterpart) throws Exception {
+        JsonNode inbox = objectMapper.readTree(mockMvc.perform(get("/api/messages/inbox")
+                .param("userId", owner.getId().toString())).andReturn().getResponse().getContentAsString());
+        for (JsonNode entry : inbox) {
+            if (entry.get("counterpartId").asLong() == counterpart.getId()) {
+                return entry;
+            }
+        }
+        throw new AssertionError("No inbox entry for " + counterpart.getId());
+    }
+}
@@ -0,0 +1,129 @@
+package com.laundry.lms.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.laundry.lms.model.User;
+import com.laundry.lms.model.UserRole;
+import com.laundry.lms.repository.MessageRepository;
+import com.laundry.lms.repository.UserRepository;
+import com.laundry.lms.service.MessageIngestService;
+import com.laundry.lms.service.UserIdCache;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+@SpringBootTest(properties = {
+        "lms.messages.ingest.capacity=5",
+        "lms.messages.ingest.linger=1h"
+})
+@AutoConfigureMockMvc
+class MessageIngestTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private MessageRepository messageRepository;
+
+    @Autowired
+    private MessageIngestService messageIngestService;
+
+    @Autowired
+    private UserIdCache userIdCache;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void broadcastIsQueuedThenFlushedAsOneBatch() throws Exception {
+        User admin = userRepository.findByRole(UserRole.ADMIN).get(0);
+        List<User> customers = userRepository.findByRole(UserRole.USER);
+        String body = "Weekend promo: 20% off bedding";
+
+        MockHttpServletResponse response = broadcast(admin, customers, body);
+        assertThat(response.getStatus()).isEqualTo(202);
+        assertThat(messageIngestService.stats().getQueueDepth()).isEqualTo(customers.size());
+
+        long batchesBefore = messageIngestService.stats().getBatches();
+        messageIngestService.flushQueued();
+
+        assertThat(messageIngestService.stats().getQueueDepth()).isZero();
+        assertThat(messageIngestService.stats().getBatches()).isEqualTo(batchesBefore + 1);
+        for (User customer : customers) {
+            assertThat(messageRepository.findConversationResponses(admin.getId(), customer.getId()))
+                    .anyMatch(message -> message.getBody().equals(body));
+        }
+    }
+
+    @Test
+    void fullQueueRejectsTheWholeBroadcast() throws Exception {
+        User admin = userRepository.findByRole(UserRole.ADMIN).get(0);
+        List<User> recipients = userRepository.findAll();
+        long rejectedBefore = messageIngestService.stats().getRejected();
+
+        broadcast(admin, recipients, "first");
+        MockHttpServletResponse overflow = broadcast(admin, recipients, "second");
+
+        assertThat(overflow.getStatus()).isEqualTo(503);
+        assertThat(overflow.getHeader("Retry-After")).isNotNull();
+        assertThat(messageIngestService.stats().getRejected()).isEqualTo(rejectedBefore + recipients.size());
+        messageIngestService.flushQueued();
+    }
+
+    @Test
+    void unknownRecipientsAreReported() throws Exception {
+        User admin = userRepository.findByRole(UserRole.ADMIN).get(0);
+        MockHttpServletResponse response = mockMvc.perform(post("/api/messages/broadcast")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"fromUserId\":" + admin.getId() + ",\"toUserIds\":[999999],\"body\":\"hi\"}"))
+                .andReturn().getResponse();
+
+        assertThat(response.getStatus()).isEqualTo(404);
+        assertThat(objectMapper.readTree(response.getContentAsString()).get("userIds").get(0).asLong()).isEqualTo(999999);
+    }
+
+    @Test
+    void rowsForUsersDeletedElsewhereFailAloneAndLeaveTheCache() {
+        User admin = userRepository.findByRole(UserRole.ADMIN).get(0);
+        User customer = userRepository.findByRole(UserRole.USER).get(0);
+        User gone = userRepository.save(new User("Gone Elsewhere", "gone-elsewhere@smartfold.lk", "x", UserRole.USER));
+        assertThat(userIdCache.exists(gone.getId())).isTrue();
+        // Deleted through another instance, so this instance's cache still has the id.
+        jdbcTemplate.update("delete from users where id = ?", gone.getId());
+        long failedBefore = messageIngestService.stats().getFailed();
+
+        assertThat(messageIngestService.enqueue(admin.getId(), List.of(gone.getId(), customer.getId()), "Pickup moved"))
+                .isTrue();
+        messageIngestService.flushQueued();
+
+        assertThat(messageIngestService.stats().getFailed()).isEqualTo(failedBefore + 1);
+        assertThat(messageRepository.findConversationResponses(admin.getId(), customer.getId()))
+                .anyMatch(message -> message.getBody().equals("Pickup moved"));
+        assertThat(userIdCache.exists(gone.getId())).isFalse();
+        assertThat(userIdCache.exists(admin.getId())).isTrue();
+    }
+
+    private MockHttpServletResponse broadcast(User from, List<User> recipients, String body) throws Exception {
+        String ids = recipients.stream().map(user -> user.getId().toString()).collect(Collectors.joining(","));
+        return mockMvc.perform(post("/api/messages/broadcast")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"fromUserId\":" + from.getId() + ",\"toUserIds\":[" + ids + "],\"body\":\"" + body + "\"}"))
+                .andReturn().getResponse();
+    }
+}
@@ -0,0 +1,92 @@
+package com.laundry.lms.controller;
+
+import com.laundry.lms.model.User;
+import com.laundry.lms.model.UserRole;
+import com.laundry.lms.repository.UserRepository;
+import com.laundry.lms.service.MessagePushService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.io.BufferedReader;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class MessagePushTests {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private MessagePushService messagePushService;
+
+    private final HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+
+    @Test
+    void sentMessageIsPushedToRecipientStream() throws Exception {
+        User admin = userRepository.findByRole(UserRole.ADMIN).get(0);
+        User customer = userRepository.findByRole(UserRole.USER).get(0);
+
+        HttpResponse<InputStream> stream = client.send(HttpRequest.newBuilder(url("/api/messages/stream?userId=" + customer.getId()))
+                .header("Accept", "text/event-stream").build(), HttpResponse.BodyHandlers.ofInputStream());
+        assertThat(stream.statusCode()).isEqualTo(200);
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(stream.body(), StandardCharsets.UTF_8))) {
+            assertThat(readUntil(reader, "event:ready")).isTrue();
+            assertThat(messagePushService.subscriberCount(customer.getId())).isEqualTo(1);
+
+            String body = "Your silk dress is ready";
+            HttpResponse<String> sent = client.send(HttpRequest.newBuilder(url("/api/messages"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString("{\"fromUserId\":" + admin.getId()
+                            + ",\"toUserId\":" + customer.getId() + ",\"body\":\"" + body + "\"}"))
+                    .build(), HttpResponse.BodyHandlers.ofString());
+            assertThat(sent.statusCode()).isEqualTo(201);
+
+            assertThat(readUntil(reader, body)).isTrue();
+        }
+    }
+
+    @Test
+    void streamForUnknownUserIsRejected() throws Exception {
+        HttpResponse<String> response = client.send(HttpRequest.newBuilder(url("/api/messages/stream?userId=999999")).build(),
+                HttpResponse.BodyHandlers.ofString());
+
+        assertThat(response.statusCode()).isEqualTo(404);
+    }
+
+    private boolean readUntil(BufferedReader reader, String fragment) throws Exception {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (line.contains(fragment)) {
+                        return true;
+                    }
+                }
+                return false;
+            } catch (Exception ex) {
+                return false;
+            }
+        }).get(10, TimeUnit.SECONDS);
+    }
+
+    private URI url(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+}
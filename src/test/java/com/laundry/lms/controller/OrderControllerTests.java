@@ -0,0 +1,324 @@
+package com.laundry.lms.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.laundry.lms.model.LaundryOrder;
+import com.laundry.lms.model.OrderStatus;
+import com.laundry.lms.repository.LaundryOrderRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class OrderControllerTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private LaundryOrderRepository orderRepository;
+
+    @Test
+    void bulkImportCreatesEveryRow() throws Exception {
+        long customerId = customerId();
+        long before = orderRepository.count();
+
+        MockHttpServletResponse response = postBulk("{\"orders\":["
+                + orderJson(customerId, "Ironing", "Items") + ","
+                + orderJson(customerId, "Dry Cleaning", "Items") + ","
+                + orderJson(customerId, "Wash & Fold", "Kg") + "]}");
+
+        assertThat(response.getStatus()).isEqualTo(201);
+        JsonNode created = objectMapper.readTree(response.getContentAsString());
+        assertThat(created).hasSize(3);
+        assertThat(created.get(2).get("serviceType").asText()).isEqualTo("Wash & Fold");
+        assertThat(orderRepository.count()).isEqualTo(before + 3);
+    }
+
+    @Test
+    void bulkImportRejectsWholeBatchAndReportsEveryBadRow() throws Exception {
+        long customerId = customerId();
+        long before = orderRepository.count();
+
+        MockHttpServletResponse response = postBulk("{\"orders\":["
+                + orderJson(customerId, "Ironing", "Items") + ","
+                + orderJson(customerId, "Polishing", "Items") + ","
+                + orderJson(999_999L, "Ironing", "Items") + ","
+                + orderJson(customerId, "Ironing", "Crates") + "]}");
+
+        assertThat(response.getStatus()).isEqualTo(400);
+        JsonNode body = objectMapper.readTree(response.getContentAsString());
+        assertThat(body.get("error").asText()).isEqualTo("Invalid orders in batch");
+        JsonNode rows = body.get("rows");
+        assertThat(rows).hasSize(3);
+        assertThat(rows.get(0).get("index").asInt()).isEqualTo(1);
+        assertThat(rows.get(0).get("error").asText()).isEqualTo("Invalid service type");
+        assertThat(rows.get(1).get("index").asInt()).isEqualTo(2);
+        assertThat(rows.get(1).get("error").asText()).isEqualTo("Customer not found");
+        assertThat(rows.get(2).get("index").asInt()).isEqualTo(3);
+        assertThat(rows.get(2).get("error").asText()).isEqualTo("Invalid unit");
+        assertThat(orderRepository.count()).isEqualTo(before);
+    }
+
+    @Test
+    void bulkImportValidatesBatchShape() throws Exception {
+        long before = orderRepository.count();
+
+        assertThat(postBulk("{\"orders\":[]}").getStatus()).isEqualTo(400);
+        assertThat(postBulk("{}").getStatus()).isEqualTo(400);
+        assertThat(postBulk("{\"orders\":[{\"customerId\":" + customerId() + ",\"serviceType\":\"Ironing\","
+                + "\"quantity\":0,\"unit\":\"Items\",\"price\":600}]}").getStatus()).isEqualTo(400);
+        assertThat(orderRepository.count()).isEqualTo(before);
+    }
+
+    @Test
+    void bulkStatusMovesOnlyOrdersStillInTheSourceStatus() throws Exception {
+        long first = createOrder();
+        long second = createOrder();
+        long moved = createOrder();
+        assertThat(patchStatus(moved, "IN_PROGRESS").getStatus()).isEqualTo(200);
+
+        MockHttpServletResponse response = patchStatuses("[" + first + "," + second + "," + moved + ",999999]",
+                "PENDING", "IN_PROGRESS");
+
+        assertThat(response.getStatus()).isEqualTo(200);
+        JsonNode body = objectMapper.readTree(response.getContentAsString());
+        assertThat(body.get("updated")).extracting(JsonNode::asLong).containsExactly(first, second);
+        assertThat(body.get("skipped")).extracting(JsonNode::asLong).containsExactly(moved, 999_999L);
+        assertThat(orderRepository.findById(first).orElseThrow().getStatus().name()).isEqualTo("IN_PROGRESS");
+        assertThat(orderRepository.findById(second).orElseThrow().getStatus().name()).isEqualTo("IN_PROGRESS");
+    }
+
+    @Test
+    void illegalStatusMovesAreRejected() throws Exception {
+        long id = createOrder();
+
+        assertThat(patchStatuses("[" + id + "]", "PENDING", "DELIVERED").getStatus()).isEqualTo(400);
+        assertThat(patchStatuses("[" + id + "]", "DELIVERED", "PENDING").getStatus()).isEqualTo(400);
+        assertThat(patchStatuses("[" + id + "]", "PENDING", "SHIPPED").getStatus()).isEqualTo(400);
+        assertThat(patchStatus(id, "READY").getStatus()).isEqualTo(400);
+        assertThat(patchStatus(id, "PENDING").getStatus()).isEqualTo(400);
+        assertThat(orderRepository.findById(id).orElseThrow().getStatus().name()).isEqualTo("PENDING");
+
+        assertThat(patchStatus(id, "CANCELLED").getStatus()).isEqualTo(200);
+        MockHttpServletResponse reopened = patchStatus(id, "IN_PROGRESS");
+        assertThat(reopened.getStatus()).isEqualTo(400);
+        assertThat(objectMapper.readTree(reopened.getContentAsString()).get("error").asText())
+                .isEqualTo("Cannot move order from CANCELLED to IN_PROGRESS");
+    }
+
+    @Test
+    void ordersListTheStatusesTheyMayMoveTo() throws Exception {
+        long pending = createOrder();
+        long cancelled = createOrder();
+        assertThat(patchStatus(cancelled, "CANCELLED").getStatus()).isEqualTo(200);
+
+        Map<Long, JsonNode> listed = new HashMap<>();
+        getPage(Map.of("customerId", String.valueOf(customerId()), "limit", "200"))
+                .get("items").forEach(item -> listed.put(item.get("id").asLong(), item));
+
+        assertThat(listed.get(pending).get("nextStatuses")).extracting(JsonNode::asText)
+                .containsExactly("IN_PROGRESS", "CANCELLED");
+        assertThat(listed.get(cancelled).get("nextStatuses")).isEmpty();
+    }
+
+    @Test
+    void exportStreamsOnlyTheFilteredOrders() throws Exception {
+        long customerId = customerId();
+        postBulk("{\"orders\":[" + orderJson(customerId, "Bedding", "Sets") + ","
+                + orderJson(customerId, "Bedding", "Sets") + "]}");
+        long expected = orderRepository.findAll().stream()
+                .filter(order -> order.getCustomer().getId() == customerId)
+                .filter(order -> order.getServiceType().equals("Bedding"))
+                .filter(order -> order.getStatus().name().equals("PENDING"))
+                .count();
+
+        MockHttpServletResponse csv = export("csv", customerId);
+        assertThat(csv.getStatus()).isEqualTo(200);
+        assertThat(csv.getContentType()).startsWith("text/csv");
+        assertThat(csv.getHeader(HttpHeaders.CONTENT_DISPOSITION)).isEqualTo("attachment; filename=\"orders.csv\"");
+        String[] lines = csv.getContentAsString().split("\n");
+        assertThat(lines[0]).startsWith("id,customerId,customerName,serviceType,");
+        assertThat(lines).hasSize((int) expected + 1);
+        assertThat(Arrays.asList(lines).subList(1, lines.length)).allSatisfy(line -> assertThat(line).contains(",Bedding,").contains(",PENDING,"));
+
+        MockHttpServletResponse ndjson = export("ndjson", customerId);
+        assertThat(ndjson.getHeader(HttpHeaders.CONTENT_DISPOSITION)).isEqualTo("attachment; filename=\"orders.ndjson\"");
+        String[] rows = ndjson.getContentAsString().split("\n");
+        assertThat(rows).hasSize((int) expected);
+        for (String row : rows) {
+            JsonNode order = objectMapper.readTree(row);
+            assertThat(order.get("serviceType").asText()).isEqualTo("Bedding");
+            assertThat(order.get("status").asText()).isEqualTo("PENDING");
+        }
+
+        assertThat(mockMvc.perform(get("/api/orders/export").param("format", "xml"))
+                .andReturn().getResponse().getStatus()).isEqualTo(400);
+    }
+
+    @Test
+    void keysetPagesWalkEveryOrderOnceNewestFirst() throws Exception {
+        createOrder();
+        createOrder();
+        List<Long> expected = orderRepository.findAll().stream()
+                .sorted(Comparator.comparing(LaundryOrder::getCreatedAt).thenComparing(LaundryOrder::getId).reversed())
+                .map(LaundryOrder::getId)
+                .toList();
+
+        assertThat(walkPages(Map.of(), 3)).containsExactlyElementsOf(expected);
+    }
+
+    @Test
+    void keysetPagesKeepTheirFiltersAcrossCursors() throws Exception {
+        long customerId = customerId();
+        postBulk("{\"orders\":[" + orderJson(customerId, "Bedding", "Sets") + ","
+                + orderJson(customerId, "Bedding", "Sets") + ","
+                + orderJson(customerId, "Bedding", "Sets") + "]}");
+        List<Long> expected = orderRepository.findAll().stream()
+                .filter(order -> order.getCustomer().getId() == customerId)
+                .filter(order -> order.getServiceType().equals("Bedding"))
+                .sorted(Comparator.comparing(LaundryOrder::getCreatedAt).thenComparing(LaundryOrder::getId).reversed())
+                .map(LaundryOrder::getId)
+                .toList();
+
+        assertThat(walkPages(Map.of("customerId", String.valueOf(customerId), "serviceType", "Bedding"), 2))
+                .containsExactlyElementsOf(expected);
+    }
+
+    @Test
+    void pageSizeIsCappedAndBadCursorsAreRejected() throws Exception {
+        long customerId = customerId();
+        String row = orderJson(customerId, "Ironing", "Items");
+        assertThat(postBulk("{\"orders\":[" + String.join(",", Collections.nCopies(201, row)) + "]}").getStatus())
+                .isEqualTo(201);
+
+        JsonNode page = getPage(Map.of("customerId", String.valueOf(customerId), "limit", "1000"));
+        assertThat(page.get("items")).hasSize(200);
+        assertThat(page.get("hasMore").asBoolean()).isTrue();
+
+        MockHttpServletResponse invalid = mockMvc.perform(get("/api/orders").param("cursor", "not-a-cursor"))
+                .andReturn().getResponse();
+        assertThat(invalid.getStatus()).isEqualTo(400);
+        assertThat(objectMapper.readTree(invalid.getContentAsString()).get("error").asText()).isEqualTo("Invalid cursor");
+    }
+
+    @Test
+    void customerStatsSumEveryOrderOfTheCustomer() throws Exception {
+        long customerId = customerId();
+        long cancelled = createOrder();
+        assertThat(patchStatus(cancelled, "CANCELLED").getStatus()).isEqualTo(200);
+        List<LaundryOrder> orders = orderRepository.findByCustomerId(customerId);
+
+        MockHttpServletResponse response = mockMvc.perform(get("/api/orders/stats/customers/" + customerId))
+                .andReturn().getResponse();
+
+        assertThat(response.getStatus()).isEqualTo(200);
+        JsonNode stats = objectMapper.readTree(response.getContentAsString());
+        assertThat(stats.get("activeOrders").asLong()).isEqualTo(orders.stream()
+                .filter(order -> order.getStatus() != OrderStatus.DELIVERED && order.getStatus() != OrderStatus.CANCELLED)
+                .count());
+        assertThat(stats.get("totalSpent").decimalValue()).isEqualByComparingTo(orders.stream()
+                .map(LaundryOrder::getPrice)
+                .reduce(BigDecimal.ZERO, BigDecimal::add));
+        assertThat(mockMvc.perform(get("/api/orders/stats/customers/999999"))
+                .andReturn().getResponse().getStatus()).isEqualTo(404);
+    }
+
+    private List<Long> walkPages(Map<String, String> filters, int limit) throws Exception {
+        List<Long> ids = new ArrayList<>();
+        Map<String, String> params = new HashMap<>(filters);
+        params.put("limit", String.valueOf(limit));
+        while (true) {
+            JsonNode page = getPage(params);
+            assertThat(page.get("items").size()).isLessThanOrEqualTo(limit);
+            page.get("items").forEach(item -> ids.add(item.get("id").asLong()));
+            if (!page.get("hasMore").asBoolean()) {
+                assertThat(page.get("nextCursor").isNull()).isTrue();
+                return ids;
+            }
+            assertThat(page.get("items").size()).isEqualTo(limit);
+            params.put("cursor", page.get("nextCursor").asText());
+        }
+    }
+
+    private JsonNode getPage(Map<String, String> params) throws Exception {
+        MockHttpServletRequestBuilder request = get("/api/orders");
+        params.forEach(request::param);
+        MockHttpServletResponse response = mockMvc.perform(request).andReturn().getResponse();
+        assertThat(response.getStatus()).isEqualTo(200);
+        return objectMapper.readTree(response.getContentAsString());
+    }
+
+    private MockHttpServletResponse export(String format, long customerId) throws Exception {
+        MvcResult started = mockMvc.perform(get("/api/orders/export")
+                        .param("format", format)
+                        .param("customerId", String.valueOf(customerId))
+                        .param("serviceType", "Bedding")
+                        .param("status", "PENDING"))
+                .andReturn();
+        return mockMvc.perform(asyncDispatch(started)).andReturn().getResponse();
+    }
+
+    private long createOrder() throws Exception {
+        MockHttpServletResponse response = mockMvc.perform(post("/api/orders")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(orderJson(customerId(), "Ironing", "Items")))
+                .andReturn().getResponse();
+        assertThat(response.getStatus()).isEqualTo(201);
+        return objectMapper.readTree(response.getContentAsString()).get("id").asLong();
+    }
+
+    private MockHttpServletResponse patchStatus(long id, String value) throws Exception {
+        return mockMvc.perform(patch("/api/orders/" + id + "/status").param("value", value))
+                .andReturn().getResponse();
+    }
+
+    private MockHttpServletResponse patchStatuses(String ids, String from, String to) throws Exception {
+        return mockMvc.perform(patch("/api/orders/status")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"ids\":" + ids + ",\"from\":\"" + from + "\",\"to\":\"" + to + "\"}"))
+                .andReturn().getResponse();
+    }
+
+    private MockHttpServletResponse postBulk(String body) throws Exception {
+        return mockMvc.perform(post("/api/orders/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andReturn().getResponse();
+    }
+
+    private long customerId() {
+        return orderRepository.findAll().get(0).getCustomer().getId();
+    }
+
+    private static String orderJson(long customerId, String serviceType, String unit) {
+        return "{\"customerId\":" + customerId + ",\"serviceType\":\"" + serviceType + "\",\"quantity\":2,"
+                + "\"unit\":\"" + unit + "\",\"price\":600}";
+    }
+}
@@ -0,0 +1,178 @@
+package com.laundry.lms.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.laundry.lms.repository.LaundryOrderRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Snapshots are not cached here, so every read sees the shared rollup table as it is.
+ */
+@SpringBootTest(properties = "lms.stats.cache-ttl=0s")
+@AutoConfigureMockMvc
+class OrderStatsTests {
+
+    private static final String SERVICE = "Stain Removal";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private LaundryOrderRepository orderRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void createStatusChangeAndDeleteMoveTheCounts() throws Exception {
+        JsonNode before = stats();
+
+        long id = createOrder();
+        JsonNode created = stats();
+        assertThat(created.get("total").asLong()).isEqualTo(before.get("total").asLong() + 1);
+        assertThat(count(created, "byStatus", "PENDING")).isEqualTo(count(before, "byStatus", "PENDING") + 1);
+        assertThat(count(created, "byServiceType", SERVICE)).isEqualTo(count(before, "byServiceType", SERVICE) + 1);
+        String today = LocalDate.now().toString();
+        assertThat(count(created, "byDay", today)).isEqualTo(count(before, "byDay", today) + 1);
+
+        mockMvc.perform(patch("/api/orders/" + id + "/status").param("value", "IN_PROGRESS")).andExpect(status().isOk());
+        JsonNode moved = stats();
+        assertThat(moved.get("total").asLong()).isEqualTo(created.get("total").asLong());
+        assertThat(count(moved, "byStatus", "PENDING")).isEqualTo(count(before, "byStatus", "PENDING"));
+        assertThat(count(moved, "byStatus", "IN_PROGRESS")).isEqualTo(count(before, "byStatus", "IN_PROGRESS") + 1);
+
+        mockMvc.perform(patch("/api/orders/status")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"ids\":[" + id + "],\"from\":\"IN_PROGRESS\",\"to\":\"READY\"}"))
+                .andExpect(status().isOk());
+        JsonNode ready = stats();
+        assertThat(count(ready, "byStatus", "IN_PROGRESS")).isEqualTo(count(before, "byStatus", "IN_PROGRESS"));
+        assertThat(count(ready, "byStatus", "READY")).isEqualTo(count(before, "byStatus", "READY") + 1);
+
+        mockMvc.perform(delete("/api/orders/" + id)).andExpect(status().isNoContent());
+        JsonNode deleted = stats();
+        assertThat(deleted.get("total").asLong()).isEqualTo(before.get("total").asLong());
+        assertThat(count(deleted, "byStatus", "READY")).isEqualTo(count(before, "byStatus", "READY"));
+        assertThat(count(deleted, "byServiceType", SERVICE)).isEqualTo(count(before, "byServiceType", SERVICE));
+    }
+
+    @Test
+    void statsReadTheSharedRollupTable() throws Exception {
+        createOrder();
+        long total = stats().get("total").asLong();
+
+        // Another instance's write lands in the table, not in this instance's memory.
+        jdbcTemplate.update("update order_stats_daily set order_count = order_count + 5 "
+                + "where stat_date = ? and service_type = ? and status = 'PENDING'", LocalDate.now(), SERVICE);
+        assertThat(stats().get("total").asLong()).isEqualTo(total + 5);
+
+        JsonNode rebuilt = json(mockMvc.perform(post("/api/orders/stats/rebuild")).andExpect(status().isOk()));
+        assertThat(rebuilt.get("total").asLong()).isEqualTo(orderRepository.count());
+    }
+
+    @Test
+    void rebuildRacingCreatesCountsEachOrderOnce() throws Exception {
+        ExecutorService pool = Executors.newSingleThreadExecutor();
+        try {
+            Future<?> rebuilds = pool.submit(() -> {
+                for (int i = 0; i < 10; i++) {
+                    mockMvc.perform(post("/api/orders/stats/rebuild"));
+                }
+                return null;
+            });
+            for (int i = 0; i < 20; i++) {
+                createOrder();
+            }
+            rebuilds.get(60, TimeUnit.SECONDS);
+        } finally {
+            pool.shutdown();
+        }
+
+        JsonNode stats = stats();
+        assertThat(stats.get("total").asLong()).isEqualTo(orderRepository.count());
+        long pending = jdbcTemplate.queryForObject("select count(*) from orders where status = 'PENDING'", Long.class);
+        assertThat(count(stats, "byStatus", "PENDING")).isEqualTo(pending);
+    }
+
+    @Test
+    void deletesRacingStatusChangesUncountTheStatusTheyDelete() throws Exception {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            ids.add(createOrder());
+        }
+        ExecutorService pool = Executors.newSingleThreadExecutor();
+        try {
+            Future<?> moves = pool.submit(() -> {
+                for (Long id : ids) {
+                    mockMvc.perform(patch("/api/orders/" + id + "/status").param("value", "IN_PROGRESS"));
+                }
+                return null;
+            });
+            for (Long id : ids) {
+                mockMvc.perform(delete("/api/orders/" + id));
+            }
+            moves.get(60, TimeUnit.SECONDS);
+        } finally {
+            pool.shutdown();
+        }
+
+        JsonNode stats = stats();
+        for (String status : List.of("PENDING", "IN_PROGRESS")) {
+            long actual = jdbcTemplate.queryForObject("select count(*) from orders where status = ?", Long.class, status);
+            assertThat(count(stats, "byStatus", status)).isEqualTo(actual);
+        }
+    }
+
+    @Test
+    void invalidRangeIsRejected() throws Exception {
+        mockMvc.perform(get("/api/orders/stats").param("from", "2026-02-01").param("to", "2026-01-01"))
+                .andExpect(status().isBadRequest());
+    }
+
+    private long createOrder() throws Exception {
+        Long customerId = orderRepository.findAll().get(0).getCustomer().getId();
+        return json(mockMvc.perform(post("/api/orders")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"customerId\":" + customerId + ",\"serviceType\":\"" + SERVICE + "\",\"quantity\":2,"
+                                + "\"unit\":\"Items\",\"price\":800}"))
+                .andExpect(status().isCreated())).get("id").asLong();
+    }
+
+    private JsonNode stats() throws Exception {
+        return json(mockMvc.perform(get("/api/orders/stats")).andExpect(status().isOk()));
+    }
+
+    private static long count(JsonNode stats, String field, String key) {
+        JsonNode value = stats.get(field).get(key);
+        return value == null ? 0 : value.asLong();
+    }
+
+    private JsonNode json(ResultActions result) throws Exception {
+        return objectMapper.readTree(result.andReturn().getResponse().getContentAsString());
+    }
+}
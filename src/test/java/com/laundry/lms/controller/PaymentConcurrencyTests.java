@@ -0,0 +1,174 @@
+package com.laundry.lms.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.laundry.lms.model.LaundryOrder;
+import com.laundry.lms.model.PaymentEventType;
+import com.laundry.lms.model.PaymentStatus;
+import com.laundry.lms.repository.LaundryOrderRepository;
+import com.laundry.lms.repository.OrderBalanceRepository;
+import com.laundry.lms.repository.PaymentEventRepository;
+import com.laundry.lms.repository.PaymentRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class PaymentConcurrencyTests {
+
+    private static final int PAYMENTS = 10;
+    private static final int THREADS = 16;
+    private static final BigDecimal AMOUNT = new BigDecimal("10.00");
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private LaundryOrderRepository orderRepository;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private PaymentEventRepository paymentEventRepository;
+
+    @Autowired
+    private OrderBalanceRepository balanceRepository;
+
+    @Test
+    void concurrentCompletionsSucceedExactlyOncePerPayment() throws Exception {
+        LaundryOrder order = orderRepository.findAll().get(3);
+        BigDecimal paidBefore = balanceRepository.findById(order.getId()).orElseThrow().getAmountPaid();
+        List<Long> paymentIds = new ArrayList<>();
+        for (int i = 0; i < PAYMENTS; i++) {
+            paymentIds.add(createPayment(order.getId()));
+        }
+
+        Map<Long, AtomicInteger> successes = new ConcurrentHashMap<>();
+        // A loser either lost the conditional update (409) or read the payment already completed (400).
+        AtomicInteger losers = new AtomicInteger();
+        AtomicInteger unexpected = new AtomicInteger();
+        hammer(id -> patch("/api/payments/" + id + "/status?value=COMPLETED"), paymentIds, (id, status) -> {
+            if (status == 200) {
+                successes.computeIfAbsent(id, key -> new AtomicInteger()).incrementAndGet();
+            } else if (status == 409 || status == 400) {
+                losers.incrementAndGet();
+            } else {
+                unexpected.incrementAndGet();
+            }
+        });
+
+        assertThat(unexpected).hasValue(0);
+        assertThat(successes).hasSize(PAYMENTS);
+        assertThat(successes.values()).allSatisfy(count -> assertThat(count).hasValue(1));
+        assertThat(losers).hasValue(PAYMENTS * (THREADS - 1));
+        for (Long id : paymentIds) {
+            assertThat(paymentRepository.findById(id).orElseThrow().getStatus()).isEqualTo(PaymentStatus.COMPLETED);
+            assertThat(paymentEventRepository.findByPaymentIdOrderByVersionAscIdAsc(id))
+                    .filteredOn(event -> event.getType() == PaymentEventType.STATUS_CHANGED)
+                    .hasSize(1);
+        }
+        // Each completion was applied to the balance once, not once per racing request.
+        BigDecimal paidAfter = balanceRepository.findById(order.getId()).orElseThrow().getAmountPaid();
+        assertThat(paidAfter).isEqualByComparingTo(paidBefore.add(AMOUNT.multiply(BigDecimal.valueOf(PAYMENTS))));
+    }
+
+    @Test
+    void forbiddenTransitionIsABadRequest() throws Exception {
+        long id = createPayment(orderRepository.findAll().get(5).getId());
+        assertThat(mockMvc.perform(patch("/api/payments/" + id + "/status?value=COMPLETED"))
+                .andReturn().getResponse().getStatus()).isEqualTo(200);
+
+        assertThat(mockMvc.perform(patch("/api/payments/" + id + "/status?value=PENDING"))
+                .andReturn().getResponse().getStatus()).isEqualTo(400);
+        assertThat(paymentRepository.findById(id).orElseThrow().getStatus()).isEqualTo(PaymentStatus.COMPLETED);
+    }
+
+    @Test
+    void deleteRacingCompletionKeepsBalanceConsistent() throws Exception {
+        LaundryOrder order = orderRepository.findAll().get(4);
+        List<Long> paymentIds = new ArrayList<>();
+        for (int i = 0; i < PAYMENTS; i++) {
+            paymentIds.add(createPayment(order.getId()));
+        }
+
+        AtomicInteger unexpected = new AtomicInteger();
+        AtomicInteger round = new AtomicInteger();
+        hammer(id -> round.incrementAndGet() % 2 == 0
+                        ? delete("/api/payments/" + id)
+                        : patch("/api/payments/" + id + "/status?value=COMPLETED"),
+                paymentIds, (id, status) -> {
+                    if (status != 200 && status != 204 && status != 400 && status != 404 && status != 409) {
+                        unexpected.incrementAndGet();
+                    }
+                });
+
+        assertThat(unexpected).hasValue(0);
+        String reconcile = mockMvc.perform(post("/api/balances/reconcile")).andReturn().getResponse().getContentAsString();
+        assertThat(objectMapper.readTree(reconcile).get("corrected").asInt()).isZero();
+    }
+
+    private void hammer(RequestFactory requests, List<Long> paymentIds, Outcome outcome) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        try {
+            for (int t = 0; t < THREADS; t++) {
+                futures.add(pool.submit(() -> {
+                    start.await();
+                    for (Long id : paymentIds) {
+                        int status = mockMvc.perform(requests.build(id)).andReturn().getResponse().getStatus();
+                        outcome.record(id, status);
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private long createPayment(Long orderId) throws Exception {
+        String body = mockMvc.perform(post("/api/payments")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"orderId\":" + orderId + ",\"amount\":" + AMOUNT + ",\"method\":\"Card\"}"))
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body).get("id").asLong();
+    }
+
+    private interface RequestFactory {
+        RequestBuilder build(Long id);
+    }
+
+    private interface Outcome {
+        void record(Long id, int status);
+    }
+}
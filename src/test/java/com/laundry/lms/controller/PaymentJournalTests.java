@@ -0,0 +1,145 @@
+package com.laundry.lms.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.laundry.lms.model.LaundryOrder;
+import com.laundry.lms.model.OrderBalance;
+import com.laundry.lms.repository.LaundryOrderRepository;
+import com.laundry.lms.repository.OrderBalanceRepository;
+import com.laundry.lms.repository.PaymentRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class PaymentJournalTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private LaundryOrderRepository orderRepository;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private OrderBalanceRepository balanceRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void historySurvivesDeletionAndKeepsEveryStatus() throws Exception {
+        LaundryOrder order = orderRepository.findAll().get(0);
+        long paymentId = createPayment(order.getId(), "75.00");
+        mockMvc.perform(patch("/api/payments/" + paymentId + "/status?value=COMPLETED"));
+        mockMvc.perform(delete("/api/payments/" + paymentId));
+
+        JsonNode history = json(mockMvc.perform(get("/api/payments/" + paymentId + "/history"))
+                .andReturn().getResponse().getContentAsString());
+
+        assertThat(history).hasSize(3);
+        assertThat(history.get(0).get("type").asText()).isEqualTo("CREATED");
+        assertThat(history.get(0).get("status").asText()).isEqualTo("PENDING");
+        assertThat(history.get(1).get("type").asText()).isEqualTo("STATUS_CHANGED");
+        assertThat(history.get(1).get("fromStatus").asText()).isEqualTo("PENDING");
+        assertThat(history.get(1).get("status").asText()).isEqualTo("COMPLETED");
+        assertThat(history.get(2).get("type").asText()).isEqualTo("DELETED");
+    }
+
+    @Test
+    void replayRestoresBalancesAndFlagsOutOfBandEdits() throws Exception {
+        LaundryOrder order = orderRepository.findAll().get(2);
+        long paymentId = createPayment(order.getId(), "120.00");
+        mockMvc.perform(patch("/api/payments/" + paymentId + "/status?value=COMPLETED"));
+        OrderBalance expected = balanceRepository.findById(order.getId()).orElseThrow();
+
+        // A bad edit straight in the database: balances wiped, one payment amount changed.
+        jdbcTemplate.update("update order_balances set amount_paid = 0, outstanding = amount_due");
+        jdbcTemplate.update("update payments set amount = amount + 1 where id = ?", paymentId);
+
+        JsonNode result = json(mockMvc.perform(post("/api/payments/journal/replay"))
+                .andReturn().getResponse().getContentAsString());
+
+        assertThat(result.get("payments").asLong()).isEqualTo(paymentRepository.count());
+        assertThat(result.get("driftedPayments").asLong()).isEqualTo(1);
+        OrderBalance replayed = balanceRepository.findById(order.getId()).orElseThrow();
+        assertThat(replayed.getAmountPaid()).isEqualByComparingTo(expected.getAmountPaid());
+        assertThat(replayed.getOutstanding()).isEqualByComparingTo(expected.getOutstanding());
+        assertThat(replayed.getAmountPaid()).isGreaterThanOrEqualTo(new BigDecimal("120.00"));
+
+        // Undo the edit; the context (and its database) is shared with other test classes.
+        jdbcTemplate.update("update payments set amount = amount - 1 where id = ?", paymentId);
+        JsonNode clean = json(mockMvc.perform(post("/api/payments/journal/replay"))
+                .andReturn().getResponse().getContentAsString());
+        assertThat(clean.get("driftedPayments").asLong()).isZero();
+    }
+
+    @Test
+    void paymentsCommittedDuringReplayAreNeitherLostNorDoubleCounted() throws Exception {
+        LaundryOrder order = orderRepository.findAll().get(3);
+        ExecutorService pool = Executors.newSingleThreadExecutor();
+        AtomicBoolean writing = new AtomicBoolean(true);
+        Future<Integer> replays = pool.submit(() -> {
+            int runs = 0;
+            while (writing.get()) {
+                mockMvc.perform(post("/api/payments/journal/replay"));
+                runs++;
+            }
+            return runs;
+        });
+        try {
+            for (int i = 0; i < 40; i++) {
+                long paymentId = createPayment(order.getId(), "10.00");
+                if (i % 2 == 0) {
+                    mockMvc.perform(patch("/api/payments/" + paymentId + "/status?value=COMPLETED"));
+                }
+            }
+        } finally {
+            writing.set(false);
+        }
+        assertThat(replays.get(60, TimeUnit.SECONDS)).isPositive();
+        pool.shutdown();
+
+        String reconcile = mockMvc.perform(post("/api/balances/reconcile")).andReturn().getResponse().getContentAsString();
+        assertThat(json(reconcile).get("corrected").asInt()).isZero();
+        BigDecimal booked = jdbcTemplate.queryForObject("select coalesce(sum(amount), 0) from revenue_daily", BigDecimal.class);
+        BigDecimal completed = jdbcTemplate.queryForObject(
+                "select coalesce(sum(amount), 0) from payments where status = 'COMPLETED'", BigDecimal.class);
+        assertThat(booked).isEqualByComparingTo(completed);
+    }
+
+    private long createPayment(Long orderId, String amount) throws Exception {
+        String body = mockMvc.perform(post("/api/payments")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"orderId\":" + orderId + ",\"amount\":" + amount + ",\"method\":\"Cash\"}"))
+                .andReturn().getResponse().getContentAsString();
+        return json(body).get("id").asLong();
+    }
+
+    private JsonNode json(String body) throws Exception {
+        return objectMapper.readTree(body);
+    }
+}
@@ -0,0 +1,219 @@
+package com.laundry.lms.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.laundry.lms.dto.TaskResponse;
+import com.laundry.lms.model.LaundryOrder;
+import com.laundry.lms.model.ProductionStage;
+import com.laundry.lms.model.TaskStatus;
+import com.laundry.lms.repository.LaundryOrderRepository;
+import com.laundry.lms.repository.TaskRepository;
+import com.laundry.lms.service.OrderStatusService;
+import com.laundry.lms.service.ProductionPipelineService;
+import com.laundry.lms.service.TaskDispatchService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class PipelineControllerTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private LaundryOrderRepository orderRepository;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private OrderStatusService orderStatusService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void orderMovesThroughItsStageTasks() throws Exception {
+        LocalDate delivery = LocalDate.now().plusDays(3);
+        Long customerId = orderRepository.findAll().get(0).getCustomer().getId();
+        JsonNode order = json(mockMvc.perform(post("/api/orders")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"customerId\":" + customerId + ",\"serviceType\":\"Dry Cleaning\",\"quantity\":2,"
+                        + "\"unit\":\"Items\",\"price\":1800,\"deliveryDate\":\"" + delivery + "\"}"))
+                .andExpect(status().isCreated()));
+        long orderId = order.get("id").asLong();
+
+        List<TaskResponse> stageTasks = stageTasks(orderId);
+        assertThat(stageTasks).extracting(TaskResponse::getStage)
+                .containsExactly(ProductionStage.DRY, ProductionStage.IRON, ProductionStage.PACK);
+        assertThat(stageTasks).allSatisfy(task -> {
+            assertThat(task.getStatus()).isEqualTo(TaskStatus.PENDING);
+            assertThat(task.getDueDate()).isEqualTo(delivery);
+        });
+        // Expanding again creates nothing.
+        assertThat(json(mockMvc.perform(post("/api/pipeline/orders/" + orderId + "/expand"))).size()).isZero();
+
+        JsonNode forecast = json(mockMvc.perform(get("/api/pipeline/orders/" + orderId)));
+        assertThat(forecast.get("remainingStages")).hasSize(3);
+        assertThat(forecast.get("promisedBy").asText()).isEqualTo(delivery + "T18:00:00");
+        assertThat(forecast.get("completesAt").isNull()).isFalse();
+
+        mockMvc.perform(patch("/api/tasks/" + stageTasks.get(0).getId() + "/status").param("value", "COMPLETED"))
+                .andExpect(status().isOk());
+        forecast = json(mockMvc.perform(get("/api/pipeline/orders/" + orderId)));
+        assertThat(forecast.get("remainingStages").get(0).asText()).isEqualTo("IRON");
+
+        JsonNode stages = json(mockMvc.perform(get("/api/pipeline/stages")));
+        assertThat(stages).hasSize(ProductionStage.values().length);
+        for (JsonNode stage : stages) {
+            assertThat(stage.get("servers").asInt())
+                    .isEqualTo(Math.min(stage.get("machines").asInt(), stage.get("staff").asInt()));
+        }
+        assertThat(stages.get(ProductionStage.IRON.ordinal()).get("pendingTasks").asLong()).isPositive();
+
+        mockMvc.perform(delete("/api/orders/" + orderId)).andExpect(status().isNoContent());
+        assertThat(stageTasks(orderId)).isEmpty();
+        mockMvc.perform(get("/api/pipeline/orders/" + orderId)).andExpect(status().isNotFound());
+    }
+
+    @Test
+    void closingAnOrderClosesItsOpenStageTasks() throws Exception {
+        long cancelled = createOrder("Ironing");
+        long ready = createOrder("Wash & Fold");
+        // Hand the new stage tasks out, so closing them has to release someone's workload.
+        mockMvc.perform(post("/api/tasks/rebalance")).andExpect(status().isOk());
+        mockMvc.perform(patch("/api/tasks/" + stageTasks(ready).get(0).getId() + "/status").param("value", "IN_PROGRESS"))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(patch("/api/orders/" + cancelled + "/status").param("value", "CANCELLED"))
+                .andExpect(status().isOk());
+        assertThat(stageTasks(cancelled)).extracting(TaskResponse::getStatus).containsOnly(TaskStatus.CANCELLED);
+
+        mockMvc.perform(patch("/api/orders/status")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"ids\":[" + ready + "],\"from\":\"PENDING\",\"to\":\"IN_PROGRESS\"}"))
+                .andExpect(status().isOk());
+        assertThat(stageTasks(ready)).extracting(TaskResponse::getStatus).doesNotContain(TaskStatus.COMPLETED);
+        mockMvc.perform(patch("/api/orders/status")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"ids\":[" + ready + "],\"from\":\"IN_PROGRESS\",\"to\":\"READY\"}"))
+                .andExpect(status().isOk());
+        assertThat(stageTasks(ready)).extracting(TaskResponse::getStatus).containsOnly(TaskStatus.COMPLETED);
+
+        // Closed stage tasks leave the live queues and the workload figures.
+        long open = 0;
+        for (JsonNode stage : json(mockMvc.perform(get("/api/pipeline/stages")))) {
+            open += stage.get("pendingTasks").asLong() + stage.get("inProgressTasks").asLong();
+        }
+        long openStageTasks = taskRepository.findAllResponses().stream()
+                .filter(task -> task.getStage() != null)
+                .filter(task -> TaskDispatchService.OPEN.contains(task.getStatus()))
+                .count();
+        assertThat(open).isEqualTo(openStageTasks);
+        Map<String, Integer> counted = new HashMap<>();
+        for (TaskResponse task : taskRepository.findAllResponses()) {
+            if (TaskDispatchService.OPEN.contains(task.getStatus()) && task.getAssignedTo() != null) {
+                counted.merge(task.getAssignedTo(), 1, Integer::sum);
+            }
+        }
+        for (JsonNode staff : json(mockMvc.perform(get("/api/tasks/workload")))) {
+            assertThat(staff.get("openTasks").asInt())
+                    .as(staff.get("staff").asText())
+                    .isEqualTo(counted.getOrDefault(staff.get("staff").asText(), 0));
+        }
+    }
+
+    @Test
+    void rolledBackDeleteKeepsStageTasksAndWorkloads() throws Exception {
+        long orderId = createOrder("Dry Cleaning");
+        mockMvc.perform(post("/api/tasks/rebalance")).andExpect(status().isOk());
+        int stageTaskCount = stageTasks(orderId).size();
+        JsonNode workload = json(mockMvc.perform(get("/api/tasks/workload")));
+
+        transactionTemplate.executeWithoutResult(tx -> {
+            assertThat(orderStatusService.delete(orderId)).isTrue();
+            tx.setRollbackOnly();
+        });
+
+        assertThat(orderRepository.existsById(orderId)).isTrue();
+        assertThat(stageTasks(orderId)).hasSize(stageTaskCount);
+        assertThat(json(mockMvc.perform(get("/api/tasks/workload")))).isEqualTo(workload);
+        assertThat(json(mockMvc.perform(get("/api/pipeline/orders/" + orderId))).get("remainingStages"))
+                .hasSize(stageTaskCount);
+
+        mockMvc.perform(delete("/api/orders/" + orderId)).andExpect(status().isNoContent());
+        assertThat(stageTasks(orderId)).isEmpty();
+    }
+
+    @Test
+    void forecastCoversEveryOpenOrder() throws Exception {
+        mockMvc.perform(post("/api/pipeline/expand")).andExpect(status().isOk());
+        assertThat(json(mockMvc.perform(post("/api/pipeline/expand"))).get("created").asInt()).isZero();
+
+        JsonNode forecast = json(mockMvc.perform(get("/api/pipeline/forecast?limit=5")));
+
+        long open = orderRepository.findAll().stream()
+                .filter(order -> ProductionPipelineService.OPEN.contains(order.getStatus()))
+                .count();
+        assertThat(forecast.get("orders").asLong()).isEqualTo(open);
+        assertThat(forecast.get("lateOrders").asInt()).isBetween(0, (int) open);
+        assertThat(forecast.get("stages")).hasSize(ProductionStage.values().length);
+        List<Long> slack = new ArrayList<>();
+        // Orders without a delivery date have no slack and rank last.
+        forecast.get("atRisk").forEach(order -> slack.add(order.get("slackMinutes").isNull()
+                ? Long.MAX_VALUE : order.get("slackMinutes").asLong()));
+        assertThat(slack).hasSizeLessThanOrEqualTo(5).isSortedAccordingTo(Comparator.naturalOrder());
+
+        // Every open order has all of its route's stage tasks after the backfill.
+        for (LaundryOrder order : orderRepository.findAll()) {
+            if (ProductionPipelineService.OPEN.contains(order.getStatus())) {
+                assertThat(stageTasks(order.getId())).extracting(TaskResponse::getStage)
+                        .containsExactlyElementsOf(ProductionStage.routeFor(order.getServiceType()));
+            }
+        }
+    }
+
+    private long createOrder(String serviceType) throws Exception {
+        Long customerId = orderRepository.findAll().get(0).getCustomer().getId();
+        return json(mockMvc.perform(post("/api/orders")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"customerId\":" + customerId + ",\"serviceType\":\"" + serviceType + "\",\"quantity\":2,"
+                        + "\"unit\":\"Items\",\"price\":600,\"deliveryDate\":\"" + LocalDate.now().plusDays(2) + "\"}"))
+                .andExpect(status().isCreated())).get("id").asLong();
+    }
+
+    private List<TaskResponse> stageTasks(long orderId) {
+        return taskRepository.findAllResponses().stream()
+                .filter(task -> task.getOrderId() != null && task.getOrderId() == orderId)
+                .sorted(Comparator.comparing(TaskResponse::getStage))
+                .toList();
+    }
+
+    private JsonNode json(ResultActions result) throws Exception {
+        return objectMapper.readTree(result.andReturn().getResponse().getContentAsString());
+    }
+}
@@ -0,0 +1,126 @@
+package com.laundry.lms.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.laundry.lms.dto.TaskResponse;
+import com.laundry.lms.model.TaskStatus;
+import com.laundry.lms.repository.TaskRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class TaskBoardTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void columnsPageThroughEveryTaskInDueDateOrder() throws Exception {
+        createTask("Undated", "Ishara", null);
+        createTask("Undated too", "Ishara", null);
+        createTask("Dated", "Ishara", LocalDate.now().plusDays(1));
+
+        JsonNode board = json(mockMvc.perform(get("/api/tasks/board?limit=2")));
+
+        List<TaskResponse> all = taskRepository.findAllResponses();
+        for (TaskStatus status : TaskStatus.values()) {
+            long expected = all.stream().filter(task -> task.getStatus() == status).count();
+            assertThat(board.get("counts").get(status.name()).asLong()).as(status.name()).isEqualTo(expected);
+
+            List<JsonNode> seen = new ArrayList<>();
+            JsonNode page = board.get("columns").get(status.name());
+            page.get("items").forEach(seen::add);
+            while (page.get("hasMore").asBoolean()) {
+                String cursor = URLEncoder.encode(page.get("nextCursor").asText(), StandardCharsets.UTF_8);
+                page = json(mockMvc.perform(get("/api/tasks/board/" + status + "?limit=2&cursor=" + cursor)));
+                assertThat(page.get("items").size()).isLessThanOrEqualTo(2);
+                page.get("items").forEach(seen::add);
+            }
+
+            Set<Long> ids = new HashSet<>();
+            seen.forEach(task -> ids.add(task.get("id").asLong()));
+            assertThat(ids).as(status.name()).hasSize(seen.size()).hasSize((int) expected);
+            // Undated first, then by due date and id.
+            List<String> keys = seen.stream()
+                    .map(task -> (task.get("dueDate").isNull() ? "0000-00-00" : task.get("dueDate").asText())
+                            + "|" + String.format("%012d", task.get("id").asLong()))
+                    .toList();
+            assertThat(keys).isSortedAccordingTo(Comparator.naturalOrder());
+        }
+    }
+
+    @Test
+    void countsAreCachedUntilATaskIsWritten() throws Exception {
+        String filter = "?assignedTo=Pasan&dueFrom=" + LocalDate.now().minusDays(30) + "&dueTo=" + LocalDate.now().plusDays(30);
+        long before = json(mockMvc.perform(get("/api/tasks/board" + filter))).get("counts").get("PENDING").asLong();
+
+        // Written behind the application's back: the cached count does not see it.
+        jdbcTemplate.update("insert into tasks (id, title, assigned_to, due_date, price, status, created_at) " +
+                        "values (?, 'Out of band', 'Pasan', ?, 0, 'PENDING', ?)",
+                9_000_001L, LocalDate.now(), LocalDateTime.now());
+        assertThat(json(mockMvc.perform(get("/api/tasks/board" + filter))).get("counts").get("PENDING").asLong())
+                .isEqualTo(before);
+
+        createTask("Through the API", "Pasan", LocalDate.now());
+        JsonNode after = json(mockMvc.perform(get("/api/tasks/board" + filter)));
+        assertThat(after.get("counts").get("PENDING").asLong()).isEqualTo(before + 2);
+        assertThat(after.get("columns").get("PENDING").get("items"))
+                .allSatisfy(task -> assertThat(task.get("assignedTo").asText()).isEqualTo("Pasan"));
+    }
+
+    @Test
+    void rejectsBadFilters() throws Exception {
+        assertThat(mockMvc.perform(get("/api/tasks/board/DONE")).andReturn().getResponse().getStatus()).isEqualTo(400);
+        assertThat(mockMvc.perform(get("/api/tasks/board/PENDING?cursor=not-a-cursor")).andReturn().getResponse().getStatus())
+                .isEqualTo(400);
+        assertThat(mockMvc.perform(get("/api/tasks/board?dueFrom=2026-02-01&dueTo=2026-01-01")).andReturn().getResponse().getStatus())
+                .isEqualTo(400);
+        assertThat(mockMvc.perform(get("/api/tasks/board?limit=0")).andReturn().getResponse().getStatus()).isEqualTo(400);
+        assertThat(mockMvc.perform(get("/api/tasks/board?limit=101")).andReturn().getResponse().getStatus()).isEqualTo(400);
+        assertThat(mockMvc.perform(get("/api/tasks/board/PENDING?limit=500")).andReturn().getResponse().getStatus())
+                .isEqualTo(400);
+        assertThat(mockMvc.perform(get("/api/tasks/board/PENDING?limit=100")).andReturn().getResponse().getStatus())
+                .isEqualTo(200);
+    }
+
+    private void createTask(String title, String assignee, LocalDate dueDate) throws Exception {
+        mockMvc.perform(post("/api/tasks")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"title\":\"" + title + "\",\"assignedTo\":\"" + assignee + "\",\"price\":300"
+                        + (dueDate == null ? "" : ",\"dueDate\":\"" + dueDate + "\"") + "}"));
+    }
+
+    private JsonNode json(ResultActions result) throws Exception {
+        return objectMapper.readTree(result.andReturn().getResponse().getContentAsString());
+    }
+}
@@ -0,0 +1,110 @@
+package com.laundry.lms.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.laundry.lms.dto.TaskResponse;
+import com.laundry.lms.repository.TaskRepository;
+import com.laundry.lms.service.TaskDispatchService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class TaskDispatchTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Test
+    void unassignedTaskGoesToLeastLoadedStaff() throws Exception {
+        JsonNode before = json(mockMvc.perform(get("/api/tasks/workload")));
+        JsonNode leastLoaded = before.get(0);
+        assertThat(leastLoaded.get("eligible").asBoolean()).isTrue();
+
+        JsonNode created = json(mockMvc.perform(post("/api/tasks")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"title\":\"Press suits\",\"price\":400,\"dueDate\":\"" + LocalDate.now().plusDays(2) + "\"}")));
+
+        assertThat(created.get("assignedTo").asText()).isEqualTo(leastLoaded.get("staff").asText());
+        JsonNode after = workloadOf(created.get("assignedTo").asText());
+        assertThat(after.get("openEffort").decimalValue())
+                .isEqualByComparingTo(leastLoaded.get("openEffort").decimalValue().add(new BigDecimal("400")));
+        assertThat(after.get("openTasks").asInt()).isEqualTo(leastLoaded.get("openTasks").asInt() + 1);
+    }
+
+    @Test
+    void rebalanceSpreadsPendingWorkAndMatchesTable() throws Exception {
+        for (int i = 0; i < 8; i++) {
+            mockMvc.perform(post("/api/tasks")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content("{\"title\":\"Backlog " + i + "\",\"assignedTo\":\"Saman\",\"price\":1000,\"dueDate\":\""
+                            + LocalDate.now().plusDays(i) + "\"}"));
+        }
+        BigDecimal spreadBefore = eligibleSpread(json(mockMvc.perform(get("/api/tasks/workload"))));
+
+        JsonNode result = json(mockMvc.perform(post("/api/tasks/rebalance")));
+
+        assertThat(result.get("moved").asInt()).isPositive();
+        assertThat(eligibleSpread(result.get("workload"))).isLessThan(spreadBefore);
+
+        // The in-memory workload must agree with a recount straight from the table.
+        Map<String, Integer> counted = new HashMap<>();
+        for (TaskResponse task : taskRepository.findAllResponses()) {
+            if (TaskDispatchService.OPEN.contains(task.getStatus()) && task.getAssignedTo() != null) {
+                counted.merge(task.getAssignedTo(), 1, Integer::sum);
+            }
+        }
+        for (JsonNode staff : result.get("workload")) {
+            assertThat(staff.get("openTasks").asInt())
+                    .as(staff.get("staff").asText())
+                    .isEqualTo(counted.getOrDefault(staff.get("staff").asText(), 0));
+        }
+    }
+
+    private BigDecimal eligibleSpread(JsonNode workload) {
+        BigDecimal min = null;
+        BigDecimal max = null;
+        for (JsonNode staff : workload) {
+            if (!staff.get("eligible").asBoolean()) {
+                continue;
+            }
+            BigDecimal effort = staff.get("openEffort").decimalValue();
+            min = min == null || effort.compareTo(min) < 0 ? effort : min;
+            max = max == null || effort.compareTo(max) > 0 ? effort : max;
+        }
+        return max.subtract(min);
+    }
+
+    private JsonNode workloadOf(String name) throws Exception {
+        for (JsonNode staff : json(mockMvc.perform(get("/api/tasks/workload")))) {
+            if (staff.get("staff").asText().equals(name)) {
+                return staff;
+            }
+        }
+        throw new AssertionError("No workload for " + name);
+    }
+
+    private JsonNode json(ResultActions result) throws Exception {
+        return objectMapper.readTree(result.andReturn().getResponse().getContentAsString());
+    }
+}
@@ -0,0 +1,29 @@
+package com.laundry.lms.repository;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Records every SQL string Hibernate prepares so tests can inspect the generated statements.
+ */
+public class CapturingStatementInspector implements StatementInspector {
+
+    private static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+    @Override
+    public String inspect(String sql) {
+        STATEMENTS.add(sql);
+        return sql;
+    }
+
+    static void clear() {
+        STATEMENTS.clear();
+    }
+
+    static List<String> captured() {
+        return new ArrayList<>(STATEMENTS);
+    }
+}
@@ -0,0 +1,235 @@
+package com.laundry.lms.repository;
+
+import com.laundry.lms.model.OrderStatus;
+import com.laundry.lms.model.PaymentStatus;
+import com.laundry.lms.model.SearchDocumentType;
+import com.laundry.lms.model.TaskStatus;
+import com.laundry.lms.model.UserRole;
+import com.laundry.lms.service.DeadlineAlertService;
+import com.laundry.lms.service.ProductionPipelineService;
+import com.laundry.lms.service.SearchService;
+import com.laundry.lms.service.TaskDispatchService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs EXPLAIN on the SQL behind each filtered repository query and fails if H2 plans a full
+ * table scan, so a dropped or mismatched index shows up as a test failure.
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.laundry.lms.repository.CapturingStatementInspector"
+})
+class QueryPlanTests {
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private LaundryOrderRepository orderRepository;
+
+    @Autowired
+    private MessageRepository messageRepository;
+
+    @Autowired
+    private ArchivedMessageRepository archivedMessageRepository;
+
+    @Autowired
+    private OrderBalanceRepository orderBalanceRepository;
+
+    @Autowired
+    private RevenueRollupRepository revenueRollupRepository;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private PaymentEventRepository paymentEventRepository;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+
+    @Autowired
+    private SearchPostingRepository searchPostingRepository;
+
+    @Autowired
+    private SearchService searchService;
+
+    @Test
+    void orderQueriesUseIndexes() {
+        assertNoFullScan(() -> orderRepository.findByCustomerId(2L));
+        assertNoFullScan(() -> orderRepository.findCustomerStats(2L, EnumSet.of(OrderStatus.DELIVERED, OrderStatus.CANCELLED)));
+        assertNoFullScan(() -> orderRepository.findResponses(
+                LaundryOrderSpecifications.filter(2L, null, null, null, null), 50));
+        assertNoFullScan(() -> orderRepository.findResponses(
+                LaundryOrderSpecifications.filter(null, OrderStatus.READY, null, null, null), 50));
+        assertNoFullScan(() -> orderRepository.findResponses(
+                LaundryOrderSpecifications.filter(null, null, "Ironing", null, null), 50));
+        assertNoFullScan(() -> orderRepository.findResponses(
+                LaundryOrderSpecifications.filter(null, null, null, LocalDateTime.now().minusDays(7), null), 50));
+        assertNoFullScan(() -> orderRepository.lockInStatus(List.of(1L, 2L), OrderStatus.PENDING));
+        assertNoFullScan(() -> orderRepository.lockStatsRow(1L));
+    }
+
+    @Test
+    void messageQueriesUseIndexes() {
+        assertNoFullScan(() -> messageRepository.findConversation(1L, 2L));
+        assertNoFullScan(() -> messageRepository.findConversationResponses(1L, 2L));
+        assertNoFullScan(() -> messageRepository.findByFromUserIdOrToUserIdOrderByTimestampAsc(2L, 2L));
+        assertNoFullScan(() -> messageRepository.findResponsesInvolving(2L));
+        assertNoFullScan(() -> messageRepository.findConversationResponsesAfter(1L, 2L, LocalDateTime.now().minusHours(1)));
+        assertNoFullScan(() -> messageRepository.findConversationResponsesBefore(1L, 2L, LocalDateTime.now(), 50L, Limit.of(10)));
+        assertNoFullScan(() -> messageRepository.countConversation(1L, 2L));
+        assertNoFullScan(() -> messageRepository.findTimestampById(5L));
+        assertNoFullScan(() -> messageRepository.findResponsesInvolvingAfter(2L, LocalDateTime.now().minusHours(1)));
+        assertNoFullScan(() -> messageRepository.findResponsesInvolvingBefore(2L, LocalDateTime.now(), 50L, Limit.of(10)));
+        assertNoFullScan(() -> messageRepository.findInboxRows(1L));
+        assertNoFullScan(() -> messageRepository.markRead(2L, 1L, LocalDateTime.now(), 50L, LocalDateTime.now()));
+        assertNoFullScan(() -> messageRepository.findIdsOlderThan(LocalDateTime.now().minusDays(180), Limit.of(500)));
+    }
+
+    @Test
+    void archivedMessageQueriesUseIndexes() {
+        assertNoFullScan(() -> archivedMessageRepository.findConversationResponsesAfter(1L, 2L, LocalDateTime.now().minusHours(1)));
+        assertNoFullScan(() -> archivedMessageRepository.findConversationResponsesBefore(1L, 2L, LocalDateTime.now(), 50L, Limit.of(10)));
+        assertNoFullScan(() -> archivedMessageRepository.countConversation(1L, 2L));
+        assertNoFullScan(() -> archivedMessageRepository.findTimestampById(5L));
+        assertNoFullScan(() -> archivedMessageRepository.findResponsesInvolvingAfter(2L, LocalDateTime.now().minusHours(1)));
+        assertNoFullScan(() -> archivedMessageRepository.findResponsesInvolvingBefore(2L, LocalDateTime.now(), 50L, Limit.of(10)));
+        assertNoFullScan(() -> archivedMessageRepository.markRead(2L, 1L, LocalDateTime.now(), 50L, LocalDateTime.now()));
+    }
+
+    @Test
+    void balanceQueriesUseIndexes() {
+        assertNoFullScan(() -> orderBalanceRepository.findOutstanding(Limit.of(50)));
+        assertNoFullScan(() -> orderBalanceRepository.findCustomersOwing(Limit.of(50)));
+        assertNoFullScan(() -> orderBalanceRepository.findCustomerSummary(2L));
+        assertNoFullScan(() -> orderBalanceRepository.findByCustomerIdOrderByOrderIdAsc(2L));
+        assertNoFullScan(() -> orderBalanceRepository.sumOutstanding());
+        assertNoFullScan(() -> orderBalanceRepository.applyPayment(1L, BigDecimal.ONE, BigDecimal.ZERO, LocalDateTime.now()));
+        assertNoFullScan(() -> revenueRollupRepository.findByDayBetween(LocalDate.now().minusDays(30), LocalDate.now()));
+        assertNoFullScan(() -> revenueRollupRepository.aggregateFromPayments(1L, 5000L));
+    }
+
+    @Test
+    void paymentJournalQueriesUseIndexes() {
+        assertNoFullScan(() -> paymentEventRepository.findByPaymentIdOrderByVersionAscIdAsc(1L));
+        assertNoFullScan(() -> paymentEventRepository.findMaxVersion(1L));
+        assertNoFullScan(() -> paymentEventRepository.findRowsAfter(0L, Limit.of(500)));
+        assertNoFullScan(() -> paymentRepository.findAfter(0L, Limit.of(500)));
+        assertNoFullScan(() -> orderRepository.findPricesAfter(0L, Limit.of(500)));
+    }
+
+    @Test
+    void searchQueriesUseIndexes() {
+        assertNoFullScan(() -> searchService.search("order update", null, 0, 20));
+        assertNoFullScan(() -> searchPostingRepository.deleteDocuments(SearchDocumentType.ORDER, List.of(1L)));
+    }
+
+    @Test
+    void statusAndLookupQueriesUseIndexes() {
+        assertNoFullScan(() -> paymentRepository.findByStatus(PaymentStatus.PENDING));
+        assertNoFullScan(() -> paymentRepository.claimOlderThan(PaymentStatus.PENDING.name(), LocalDateTime.now(),
+                LocalDateTime.now().minusDays(60), 0L, 200));
+        assertNoFullScan(() -> paymentRepository.countByStatusAndCreatedAtBefore(PaymentStatus.PENDING, LocalDateTime.now()));
+        assertNoFullScan(() -> taskRepository.findByStatus(TaskStatus.PENDING));
+        assertNoFullScan(() -> taskRepository.findWorkloadRows(TaskDispatchService.OPEN));
+    }
+
+    @Test
+    void taskBoardQueriesUseIndexes() {
+        LocalDate today = LocalDate.now();
+        assertNoFullScan(() -> taskRepository.findResponses(TaskSpecifications.filter(null, null, null)
+                .and(TaskSpecifications.hasStatus(TaskStatus.COMPLETED)), 21));
+        assertNoFullScan(() -> taskRepository.findResponses(TaskSpecifications.filter("Saman", today, today.plusDays(7))
+                .and(TaskSpecifications.hasStatus(TaskStatus.PENDING))
+                .and(TaskSpecifications.after(today, 10L)), 21));
+        assertNoFullScan(() -> taskRepository.countByStatus(TaskSpecifications.filter("Saman", null, null)));
+        assertNoFullScan(() -> userRepository.findByEmail("admin@smartfold.lk"));
+        assertNoFullScan(() -> userRepository.findByRole(UserRole.ADMIN));
+        assertNoFullScan(() -> idempotencyRecordRepository.deleteOlderThan(LocalDateTime.now().minusDays(1)));
+    }
+
+    @Test
+    void pipelineQueriesUseIndexes() {
+        assertNoFullScan(() -> {
+            try (Stream<Object[]> rows = orderRepository.streamPipelineRows(ProductionPipelineService.OPEN)) {
+                rows.count();
+            }
+        });
+        assertNoFullScan(() -> taskRepository.findStageRows(List.of(1L, 2L, 3L)));
+        assertNoFullScan(() -> taskRepository.findStageTasks(List.of(1L, 2L, 3L), TaskDispatchService.OPEN));
+        assertNoFullScan(() -> taskRepository.findIdsByOrderId(1L));
+        assertNoFullScan(() -> taskRepository.countByStage(TaskDispatchService.OPEN));
+    }
+
+    @Test
+    void deadlineAlertLoadsUseIndexes() {
+        assertNoFullScan(() -> taskRepository.findAlertRows(TaskDispatchService.OPEN, LocalDate.now()));
+        assertNoFullScan(() -> orderRepository.findAlertRows(DeadlineAlertService.OPEN_ORDERS, LocalDate.now()));
+        assertNoFullScan(() -> taskRepository.findAlertRowsByIds(List.of(1L, 2L), TaskDispatchService.OPEN));
+        assertNoFullScan(() -> orderRepository.findAlertRowsByIds(List.of(1L, 2L), DeadlineAlertService.OPEN_ORDERS));
+    }
+
+    private void assertNoFullScan(Runnable query) {
+        CapturingStatementInspector.clear();
+        transactionTemplate.executeWithoutResult(status -> {
+            query.run();
+            status.setRollbackOnly();
+        });
+        List<String> statements = CapturingStatementInspector.captured();
+        assertThat(statements).isNotEmpty();
+        for (String sql : statements) {
+            String plan = explain(sql);
+            assertThat(plan.toLowerCase(Locale.ROOT))
+                    .as("plan for %s", sql)
+                    .doesNotContain("tablescan");
+        }
+    }
+
+    private String explain(String sql) {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement("EXPLAIN " + sql)) {
+            int parameters = statement.getParameterMetaData().getParameterCount();
+            for (int i = 1; i <= parameters; i++) {
+                statement.setNull(i, Types.VARCHAR);
+            }
+            StringBuilder plan = new StringBuilder();
+            try (ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) {
+                    plan.append(rs.getString(1)).append('\n');
+                }
+            }
+            return plan.toString();
+        } catch (SQLException ex) {
+            throw new IllegalStateException("EXPLAIN failed for " + sql, ex);
+        }
+    }
+}
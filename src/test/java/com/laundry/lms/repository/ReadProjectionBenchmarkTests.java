@@ -0,0 +1,135 @@
+package com.laundry.lms.repository;
+
+import com.laundry.lms.dto.OrderResponse;
+import com.laundry.lms.dto.PaymentResponse;
+import com.laundry.lms.model.LaundryOrder;
+import com.laundry.lms.model.Payment;
+import com.laundry.lms.model.User;
+import com.laundry.lms.service.OrderImportService;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Latency and allocation per call for entity-then-map reads versus DTO projections.
+ * Run with {@code mvn test -Dbenchmark=true -Dtest=ReadProjectionBenchmarkTests}.
+ */
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ReadProjectionBenchmarkTests {
+
+    private static final int ORDERS = 50_000;
+    private static final int ITERATIONS = 30;
+
+    @Autowired
+    private LaundryOrderRepository orderRepository;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private OrderImportService orderImportService;
+
+    private final List<Long> orderIds = new ArrayList<>();
+    private final List<Long> paymentIds = new ArrayList<>();
+
+    @BeforeAll
+    void seed() {
+        List<User> customers = userRepository.findAll();
+        List<LaundryOrder> orders = new ArrayList<>(ORDERS);
+        for (int i = 0; i < ORDERS; i++) {
+            LaundryOrder order = new LaundryOrder();
+            order.setCustomer(customers.get(i % customers.size()));
+            order.setServiceType("Dry Cleaning");
+            order.setQuantity(2.0);
+            order.setUnit("Items");
+            order.setPrice(BigDecimal.valueOf(1000 + i % 500));
+            order.setNotes("Seeded order " + i + " for the read benchmark");
+            orders.add(order);
+        }
+        orderImportService.saveAll(orders);
+        orders.forEach(order -> orderIds.add(order.getId()));
+
+        List<Payment> payments = new ArrayList<>(ORDERS);
+        for (LaundryOrder order : orders) {
+            Payment payment = new Payment();
+            payment.setOrder(order);
+            payment.setAmount(order.getPrice());
+            payment.setMethod("Card");
+            payments.add(payment);
+        }
+        paymentRepository.saveAll(payments).forEach(payment -> paymentIds.add(payment.getId()));
+    }
+
+    @AfterAll
+    void cleanUp() {
+        paymentRepository.deleteAllByIdInBatch(paymentIds);
+        orderRepository.deleteAllByIdInBatch(orderIds);
+    }
+
+    @Test
+    void orderPage() {
+        Specification<LaundryOrder> spec = LaundryOrderSpecifications.filter(null, null, null, null, null);
+        Sort sort = Sort.by(Sort.Order.desc("createdAt"), Sort.Order.desc("id"));
+
+        Result entities = measure(() -> orderRepository.findBy(spec, query -> query.sortBy(sort).limit(201).all())
+                .stream().map(OrderResponse::from).collect(Collectors.toList()));
+        Result projection = measure(() -> orderRepository.findResponses(spec, 201));
+
+        report("GET /api/orders (201 of " + ORDERS + ")", entities, projection);
+    }
+
+    @Test
+    void paymentList() {
+        Result entities = measure(() -> paymentRepository.findAll().stream()
+                .map(PaymentResponse::from).collect(Collectors.toList()));
+        Result projection = measure(() -> paymentRepository.findAllResponses());
+
+        report("GET /api/payments (" + ORDERS + "+ rows)", entities, projection);
+        assertThat(projection.bytesPerCall()).isLessThan(entities.bytesPerCall());
+    }
+
+    private Result measure(Supplier<List<?>> call) {
+        for (int i = 0; i < 5; i++) {
+            call.get();
+        }
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long thread = Thread.currentThread().getId();
+        long bytesBefore = threads.getThreadAllocatedBytes(thread);
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            call.get();
+        }
+        long elapsed = System.nanoTime() - start;
+        long bytes = threads.getThreadAllocatedBytes(thread) - bytesBefore;
+        return new Result(elapsed / 1e6 / ITERATIONS, bytes / ITERATIONS);
+    }
+
+    private void report(String label, Result entities, Result projection) {
+        System.out.printf("%s: entities %.2f ms/call %,d B/call; projection %.2f ms/call %,d B/call%n",
+                label, entities.millisPerCall(), entities.bytesPerCall(),
+                projection.millisPerCall(), projection.bytesPerCall());
+    }
+
+    private record Result(double millisPerCall, long bytesPerCall) {
+    }
+}
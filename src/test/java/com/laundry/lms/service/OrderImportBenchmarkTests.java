@@ -0,0 +1,100 @@
+package com.laundry.lms.service;
+
+import com.laundry.lms.model.LaundryOrder;
+import com.laundry.lms.model.User;
+import com.laundry.lms.repository.LaundryOrderRepository;
+import com.laundry.lms.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Rows/second for one-order-per-request inserts versus the bulk import path.
+ * Run with {@code mvn test -Dbenchmark=true -Dtest=OrderImportBenchmarkTests}.
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.generate_statistics=false"
+})
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class OrderImportBenchmarkTests {
+
+    private static final int ROWS = 5_000;
+    private static final int ROUNDS = 3;
+
+    @Autowired
+    private LaundryOrderRepository orderRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private OrderImportService orderImportService;
+
+    private final List<Long> createdIds = new ArrayList<>();
+
+    @AfterEach
+    void cleanUp() {
+        orderRepository.deleteAllByIdInBatch(createdIds);
+        createdIds.clear();
+    }
+
+    @Test
+    void compareSingleRowAndBulkInserts() {
+        User customer = userRepository.findByEmail("nimali@smartfold.lk").orElseThrow();
+
+        // Warm up both paths so JIT and connection pool state do not skew the first round.
+        runSingleRow(customer, 500);
+        runBulk(customer, 500);
+
+        double singleBest = 0;
+        double bulkBest = 0;
+        for (int round = 0; round < ROUNDS; round++) {
+            singleBest = Math.max(singleBest, runSingleRow(customer, ROWS));
+            bulkBest = Math.max(bulkBest, runBulk(customer, ROWS));
+        }
+
+        System.out.printf("order inserts, %d rows: single-row %.0f rows/s, bulk %.0f rows/s (%.1fx)%n",
+                ROWS, singleBest, bulkBest, bulkBest / singleBest);
+        assertThat(bulkBest).isGreaterThan(singleBest);
+    }
+
+    private double runSingleRow(User customer, int rows) {
+        long start = System.nanoTime();
+        for (int i = 0; i < rows; i++) {
+            createdIds.add(orderRepository.save(order(customer, i)).getId());
+        }
+        return rows / ((System.nanoTime() - start) / 1e9);
+    }
+
+    private double runBulk(User customer, int rows) {
+        List<LaundryOrder> orders = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            orders.add(order(customer, i));
+        }
+        long start = System.nanoTime();
+        orderImportService.saveAll(orders);
+        double rate = rows / ((System.nanoTime() - start) / 1e9);
+        orders.forEach(order -> createdIds.add(order.getId()));
+        return rate;
+    }
+
+    private LaundryOrder order(User customer, int i) {
+        LaundryOrder order = new LaundryOrder();
+        order.setCustomer(customer);
+        order.setServiceType("Wash & Fold");
+        order.setQuantity(1.0 + (i % 5));
+        order.setUnit("Kg");
+        order.setPrice(BigDecimal.valueOf(500 + i % 1000));
+        order.setNotes("Benchmark order " + i);
+        return order;
+    }
+}
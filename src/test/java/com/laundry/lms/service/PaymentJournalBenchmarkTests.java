@@ -0,0 +1,84 @@
+package com.laundry.lms.service;
+
+import com.laundry.lms.dto.PaymentReplayResponse;
+import com.laundry.lms.model.LaundryOrder;
+import com.laundry.lms.model.Payment;
+import com.laundry.lms.model.PaymentEvent;
+import com.laundry.lms.model.PaymentEventType;
+import com.laundry.lms.model.PaymentStatus;
+import com.laundry.lms.repository.LaundryOrderRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Journal append throughput (events/second, batched) and replay throughput over the result.
+ * Run with {@code mvn test -Dbenchmark=true -Dtest=PaymentJournalBenchmarkTests}.
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.generate_statistics=false"
+})
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class PaymentJournalBenchmarkTests {
+
+    private static final int EVENTS = 50_000;
+    private static final int BATCH = 1_000;
+
+    @Autowired
+    private PaymentJournalService journalService;
+
+    @Autowired
+    private LaundryOrderRepository orderRepository;
+
+    @Test
+    void appendAndReplayThroughput() {
+        List<LaundryOrder> orders = orderRepository.findAll();
+
+        // Warm up the insert path before timing.
+        append(orders, 2_000, 1_000_000L);
+
+        long start = System.nanoTime();
+        append(orders, EVENTS, 2_000_000L);
+        double appendRate = EVENTS / ((System.nanoTime() - start) / 1e9);
+
+        PaymentReplayResponse replay = journalService.replay();
+        double replayRate = replay.getEvents() / Math.max(replay.getElapsedMillis() / 1e3, 1e-3);
+
+        System.out.printf("payment journal: append %.0f events/s, replay %d events in %d ms (%.0f events/s)%n",
+                appendRate, replay.getEvents(), replay.getElapsedMillis(), replayRate);
+        assertThat(replay.getEvents()).isGreaterThanOrEqualTo(EVENTS);
+    }
+
+    // Synthetic payment ids well above real ones; every second event completes the previous payment.
+    private void append(List<LaundryOrder> orders, int count, long firstPaymentId) {
+        List<PaymentEvent> batch = new ArrayList<>(BATCH);
+        for (int i = 0; i < count; i++) {
+            Payment payment = new Payment();
+            payment.setId(firstPaymentId + i / 2);
+            payment.setOrder(orders.get(i % orders.size()));
+            payment.setAmount(BigDecimal.valueOf(100 + i % 900));
+            payment.setMethod(i % 3 == 0 ? "Card" : "Cash");
+            payment.setCreatedAt(LocalDateTime.now());
+            boolean completes = i % 2 == 1;
+            payment.setStatus(completes ? PaymentStatus.COMPLETED : PaymentStatus.PENDING);
+            batch.add(PaymentEvent.of(completes ? PaymentEventType.STATUS_CHANGED : PaymentEventType.CREATED,
+                    payment, completes ? PaymentStatus.PENDING : null));
+            if (batch.size() == BATCH) {
+                journalService.appendAll(batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            journalService.appendAll(batch);
+        }
+    }
+}
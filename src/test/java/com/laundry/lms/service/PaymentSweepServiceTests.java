@@ -0,0 +1,98 @@
+package com.laundry.lms.service;
+
+import com.laundry.lms.model.LaundryOrder;
+import com.laundry.lms.model.Payment;
+import com.laundry.lms.model.PaymentEvent;
+import com.laundry.lms.model.PaymentEventType;
+import com.laundry.lms.model.PaymentStatus;
+import com.laundry.lms.repository.LaundryOrderRepository;
+import com.laundry.lms.repository.PaymentEventRepository;
+import com.laundry.lms.repository.PaymentRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class PaymentSweepServiceTests {
+
+    @Autowired
+    private PaymentService paymentService;
+
+    @Autowired
+    private PaymentSweepService sweepService;
+
+    @Autowired
+    private PaymentReconciliationService reconciliationService;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private PaymentEventRepository paymentEventRepository;
+
+    @Autowired
+    private LaundryOrderRepository orderRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void parallelSweepersExpireEachStalePaymentOnce() {
+        List<LaundryOrder> orders = orderRepository.findAll();
+        List<Long> stale = new ArrayList<>();
+        for (int i = 0; i < 60; i++) {
+            stale.add(create(orders.get(i % orders.size()), PaymentStatus.PENDING).getId());
+        }
+        Long fresh = create(orders.get(0), PaymentStatus.PENDING).getId();
+        Long completed = create(orders.get(0), PaymentStatus.COMPLETED).getId();
+        jdbcTemplate.update("update payments set created_at = ? where id in (" + joined(stale) + ", " + completed + ")",
+                LocalDateTime.now().minusDays(90));
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(30);
+
+        // Two sweepers with small batches stand in for two application instances.
+        PaymentSweepService first = new PaymentSweepService(paymentService, paymentRepository, Duration.ofDays(30), 7);
+        PaymentSweepService second = new PaymentSweepService(paymentService, paymentRepository, Duration.ofDays(30), 7);
+        CompletableFuture<Integer> a = CompletableFuture.supplyAsync(() -> first.sweepOlderThan(cutoff));
+        CompletableFuture<Integer> b = CompletableFuture.supplyAsync(() -> second.sweepOlderThan(cutoff));
+
+        assertThat(a.join() + b.join()).isEqualTo(stale.size());
+        for (Long id : stale) {
+            assertThat(paymentRepository.findById(id).orElseThrow().getStatus()).isEqualTo(PaymentStatus.EXPIRED);
+            List<PaymentEvent> expiries = paymentEventRepository.findByPaymentIdOrderByVersionAscIdAsc(id).stream()
+                    .filter(event -> event.getType() == PaymentEventType.STATUS_CHANGED)
+                    .toList();
+            assertThat(expiries).singleElement()
+                    .satisfies(event -> assertThat(event.getStatus()).isEqualTo(PaymentStatus.EXPIRED));
+        }
+        assertThat(paymentRepository.findById(fresh).orElseThrow().getStatus()).isEqualTo(PaymentStatus.PENDING);
+        assertThat(paymentRepository.findById(completed).orElseThrow().getStatus()).isEqualTo(PaymentStatus.COMPLETED);
+        assertThat(first.stats().getBatches() + second.stats().getBatches()).isGreaterThanOrEqualTo(60 / 7);
+        assertThat(reconciliationService.reconcile()).isZero();
+
+        assertThat(sweepService.sweepOlderThan(cutoff)).isZero();
+        assertThat(sweepService.stats().getRemaining()).isZero();
+    }
+
+    private Payment create(LaundryOrder order, PaymentStatus status) {
+        Payment payment = new Payment();
+        payment.setOrder(order);
+        payment.setAmount(new BigDecimal("25.00"));
+        payment.setMethod("Cash");
+        payment.setStatus(status);
+        return paymentService.create(payment);
+    }
+
+    private String joined(List<Long> ids) {
+        return String.join(",", ids.stream().map(String::valueOf).toList());
+    }
+}
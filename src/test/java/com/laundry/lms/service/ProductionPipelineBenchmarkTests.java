@@ -0,0 +1,110 @@
+package com.laundry.lms.service;
+
+import com.laundry.lms.dto.PipelineForecastResponse;
+import com.laundry.lms.model.LaundryOrder;
+import com.laundry.lms.model.OrderStatus;
+import com.laundry.lms.model.ProductionStage;
+import com.laundry.lms.model.User;
+import com.laundry.lms.repository.LaundryOrderRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Stage expansion and forecast over tens of thousands of open orders, plus the bare simulator on a
+ * larger synthetic load. Run with {@code mvn test -Dbenchmark=true -Dtest=ProductionPipelineBenchmarkTests}.
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.generate_statistics=false"
+})
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class ProductionPipelineBenchmarkTests {
+
+    private static final int ORDERS = 30_000;
+    private static final int SIMULATED_JOBS = 200_000;
+    private static final List<String> SERVICES = List.of("Wash & Fold", "Dry Cleaning", "Ironing", "Bedding", "Express");
+
+    @Autowired
+    private ProductionPipelineService pipelineService;
+
+    @Autowired
+    private OrderImportService orderImportService;
+
+    @Autowired
+    private LaundryOrderRepository orderRepository;
+
+    @Test
+    void expandAndForecastOpenOrders() {
+        List<User> customers = orderRepository.findAll().stream().map(LaundryOrder::getCustomer).distinct().toList();
+        Random random = new Random(24);
+        List<LaundryOrder> orders = new ArrayList<>(ORDERS);
+        for (int i = 0; i < ORDERS; i++) {
+            LaundryOrder order = new LaundryOrder();
+            order.setCustomer(customers.get(i % customers.size()));
+            order.setServiceType(SERVICES.get(random.nextInt(SERVICES.size())));
+            order.setQuantity(1.0 + random.nextInt(8));
+            order.setUnit("Kg");
+            order.setPrice(BigDecimal.valueOf(500 + random.nextInt(3000)));
+            order.setDeliveryDate(LocalDate.now().plusDays(1 + random.nextInt(14)));
+            order.setStatus(OrderStatus.PENDING);
+            orders.add(order);
+        }
+        orderImportService.saveAll(orders);
+
+        long start = System.nanoTime();
+        int created = pipelineService.expandOpenOrders();
+        double expandSeconds = (System.nanoTime() - start) / 1e9;
+
+        PipelineForecastResponse forecast = pipelineService.forecast(20);
+
+        System.out.printf("pipeline: expanded %d stage tasks in %.1f s (%.0f tasks/s); forecast of %d orders "
+                        + "took %d ms (%d events, %d late, makespan %d min)%n",
+                created, expandSeconds, created / expandSeconds, forecast.getOrders(), forecast.getElapsedMillis(),
+                forecast.getSimulatedEvents(), forecast.getLateOrders(), forecast.getMakespanMinutes());
+        forecast.getStages().forEach(stage -> System.out.printf(
+                "  %-5s servers=%d throughput=%.1f/h utilization=%.2f avgQueue=%.1f maxQueue=%d avgWait=%.0f min%n",
+                stage.getStage(), stage.getServers(), stage.getThroughputPerHour(), stage.getUtilization(),
+                stage.getAverageQueueLength(), stage.getMaxQueueLength(), stage.getAverageWaitMinutes()));
+        assertThat(forecast.getOrders()).isGreaterThanOrEqualTo(ORDERS);
+    }
+
+    @Test
+    void simulatorThroughput() {
+        Map<ProductionStage, Integer> servers = new EnumMap<>(ProductionStage.class);
+        for (ProductionStage stage : ProductionStage.values()) {
+            servers.put(stage, 4);
+        }
+        ProductionSimulator simulator = new ProductionSimulator(servers);
+        Random random = new Random(24);
+        List<ProductionSimulator.Job> jobs = new ArrayList<>(SIMULATED_JOBS);
+        for (int i = 0; i < SIMULATED_JOBS; i++) {
+            double quantity = 1.0 + random.nextInt(8);
+            List<ProductionSimulator.Step> steps = new ArrayList<>();
+            for (ProductionStage stage : ProductionStage.routeFor(SERVICES.get(random.nextInt(SERVICES.size())))) {
+                steps.add(new ProductionSimulator.Step(stage, stage.minutesFor(quantity)));
+            }
+            jobs.add(new ProductionSimulator.Job(random.nextInt(20_000), steps));
+        }
+
+        simulator.run(jobs.subList(0, 20_000));
+        long start = System.nanoTime();
+        ProductionSimulator.Result result = simulator.run(jobs);
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        System.out.printf("simulator: %d jobs, %d events in %.0f ms (%.0f events/s)%n",
+                SIMULATED_JOBS, result.events(), seconds * 1e3, result.events() / seconds);
+        assertThat(result.completions()).hasSize(SIMULATED_JOBS);
+    }
+}
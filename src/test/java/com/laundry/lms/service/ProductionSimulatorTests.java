@@ -0,0 +1,79 @@
+package com.laundry.lms.service;
+
+import com.laundry.lms.model.ProductionStage;
+import org.junit.jupiter.api.Test;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ProductionSimulatorTests {
+
+    @Test
+    void freedServerGoesToEarliestDueJob() {
+        ProductionSimulator simulator = new ProductionSimulator(servers(1, 1, 1, 1));
+
+        ProductionSimulator.Result result = simulator.run(List.of(
+                job(100, ProductionStage.WASH, 10),
+                job(5, ProductionStage.WASH, 10),
+                job(50, ProductionStage.WASH, 10)));
+
+        assertThat(result.completions()).containsExactly(10, 20, 30);
+        assertThat(result.makespan()).isEqualTo(30);
+        ProductionSimulator.StageResult wash = result.stages().get(ProductionStage.WASH.ordinal());
+        assertThat(wash.completed()).isEqualTo(3);
+        assertThat(wash.utilization(result.makespan())).isEqualTo(1.0);
+        assertThat(wash.maxQueue()).isEqualTo(2);
+        // Two waiting for the first 10 minutes, one for the next 10.
+        assertThat(wash.averageQueueLength(result.makespan())).isEqualTo(1.0);
+        assertThat(wash.averageWait()).isEqualTo(10.0);
+        assertThat(wash.maxWait()).isEqualTo(20);
+        assertThat(wash.throughputPerHour(result.makespan())).isEqualTo(6.0);
+    }
+
+    @Test
+    void jobsQueueAtTheNarrowestStage() {
+        ProductionSimulator simulator = new ProductionSimulator(servers(2, 1, 1, 1));
+        List<ProductionSimulator.Step> route = List.of(
+                new ProductionSimulator.Step(ProductionStage.WASH, 10),
+                new ProductionSimulator.Step(ProductionStage.DRY, 5));
+
+        ProductionSimulator.Result result = simulator.run(List.of(
+                new ProductionSimulator.Job(60, route),
+                new ProductionSimulator.Job(30, route),
+                new ProductionSimulator.Job(0, List.of())));
+
+        // Both wash in parallel and reach the single dryer together, so one of them waits for it.
+        assertThat(result.completions()).containsExactly(15, 20, 0);
+        assertThat(result.events()).isEqualTo(8);
+        ProductionSimulator.StageResult wash = result.stages().get(ProductionStage.WASH.ordinal());
+        ProductionSimulator.StageResult dry = result.stages().get(ProductionStage.DRY.ordinal());
+        assertThat(wash.maxQueue()).isZero();
+        assertThat(wash.utilization(result.makespan())).isEqualTo(0.5);
+        assertThat(dry.maxQueue()).isEqualTo(1);
+        assertThat(dry.totalWait()).isEqualTo(5);
+        assertThat(result.stages().get(ProductionStage.PACK.ordinal()).completed()).isZero();
+    }
+
+    @Test
+    void everyStageNeedsAServer() {
+        assertThatThrownBy(() -> new ProductionSimulator(servers(1, 0, 1, 1)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static ProductionSimulator.Job job(long dueAt, ProductionStage stage, long minutes) {
+        return new ProductionSimulator.Job(dueAt, List.of(new ProductionSimulator.Step(stage, minutes)));
+    }
+
+    private static Map<ProductionStage, Integer> servers(int wash, int dry, int iron, int pack) {
+        Map<ProductionStage, Integer> servers = new EnumMap<>(ProductionStage.class);
+        servers.put(ProductionStage.WASH, wash);
+        servers.put(ProductionStage.DRY, dry);
+        servers.put(ProductionStage.IRON, iron);
+        servers.put(ProductionStage.PACK, pack);
+        return servers;
+    }
+}
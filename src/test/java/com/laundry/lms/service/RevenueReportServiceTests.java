@@ -0,0 +1,177 @@
+package com.laundry.lms.service;
+
+import com.laundry.lms.dto.RevenueBucketResponse;
+import com.laundry.lms.dto.RevenueReportResponse;
+import com.laundry.lms.model.LaundryOrder;
+import com.laundry.lms.model.Payment;
+import com.laundry.lms.model.PaymentStatus;
+import com.laundry.lms.model.RevenueKey;
+import com.laundry.lms.model.RevenueRollup;
+import com.laundry.lms.repository.LaundryOrderRepository;
+import com.laundry.lms.repository.PaymentRepository;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "lms.reports.backfill.chunk-size=3",
+        "spring.datasource.hikari.connection-timeout=5000"
+})
+@AutoConfigureMockMvc
+class RevenueReportServiceTests {
+
+    private static final LocalDate FROM = LocalDate.now().minusYears(1);
+    private static final LocalDate TO = LocalDate.now().plusDays(1);
+
+    @Autowired
+    private RevenueReportService revenueReportService;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private LaundryOrderRepository orderRepository;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private RebuildFence rebuildFence;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void chunkedRebuildMatchesThePaymentsTable() {
+        revenueReportService.rebuild();
+
+        RevenueReportResponse report = revenueReportService.report(RevenueReportService.Granularity.MONTH, FROM, TO);
+
+        BigDecimal expected = paymentRepository.findByStatus(PaymentStatus.COMPLETED).stream()
+                .map(Payment::getAmount)
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        assertThat(report.getTotalAmount()).isEqualByComparingTo(expected);
+        assertThat(report.getBuckets()).allSatisfy(bucket ->
+                assertThat(bucket.getPeriodStart().getDayOfMonth()).isEqualTo(1));
+    }
+
+    @Test
+    void lateCompletedPaymentInvalidatesCachedReports() throws Exception {
+        LaundryOrder order = orderRepository.findAll().get(0);
+        LocalDate lastMonth = LocalDate.now().minusDays(40);
+        RevenueReportResponse before = revenueReportService.report(RevenueReportService.Granularity.WEEK, FROM, TO);
+
+        mockMvc.perform(post("/api/payments")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"orderId\":" + order.getId() + ",\"amount\":250.00,\"method\":\"Transfer\"," +
+                        "\"status\":\"COMPLETED\",\"paidAt\":\"" + lastMonth + "T10:00:00\"}"));
+
+        RevenueReportResponse after = revenueReportService.report(RevenueReportService.Granularity.WEEK, FROM, TO);
+        assertThat(after.getTotalAmount()).isEqualByComparingTo(before.getTotalAmount().add(new BigDecimal("250")));
+        RevenueBucketResponse bucket = after.getBuckets().stream()
+                .filter(b -> b.getMethod().equals("Transfer"))
+                .findFirst()
+                .orElseThrow();
+        assertThat(bucket.getPeriodStart().getDayOfWeek()).isEqualTo(DayOfWeek.MONDAY);
+        assertThat(bucket.getServiceType()).isEqualTo(order.getServiceType());
+        assertThat(bucket.getPeriodStart()).isBetween(lastMonth.minusDays(6), lastMonth);
+
+        RevenueReportResponse unrelated = revenueReportService.report(RevenueReportService.Granularity.DAY,
+                LocalDate.now(), LocalDate.now());
+        assertThat(unrelated.getBuckets()).noneMatch(b -> b.getMethod().equals("Transfer"));
+    }
+
+    @Test
+    void rebuildRacingPaymentsCountsEachPaymentOnce() throws Exception {
+        LaundryOrder order = orderRepository.findAll().get(0);
+        ExecutorService pool = Executors.newSingleThreadExecutor();
+        try {
+            Future<?> rebuilds = pool.submit(() -> {
+                for (int i = 0; i < 10; i++) {
+                    revenueReportService.rebuild();
+                }
+            });
+            for (int i = 0; i < 20; i++) {
+                mockMvc.perform(post("/api/payments")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content("{\"orderId\":" + order.getId() + ",\"amount\":40.00,\"method\":\"Cash\"," +
+                                        "\"status\":\"COMPLETED\"}"))
+                        .andExpect(status().isCreated());
+            }
+            rebuilds.get(60, TimeUnit.SECONDS);
+        } finally {
+            pool.shutdown();
+        }
+
+        // A generation bump on every write keeps a report computed mid-race out of the cache.
+        RevenueReportResponse report = revenueReportService.report(RevenueReportService.Granularity.MONTH, FROM, TO);
+        BigDecimal expected = paymentRepository.findByStatus(PaymentStatus.COMPLETED).stream()
+                .map(Payment::getAmount)
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        assertThat(report.getTotalAmount()).isEqualByComparingTo(expected);
+    }
+
+    @Test
+    void rebuildChunksDoNotWaitForApplicationConnections() throws Exception {
+        // Payment writers queued behind the rebuild's fence hold their connections; leave the rebuild just one.
+        HikariDataSource pool = dataSource.unwrap(HikariDataSource.class);
+        List<Connection> held = new ArrayList<>();
+        try {
+            while (held.size() < pool.getMaximumPoolSize() - 1) {
+                held.add(pool.getConnection());
+            }
+            assertThat(revenueReportService.rebuild()).isPositive();
+        } finally {
+            for (Connection connection : held) {
+                connection.close();
+            }
+        }
+    }
+
+    @Test
+    void replacedRowsDropCachedReportsOnlyOnceTheyCommit() {
+        LocalDate day = FROM.minusDays(10);
+        RevenueReportService.Granularity daily = RevenueReportService.Granularity.DAY;
+        assertThat(revenueReportService.report(daily, day, day).getTotalAmount()).isZero();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            rebuildFence.exclusive(RebuildFence.PAYMENTS);
+            revenueReportService.replaceAll(List.of(
+                    new RevenueRollup(new RevenueKey(day, "Ironing", "Cash"), new BigDecimal("75.00"), 1)));
+            // Another request still sees the old rows until this commits, and caches what it saw.
+            CompletableFuture.runAsync(() -> revenueReportService.report(daily, day, day)).join();
+        });
+
+        try {
+            assertThat(revenueReportService.report(daily, day, day).getTotalAmount())
+                    .isEqualByComparingTo(new BigDecimal("75.00"));
+        } finally {
+            revenueReportService.rebuild();
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package com.laundry.lms.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.laundry.lms.model.User;
+import com.laundry.lms.model.UserRole;
+import com.laundry.lms.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class SearchServiceTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private SearchService searchService;
+
+    @Autowired
+    private RebuildFence rebuildFence;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void tokenizeLowercasesAndDropsStopWords() {
+        assertThat(SearchService.tokenize("The RED silk-dress, is it ready?"))
+                .containsExactly("red", "silk", "dress", "ready");
+    }
+
+    @Test
+    void newMessagesAndOrderNotesAreSearchableAndRanked() throws Exception {
+        User admin = userRepository.findByRole(UserRole.ADMIN).get(0);
+        User customer = userRepository.findByRole(UserRole.USER).get(0);
+
+        long messageId = postId("/api/messages", "{\"fromUserId\":" + customer.getId() + ",\"toUserId\":" + admin.getId()
+                + ",\"body\":\"Please take extra care with my red silk dress, the silk is delicate\"}");
+        long orderId = postId("/api/orders", "{\"customerId\":" + customer.getId() + ",\"serviceType\":\"Dry Cleaning\","
+                + "\"quantity\":1,\"unit\":\"Items\",\"price\":900,\"pickupDate\":\"" + LocalDate.now() + "\","
+                + "\"notes\":\"Silk dress, red wine stain on the hem\"}");
+
+        JsonNode hits = search("silk dress").get("hits");
+        assertThat(hits).hasSize(2);
+        assertThat(hits.get(0).get("id").asLong()).isEqualTo(messageId);
+        assertThat(hits.get(0).get("type").asText()).isEqualTo("MESSAGE");
+        assertThat(hits.get(1).get("order").get("id").asLong()).isEqualTo(orderId);
+
+        assertThat(search("silk dress&type=order").get("hits")).hasSize(1);
+        assertThat(search("silk wool").get("hits")).isEmpty();
+
+        mockMvc.perform(delete("/api/orders/" + orderId));
+        assertThat(search("wine stain").get("hits")).isEmpty();
+    }
+
+    @Test
+    void failedIndexWriteDoesNotFailTheSaveAndIsRepaired() throws Exception {
+        User customer = userRepository.findByRole(UserRole.USER).get(0);
+        // Without its fence row every index write fails.
+        jdbcTemplate.update("delete from rebuild_locks where name = ?", RebuildFence.SEARCH);
+        MockHttpServletResponse created;
+        try {
+            created = mockMvc.perform(post("/api/orders").contentType(MediaType.APPLICATION_JSON)
+                    .content("{\"customerId\":" + customer.getId() + ",\"serviceType\":\"Ironing\",\"quantity\":1,"
+                            + "\"unit\":\"Items\",\"price\":600,\"notes\":\"Starch the linen tablecloth\"}"))
+                    .andReturn().getResponse();
+            assertThat(created.getStatus()).isEqualTo(201);
+            assertThat(searchService.pendingRepairs()).isPositive();
+            assertThat(search("linen tablecloth").get("hits")).isEmpty();
+        } finally {
+            rebuildFence.createLocks();
+        }
+
+        assertThat(searchService.repair()).isPositive();
+        assertThat(searchService.pendingRepairs()).isZero();
+        JsonNode hits = search("linen tablecloth").get("hits");
+        assertThat(hits).hasSize(1);
+        assertThat(hits.get(0).get("order").get("id").asLong())
+                .isEqualTo(objectMapper.readTree(created.getContentAsString()).get("id").asLong());
+    }
+
+    @Test
+    void rebuildRacingWritesKeepsEveryDocumentOnce() throws Exception {
+        User admin = userRepository.findByRole(UserRole.ADMIN).get(0);
+        User customer = userRepository.findByRole(UserRole.USER).get(0);
+        ExecutorService pool = Executors.newSingleThreadExecutor();
+        try {
+            Future<?> rebuilds = pool.submit(() -> {
+                for (int i = 0; i < 5; i++) {
+                    searchService.rebuild();
+                }
+            });
+            for (int i = 0; i < 20; i++) {
+                postId("/api/messages", "{\"fromUserId\":" + customer.getId() + ",\"toUserId\":" + admin.getId()
+                        + ",\"body\":\"Velvet curtains batch\"}");
+            }
+            rebuilds.get(60, TimeUnit.SECONDS);
+        } finally {
+            pool.shutdown();
+        }
+
+        assertThat(searchService.pendingRepairs()).isZero();
+        assertThat(search("velvet curtains&size=50").get("hits")).hasSize(20);
+    }
+
+    @Test
+    void blankQueryIsRejected() throws Exception {
+        assertThat(mockMvc.perform(get("/api/search").param("q", " ")).andReturn().getResponse().getStatus())
+                .isEqualTo(400);
+    }
+
+    private long postId(String url, String body) throws Exception {
+        String response = mockMvc.perform(post(url).contentType(MediaType.APPLICATION_JSON).content(body))
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(response).get("id").asLong();
+    }
+
+    private JsonNode search(String query) throws Exception {
+        String response = mockMvc.perform(get("/api/search?q=" + query)).andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(response);
+    }
+}
@@ -0,0 +1,101 @@
+package com.laundry.lms.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TimingWheelTests {
+
+    private static final long START = 29_000_000L;
+
+    @Test
+    void entriesFireOnTheirExactTickAtEveryLevel() {
+        TimingWheel<String, Long> wheel = new TimingWheel<>(START, 100);
+        long[] offsets = {0, 1, 63, 64, 65, 4_095, 4_096, 262_143, 262_144, 5_000_000, (1L << 24) + 5};
+        for (long offset : offsets) {
+            wheel.schedule("t" + offset, START + offset, START + offset);
+        }
+
+        for (long offset : offsets) {
+            long tick = START + offset;
+            assertThat(wheel.advanceTo(tick - 1)).as("before %d", offset).doesNotContain(tick);
+            assertThat(wheel.advanceTo(tick)).as("at %d", offset).containsExactly(tick);
+        }
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    void rescheduleMovesAndCancelRemoves() {
+        TimingWheel<String, String> wheel = new TimingWheel<>(START, 100);
+        wheel.schedule("moved", "moved", START + 100);
+        wheel.schedule("moved", "moved", START + 5_000);
+        wheel.schedule("cancelled", "cancelled", START + 100);
+        assertThat(wheel.cancel("cancelled")).isTrue();
+        assertThat(wheel.cancel("cancelled")).isFalse();
+
+        assertThat(wheel.advanceTo(START + 4_999)).isEmpty();
+        assertThat(wheel.advanceTo(START + 5_000)).containsExactly("moved");
+    }
+
+    @Test
+    void pastTicksFireOnTheNextAdvance() {
+        TimingWheel<String, String> wheel = new TimingWheel<>(START, 100);
+        wheel.advanceTo(START + 10);
+        wheel.schedule("late", "late", START);
+
+        assertThat(wheel.advanceTo(START + 11)).containsExactly("late");
+    }
+
+    @Test
+    void newKeysAreRefusedAtCapacity() {
+        TimingWheel<String, String> wheel = new TimingWheel<>(START, 2);
+        assertThat(wheel.schedule("a", "a", START + 1)).isTrue();
+        assertThat(wheel.schedule("b", "b", START + 2)).isTrue();
+
+        assertThat(wheel.schedule("c", "c", START + 3)).isFalse();
+        assertThat(wheel.schedule("a", "a", START + 4)).isTrue();
+        assertThat(wheel.size()).isEqualTo(2);
+    }
+
+    @Test
+    void randomScheduleMatchesExpectedTicks() {
+        TimingWheel<Integer, Integer> wheel = new TimingWheel<>(START, 20_000);
+        Random random = new Random(25);
+        Map<Integer, Long> expected = new HashMap<>();
+        for (int key = 0; key < 10_000; key++) {
+            long tick = START + random.nextInt(300_000);
+            wheel.schedule(key, key, tick);
+            expected.put(key, tick);
+            if (random.nextInt(10) == 0) {
+                int other = random.nextInt(key + 1);
+                if (random.nextBoolean()) {
+                    wheel.cancel(other);
+                    expected.remove(other);
+                } else if (expected.containsKey(other)) {
+                    long moved = START + random.nextInt(300_000);
+                    wheel.schedule(other, other, moved);
+                    expected.put(other, moved);
+                }
+            }
+        }
+
+        long previous = START - 1;
+        int seen = 0;
+        while (previous < START + 300_000) {
+            long next = previous + 1 + random.nextInt(5_000);
+            List<Integer> due = wheel.advanceTo(next);
+            for (Integer key : due) {
+                assertThat(expected.get(key)).as("key %d", key).isGreaterThan(previous).isLessThanOrEqualTo(next);
+            }
+            seen += due.size();
+            previous = next;
+        }
+        assertThat(seen).isEqualTo(expected.size());
+        assertThat(wheel.size()).isZero();
+    }
+}